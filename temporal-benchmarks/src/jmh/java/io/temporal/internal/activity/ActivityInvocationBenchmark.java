@@ -0,0 +1,98 @@
+package io.temporal.internal.activity;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.internal.common.MethodInvoker;
+import io.temporal.testing.TestActivityEnvironment;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the cost of dispatching a call to a tiny activity that does almost no work, so the
+ * results are dominated by the SDK overhead.
+ *
+ * <p>{@code direct}, {@code reflection} and {@code methodInvoker} compare a plain interface call
+ * with {@link Method#invoke(Object, Object...)} and {@link MethodInvoker} used by the activity
+ * worker. {@code activityEnvironment} executes the activity through {@link
+ * TestActivityEnvironment}, which includes the conversion of arguments and results, interceptors
+ * and the activity execution context.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityInvocationBenchmark {
+
+  private TinyActivity activity;
+  private Method method;
+  private MethodInvoker invoker;
+  private TestActivityEnvironment testEnvironment;
+  private TinyActivity activityStub;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    activity = new TinyActivityImpl();
+    method = TinyActivity.class.getMethod("add", int.class, int.class);
+    invoker = MethodInvoker.of(method);
+
+    testEnvironment = TestActivityEnvironment.newInstance();
+    testEnvironment.registerActivitiesImplementations(activity);
+    activityStub =
+        testEnvironment.newActivityStub(
+            TinyActivity.class,
+            ActivityOptions.newBuilder().setStartToCloseTimeout(Duration.ofMinutes(1)).build());
+  }
+
+  @TearDown
+  public void tearDown() {
+    testEnvironment.close();
+  }
+
+  @State(Scope.Thread)
+  public static class Arguments {
+    private int counter;
+
+    Object[] next() {
+      counter++;
+      return new Object[] {counter, 1};
+    }
+  }
+
+  @Benchmark
+  public int direct(Arguments arguments) {
+    Object[] args = arguments.next();
+    return activity.add((Integer) args[0], (Integer) args[1]);
+  }
+
+  @Benchmark
+  public Object reflection(Arguments arguments) throws Exception {
+    return method.invoke(activity, arguments.next());
+  }
+
+  @Benchmark
+  public Object methodInvoker(Arguments arguments) throws Throwable {
+    return invoker.invoke(activity, arguments.next());
+  }
+
+  @Benchmark
+  public int activityEnvironment(Arguments arguments) {
+    Object[] args = arguments.next();
+    return activityStub.add((Integer) args[0], (Integer) args[1]);
+  }
+
+  @ActivityInterface
+  public interface TinyActivity {
+    int add(int a, int b);
+  }
+
+  public static class TinyActivityImpl implements TinyActivity {
+    @Override
+    public int add(int a, int b) {
+      return a + b;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package io.temporal.internal.replay;
+
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures full replays of recorded workflow histories through {@link WorkflowReplayer}, which
+ * exercises {@code ReplayWorkflowTaskHandler}, {@code ReplayWorkflowRunTaskHandler}, {@code
+ * WFTBuffer} and {@code WorkflowStateMachines} in the same way as a worker that lost its cached
+ * state.
+ *
+ * <p>The primary score is replays per second. The {@code events} secondary score is the number of
+ * replayed history events per second, so its ratio to the primary score is the size of the
+ * replayed history. Run with {@code -prof gc} (enabled by default in the module build) to get the
+ * allocation rate and GC counts, {@code gc.alloc.rate.norm} divided by the history size is the
+ * allocation per event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+  @Param({"TIMERS", "ACTIVITIES", "SIGNAL_FAN_IN", "VERSIONS_AND_SIDE_EFFECTS"})
+  public ReplayScenarios.Scenario scenario;
+
+  /**
+   * Number of timers, activities, signals or version / side effect pairs in the history, 0 uses
+   * the default size of the scenario
+   */
+  @Param({"0"})
+  public int size;
+
+  private WorkflowExecutionHistory history;
+  private TestWorkflowEnvironment replayEnv;
+  private Worker worker;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    history = ReplayScenarios.record(scenario, size > 0 ? size : scenario.getDefaultSize());
+    // A separate environment that is never started, so no pollers compete with the replay
+    replayEnv = TestWorkflowEnvironment.newInstance();
+    worker = replayEnv.newWorker(ReplayScenarios.TASK_QUEUE);
+    worker.registerWorkflowImplementationTypes(scenario.getWorkflowImplementation());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    replayEnv.close();
+  }
+
+  @Benchmark
+  public void replay(EventCounter counter) throws Exception {
+    WorkflowReplayer.replayWorkflowExecution(history, worker);
+    counter.events += counter.historySize;
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class EventCounter {
+    /** Number of replayed history events */
+    public long events;
+
+    // not public to stay out of the reported counters
+    int historySize;
+
+    @Setup(Level.Iteration)
+    public void setUp(ReplayBenchmark benchmark) {
+      events = 0;
+      historySize = benchmark.history.getEvents().size();
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package io.temporal.internal.replay;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.workflow.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Workflows which histories are replayed by {@link ReplayBenchmark}. Each scenario stresses a
+ * different part of the workflow state machines. The histories are recorded by running the
+ * workflows against the in-memory test server, so they are exactly what a real worker would
+ * produce and replay.
+ */
+final class ReplayScenarios {
+  static final String TASK_QUEUE = "replay-benchmark";
+
+  /** Number of commands issued by the workflows before they wait for the results */
+  private static final int BATCH_SIZE = 1000;
+
+  private ReplayScenarios() {}
+
+  enum Scenario {
+    /** Timers started in batches */
+    TIMERS(TimersWorkflowImpl.class, 10_000),
+    /** Activities scheduled in batches */
+    ACTIVITIES(ActivitiesWorkflowImpl.class, 50_000),
+    /** Signals delivered to a single workflow waiting for all of them */
+    SIGNAL_FAN_IN(SignalFanInWorkflowImpl.class, 10_000),
+    /** Interleaved version markers and side effects with a timer once per batch */
+    VERSIONS_AND_SIDE_EFFECTS(VersionsAndSideEffectsWorkflowImpl.class, 10_000);
+
+    private final Class<?> workflowImplementation;
+    private final int defaultSize;
+
+    Scenario(Class<?> workflowImplementation, int defaultSize) {
+      this.workflowImplementation = workflowImplementation;
+      this.defaultSize = defaultSize;
+    }
+
+    Class<?> getWorkflowImplementation() {
+      return workflowImplementation;
+    }
+
+    int getDefaultSize() {
+      return defaultSize;
+    }
+  }
+
+  /**
+   * Runs the workflow of the scenario to completion and returns its history.
+   *
+   * @param size number of timers, activities, signals or version / side effect pairs
+   */
+  static WorkflowExecutionHistory record(Scenario scenario, int size) {
+    try (TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance()) {
+      Worker worker = testEnv.newWorker(TASK_QUEUE);
+      worker.registerWorkflowImplementationTypes(scenario.getWorkflowImplementation());
+      worker.registerActivitiesImplementations(new NoopActivityImpl());
+      testEnv.start();
+
+      WorkflowClient client = testEnv.getWorkflowClient();
+      String workflowId = "replay-benchmark-" + scenario.name().toLowerCase();
+      WorkflowOptions options =
+          WorkflowOptions.newBuilder().setWorkflowId(workflowId).setTaskQueue(TASK_QUEUE).build();
+      if (scenario == Scenario.SIGNAL_FAN_IN) {
+        SignalFanInWorkflow signaled = client.newWorkflowStub(SignalFanInWorkflow.class, options);
+        WorkflowClient.start(signaled::execute, size);
+        for (int i = 0; i < size; i++) {
+          signaled.signal(i);
+        }
+        WorkflowStub.fromTyped(signaled).getResult(Long.class);
+      } else {
+        BenchmarkWorkflow workflow = client.newWorkflowStub(BenchmarkWorkflow.class, options);
+        workflow.execute(size);
+      }
+      return client.fetchHistory(workflowId);
+    }
+  }
+
+  @WorkflowInterface
+  public interface BenchmarkWorkflow {
+    @WorkflowMethod
+    long execute(int size);
+  }
+
+  @WorkflowInterface
+  public interface SignalFanInWorkflow {
+    @WorkflowMethod
+    long execute(int expectedSignals);
+
+    @SignalMethod
+    void signal(int value);
+  }
+
+  @ActivityInterface
+  public interface NoopActivity {
+    int noop(int value);
+  }
+
+  public static class NoopActivityImpl implements NoopActivity {
+    @Override
+    public int noop(int value) {
+      return value;
+    }
+  }
+
+  public static class TimersWorkflowImpl implements BenchmarkWorkflow {
+    @Override
+    public long execute(int size) {
+      for (int started = 0; started < size; started += BATCH_SIZE) {
+        List<Promise<Void>> timers = new ArrayList<>();
+        for (int i = started; i < Math.min(size, started + BATCH_SIZE); i++) {
+          timers.add(Workflow.newTimer(Duration.ofSeconds(1 + i % 10)));
+        }
+        Promise.allOf(timers).get();
+      }
+      return size;
+    }
+  }
+
+  public static class ActivitiesWorkflowImpl implements BenchmarkWorkflow {
+    private final NoopActivity activity =
+        Workflow.newActivityStub(
+            NoopActivity.class,
+            ActivityOptions.newBuilder().setStartToCloseTimeout(Duration.ofMinutes(1)).build());
+
+    @Override
+    public long execute(int size) {
+      long sum = 0;
+      for (int started = 0; started < size; started += BATCH_SIZE) {
+        List<Promise<Integer>> results = new ArrayList<>();
+        for (int i = started; i < Math.min(size, started + BATCH_SIZE); i++) {
+          results.add(Async.function(activity::noop, i));
+        }
+        for (Promise<Integer> result : results) {
+          sum += result.get();
+        }
+      }
+      return sum;
+    }
+  }
+
+  public static class SignalFanInWorkflowImpl implements SignalFanInWorkflow {
+    private int received;
+    private long sum;
+
+    @Override
+    public long execute(int expectedSignals) {
+      Workflow.await(() -> received >= expectedSignals);
+      return sum;
+    }
+
+    @Override
+    public void signal(int value) {
+      received++;
+      sum += value;
+    }
+  }
+
+  public static class VersionsAndSideEffectsWorkflowImpl implements BenchmarkWorkflow {
+    @Override
+    public long execute(int size) {
+      long sum = 0;
+      for (int i = 0; i < size; i++) {
+        sum += Workflow.getVersion("change-" + i, Workflow.DEFAULT_VERSION, 1);
+        int value = i;
+        sum += Workflow.sideEffect(Integer.class, () -> value);
+        if ((i + 1) % BATCH_SIZE == 0) {
+          Workflow.sleep(Duration.ofSeconds(1));
+        }
+      }
+      return sum;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package io.temporal.internal.worker;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the default {@link WorkflowRunLockManager} that allocates a lock per run with the
+ * striped one. Each invocation models a workflow task: a poller thread locks a random run out of
+ * {@link #runCount} cached runs, does a bit of work and unlocks it. With {@link #idleRunQueue}, the
+ * runs are tracked by an {@link IdleRunQueue} listening to the locks like in {@link
+ * WorkflowExecutorCache}, so its notifications are on the measured path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowRunLockManagerBenchmark {
+
+  /** 0 is a dedicated lock per run, positive values are the number of lock stripes */
+  @Param({"0", "1024"})
+  public int lockStripes;
+
+  @Param({"4096"})
+  public int runCount;
+
+  @Param({"false", "true"})
+  public boolean idleRunQueue;
+
+  /** Amount of work done while the run is locked, in {@link Blackhole#consumeCPU(long)} tokens */
+  @Param({"100"})
+  public long workTokens;
+
+  private WorkflowRunLockManager runLockManager;
+  private String[] runIds;
+
+  @Setup
+  public void setUp() {
+    runLockManager = new WorkflowRunLockManager(lockStripes);
+    runIds = new String[runCount];
+    for (int i = 0; i < runCount; i++) {
+      runIds[i] = UUID.randomUUID().toString();
+    }
+    if (idleRunQueue) {
+      IdleRunQueue idleRuns = new IdleRunQueue();
+      for (String runId : runIds) {
+        idleRuns.add(runId, true);
+      }
+      runLockManager.addListener(idleRuns);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean pollers1() throws InterruptedException {
+    return processWorkflowTask();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean pollers8() throws InterruptedException {
+    return processWorkflowTask();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public boolean pollers64() throws InterruptedException {
+    return processWorkflowTask();
+  }
+
+  private boolean processWorkflowTask() throws InterruptedException {
+    String runId = runIds[ThreadLocalRandom.current().nextInt(runIds.length)];
+    if (!runLockManager.tryLock(runId, 5, TimeUnit.SECONDS)) {
+      return false;
+    }
+    try {
+      Blackhole.consumeCPU(workTokens);
+      return true;
+    } finally {
+      runLockManager.unlock(runId);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package io.temporal.testserver;
+
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import io.temporal.workflow.Workflow;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Starts {@link #workflowCount} workflows concurrently against the in-memory test server and waits
+ * for all of them to complete. Each workflow runs two workflow tasks and an activity, so the score
+ * covers the starts, the history updates and the task queue dispatch of the test server.
+ *
+ * <p>The score is the time to run all the workflows, {@code workflowCount / score} is the number
+ * of workflows per second. Compare the scores of different {@link #clientThreads} and {@link
+ * #pollers} to see how the test server scales with the number of cores.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TestServerThroughputBenchmark {
+  private static final String TASK_QUEUE = "test-server-throughput-benchmark";
+
+  @Param({"10000"})
+  public int workflowCount;
+
+  /** Number of threads starting the workflows */
+  @Param({"1", "16"})
+  public int clientThreads;
+
+  /** Number of workflow and activity task pollers of the worker */
+  @Param({"16"})
+  public int pollers;
+
+  private TestWorkflowEnvironment testEnv;
+  private ExecutorService clientExecutor;
+  private int iteration;
+
+  /** A fresh environment for each iteration, so the store doesn't grow across the iterations. */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    testEnv =
+        TestWorkflowEnvironment.newInstance(
+            TestEnvironmentOptions.newBuilder()
+                .setWorkerFactoryOptions(
+                    WorkerFactoryOptions.newBuilder()
+                        .setWorkflowCacheSize(workflowCount)
+                        .setMaxWorkflowThreadCount(workflowCount * 2)
+                        .build())
+                .build());
+    Worker worker =
+        testEnv.newWorker(
+            TASK_QUEUE,
+            WorkerOptions.newBuilder()
+                .setMaxConcurrentWorkflowTaskPollers(pollers)
+                .setMaxConcurrentActivityTaskPollers(pollers)
+                .build());
+    worker.registerWorkflowImplementationTypes(ActivityWorkflowImpl.class);
+    worker.registerActivitiesImplementations(new NoopActivityImpl());
+    testEnv.start();
+    clientExecutor = Executors.newFixedThreadPool(clientThreads);
+    iteration++;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    clientExecutor.shutdownNow();
+    testEnv.close();
+  }
+
+  @Benchmark
+  public int startAndComplete() throws Exception {
+    WorkflowClient client = testEnv.getWorkflowClient();
+    List<CompletableFuture<CompletableFuture<String>>> starts = new ArrayList<>(workflowCount);
+    for (int i = 0; i < workflowCount; i++) {
+      String workflowId = "throughput-" + iteration + "-" + i;
+      starts.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                WorkflowStub stub =
+                    client.newUntypedWorkflowStub(
+                        "ActivityWorkflow",
+                        WorkflowOptions.newBuilder()
+                            .setWorkflowId(workflowId)
+                            .setTaskQueue(TASK_QUEUE)
+                            .build());
+                stub.start();
+                return stub.getResultAsync(String.class);
+              },
+              clientExecutor));
+    }
+    int completed = 0;
+    for (CompletableFuture<CompletableFuture<String>> start : starts) {
+      start.get().get();
+      completed++;
+    }
+    return completed;
+  }
+
+  @WorkflowInterface
+  public interface ActivityWorkflow {
+    @WorkflowMethod
+    String execute();
+  }
+
+  public static class ActivityWorkflowImpl implements ActivityWorkflow {
+    private final NoopActivity activity =
+        Workflow.newActivityStub(
+            NoopActivity.class,
+            ActivityOptions.newBuilder().setStartToCloseTimeout(Duration.ofMinutes(1)).build());
+
+    @Override
+    public String execute() {
+      return activity.execute();
+    }
+  }
+
+  @ActivityInterface
+  public interface NoopActivity {
+    String execute();
+  }
+
+  public static class NoopActivityImpl implements NoopActivity {
+    @Override
+    public String execute() {
+      return "done";
+    }
+  }
+}
@@ -1,12 +1,24 @@
 package io.temporal.payload.codec;
 
 import com.google.protobuf.util.JsonFormat;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.ImmutableMap;
 import io.temporal.api.common.v1.Payload;
 import io.temporal.api.common.v1.Payloads;
+import io.temporal.common.Experimental;
+import io.temporal.serviceclient.MetricsTag;
+import io.temporal.worker.MetricsType;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Performs encoding/decoding of the payloads via the Remote Data Encoder (RDE) available over http.
@@ -35,7 +47,17 @@ import javax.annotation.Nonnull;
  *       So, encoded payloads don't have to correspond 1-1 to the incoming payloads. This enables
  *       better compaction if required. If this is the case, a decoding path should convert <i>N</i>
  *       payloads back to <i>M</i>
+ *   <li>Support the batch protocol. A batch request combines the payload lists of multiple encode
+ *       or decode calls. The payloads of all the lists are sent as a single {@link Payloads} and
+ *       the {@value #PAYLOADS_GROUP_SIZES_HEADER} request header contains the comma separated
+ *       number of payloads in each list. The server applies the codecs to each list separately and
+ *       responds with the resulting payloads of all the lists concatenated and the same header
+ *       containing the sizes of the resulting lists. A server that doesn't support the batch
+ *       protocol processes a batch as a single list, which is equivalent if its codecs transform
+ *       each payload independently.
  * </ul>
+ *
+ * <p>Batching is enabled by {@link RemoteDataEncoderCodecOptions.Builder#setMaxBatchDelay}.
  */
 public abstract class AbstractRemoteDataEncoderCodec implements PayloadCodec {
   public static final String ENCODE_PATH_POSTFIX = "/encode";
@@ -45,24 +67,77 @@ public abstract class AbstractRemoteDataEncoderCodec implements PayloadCodec {
   public static final JsonFormat.Parser JSON_FORMAT = JsonFormat.parser();
   public static final JsonFormat.Printer JSON_PRINTER = JsonFormat.printer();
 
+  /** Comma separated sizes of the payload lists combined into a batch request or response */
+  public static final String PAYLOADS_GROUP_SIZES_HEADER = "X-Payloads-Group-Sizes";
+
+  private static final String ENCODE_OPERATION = "encode";
+  private static final String DECODE_OPERATION = "decode";
+
   private final String rdeEncodeUrl;
   private final String rdeDecodeUrl;
+  private final Scope encodeMetricsScope;
+  private final Scope decodeMetricsScope;
+  private final @Nullable RemoteDataEncoderBatcher encodeBatcher;
+  private final @Nullable RemoteDataEncoderBatcher decodeBatcher;
 
   public AbstractRemoteDataEncoderCodec(String rdeUrl) {
+    this(rdeUrl, RemoteDataEncoderCodecOptions.getDefaultInstance());
+  }
+
+  @Experimental
+  public AbstractRemoteDataEncoderCodec(String rdeUrl, RemoteDataEncoderCodecOptions options) {
     this.rdeEncodeUrl = rdeUrl + ENCODE_PATH_POSTFIX;
     this.rdeDecodeUrl = rdeUrl + DECODE_PATH_POSTFIX;
+    this.encodeMetricsScope = tagged(options.getMetricsScope(), ENCODE_OPERATION);
+    this.decodeMetricsScope = tagged(options.getMetricsScope(), DECODE_OPERATION);
+    if (options.getMaxBatchDelay().isZero() || options.getMaxBatchSize() == 1) {
+      this.encodeBatcher = null;
+      this.decodeBatcher = null;
+    } else {
+      long maxBatchDelayNanos = options.getMaxBatchDelay().toNanos();
+      this.encodeBatcher =
+          new RemoteDataEncoderBatcher(
+              options.getMaxBatchSize(),
+              maxBatchDelayNanos,
+              calls -> transformBatch(calls, rdeEncodeUrl, encodeMetricsScope));
+      this.decodeBatcher =
+          new RemoteDataEncoderBatcher(
+              options.getMaxBatchSize(),
+              maxBatchDelayNanos,
+              calls -> transformBatch(calls, rdeDecodeUrl, decodeMetricsScope));
+    }
+  }
+
+  private static Scope tagged(Scope scope, String operation) {
+    return scope.tagged(
+        new ImmutableMap.Builder<String, String>(1)
+            .put(MetricsTag.OPERATION_NAME, operation)
+            .build());
   }
 
   @Nonnull
   @Override
   public List<Payload> encode(@Nonnull List<Payload> payloads) {
-    return transform(payloads, rdeEncodeUrl);
+    if (encodeBatcher != null) {
+      return encodeBatcher.transform(payloads);
+    }
+    return transformWithMetrics(payloads, rdeEncodeUrl, encodeMetricsScope);
   }
 
   @Nonnull
   @Override
   public List<Payload> decode(@Nonnull List<Payload> payloads) {
-    return transform(payloads, rdeDecodeUrl);
+    if (decodeBatcher != null) {
+      return decodeBatcher.transform(payloads);
+    }
+    return transformWithMetrics(payloads, rdeDecodeUrl, decodeMetricsScope);
+  }
+
+  private List<Payload> transformWithMetrics(List<Payload> payloads, String url, Scope scope) {
+    long start = System.nanoTime();
+    List<Payload> result = transform(payloads, url);
+    recordRequest(scope, 1, start);
+    return result;
   }
 
   protected List<Payload> transform(@Nonnull List<Payload> payloads, String url) {
@@ -79,6 +154,176 @@ public abstract class AbstractRemoteDataEncoderCodec implements PayloadCodec {
     }
   }
 
+  /** Sends the payload lists of multiple codec calls in one request using the batch protocol. */
+  private List<List<Payload>> transformBatch(List<List<Payload>> calls, String url, Scope scope) {
+    long start = System.nanoTime();
+    int[] requestSizes = new int[calls.size()];
+    Payloads.Builder outgoingPayloads = Payloads.newBuilder();
+    for (int i = 0; i < calls.size(); i++) {
+      requestSizes[i] = calls.get(i).size();
+      outgoingPayloads.addAllPayloads(calls.get(i));
+    }
+    List<Payload> incomingPayloads;
+    Map<String, String> responseHeaders = new HashMap<>();
+    try {
+      String json = JSON_PRINTER.print(outgoingPayloads);
+      Map<String, String> requestHeaders =
+          Collections.singletonMap(PAYLOADS_GROUP_SIZES_HEADER, formatGroupSizes(requestSizes));
+      try (Reader reader = performPost(url, json, requestHeaders, responseHeaders)) {
+        Payloads.Builder incoming = Payloads.newBuilder();
+        JSON_FORMAT.merge(reader, incoming);
+        incomingPayloads = incoming.getPayloadsList();
+      }
+    } catch (IOException e) {
+      throw new PayloadCodecException(e);
+    }
+    String responseSizesHeader = responseHeaders.get(PAYLOADS_GROUP_SIZES_HEADER);
+    int[] responseSizes;
+    if (responseSizesHeader != null) {
+      try {
+        responseSizes = parseGroupSizes(responseSizesHeader);
+      } catch (IllegalArgumentException e) {
+        throw new PayloadCodecException(
+            "Remote Data Encoder responded with malformed "
+                + PAYLOADS_GROUP_SIZES_HEADER
+                + " header: "
+                + responseSizesHeader,
+            e);
+      }
+    } else if (incomingPayloads.size() == outgoingPayloads.getPayloadsCount()) {
+      // the server processed the batch as a single list transforming payloads one to one
+      responseSizes = requestSizes;
+    } else {
+      throw new PayloadCodecException(
+          "Remote Data Encoder responded with "
+              + incomingPayloads.size()
+              + " payloads to a batch of "
+              + outgoingPayloads.getPayloadsCount()
+              + " payloads without "
+              + PAYLOADS_GROUP_SIZES_HEADER
+              + " header");
+    }
+    List<List<Payload>> result;
+    try {
+      result = splitGroups(incomingPayloads, responseSizes);
+    } catch (IllegalArgumentException e) {
+      throw new PayloadCodecException(
+          "Remote Data Encoder responded with mismatched " + PAYLOADS_GROUP_SIZES_HEADER, e);
+    }
+    if (result.size() != calls.size()) {
+      throw new PayloadCodecException(
+          "Remote Data Encoder responded with "
+              + result.size()
+              + " payload lists to a batch of "
+              + calls.size());
+    }
+    recordRequest(scope, calls.size(), start);
+    return result;
+  }
+
+  private static void recordRequest(Scope scope, int calls, long startNanos) {
+    scope
+        .timer(MetricsType.REMOTE_DATA_ENCODER_REQUEST_LATENCY)
+        .record(com.uber.m3.util.Duration.ofNanos(System.nanoTime() - startNanos));
+    scope.counter(MetricsType.REMOTE_DATA_ENCODER_REQUEST_COUNTER).inc(1);
+    scope.counter(MetricsType.REMOTE_DATA_ENCODER_CALL_COUNTER).inc(calls);
+  }
+
+  /**
+   * @return value of the {@link #PAYLOADS_GROUP_SIZES_HEADER} for the sizes of the payload lists
+   */
+  public static String formatGroupSizes(int[] sizes) {
+    StringBuilder result = new StringBuilder();
+    for (int size : sizes) {
+      if (result.length() > 0) {
+        result.append(',');
+      }
+      result.append(size);
+    }
+    return result.toString();
+  }
+
+  /**
+   * @param header value of the {@link #PAYLOADS_GROUP_SIZES_HEADER}
+   * @return sizes of the payload lists
+   * @throws IllegalArgumentException if the header is malformed
+   */
+  public static int[] parseGroupSizes(String header) {
+    if (header.isEmpty()) {
+      return new int[0];
+    }
+    String[] values = header.split(",");
+    int[] result = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = Integer.parseInt(values[i].trim());
+      if (result[i] < 0) {
+        throw new IllegalArgumentException("Negative size in " + header);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Splits the concatenated payloads of a batch into the lists of the given sizes.
+   *
+   * @throws IllegalArgumentException if the sizes don't add up to the number of payloads
+   */
+  public static List<List<Payload>> splitGroups(List<Payload> payloads, int[] sizes) {
+    List<List<Payload>> result = new ArrayList<>(sizes.length);
+    int offset = 0;
+    for (int size : sizes) {
+      if (offset + size > payloads.size()) {
+        break;
+      }
+      result.add(payloads.subList(offset, offset + size));
+      offset += size;
+    }
+    if (result.size() != sizes.length || offset != payloads.size()) {
+      throw new IllegalArgumentException(
+          "Group sizes "
+              + Arrays.toString(sizes)
+              + " don't match "
+              + payloads.size()
+              + " payloads");
+    }
+    return result;
+  }
+
+  /**
+   * Applies a codec to the payloads of a request received by a Remote Data Encoder server. A
+   * request with the {@link #PAYLOADS_GROUP_SIZES_HEADER} is a batch, the codec is applied to each
+   * of its payload lists separately and the sizes of the resulting lists are added to the response
+   * headers.
+   *
+   * @param payloads payloads of the request
+   * @param groupSizesHeader value of the {@link #PAYLOADS_GROUP_SIZES_HEADER} of the request, null
+   *     if the request is not a batch
+   * @param codecCall encode or decode of the codec
+   * @param responseHeaders receives the headers to add to the response
+   * @return payloads of the response
+   * @throws IllegalArgumentException if the group sizes are malformed or don't match the payloads
+   */
+  public static List<Payload> transformRequest(
+      List<Payload> payloads,
+      @Nullable String groupSizesHeader,
+      Function<List<Payload>, List<Payload>> codecCall,
+      Map<String, String> responseHeaders) {
+    if (groupSizesHeader == null) {
+      return codecCall.apply(payloads);
+    }
+    // the whole batch is validated before any of its lists is transformed
+    List<List<Payload>> groups = splitGroups(payloads, parseGroupSizes(groupSizesHeader));
+    List<Payload> result = new ArrayList<>(payloads.size());
+    int[] resultSizes = new int[groups.size()];
+    for (int i = 0; i < groups.size(); i++) {
+      List<Payload> group = codecCall.apply(groups.get(i));
+      resultSizes[i] = group.size();
+      result.addAll(group);
+    }
+    responseHeaders.put(PAYLOADS_GROUP_SIZES_HEADER, formatGroupSizes(resultSizes));
+    return result;
+  }
+
   /**
    * An implementation should perform a blocking HTTP POST request to the {@code url} with
    * "Content-Type: application/json" header and supplied {@code json} as the body. The
@@ -93,4 +338,22 @@ public abstract class AbstractRemoteDataEncoderCodec implements PayloadCodec {
    *     Status code, "Content-Type: application/json" header and a body
    */
   protected abstract Reader performPost(String url, String json) throws IOException;
+
+  /**
+   * Performs a POST request like {@link #performPost(String, String)} with additional request
+   * headers and collects the response headers. Used for batch requests. The default
+   * implementation ignores the headers and calls {@link #performPost(String, String)}, which
+   * works only with codecs transforming payloads one to one.
+   *
+   * @param requestHeaders headers to add to the request
+   * @param responseHeaders receives the headers of the response
+   */
+  protected Reader performPost(
+      String url,
+      String json,
+      Map<String, String> requestHeaders,
+      Map<String, String> responseHeaders)
+      throws IOException {
+    return performPost(url, json);
+  }
 }
@@ -1,10 +1,23 @@
 package io.temporal.payload.codec;
 
+import io.temporal.common.Experimental;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import okhttp3.*;
 
+/**
+ * Remote Data Encoder codec using {@link OkHttpClient}. {@link OkHttpClient} keeps a pool of
+ * connections reused by the codec calls. A client created by {@link #newHttpClientBuilder(int,
+ * Duration, boolean)} can be configured to keep more idle connections to the Remote Data Encoder
+ * or to multiplex all the calls over a single HTTP/2 connection.
+ */
 public class OkHttpRemoteDataEncoderCodec extends AbstractRemoteDataEncoderCodec {
   private final OkHttpClient client;
 
@@ -13,23 +26,84 @@ public class OkHttpRemoteDataEncoderCodec extends AbstractRemoteDataEncoderCodec
     this.client = client;
   }
 
+  @Experimental
+  public OkHttpRemoteDataEncoderCodec(
+      OkHttpClient client, String rdeUrl, RemoteDataEncoderCodecOptions options) {
+    super(rdeUrl, options);
+    this.client = client;
+  }
+
+  /**
+   * Creates a builder of {@link OkHttpClient} configured for the Remote Data Encoder calls.
+   *
+   * @param maxIdleConnections maximum number of idle connections to keep in the pool
+   * @param keepAlive time to keep an idle connection in the pool
+   * @param http2PriorKnowledge use HTTP/2 without the upgrade negotiation. Requires a Remote Data
+   *     Encoder server accepting cleartext HTTP/2 connections. With HTTPS the protocol is
+   *     negotiated using ALPN and this flag should be false.
+   */
+  @Experimental
+  public static OkHttpClient.Builder newHttpClientBuilder(
+      int maxIdleConnections, Duration keepAlive, boolean http2PriorKnowledge) {
+    OkHttpClient.Builder builder =
+        new OkHttpClient.Builder()
+            .connectionPool(
+                new ConnectionPool(
+                    maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS));
+    if (http2PriorKnowledge) {
+      builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+    } else {
+      builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+    }
+    return builder;
+  }
+
   @Override
   protected Reader performPost(String url, String json) throws IOException {
+    return post(url, json, Collections.emptyMap(), null);
+  }
+
+  @Override
+  protected Reader performPost(
+      String url,
+      String json,
+      Map<String, String> requestHeaders,
+      Map<String, String> responseHeaders)
+      throws IOException {
+    return post(url, json, requestHeaders, responseHeaders);
+  }
+
+  private Reader post(
+      String url,
+      String json,
+      Map<String, String> requestHeaders,
+      @Nullable Map<String, String> responseHeaders)
+      throws IOException {
     RequestBody body =
         RequestBody.create(
             json, MediaType.parse(AbstractRemoteDataEncoderCodec.CONTENT_TYPE_APPLICATION_JSON));
 
-    Request request = new Request.Builder().url(url).post(body).build();
+    Request.Builder requestBuilder = new Request.Builder().url(url).post(body);
+    requestHeaders.forEach(requestBuilder::header);
+    Request request = requestBuilder.build();
 
     Call call = client.newCall(request);
     Response response = call.execute();
     if (response.code() == 200) {
       if (response.body() != null) {
+        if (responseHeaders != null) {
+          String groupSizes = response.header(PAYLOADS_GROUP_SIZES_HEADER);
+          if (groupSizes != null) {
+            responseHeaders.put(PAYLOADS_GROUP_SIZES_HEADER, groupSizes);
+          }
+        }
         return new InputStreamReader(response.body().byteStream());
       } else {
+        response.close();
         throw new IOException("Remote Data Encoder response body is empty. Response: " + response);
       }
     } else {
+      response.close();
       throw new IOException(
           "Remote Data Encoder response status code is not 200 OK. Response: " + response);
     }
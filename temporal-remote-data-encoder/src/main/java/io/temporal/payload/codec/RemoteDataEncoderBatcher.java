@@ -0,0 +1,104 @@
+package io.temporal.payload.codec;
+
+import io.temporal.api.common.v1.Payload;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Combines concurrent codec calls into batches. There is no background thread: the call that fills
+ * a batch, or the first call of a batch when its delay expires, sends the batch and completes the
+ * other calls of the batch.
+ */
+@ThreadSafe
+final class RemoteDataEncoderBatcher {
+  private final int maxBatchSize;
+  private final long maxBatchDelayNanos;
+  private final Function<List<List<Payload>>, List<List<Payload>>> send;
+
+  @GuardedBy("this")
+  private Batch current;
+
+  /**
+   * @param send transforms the payload lists of all the calls of a batch in one request
+   */
+  RemoteDataEncoderBatcher(
+      int maxBatchSize,
+      long maxBatchDelayNanos,
+      Function<List<List<Payload>>, List<List<Payload>>> send) {
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchDelayNanos = maxBatchDelayNanos;
+    this.send = send;
+  }
+
+  List<Payload> transform(List<Payload> payloads) {
+    Batch batch;
+    int index;
+    boolean full;
+    synchronized (this) {
+      if (current == null) {
+        current = new Batch();
+      }
+      batch = current;
+      index = batch.calls.size();
+      batch.calls.add(payloads);
+      full = batch.calls.size() >= maxBatchSize;
+      if (full) {
+        current = null;
+      }
+    }
+    if (full) {
+      batch.send();
+    } else {
+      try {
+        batch.result.get(maxBatchDelayNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        boolean expired;
+        synchronized (this) {
+          expired = current == batch;
+          if (expired) {
+            current = null;
+          }
+        }
+        if (expired) {
+          batch.send();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PayloadCodecException(e);
+      } catch (ExecutionException e) {
+        // reported by join below
+      }
+    }
+    try {
+      return batch.result.join().get(index);
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new PayloadCodecException(cause);
+    }
+  }
+
+  private final class Batch {
+    private final List<List<Payload>> calls = new ArrayList<>();
+    private final CompletableFuture<List<List<Payload>>> result = new CompletableFuture<>();
+
+    /** Called exactly once, after the batch is detached from {@link #current} */
+    private void send() {
+      try {
+        result.complete(RemoteDataEncoderBatcher.this.send.apply(calls));
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
+}
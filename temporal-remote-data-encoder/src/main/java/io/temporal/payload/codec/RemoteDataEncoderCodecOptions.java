@@ -0,0 +1,119 @@
+package io.temporal.payload.codec;
+
+import com.google.common.base.Preconditions;
+import com.uber.m3.tally.NoopScope;
+import com.uber.m3.tally.Scope;
+import io.temporal.common.Experimental;
+import java.time.Duration;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/** Options of {@link AbstractRemoteDataEncoderCodec} and its subclasses. */
+@Experimental
+public final class RemoteDataEncoderCodecOptions {
+  private static final RemoteDataEncoderCodecOptions DEFAULT_INSTANCE;
+
+  static {
+    DEFAULT_INSTANCE = newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public static Builder newBuilder(RemoteDataEncoderCodecOptions options) {
+    return new Builder(options);
+  }
+
+  public static RemoteDataEncoderCodecOptions getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  public static final class Builder {
+    private int maxBatchSize = 100;
+    private Duration maxBatchDelay = Duration.ZERO;
+    private Scope metricsScope = new NoopScope();
+
+    private Builder() {}
+
+    private Builder(RemoteDataEncoderCodecOptions options) {
+      if (options == null) {
+        return;
+      }
+      this.maxBatchSize = options.maxBatchSize;
+      this.maxBatchDelay = options.maxBatchDelay;
+      this.metricsScope = options.metricsScope;
+    }
+
+    /**
+     * Maximum number of encode or decode calls combined into one batch request. A batch is sent as
+     * soon as it is full, without waiting for {@link #setMaxBatchDelay(Duration)}. Default is 100.
+     */
+    public Builder setMaxBatchSize(int maxBatchSize) {
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize should be positive");
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Time a call to the codec waits for other concurrent calls to be combined with them into one
+     * batch request to the Remote Data Encoder. The server has to support the batch protocol, see
+     * {@link AbstractRemoteDataEncoderCodec}.
+     *
+     * <p>Default is {@link Duration#ZERO}, which sends a request per call without batching.
+     */
+    public Builder setMaxBatchDelay(@Nonnull Duration maxBatchDelay) {
+      Preconditions.checkArgument(
+          !Objects.requireNonNull(maxBatchDelay).isNegative(), "negative maxBatchDelay");
+      this.maxBatchDelay = maxBatchDelay;
+      return this;
+    }
+
+    /**
+     * Scope to report the request latency and batch size metrics to, see {@link
+     * io.temporal.worker.MetricsType#REMOTE_DATA_ENCODER_REQUEST_LATENCY}. Default is a no-op
+     * scope.
+     */
+    public Builder setMetricsScope(@Nonnull Scope metricsScope) {
+      this.metricsScope = Objects.requireNonNull(metricsScope);
+      return this;
+    }
+
+    public RemoteDataEncoderCodecOptions build() {
+      return new RemoteDataEncoderCodecOptions(maxBatchSize, maxBatchDelay, metricsScope);
+    }
+  }
+
+  private final int maxBatchSize;
+  private final Duration maxBatchDelay;
+  private final Scope metricsScope;
+
+  private RemoteDataEncoderCodecOptions(
+      int maxBatchSize, Duration maxBatchDelay, Scope metricsScope) {
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchDelay = maxBatchDelay;
+    this.metricsScope = metricsScope;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public Duration getMaxBatchDelay() {
+    return maxBatchDelay;
+  }
+
+  public Scope getMetricsScope() {
+    return metricsScope;
+  }
+
+  @Override
+  public String toString() {
+    return "RemoteDataEncoderCodecOptions{"
+        + "maxBatchSize="
+        + maxBatchSize
+        + ", maxBatchDelay="
+        + maxBatchDelay
+        + '}';
+  }
+}
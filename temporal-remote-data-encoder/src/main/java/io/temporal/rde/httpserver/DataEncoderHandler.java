@@ -11,7 +11,9 @@ import io.temporal.payload.codec.PayloadCodec;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.servlet.http.HttpServletResponse;
 
 class DataEncoderHandler implements HttpHandler {
@@ -75,15 +77,30 @@ class DataEncoderHandler implements HttpHandler {
       return;
     }
 
-    List<Payload> incomingPayloadsList = incomingPayloads.build().getPayloadsList();
-    List<Payload> outgoingPayloadsList =
-        encode ? codec.encode(incomingPayloadsList) : codec.decode(incomingPayloadsList);
+    String groupSizesHeader =
+        exchange
+            .getRequestHeaders()
+            .getFirst(AbstractRemoteDataEncoderCodec.PAYLOADS_GROUP_SIZES_HEADER);
+    Map<String, String> outgoingHeaders = new HashMap<>();
+    List<Payload> outgoingPayloadsList;
+    try {
+      outgoingPayloadsList =
+          AbstractRemoteDataEncoderCodec.transformRequest(
+              incomingPayloads.build().getPayloadsList(),
+              groupSizesHeader,
+              encode ? codec::encode : codec::decode,
+              outgoingHeaders);
+    } catch (IllegalArgumentException e) {
+      exchange.sendResponseHeaders(HttpServletResponse.SC_BAD_REQUEST, -1);
+      return;
+    }
 
     exchange
         .getResponseHeaders()
         .add(
             HttpHeaders.CONTENT_TYPE, AbstractRemoteDataEncoderCodec.CONTENT_TYPE_APPLICATION_JSON);
     exchange.getResponseHeaders().add(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    outgoingHeaders.forEach(exchange.getResponseHeaders()::add);
     exchange.sendResponseHeaders(HttpServletResponse.SC_OK, 0);
 
     try (OutputStreamWriter out = new OutputStreamWriter(exchange.getResponseBody())) {
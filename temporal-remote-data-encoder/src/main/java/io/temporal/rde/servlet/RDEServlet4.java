@@ -10,7 +10,9 @@ import io.temporal.payload.codec.PayloadCodec;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.servlet.ServletInputStream;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
@@ -72,12 +74,25 @@ public class RDEServlet4 extends HttpServlet {
       return;
     }
 
-    List<Payload> incomingPayloadsList = incomingPayloads.build().getPayloadsList();
-    List<Payload> outgoingPayloadsList =
-        encode ? codec.encode(incomingPayloadsList) : codec.decode(incomingPayloadsList);
+    String groupSizesHeader =
+        request.getHeader(AbstractRemoteDataEncoderCodec.PAYLOADS_GROUP_SIZES_HEADER);
+    Map<String, String> outgoingHeaders = new HashMap<>();
+    List<Payload> outgoingPayloadsList;
+    try {
+      outgoingPayloadsList =
+          AbstractRemoteDataEncoderCodec.transformRequest(
+              incomingPayloads.build().getPayloadsList(),
+              groupSizesHeader,
+              encode ? codec::encode : codec::decode,
+              outgoingHeaders);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
 
     response.addHeader(
         HttpHeaders.CONTENT_TYPE, AbstractRemoteDataEncoderCodec.CONTENT_TYPE_APPLICATION_JSON);
+    outgoingHeaders.forEach(response::addHeader);
     response.setStatus(HttpServletResponse.SC_OK);
     ServletOutputStream outputStream = response.getOutputStream();
     try (OutputStreamWriter out = new OutputStreamWriter(outputStream)) {
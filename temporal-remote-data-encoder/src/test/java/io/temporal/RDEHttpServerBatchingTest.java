@@ -0,0 +1,193 @@
+package io.temporal;
+
+import static io.temporal.PortUtils.getFreePort;
+import static io.temporal.payload.codec.AbstractRemoteDataEncoderCodec.PAYLOADS_GROUP_SIZES_HEADER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.payload.codec.AbstractRemoteDataEncoderCodec;
+import io.temporal.payload.codec.OkHttpRemoteDataEncoderCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+import io.temporal.payload.codec.RemoteDataEncoderCodecOptions;
+import io.temporal.payload.codec.ZlibPayloadCodec;
+import io.temporal.rde.httpserver.RDEHttpServer;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RDEHttpServerBatchingTest {
+  private static final int CALLS = 50;
+
+  private final int serverPort = getFreePort();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final ZlibPayloadCodec localCodec = new ZlibPayloadCodec();
+  private RDEHttpServer rdeServer;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() throws Exception {
+    rdeServer = new RDEHttpServer(Collections.singletonList(localCodec), serverPort);
+    rdeServer.start();
+    executor = Executors.newFixedThreadPool(CALLS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    rdeServer.close();
+  }
+
+  @Test
+  public void testConcurrentCallsAreBatched() throws Exception {
+    OkHttpClient client =
+        OkHttpRemoteDataEncoderCodec.newHttpClientBuilder(4, Duration.ofMinutes(1), false)
+            .addInterceptor(
+                chain -> {
+                  requests.incrementAndGet();
+                  return chain.proceed(chain.request());
+                })
+            .build();
+    OkHttpRemoteDataEncoderCodec codec =
+        new OkHttpRemoteDataEncoderCodec(
+            client,
+            "http://localhost:" + serverPort,
+            RemoteDataEncoderCodecOptions.newBuilder()
+                .setMaxBatchSize(10)
+                .setMaxBatchDelay(Duration.ofMillis(200))
+                .build());
+
+    List<Future<List<Payload>>> encoded = new ArrayList<>();
+    List<List<Payload>> originals = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      // calls with different numbers of payloads to verify the split of the batch responses
+      List<Payload> payloads = new ArrayList<>();
+      for (int j = 0; j <= i % 3; j++) {
+        ByteString data = ByteString.copyFromUtf8("payload-" + i + "-" + j);
+        payloads.add(Payload.newBuilder().setData(data).build());
+      }
+      originals.add(payloads);
+      encoded.add(executor.submit(() -> codec.encode(payloads)));
+    }
+    List<Future<List<Payload>>> decoded = new ArrayList<>();
+    for (int i = 0; i < CALLS; i++) {
+      List<Payload> result = encoded.get(i).get();
+      assertEquals(localCodec.encode(originals.get(i)), result);
+      decoded.add(executor.submit(() -> codec.decode(result)));
+    }
+    for (int i = 0; i < CALLS; i++) {
+      assertEquals(originals.get(i), decoded.get(i).get());
+    }
+    assertTrue("requests: " + requests.get(), requests.get() < CALLS);
+  }
+
+  @Test
+  public void testSingleCallIsSentAfterDelay() {
+    OkHttpRemoteDataEncoderCodec codec =
+        new OkHttpRemoteDataEncoderCodec(
+            new OkHttpClient(),
+            "http://localhost:" + serverPort,
+            RemoteDataEncoderCodecOptions.newBuilder()
+                .setMaxBatchDelay(Duration.ofMillis(10))
+                .build());
+    List<Payload> payloads =
+        Arrays.asList(
+            Payload.newBuilder().setData(ByteString.copyFromUtf8("first")).build(),
+            Payload.newBuilder().setData(ByteString.copyFromUtf8("second")).build());
+    List<Payload> encoded = codec.encode(payloads);
+    assertEquals(localCodec.encode(payloads), encoded);
+    assertEquals(payloads, codec.decode(encoded));
+  }
+
+  @Test
+  public void testTransformRequestAppliesCodecToEachGroup() {
+    List<Payload> payloads = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      payloads.add(Payload.newBuilder().setData(ByteString.copyFromUtf8("payload" + i)).build());
+    }
+    // merges each list into one payload, so the response sizes differ from the request ones
+    Function<List<Payload>, List<Payload>> merge =
+        group -> {
+          ByteString data = ByteString.EMPTY;
+          for (Payload payload : group) {
+            data = data.concat(payload.getData());
+          }
+          return Collections.singletonList(Payload.newBuilder().setData(data).build());
+        };
+
+    Map<String, String> responseHeaders = new HashMap<>();
+    List<Payload> result =
+        AbstractRemoteDataEncoderCodec.transformRequest(payloads, "2,1", merge, responseHeaders);
+    assertEquals(
+        Arrays.asList(
+            merge.apply(payloads.subList(0, 2)).get(0), merge.apply(payloads.subList(2, 3)).get(0)),
+        result);
+    assertEquals("1,1", responseHeaders.get(PAYLOADS_GROUP_SIZES_HEADER));
+
+    responseHeaders.clear();
+    assertEquals(
+        merge.apply(payloads),
+        AbstractRemoteDataEncoderCodec.transformRequest(payloads, null, merge, responseHeaders));
+    assertTrue(responseHeaders.isEmpty());
+
+    for (String groupSizes : Arrays.asList("one", "-1", "2", "2,2")) {
+      assertThrows(
+          groupSizes,
+          IllegalArgumentException.class,
+          () ->
+              AbstractRemoteDataEncoderCodec.transformRequest(
+                  payloads, groupSizes, merge, new HashMap<>()));
+    }
+  }
+
+  @Test
+  public void testInvalidResponseGroupSizesFailWithPayloadCodecException() {
+    List<Payload> payloads =
+        Collections.singletonList(
+            Payload.newBuilder().setData(ByteString.copyFromUtf8("payload")).build());
+    for (String groupSizes : Arrays.asList("one", "-1", "2", "1,1")) {
+      AbstractRemoteDataEncoderCodec codec =
+          new AbstractRemoteDataEncoderCodec(
+              "http://localhost:" + serverPort,
+              RemoteDataEncoderCodecOptions.newBuilder()
+                  .setMaxBatchDelay(Duration.ofMillis(1))
+                  .build()) {
+            @Override
+            protected Reader performPost(String url, String json) {
+              throw new UnsupportedOperationException();
+            }
+
+            @Override
+            protected Reader performPost(
+                String url,
+                String json,
+                Map<String, String> requestHeaders,
+                Map<String, String> responseHeaders) {
+              responseHeaders.put(PAYLOADS_GROUP_SIZES_HEADER, groupSizes);
+              // echoes the request as is
+              return new StringReader(json);
+            }
+          };
+      PayloadCodecException e =
+          assertThrows(groupSizes, PayloadCodecException.class, () -> codec.encode(payloads));
+      assertTrue(e.getMessage(), e.getMessage().contains(PAYLOADS_GROUP_SIZES_HEADER));
+    }
+  }
+}
@@ -4,6 +4,9 @@ import static io.temporal.ActivityImpl.ACTIVITY_RESULT;
 import static io.temporal.PortUtils.getFreePort;
 import static org.junit.Assert.assertEquals;
 
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.api.common.v1.Payloads;
 import io.temporal.client.WorkflowClient;
 import io.temporal.client.WorkflowClientOptions;
 import io.temporal.client.WorkflowOptions;
@@ -11,11 +14,22 @@ import io.temporal.common.converter.CodecDataConverter;
 import io.temporal.common.converter.DefaultDataConverter;
 import io.temporal.payload.codec.AbstractRemoteDataEncoderCodec;
 import io.temporal.payload.codec.OkHttpRemoteDataEncoderCodec;
+import io.temporal.payload.codec.RemoteDataEncoderCodecOptions;
 import io.temporal.payload.codec.ZlibPayloadCodec;
 import io.temporal.rde.servlet.RDEServlet4;
 import io.temporal.testing.internal.SDKTestWorkflowRule;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletHandler;
 import org.junit.AfterClass;
@@ -24,6 +38,8 @@ import org.junit.Rule;
 import org.junit.Test;
 
 public class RDEServlet4FunctionalTest {
+  private static final int CALLS = 5;
+
   private static final ActivityImpl activitiesImpl = new ActivityImpl();
 
   private static final OkHttpClient okHttpClient = new OkHttpClient();
@@ -83,4 +99,66 @@ public class RDEServlet4FunctionalTest {
     int result = workflow.execute("input1");
     assertEquals(ACTIVITY_RESULT, result);
   }
+
+  @Test
+  public void testBatchedCalls() throws Exception {
+    OkHttpRemoteDataEncoderCodec codec =
+        new OkHttpRemoteDataEncoderCodec(
+            okHttpClient,
+            "http://localhost:" + serverPort,
+            RemoteDataEncoderCodecOptions.newBuilder()
+                .setMaxBatchSize(CALLS)
+                .setMaxBatchDelay(Duration.ofSeconds(1))
+                .build());
+    ZlibPayloadCodec localCodec = new ZlibPayloadCodec();
+    ExecutorService executor = Executors.newFixedThreadPool(CALLS);
+    try {
+      List<List<Payload>> originals = new ArrayList<>();
+      List<Future<List<Payload>>> encoded = new ArrayList<>();
+      for (int i = 0; i < CALLS; i++) {
+        // calls with different numbers of payloads to verify the split of the batch response
+        List<Payload> payloads = new ArrayList<>();
+        for (int j = 0; j <= i; j++) {
+          ByteString data = ByteString.copyFromUtf8("payload-" + i + "-" + j);
+          payloads.add(Payload.newBuilder().setData(data).build());
+        }
+        originals.add(payloads);
+        encoded.add(executor.submit(() -> codec.encode(payloads)));
+      }
+      List<Future<List<Payload>>> decoded = new ArrayList<>();
+      for (int i = 0; i < CALLS; i++) {
+        List<Payload> result = encoded.get(i).get();
+        assertEquals(localCodec.encode(originals.get(i)), result);
+        decoded.add(executor.submit(() -> codec.decode(result)));
+      }
+      for (int i = 0; i < CALLS; i++) {
+        assertEquals(originals.get(i), decoded.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMismatchedRequestGroupSizes() throws Exception {
+    String json =
+        AbstractRemoteDataEncoderCodec.JSON_PRINTER.print(
+            Payloads.newBuilder()
+                .addPayloads(Payload.newBuilder().setData(ByteString.copyFromUtf8("payload")))
+                .build());
+    String url =
+        "http://localhost:" + serverPort + AbstractRemoteDataEncoderCodec.ENCODE_PATH_POSTFIX;
+    MediaType mediaType =
+        MediaType.get(AbstractRemoteDataEncoderCodec.CONTENT_TYPE_APPLICATION_JSON);
+    Request request =
+        new Request.Builder()
+            .url(url)
+            // the batch contains only one payload
+            .header(AbstractRemoteDataEncoderCodec.PAYLOADS_GROUP_SIZES_HEADER, "1,1")
+            .post(RequestBody.create(json, mediaType))
+            .build();
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertEquals(400, response.code());
+    }
+  }
 }
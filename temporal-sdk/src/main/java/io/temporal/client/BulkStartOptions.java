@@ -0,0 +1,157 @@
+package io.temporal.client;
+
+import com.google.common.base.Preconditions;
+import io.temporal.common.Experimental;
+import java.time.Duration;
+import java.util.Objects;
+
+/** Options of {@link WorkflowClient#bulkStart(java.util.stream.Stream, BulkStartOptions)}. */
+@Experimental
+public final class BulkStartOptions {
+  public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+  public static final int DEFAULT_MAX_ATTEMPTS = 5;
+  public static final Duration DEFAULT_INITIAL_RETRY_INTERVAL = Duration.ofMillis(100);
+  public static final Duration DEFAULT_MAX_RETRY_INTERVAL = Duration.ofSeconds(10);
+
+  public static BulkStartOptions.Builder newBuilder() {
+    return new BulkStartOptions.Builder();
+  }
+
+  public static BulkStartOptions.Builder newBuilder(BulkStartOptions options) {
+    return new BulkStartOptions.Builder(options);
+  }
+
+  public static BulkStartOptions getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final BulkStartOptions DEFAULT_INSTANCE;
+
+  static {
+    DEFAULT_INSTANCE = BulkStartOptions.newBuilder().build();
+  }
+
+  private final int maxInFlight;
+  private final int maxAttempts;
+  private final Duration initialRetryInterval;
+  private final Duration maxRetryInterval;
+
+  private BulkStartOptions(
+      int maxInFlight, int maxAttempts, Duration initialRetryInterval, Duration maxRetryInterval) {
+    this.maxInFlight = maxInFlight;
+    this.maxAttempts = maxAttempts;
+    this.initialRetryInterval = initialRetryInterval;
+    this.maxRetryInterval = maxRetryInterval;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public Duration getInitialRetryInterval() {
+    return initialRetryInterval;
+  }
+
+  public Duration getMaxRetryInterval() {
+    return maxRetryInterval;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    BulkStartOptions that = (BulkStartOptions) o;
+    return maxInFlight == that.maxInFlight
+        && maxAttempts == that.maxAttempts
+        && initialRetryInterval.equals(that.initialRetryInterval)
+        && maxRetryInterval.equals(that.maxRetryInterval);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxInFlight, maxAttempts, initialRetryInterval, maxRetryInterval);
+  }
+
+  @Override
+  public String toString() {
+    return "BulkStartOptions{"
+        + "maxInFlight="
+        + maxInFlight
+        + ", maxAttempts="
+        + maxAttempts
+        + ", initialRetryInterval="
+        + initialRetryInterval
+        + ", maxRetryInterval="
+        + maxRetryInterval
+        + '}';
+  }
+
+  public static final class Builder {
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private Duration initialRetryInterval = DEFAULT_INITIAL_RETRY_INTERVAL;
+    private Duration maxRetryInterval = DEFAULT_MAX_RETRY_INTERVAL;
+
+    private Builder(BulkStartOptions options) {
+      this.maxInFlight = options.maxInFlight;
+      this.maxAttempts = options.maxAttempts;
+      this.initialRetryInterval = options.initialRetryInterval;
+      this.maxRetryInterval = options.maxRetryInterval;
+    }
+
+    private Builder() {}
+
+    /**
+     * Maximum number of starts in flight at the same time, including the ones waiting for a
+     * retry. Default is {@link #DEFAULT_MAX_IN_FLIGHT}.
+     */
+    public Builder setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /**
+     * Maximum number of attempts of a start failed with a transient error like UNAVAILABLE or
+     * RESOURCE_EXHAUSTED that is still returned after the retries of the service client. Retries
+     * reuse the request id, so a start that succeeded on the server but timed out on the client
+     * is not started twice. Default is {@link #DEFAULT_MAX_ATTEMPTS}, 1 disables the retries.
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Interval before the first retry, doubled for each next retry up to {@link
+     * #setMaxRetryInterval(Duration)}. Default is {@link #DEFAULT_INITIAL_RETRY_INTERVAL}.
+     */
+    public Builder setInitialRetryInterval(Duration initialRetryInterval) {
+      this.initialRetryInterval = initialRetryInterval;
+      return this;
+    }
+
+    /** Maximum interval between retries. Default is {@link #DEFAULT_MAX_RETRY_INTERVAL}. */
+    public Builder setMaxRetryInterval(Duration maxRetryInterval) {
+      this.maxRetryInterval = maxRetryInterval;
+      return this;
+    }
+
+    public BulkStartOptions build() {
+      Preconditions.checkArgument(maxInFlight > 0, "maxInFlight must be positive: %s", maxInFlight);
+      Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive: %s", maxAttempts);
+      Preconditions.checkArgument(
+          initialRetryInterval != null && !initialRetryInterval.isNegative(),
+          "invalid initialRetryInterval: %s",
+          initialRetryInterval);
+      Preconditions.checkArgument(
+          maxRetryInterval != null && maxRetryInterval.compareTo(initialRetryInterval) >= 0,
+          "maxRetryInterval must not be less than initialRetryInterval: %s",
+          maxRetryInterval);
+      return new BulkStartOptions(maxInFlight, maxAttempts, initialRetryInterval, maxRetryInterval);
+    }
+  }
+}
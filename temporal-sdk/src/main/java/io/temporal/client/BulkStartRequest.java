@@ -0,0 +1,111 @@
+package io.temporal.client;
+
+import com.google.common.base.Preconditions;
+import io.temporal.common.Experimental;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A single workflow start of {@link WorkflowClient#bulkStart(java.util.stream.Stream,
+ * BulkStartOptions)}.
+ */
+@Experimental
+public final class BulkStartRequest {
+  private final @Nullable Class<?> workflowInterface;
+  private final @Nullable String workflowType;
+  private final WorkflowOptions options;
+  private final Object[] args;
+
+  /**
+   * Starts the workflow method of a workflow interface.
+   *
+   * @param workflowInterface interface annotated with {@link
+   *     io.temporal.workflow.WorkflowInterface}
+   * @param options options of the started workflow, the task queue is required
+   * @param args arguments of the workflow method
+   */
+  public static BulkStartRequest newRequest(
+      @Nonnull Class<?> workflowInterface, @Nonnull WorkflowOptions options, Object... args) {
+    Preconditions.checkNotNull(workflowInterface, "workflowInterface");
+    return new BulkStartRequest(workflowInterface, null, options, args);
+  }
+
+  /**
+   * Starts a workflow by its type name.
+   *
+   * @param workflowType name of the workflow type
+   * @param options options of the started workflow, the task queue is required
+   * @param args arguments of the workflow
+   */
+  public static BulkStartRequest newRequest(
+      @Nonnull String workflowType, @Nonnull WorkflowOptions options, Object... args) {
+    Preconditions.checkNotNull(workflowType, "workflowType");
+    return new BulkStartRequest(null, workflowType, options, args);
+  }
+
+  private BulkStartRequest(
+      @Nullable Class<?> workflowInterface,
+      @Nullable String workflowType,
+      WorkflowOptions options,
+      Object[] args) {
+    this.workflowInterface = workflowInterface;
+    this.workflowType = workflowType;
+    this.options = Preconditions.checkNotNull(options, "options");
+    this.args = args;
+  }
+
+  public @Nullable Class<?> getWorkflowInterface() {
+    return workflowInterface;
+  }
+
+  public @Nullable String getWorkflowType() {
+    return workflowType;
+  }
+
+  public WorkflowOptions getOptions() {
+    return options;
+  }
+
+  public Object[] getArgs() {
+    return args;
+  }
+
+  WorkflowStub newStub(WorkflowClient client, WorkflowOptions options) {
+    return workflowInterface != null
+        ? WorkflowStub.fromTyped(client.newWorkflowStub(workflowInterface, options))
+        : client.newUntypedWorkflowStub(workflowType, options);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    BulkStartRequest that = (BulkStartRequest) o;
+    return Objects.equals(workflowInterface, that.workflowInterface)
+        && Objects.equals(workflowType, that.workflowType)
+        && options.equals(that.options)
+        && Arrays.equals(args, that.args);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(workflowInterface, workflowType, options, Arrays.hashCode(args));
+  }
+
+  @Override
+  public String toString() {
+    return "BulkStartRequest{"
+        + "workflowInterface="
+        + workflowInterface
+        + ", workflowType='"
+        + workflowType
+        + '\''
+        + ", options="
+        + options
+        + ", args="
+        + Arrays.toString(args)
+        + '}';
+  }
+}
@@ -0,0 +1,76 @@
+package io.temporal.client;
+
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.common.Experimental;
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/** Outcome of a single {@link BulkStartRequest}. */
+@Experimental
+public final class BulkStartResult {
+  private final BulkStartRequest request;
+  private final @Nullable WorkflowExecution execution;
+  private final @Nullable RuntimeException failure;
+  private final int attempts;
+  private final Duration latency;
+
+  BulkStartResult(
+      BulkStartRequest request,
+      @Nullable WorkflowExecution execution,
+      @Nullable RuntimeException failure,
+      int attempts,
+      Duration latency) {
+    this.request = request;
+    this.execution = execution;
+    this.failure = failure;
+    this.attempts = attempts;
+    this.latency = latency;
+  }
+
+  public BulkStartRequest getRequest() {
+    return request;
+  }
+
+  /** Workflow id and run id of the started workflow, null if the start failed. */
+  public @Nullable WorkflowExecution getExecution() {
+    return execution;
+  }
+
+  /**
+   * The failure of the last start attempt, null if the workflow was started. Usually a {@link
+   * WorkflowServiceException}, for example {@link WorkflowExecutionAlreadyStarted}.
+   */
+  public @Nullable RuntimeException getFailure() {
+    return failure;
+  }
+
+  public boolean isSuccessful() {
+    return failure == null;
+  }
+
+  /** Number of start attempts including the retries of transient failures. */
+  public int getAttempts() {
+    return attempts;
+  }
+
+  /** Time from the first start attempt to the result including the retries. */
+  public Duration getLatency() {
+    return latency;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkStartResult{"
+        + "request="
+        + request
+        + ", execution="
+        + execution
+        + ", failure="
+        + failure
+        + ", attempts="
+        + attempts
+        + ", latency="
+        + latency
+        + '}';
+  }
+}
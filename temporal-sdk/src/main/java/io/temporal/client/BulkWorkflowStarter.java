@@ -0,0 +1,222 @@
+package io.temporal.client;
+
+import com.uber.m3.tally.Scope;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.worker.MetricsType;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the workflows of {@link WorkflowClient#bulkStart} keeping up to {@link
+ * BulkStartOptions#getMaxInFlight()} starts in flight. The requests are pulled from the input
+ * lazily by the consumer of the results, one for each result taken, so neither the requests nor
+ * the results are accumulated in memory. The results are returned in the order of completion.
+ *
+ * <p>The starts go through {@link WorkflowStub#start(Object...)}, so the client interceptors and
+ * the data converter apply to them as to any other start.
+ */
+final class BulkWorkflowStarter implements Iterator<BulkStartResult> {
+  private static final Logger log = LoggerFactory.getLogger(BulkWorkflowStarter.class);
+  private static final AtomicInteger STARTER_INDEX = new AtomicInteger();
+
+  private final WorkflowClient client;
+  private final Iterator<BulkStartRequest> requests;
+  private final BulkStartOptions options;
+  private final Scope metricsScope;
+  private final ThreadPoolExecutor executor;
+  private final BlockingQueue<BulkStartResult> completed = new LinkedBlockingQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile boolean closed;
+
+  // accessed by the consumer thread only
+  private int submitted;
+  private @Nullable BulkStartResult next;
+
+  BulkWorkflowStarter(
+      WorkflowClient client,
+      Iterator<BulkStartRequest> requests,
+      BulkStartOptions options,
+      Scope metricsScope) {
+    this.client = client;
+    this.requests = requests;
+    this.options = options;
+    this.metricsScope = metricsScope;
+    String threadPrefix = "bulk-start-" + STARTER_INDEX.incrementAndGet() + ": ";
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            options.getMaxInFlight(),
+            options.getMaxInFlight(),
+            10,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, threadPrefix + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    // the threads of an abandoned starter go away
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+    if (closed) {
+      return false;
+    }
+    submit();
+    if (submitted == 0) {
+      executor.shutdown();
+      return false;
+    }
+    try {
+      next = completed.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    submitted--;
+    return true;
+  }
+
+  @Override
+  public BulkStartResult next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    BulkStartResult result = next;
+    next = null;
+    return result;
+  }
+
+  /** Drops the requests not sent yet and interrupts the retries in flight. */
+  void close() {
+    closed = true;
+    executor.shutdownNow();
+  }
+
+  private void submit() {
+    while (submitted < options.getMaxInFlight() && requests.hasNext()) {
+      BulkStartRequest request = requests.next();
+      submitted++;
+      executor.execute(() -> completed.add(start(request)));
+    }
+  }
+
+  /**
+   * Every submitted request has to produce a result, otherwise {@link #hasNext()} waits for it
+   * forever. Throws only a {@link VirtualMachineError}, after adding the result of the request to
+   * the completed ones.
+   */
+  private BulkStartResult start(BulkStartRequest request) {
+    long startNanos = System.nanoTime();
+    int attempt = 0;
+    inFlight.incrementAndGet();
+    try {
+      metricsScope.gauge(MetricsType.BULK_START_IN_FLIGHT).update(inFlight.get());
+      // the same ids for all the attempts make the retries idempotent
+      WorkflowOptions.Builder startOptions = WorkflowOptions.newBuilder(request.getOptions());
+      if (request.getOptions().getWorkflowId() == null) {
+        startOptions.setWorkflowId(UUID.randomUUID().toString());
+      }
+      if (request.getOptions().getRequestId() == null) {
+        startOptions.setRequestId(UUID.randomUUID().toString());
+      }
+      WorkflowOptions workflowOptions = startOptions.build();
+      Duration retryInterval = options.getInitialRetryInterval();
+      while (true) {
+        attempt++;
+        try {
+          WorkflowExecution execution =
+              request.newStub(client, workflowOptions).start(request.getArgs());
+          metricsScope.counter(MetricsType.BULK_START_SUCCEEDED_COUNTER).inc(1);
+          return new BulkStartResult(request, execution, null, attempt, recordLatency(startNanos));
+        } catch (RuntimeException e) {
+          if (attempt >= options.getMaxAttempts() || !isTransient(e)) {
+            metricsScope.counter(MetricsType.BULK_START_FAILED_COUNTER).inc(1);
+            return new BulkStartResult(request, null, e, attempt, recordLatency(startNanos));
+          }
+          metricsScope.counter(MetricsType.BULK_START_RETRY_COUNTER).inc(1);
+          try {
+            Thread.sleep(retryInterval.toMillis());
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            metricsScope.counter(MetricsType.BULK_START_FAILED_COUNTER).inc(1);
+            return new BulkStartResult(request, null, e, attempt, recordLatency(startNanos));
+          }
+          retryInterval = retryInterval.multipliedBy(2);
+          if (retryInterval.compareTo(options.getMaxRetryInterval()) > 0) {
+            retryInterval = options.getMaxRetryInterval();
+          }
+        }
+      }
+    } catch (Throwable e) {
+      // failures outside of the start attempts, including the metrics and errors
+      RuntimeException failure =
+          e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+      Duration latency;
+      try {
+        metricsScope.counter(MetricsType.BULK_START_FAILED_COUNTER).inc(1);
+        latency = recordLatency(startNanos);
+      } catch (RuntimeException metricsFailure) {
+        log.debug("Failure reporting the metrics of a failed bulk start", metricsFailure);
+        latency = Duration.ofNanos(System.nanoTime() - startNanos);
+      }
+      BulkStartResult result = new BulkStartResult(request, null, failure, attempt, latency);
+      if (e instanceof VirtualMachineError) {
+        // the consumer gets the result, the error still reaches the thread of the executor
+        completed.add(result);
+        throw (VirtualMachineError) e;
+      }
+      return result;
+    } finally {
+      int current = inFlight.decrementAndGet();
+      try {
+        metricsScope.gauge(MetricsType.BULK_START_IN_FLIGHT).update(current);
+      } catch (RuntimeException e) {
+        // the result is more important than the gauge
+        log.debug("Failure updating the bulk start in flight gauge", e);
+      }
+    }
+  }
+
+  private Duration recordLatency(long startNanos) {
+    long latencyNanos = System.nanoTime() - startNanos;
+    metricsScope
+        .timer(MetricsType.BULK_START_LATENCY)
+        .record(com.uber.m3.util.Duration.ofNanos(latencyNanos));
+    return Duration.ofNanos(latencyNanos);
+  }
+
+  /** Failures still transient after the retries of the service client. */
+  private static boolean isTransient(RuntimeException e) {
+    if (e instanceof WorkflowExecutionAlreadyStarted) {
+      return false;
+    }
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof StatusRuntimeException) {
+        Status.Code code = ((StatusRuntimeException) cause).getStatus().getCode();
+        return code == Status.Code.UNAVAILABLE
+            || code == Status.Code.RESOURCE_EXHAUSTED
+            || code == Status.Code.DEADLINE_EXCEEDED
+            || code == Status.Code.ABORTED;
+      }
+    }
+    return false;
+  }
+}
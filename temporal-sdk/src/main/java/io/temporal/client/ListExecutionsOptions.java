@@ -0,0 +1,201 @@
+package io.temporal.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import io.temporal.common.Experimental;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Options of {@link WorkflowClient#listExecutions(String, ListExecutionsOptions)}.
+ *
+ * <p>Pages of a single query can't be requested concurrently as each page request needs the token
+ * returned with the previous page. To scan a large number of executions faster, the query can be
+ * split into partitions, disjoint key ranges like StartTime buckets, that are scanned concurrently.
+ */
+@Experimental
+public final class ListExecutionsOptions {
+  public static final int DEFAULT_PREFETCH_PAGES = 2;
+  public static final int DEFAULT_MAX_CONCURRENT_PARTITIONS = 4;
+
+  public static ListExecutionsOptions.Builder newBuilder() {
+    return new ListExecutionsOptions.Builder();
+  }
+
+  public static ListExecutionsOptions.Builder newBuilder(ListExecutionsOptions options) {
+    return new ListExecutionsOptions.Builder(options);
+  }
+
+  public static ListExecutionsOptions getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final ListExecutionsOptions DEFAULT_INSTANCE;
+
+  static {
+    DEFAULT_INSTANCE = ListExecutionsOptions.newBuilder().build();
+  }
+
+  private final @Nullable Integer pageSize;
+  private final int prefetchPages;
+  private final List<String> partitions;
+  private final int maxConcurrentPartitions;
+
+  private ListExecutionsOptions(
+      @Nullable Integer pageSize,
+      int prefetchPages,
+      List<String> partitions,
+      int maxConcurrentPartitions) {
+    this.pageSize = pageSize;
+    this.prefetchPages = prefetchPages;
+    this.partitions = partitions;
+    this.maxConcurrentPartitions = maxConcurrentPartitions;
+  }
+
+  public @Nullable Integer getPageSize() {
+    return pageSize;
+  }
+
+  public int getPrefetchPages() {
+    return prefetchPages;
+  }
+
+  public List<String> getPartitions() {
+    return partitions;
+  }
+
+  public int getMaxConcurrentPartitions() {
+    return maxConcurrentPartitions;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ListExecutionsOptions that = (ListExecutionsOptions) o;
+    return prefetchPages == that.prefetchPages
+        && maxConcurrentPartitions == that.maxConcurrentPartitions
+        && Objects.equals(pageSize, that.pageSize)
+        && partitions.equals(that.partitions);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(pageSize, prefetchPages, partitions, maxConcurrentPartitions);
+  }
+
+  @Override
+  public String toString() {
+    return "ListExecutionsOptions{"
+        + "pageSize="
+        + pageSize
+        + ", prefetchPages="
+        + prefetchPages
+        + ", partitions="
+        + partitions
+        + ", maxConcurrentPartitions="
+        + maxConcurrentPartitions
+        + '}';
+  }
+
+  public static final class Builder {
+    private @Nullable Integer pageSize;
+    private int prefetchPages = DEFAULT_PREFETCH_PAGES;
+    private List<String> partitions = ImmutableList.of();
+    private int maxConcurrentPartitions = DEFAULT_MAX_CONCURRENT_PARTITIONS;
+
+    private Builder(ListExecutionsOptions options) {
+      this.pageSize = options.pageSize;
+      this.prefetchPages = options.prefetchPages;
+      this.partitions = options.partitions;
+      this.maxConcurrentPartitions = options.maxConcurrentPartitions;
+    }
+
+    private Builder() {}
+
+    /** Maximum number of executions in a page. Default is the server default. */
+    public Builder setPageSize(@Nullable Integer pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    /**
+     * Maximum number of pages received ahead of the consumer of the stream. The next page is
+     * requested as soon as the previous one is received until this many pages wait to be consumed.
+     * Default is {@link #DEFAULT_PREFETCH_PAGES}.
+     */
+    public Builder setPrefetchPages(int prefetchPages) {
+      this.prefetchPages = prefetchPages;
+      return this;
+    }
+
+    /**
+     * Splits the listing into partitions scanned concurrently. Each partition is a visibility
+     * query filter combined with the listing query using {@code AND}. The partitions must be
+     * disjoint and together cover all the executions matching the query, otherwise executions are
+     * listed twice or not at all. The executions of different partitions are interleaved, so the
+     * query can't have an {@code ORDER BY} clause.
+     *
+     * @see #setStartTimePartitions(Instant, Instant, int)
+     */
+    public Builder setPartitions(List<String> partitions) {
+      this.partitions = ImmutableList.copyOf(partitions);
+      return this;
+    }
+
+    /**
+     * Splits the listing into {@code count} partitions by StartTime. The {@code [from, to)} range
+     * is split into equal buckets, the first one also covers everything before {@code from} and
+     * the last one everything after {@code to}, so no execution is missed if the range is wrong.
+     *
+     * @param from start of the range, usually the start time of the oldest listed execution
+     * @param to end of the range, usually now
+     * @param count number of partitions
+     */
+    public Builder setStartTimePartitions(Instant from, Instant to, int count) {
+      Preconditions.checkArgument(count > 0, "count must be positive: %s", count);
+      Preconditions.checkArgument(from.isBefore(to), "from must be before to: %s, %s", from, to);
+      Duration bucket = Duration.between(from, to).dividedBy(count);
+      List<String> result = new ArrayList<>(count);
+      if (count == 1 || bucket.isZero()) {
+        result.add("StartTime IS NOT NULL");
+      } else {
+        Instant bound = from.plus(bucket);
+        result.add("StartTime < '" + bound + "'");
+        for (int i = 1; i < count - 1; i++) {
+          Instant next = bound.plus(bucket);
+          result.add("StartTime >= '" + bound + "' AND StartTime < '" + next + "'");
+          bound = next;
+        }
+        result.add("StartTime >= '" + bound + "'");
+      }
+      return setPartitions(result);
+    }
+
+    /**
+     * Maximum number of partitions scanned at the same time. Default is {@link
+     * #DEFAULT_MAX_CONCURRENT_PARTITIONS}.
+     */
+    public Builder setMaxConcurrentPartitions(int maxConcurrentPartitions) {
+      this.maxConcurrentPartitions = maxConcurrentPartitions;
+      return this;
+    }
+
+    public ListExecutionsOptions build() {
+      Preconditions.checkArgument(
+          pageSize == null || pageSize > 0, "pageSize must be positive: %s", pageSize);
+      Preconditions.checkArgument(
+          prefetchPages > 0, "prefetchPages must be positive: %s", prefetchPages);
+      Preconditions.checkArgument(
+          maxConcurrentPartitions > 0,
+          "maxConcurrentPartitions must be positive: %s",
+          maxConcurrentPartitions);
+      return new ListExecutionsOptions(
+          pageSize, prefetchPages, partitions, maxConcurrentPartitions);
+    }
+  }
+}
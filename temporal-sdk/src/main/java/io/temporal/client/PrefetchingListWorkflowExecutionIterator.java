@@ -0,0 +1,203 @@
+package io.temporal.client;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsRequest;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
+import io.temporal.internal.client.external.GenericWorkflowClient;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Lists executions of one or more partitions of a query. Unlike {@link EagerPaginator}, the next
+ * page is requested as soon as the previous page is received, not when the consumer gets to it, so
+ * the page requests don't wait for the consumer until {@code prefetchPages} pages are buffered.
+ * Several partitions are listed concurrently, their pages are returned in the order they are
+ * received.
+ *
+ * <p>The page requests are asynchronous, no threads are used besides the consumer one.
+ */
+class PrefetchingListWorkflowExecutionIterator implements Iterator<WorkflowExecutionInfo> {
+  private final @Nonnull String namespace;
+  private final @Nullable Integer pageSize;
+  private final int prefetchPages;
+  private final int maxConcurrentPartitions;
+  private final @Nonnull GenericWorkflowClient genericClient;
+
+  private final Object lock = new Object();
+  // queries of the partitions not started yet
+  private final ArrayDeque<String> pendingPartitions;
+  // received pages that are not consumed yet
+  private final ArrayDeque<List<WorkflowExecutionInfo>> pages = new ArrayDeque<>();
+  // partitions with more pages waiting for the consumer to free the buffer
+  private final ArrayDeque<Partition> pausedPartitions = new ArrayDeque<>();
+  private int activePartitions;
+  private int requestsInFlight;
+  private @Nullable Throwable failure;
+  private boolean closed;
+
+  // accessed by the consumer thread only
+  private List<WorkflowExecutionInfo> activePage = Collections.emptyList();
+  private int nextActivePageIndex;
+
+  private static final class Partition {
+    final @Nullable String query;
+    ByteString nextPageToken = ByteString.EMPTY;
+
+    Partition(@Nullable String query) {
+      this.query = query;
+    }
+  }
+
+  PrefetchingListWorkflowExecutionIterator(
+      @Nonnull List<String> partitionQueries,
+      @Nonnull String namespace,
+      @Nullable Integer pageSize,
+      int prefetchPages,
+      int maxConcurrentPartitions,
+      @Nonnull GenericWorkflowClient genericClient) {
+    this.pendingPartitions = new ArrayDeque<>(partitionQueries);
+    this.namespace = Objects.requireNonNull(namespace, "namespace");
+    this.pageSize = pageSize;
+    this.prefetchPages = prefetchPages;
+    this.maxConcurrentPartitions = maxConcurrentPartitions;
+    this.genericClient = Objects.requireNonNull(genericClient, "genericClient");
+  }
+
+  /** Starts the listing and waits for the first page to fail early on an invalid query. */
+  void init() {
+    synchronized (lock) {
+      startPartitions();
+    }
+    hasNext();
+  }
+
+  /** Stops requesting new pages. The requests in flight are completed and discarded. */
+  void close() {
+    synchronized (lock) {
+      closed = true;
+      pages.clear();
+      pausedPartitions.clear();
+      pendingPartitions.clear();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (nextActivePageIndex < activePage.size()) {
+      return true;
+    }
+    synchronized (lock) {
+      while (true) {
+        if (failure != null) {
+          throw failure instanceof RuntimeException
+              ? (RuntimeException) failure
+              : new RuntimeException(failure);
+        }
+        List<WorkflowExecutionInfo> page = pages.poll();
+        resumePartitions();
+        if (page != null) {
+          activePage = page;
+          nextActivePageIndex = 0;
+          return true;
+        }
+        if (requestsInFlight == 0) {
+          return false;
+        }
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public WorkflowExecutionInfo next() {
+    if (hasNext()) {
+      return activePage.get(nextActivePageIndex++);
+    } else {
+      throw new NoSuchElementException();
+    }
+  }
+
+  // the methods below are called under the lock
+
+  private void startPartitions() {
+    while (activePartitions < maxConcurrentPartitions && !pendingPartitions.isEmpty()) {
+      activePartitions++;
+      request(new Partition(pendingPartitions.poll()));
+    }
+  }
+
+  private void resumePartitions() {
+    while (pages.size() < prefetchPages && !pausedPartitions.isEmpty()) {
+      request(pausedPartitions.poll());
+    }
+  }
+
+  private void request(Partition partition) {
+    ListWorkflowExecutionsRequest.Builder request =
+        ListWorkflowExecutionsRequest.newBuilder()
+            .setNamespace(namespace)
+            .setNextPageToken(partition.nextPageToken);
+    if (partition.query != null) {
+      request.setQuery(partition.query);
+    }
+    if (pageSize != null) {
+      request.setPageSize(pageSize);
+    }
+    requestsInFlight++;
+    genericClient
+        .listWorkflowExecutionsAsync(request.build())
+        .whenComplete((response, e) -> onResponse(partition, response, e));
+  }
+
+  private void onResponse(
+      Partition partition,
+      @Nullable ListWorkflowExecutionsResponse response,
+      @Nullable Throwable e) {
+    synchronized (lock) {
+      requestsInFlight--;
+      try {
+        if (closed || failure != null) {
+          return;
+        }
+        if (e != null) {
+          failure =
+              e instanceof CompletionException || e instanceof ExecutionException
+                  ? e.getCause()
+                  : e;
+          return;
+        }
+        if (response.getExecutionsCount() > 0) {
+          pages.add(response.getExecutionsList());
+        }
+        ByteString nextPageToken = response.getNextPageToken();
+        if (nextPageToken.isEmpty()) {
+          activePartitions--;
+          startPartitions();
+        } else {
+          partition.nextPageToken = nextPageToken;
+          if (pages.size() < prefetchPages) {
+            request(partition);
+          } else {
+            pausedPartitions.add(partition);
+          }
+        }
+      } finally {
+        lock.notifyAll();
+      }
+    }
+  }
+}
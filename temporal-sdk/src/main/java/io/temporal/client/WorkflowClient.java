@@ -240,6 +240,39 @@ public interface WorkflowClient {
    */
   Stream<WorkflowExecutionMetadata> listExecutions(@Nullable String query);
 
+  /**
+   * Starts many workflows keeping up to {@link BulkStartOptions#getMaxInFlight()} starts in flight
+   * at the same time. The requests are consumed lazily as the results are consumed, so the streams
+   * can be of any size. Starts failed with a transient error are retried with the same request id,
+   * see {@link BulkStartOptions.Builder#setMaxAttempts(int)}. A failed start doesn't stop the
+   * other starts, it is reported in its {@link BulkStartResult}.
+   *
+   * <p>Nothing is started until the returned stream is consumed. Closing the returned stream stops
+   * the starts not sent yet.
+   *
+   * @param requests the workflows to start
+   * @param options in flight and retry options
+   * @return results of the starts in the order of completion
+   */
+  @Experimental
+  Stream<BulkStartResult> bulkStart(
+      @Nonnull Stream<BulkStartRequest> requests, @Nonnull BulkStartOptions options);
+
+  /**
+   * A wrapper around {WorkflowServiceStub#listWorkflowExecutions(ListWorkflowExecutionsRequest)}
+   * that requests the pages ahead of the consumer and can split the query into partitions listed
+   * concurrently, see {@link ListExecutionsOptions}. Closing the stream stops requesting new pages.
+   *
+   * @param query Temporal Visibility Query, for syntax see <a
+   *     href="https://docs.temporal.io/visibility#list-filter">Visibility docs</a>
+   * @param options page size, prefetch and partitioning options
+   * @return sequential stream that performs remote pagination under the hood. If the query is
+   *     partitioned, the executions of different partitions are interleaved.
+   */
+  @Experimental
+  Stream<WorkflowExecutionMetadata> listExecutions(
+      @Nullable String query, @Nonnull ListExecutionsOptions options);
+
   /**
    * Count workflow executions using the Visibility API.
    *
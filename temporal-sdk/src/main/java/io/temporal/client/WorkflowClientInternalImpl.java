@@ -31,6 +31,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -38,6 +39,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 final class WorkflowClientInternalImpl implements WorkflowClient, WorkflowClientInternal {
+  private static final Pattern ORDER_BY_PATTERN =
+      Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
 
   private final GenericWorkflowClient genericClient;
   private final WorkflowClientOptions options;
@@ -238,7 +241,56 @@ final class WorkflowClientInternalImpl implements WorkflowClient, WorkflowClient
 
   @Override
   public Stream<WorkflowExecutionMetadata> listExecutions(@Nullable String query) {
-    return listExecutions(query, null);
+    return listExecutions(query, (Integer) null);
+  }
+
+  @Override
+  public Stream<BulkStartResult> bulkStart(
+      @Nonnull Stream<BulkStartRequest> requests, @Nonnull BulkStartOptions bulkStartOptions) {
+    Preconditions.checkNotNull(requests, "requests");
+    Preconditions.checkNotNull(bulkStartOptions, "bulkStartOptions");
+    BulkWorkflowStarter starter =
+        new BulkWorkflowStarter(this, requests.iterator(), bulkStartOptions, metricsScope);
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(starter, Spliterator.NONNULL), false)
+        .onClose(starter::close)
+        .onClose(requests::close);
+  }
+
+  @Override
+  public Stream<WorkflowExecutionMetadata> listExecutions(
+      @Nullable String query, @Nonnull ListExecutionsOptions listOptions) {
+    Preconditions.checkNotNull(listOptions, "listOptions");
+    List<String> partitionQueries;
+    if (listOptions.getPartitions().isEmpty()) {
+      partitionQueries = Collections.singletonList(query);
+    } else {
+      Preconditions.checkArgument(
+          query == null || !ORDER_BY_PATTERN.matcher(query).find(),
+          "Partitioned query can't have an ORDER BY clause: %s",
+          query);
+      partitionQueries = new ArrayList<>(listOptions.getPartitions().size());
+      for (String partition : listOptions.getPartitions()) {
+        partitionQueries.add(
+            Strings.isNullOrEmpty(query) ? partition : "(" + query + ") AND (" + partition + ")");
+      }
+    }
+    PrefetchingListWorkflowExecutionIterator iterator =
+        new PrefetchingListWorkflowExecutionIterator(
+            partitionQueries,
+            options.getNamespace(),
+            listOptions.getPageSize(),
+            listOptions.getPrefetchPages(),
+            listOptions.getMaxConcurrentPartitions(),
+            genericClient);
+    iterator.init();
+    Iterator<WorkflowExecutionMetadata> wrappedIterator =
+        Iterators.transform(
+            iterator, info -> new WorkflowExecutionMetadata(info, options.getDataConverter()));
+    final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(wrappedIterator, CHARACTERISTICS), false)
+        .onClose(iterator::close);
   }
 
   @Override
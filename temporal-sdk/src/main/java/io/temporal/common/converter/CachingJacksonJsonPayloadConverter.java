@@ -0,0 +1,155 @@
+package io.temporal.common.converter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.Experimental;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link JacksonJsonPayloadConverter} that caches an {@link ObjectReader} per deserialized type
+ * and an {@link ObjectWriter} per serialized class. The readers and writers keep the resolved root
+ * deserializers and serializers, so the type resolution and serializer lookups done by {@link
+ * ObjectMapper} on every call are skipped. The data produced and accepted is the same as of {@link
+ * JacksonJsonPayloadConverter} with the same {@link ObjectMapper}.
+ *
+ * <p>The readers and writers capture the configuration of the {@link ObjectMapper} at the time
+ * they are created, so the mapper should be fully configured before it is passed to this
+ * converter and not modified afterward.
+ *
+ * <p>To use it instead of the default Jackson converter:
+ *
+ * <pre>{@code
+ * DataConverter converter =
+ *     DefaultDataConverter.newDefaultInstance()
+ *         .withPayloadConverterOverrides(new CachingJacksonJsonPayloadConverter());
+ * }</pre>
+ */
+@Experimental
+public class CachingJacksonJsonPayloadConverter extends JacksonJsonPayloadConverter {
+  private static final Logger log =
+      LoggerFactory.getLogger(CachingJacksonJsonPayloadConverter.class);
+
+  /**
+   * Jackson modules that replace reflection with generated code, in the order of preference.
+   * Blackbird is the successor of Afterburner for Java 11 and newer.
+   */
+  private static final String[] OPTIMIZER_MODULES = {
+    "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+    "com.fasterxml.jackson.module.afterburner.AfterburnerModule"
+  };
+
+  /**
+   * Maximum number of readers of generic types that are cached. Readers of classes are not
+   * limited.
+   */
+  private static final int MAX_CACHED_GENERIC_TYPES = 1024;
+
+  private final ObjectMapper mapper;
+  private final ClassValue<ObjectWriter> writers;
+  private final ClassValue<ObjectReader> classReaders;
+  private final Map<Type, ObjectReader> genericTypeReaders = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a converter with {@link #newDefaultObjectMapper()}. If Blackbird or Afterburner
+   * Jackson module is present on the classpath, it is registered with the mapper.
+   */
+  public CachingJacksonJsonPayloadConverter() {
+    this(registerOptimizerModule(newDefaultObjectMapper()));
+  }
+
+  /**
+   * @param mapper fully configured mapper. Jackson optimizer modules are not registered
+   *     automatically, use {@link #registerOptimizerModule(ObjectMapper)} or register them
+   *     explicitly.
+   */
+  public CachingJacksonJsonPayloadConverter(ObjectMapper mapper) {
+    super(mapper);
+    this.mapper = mapper;
+    this.writers =
+        new ClassValue<ObjectWriter>() {
+          @Override
+          protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+          }
+        };
+    this.classReaders =
+        new ClassValue<ObjectReader>() {
+          @Override
+          protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type);
+          }
+        };
+  }
+
+  /**
+   * Registers Jackson Blackbird or, if it is not available, Afterburner module with the mapper if
+   * one of them is present on the classpath. The SDK doesn't depend on these modules, they have to
+   * be added to the application dependencies to be used.
+   *
+   * @return the same mapper
+   */
+  public static ObjectMapper registerOptimizerModule(ObjectMapper mapper) {
+    for (String moduleClassName : OPTIMIZER_MODULES) {
+      Class<?> moduleClass;
+      try {
+        moduleClass =
+            Class.forName(
+                moduleClassName, true, CachingJacksonJsonPayloadConverter.class.getClassLoader());
+      } catch (ClassNotFoundException | LinkageError e) {
+        continue;
+      }
+      try {
+        mapper.registerModule((Module) moduleClass.getDeclaredConstructor().newInstance());
+        return mapper;
+      } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+        log.warn("Unable to register Jackson module {}", moduleClassName, e);
+      }
+    }
+    return mapper;
+  }
+
+  @Override
+  public boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException {
+    payload.putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_JSON);
+    ObjectWriter writer = value == null ? mapper.writer() : writers.get(value.getClass());
+    writer.writeValue(output, value);
+    return true;
+  }
+
+  @Override
+  public <T> T readData(Payload content, InputStream data, Class<T> valueClass, Type valueType)
+      throws IOException {
+    if (content.getData().isEmpty()) {
+      return null;
+    }
+    return getReader(valueClass, valueType).readValue(data);
+  }
+
+  private ObjectReader getReader(Class<?> valueClass, Type valueType) {
+    if (valueType == null || valueType == valueClass) {
+      return classReaders.get(valueClass);
+    }
+    if (valueType instanceof Class) {
+      return classReaders.get((Class<?>) valueType);
+    }
+    ObjectReader reader = genericTypeReaders.get(valueType);
+    if (reader == null) {
+      reader = mapper.readerFor(mapper.getTypeFactory().constructType(valueType));
+      if (genericTypeReaders.size() < MAX_CACHED_GENERIC_TYPES) {
+        genericTypeReaders.putIfAbsent(valueType, reader);
+      }
+    }
+    return reader;
+  }
+}
@@ -9,14 +9,19 @@ import io.temporal.api.failure.v1.CanceledFailureInfo;
 import io.temporal.api.failure.v1.Failure;
 import io.temporal.api.failure.v1.ResetWorkflowFailureInfo;
 import io.temporal.api.failure.v1.TimeoutFailureInfo;
+import io.temporal.common.Experimental;
 import io.temporal.payload.codec.ChainCodec;
 import io.temporal.payload.codec.PayloadCodec;
 import io.temporal.payload.context.SerializationContext;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -34,6 +39,8 @@ public class CodecDataConverter implements DataConverter, PayloadCodec {
   private final DataConverter dataConverter;
   private final ChainCodec chainCodec;
   private final boolean encodeFailureAttributes;
+  private final @Nullable Executor codecExecutor;
+  private final int codecParallelism;
   private final @Nullable SerializationContext serializationContext;
 
   /**
@@ -95,17 +102,53 @@ public class CodecDataConverter implements DataConverter, PayloadCodec {
       DataConverter dataConverter,
       Collection<PayloadCodec> codecs,
       boolean encodeFailureAttributes) {
-    this(dataConverter, new ChainCodec(codecs), encodeFailureAttributes, null);
+    this(dataConverter, new ChainCodec(codecs), encodeFailureAttributes, null, 1, null);
+  }
+
+  /**
+   * Creates a converter that splits lists of payloads into up to {@code codecParallelism} parts
+   * and applies the codecs to the parts concurrently, using {@code codecExecutor} for all the parts
+   * but one, which is processed by the calling thread. This reduces the latency of encoding and
+   * decoding multiple payloads, like arguments of a method, with CPU heavy codecs like encryption
+   * and compression. Codecs that make a remote call per list of payloads should be used without
+   * parallelism, so they process all the payloads with a single call.
+   *
+   * <p>See {@link #CodecDataConverter(DataConverter, Collection, boolean)} for the rest of the
+   * parameters.
+   *
+   * @param codecExecutor executor to apply the codecs to the parts of the payload lists
+   * @param codecParallelism maximum number of parts a list of payloads is split into
+   */
+  @Experimental
+  public CodecDataConverter(
+      DataConverter dataConverter,
+      Collection<PayloadCodec> codecs,
+      boolean encodeFailureAttributes,
+      Executor codecExecutor,
+      int codecParallelism) {
+    this(
+        dataConverter,
+        new ChainCodec(codecs),
+        encodeFailureAttributes,
+        Preconditions.checkNotNull(codecExecutor, "codecExecutor"),
+        codecParallelism,
+        null);
+    Preconditions.checkArgument(
+        codecParallelism > 0, "codecParallelism should be positive: %s", codecParallelism);
   }
 
   CodecDataConverter(
       DataConverter dataConverter,
       ChainCodec codecs,
       boolean encodeFailureAttributes,
+      @Nullable Executor codecExecutor,
+      int codecParallelism,
       @Nullable SerializationContext serializationContext) {
     this.dataConverter = dataConverter;
     this.chainCodec = codecs;
     this.encodeFailureAttributes = encodeFailureAttributes;
+    this.codecExecutor = codecExecutor;
+    this.codecParallelism = codecParallelism;
     this.serializationContext = serializationContext;
   }
 
@@ -135,9 +178,7 @@ public class CodecDataConverter implements DataConverter, PayloadCodec {
     Optional<Payloads> payloads =
         ConverterUtils.withContext(dataConverter, serializationContext).toPayloads(values);
     if (payloads.isPresent()) {
-      List<Payload> encodedPayloads =
-          ConverterUtils.withContext(chainCodec, serializationContext)
-              .encode(payloads.get().getPayloadsList());
+      List<Payload> encodedPayloads = encode(payloads.get().getPayloadsList());
       payloads = Optional.of(Payloads.newBuilder().addAllPayloads(encodedPayloads).build());
     }
     return payloads;
@@ -187,140 +228,207 @@ public class CodecDataConverter implements DataConverter, PayloadCodec {
   @Nonnull
   @Override
   public CodecDataConverter withContext(@Nonnull SerializationContext context) {
-    return new CodecDataConverter(dataConverter, chainCodec, encodeFailureAttributes, context);
+    return new CodecDataConverter(
+        dataConverter,
+        chainCodec,
+        encodeFailureAttributes,
+        codecExecutor,
+        codecParallelism,
+        context);
   }
 
   @Nonnull
   @Override
   public List<Payload> encode(@Nonnull List<Payload> payloads) {
-    return ConverterUtils.withContext(chainCodec, serializationContext).encode(payloads);
+    return applyCodec(payloads, true);
   }
 
   @Nonnull
   @Override
   public List<Payload> decode(@Nonnull List<Payload> payloads) {
-    return ConverterUtils.withContext(chainCodec, serializationContext).decode(payloads);
+    return applyCodec(payloads, false);
+  }
+
+  private List<Payload> applyCodec(List<Payload> payloads, boolean encode) {
+    PayloadCodec codec = ConverterUtils.withContext(chainCodec, serializationContext);
+    int parts = Math.min(payloads.size(), codecParallelism);
+    if (codecExecutor == null || parts < 2) {
+      return encode ? codec.encode(payloads) : codec.decode(payloads);
+    }
+    int partSize = (payloads.size() + parts - 1) / parts;
+    List<CompletableFuture<List<Payload>>> otherParts = new ArrayList<>(parts - 1);
+    for (int from = partSize; from < payloads.size(); from += partSize) {
+      List<Payload> part = payloads.subList(from, Math.min(payloads.size(), from + partSize));
+      otherParts.add(
+          CompletableFuture.supplyAsync(
+              () -> encode ? codec.encode(part) : codec.decode(part), codecExecutor));
+    }
+    List<Payload> firstPart = payloads.subList(0, partSize);
+    List<Payload> result = new ArrayList<>(payloads.size());
+    result.addAll(encode ? codec.encode(firstPart) : codec.decode(firstPart));
+    for (CompletableFuture<List<Payload>> part : otherParts) {
+      try {
+        result.addAll(part.join());
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw e;
+      }
+    }
+    return result;
   }
 
+  /**
+   * Encodes the payloads of the failure and all its causes with a single call to the codecs, so
+   * codecs that make a remote call make only one per failure.
+   */
   private Failure.Builder encodeFailure(Failure.Builder failure) {
-    if (failure.hasCause()) {
-      failure.setCause(encodeFailure(failure.getCause().toBuilder()));
+    DataConverter converter = ConverterUtils.withContext(dataConverter, serializationContext);
+    List<Payload> payloads = new ArrayList<>();
+    for (Failure.Builder f = failure; ; f = f.getCauseBuilder()) {
+      if (this.encodeFailureAttributes) {
+        EncodedAttributes encodedAttributes = new EncodedAttributes();
+        encodedAttributes.setStackTrace(f.getStackTrace());
+        encodedAttributes.setMessage(f.getMessage());
+        payloads.add(converter.toPayload(Optional.of(encodedAttributes)).get());
+        f.setMessage(ENCODED_FAILURE_MESSAGE).setStackTrace("");
+      }
+      Payloads details = getDetails(f);
+      if (details != null) {
+        payloads.addAll(details.getPayloadsList());
+      }
+      if (!f.hasCause()) {
+        break;
+      }
+    }
+    if (payloads.isEmpty()) {
+      return failure;
+    }
+    List<Payload> encoded = encode(payloads);
+    Preconditions.checkState(
+        encoded.size() == payloads.size(), "Expected %s encoded payloads", payloads.size());
+    int index = 0;
+    for (Failure.Builder f = failure; ; f = f.getCauseBuilder()) {
+      if (this.encodeFailureAttributes) {
+        f.setEncodedAttributes(encoded.get(index++));
+      }
+      index = setDetails(f, encoded, index);
+      if (!f.hasCause()) {
+        break;
+      }
+    }
+    return failure;
+  }
+
+  /**
+   * Decodes the payloads of the failure and all its causes with a single call to the codecs, see
+   * {@link #encodeFailure(Failure.Builder)}.
+   */
+  private Failure.Builder decodeFailure(Failure.Builder failure) {
+    List<Payload> payloads = new ArrayList<>();
+    for (Failure.Builder f = failure; ; f = f.getCauseBuilder()) {
+      if (f.hasEncodedAttributes()) {
+        payloads.add(f.getEncodedAttributes());
+      }
+      Payloads details = getDetails(f);
+      if (details != null) {
+        payloads.addAll(details.getPayloadsList());
+      }
+      if (!f.hasCause()) {
+        break;
+      }
     }
-    if (this.encodeFailureAttributes) {
-      EncodedAttributes encodedAttributes = new EncodedAttributes();
-      encodedAttributes.setStackTrace(failure.getStackTrace());
-      encodedAttributes.setMessage(failure.getMessage());
-      Payload encodedAttributesPayload = toPayload(Optional.of(encodedAttributes)).get();
-      failure
-          .setEncodedAttributes(encodedAttributesPayload)
-          .setMessage(ENCODED_FAILURE_MESSAGE)
-          .setStackTrace("");
+    if (payloads.isEmpty()) {
+      return failure;
     }
+    List<Payload> decoded = decode(payloads);
+    Preconditions.checkState(
+        decoded.size() == payloads.size(), "Expected %s decoded payloads", payloads.size());
+    DataConverter converter = ConverterUtils.withContext(dataConverter, serializationContext);
+    int index = 0;
+    for (Failure.Builder f = failure; ; f = f.getCauseBuilder()) {
+      if (f.hasEncodedAttributes()) {
+        EncodedAttributes encodedAttributes =
+            converter.fromPayload(
+                decoded.get(index++), EncodedAttributes.class, EncodedAttributes.class);
+        f.setStackTrace(encodedAttributes.getStackTrace())
+            .setMessage(encodedAttributes.getMessage())
+            .clearEncodedAttributes();
+      }
+      index = setDetails(f, decoded, index);
+      if (!f.hasCause()) {
+        break;
+      }
+    }
+    return failure;
+  }
+
+  /**
+   * @return payloads of the failure info that are encoded by the codecs, null if there are none
+   */
+  @Nullable
+  private static Payloads getDetails(Failure.Builder failure) {
     switch (failure.getFailureInfoCase()) {
       case APPLICATION_FAILURE_INFO:
         {
-          ApplicationFailureInfo.Builder info = failure.getApplicationFailureInfo().toBuilder();
-          if (info.hasDetails()) {
-            info.setDetails(encodePayloads(info.getDetails()));
-          }
-          failure.setApplicationFailureInfo(info);
+          ApplicationFailureInfo info = failure.getApplicationFailureInfo();
+          return info.hasDetails() ? info.getDetails() : null;
         }
-        break;
       case TIMEOUT_FAILURE_INFO:
         {
-          TimeoutFailureInfo.Builder info = failure.getTimeoutFailureInfo().toBuilder();
-          if (info.hasLastHeartbeatDetails()) {
-            info.setLastHeartbeatDetails(encodePayloads(info.getLastHeartbeatDetails()));
-          }
-          failure.setTimeoutFailureInfo(info);
+          TimeoutFailureInfo info = failure.getTimeoutFailureInfo();
+          return info.hasLastHeartbeatDetails() ? info.getLastHeartbeatDetails() : null;
         }
-        break;
       case CANCELED_FAILURE_INFO:
         {
-          CanceledFailureInfo.Builder info = failure.getCanceledFailureInfo().toBuilder();
-          if (info.hasDetails()) {
-            info.setDetails(encodePayloads(info.getDetails()));
-          }
-          failure.setCanceledFailureInfo(info);
+          CanceledFailureInfo info = failure.getCanceledFailureInfo();
+          return info.hasDetails() ? info.getDetails() : null;
         }
-        break;
       case RESET_WORKFLOW_FAILURE_INFO:
         {
-          ResetWorkflowFailureInfo.Builder info = failure.getResetWorkflowFailureInfo().toBuilder();
-          if (info.hasLastHeartbeatDetails()) {
-            info.setLastHeartbeatDetails(encodePayloads(info.getLastHeartbeatDetails()));
-          }
-          failure.setResetWorkflowFailureInfo(info);
+          ResetWorkflowFailureInfo info = failure.getResetWorkflowFailureInfo();
+          return info.hasLastHeartbeatDetails() ? info.getLastHeartbeatDetails() : null;
         }
-        break;
       default:
         {
           // Other type of failure info don't have anything to encode
+          return null;
         }
     }
-    return failure;
   }
 
-  private Failure.Builder decodeFailure(Failure.Builder failure) {
-    if (failure.hasCause()) {
-      failure.setCause(decodeFailure(failure.getCause().toBuilder()));
-    }
-    if (failure.hasEncodedAttributes()) {
-      EncodedAttributes encodedAttributes =
-          fromPayload(
-              failure.getEncodedAttributes(), EncodedAttributes.class, EncodedAttributes.class);
-      failure
-          .setStackTrace(encodedAttributes.getStackTrace())
-          .setMessage(encodedAttributes.getMessage())
-          .clearEncodedAttributes();
+  /**
+   * Replaces the payloads returned by {@link #getDetails(Failure.Builder)} with the payloads from
+   * {@code payloads} starting at {@code index}.
+   *
+   * @return index of the first payload that belongs to the next failure
+   */
+  private static int setDetails(Failure.Builder failure, List<Payload> payloads, int index) {
+    Payloads details = getDetails(failure);
+    if (details == null) {
+      return index;
     }
+    int end = index + details.getPayloadsCount();
+    Payloads replaced = Payloads.newBuilder().addAllPayloads(payloads.subList(index, end)).build();
     switch (failure.getFailureInfoCase()) {
       case APPLICATION_FAILURE_INFO:
-        {
-          ApplicationFailureInfo.Builder info = failure.getApplicationFailureInfo().toBuilder();
-          if (info.hasDetails()) {
-            info.setDetails(decodePayloads(info.getDetails()));
-          }
-          failure.setApplicationFailureInfo(info);
-        }
+        failure.getApplicationFailureInfoBuilder().setDetails(replaced);
         break;
       case TIMEOUT_FAILURE_INFO:
-        {
-          TimeoutFailureInfo.Builder info = failure.getTimeoutFailureInfo().toBuilder();
-          if (info.hasLastHeartbeatDetails()) {
-            info.setLastHeartbeatDetails(decodePayloads(info.getLastHeartbeatDetails()));
-          }
-          failure.setTimeoutFailureInfo(info);
-        }
+        failure.getTimeoutFailureInfoBuilder().setLastHeartbeatDetails(replaced);
         break;
       case CANCELED_FAILURE_INFO:
-        {
-          CanceledFailureInfo.Builder info = failure.getCanceledFailureInfo().toBuilder();
-          if (info.hasDetails()) {
-            info.setDetails(decodePayloads(info.getDetails()));
-          }
-          failure.setCanceledFailureInfo(info);
-        }
+        failure.getCanceledFailureInfoBuilder().setDetails(replaced);
         break;
       case RESET_WORKFLOW_FAILURE_INFO:
-        {
-          ResetWorkflowFailureInfo.Builder info = failure.getResetWorkflowFailureInfo().toBuilder();
-          if (info.hasLastHeartbeatDetails()) {
-            info.setLastHeartbeatDetails(decodePayloads(info.getLastHeartbeatDetails()));
-          }
-          failure.setResetWorkflowFailureInfo(info);
-        }
+        failure.getResetWorkflowFailureInfoBuilder().setLastHeartbeatDetails(replaced);
         break;
       default:
-        {
-          // Other type of failure info don't have anything to decode
-        }
+        throw new IllegalStateException("Unexpected failure info: " + failure.getFailureInfoCase());
     }
-    return failure;
-  }
-
-  private Payloads encodePayloads(Payloads decodedPayloads) {
-    return Payloads.newBuilder().addAllPayloads(encode(decodedPayloads.getPayloadsList())).build();
+    return end;
   }
 
   private Payloads decodePayloads(Payloads encodedPayloads) {
@@ -26,4 +26,8 @@ public class EncodingKeys {
   static final String METADATA_ENCODING_PROTOBUF_NAME = "binary/protobuf";
   static final ByteString METADATA_ENCODING_PROTOBUF =
       ByteString.copyFrom(METADATA_ENCODING_PROTOBUF_NAME, StandardCharsets.UTF_8);
+
+  static final String METADATA_ENCODING_CBOR_NAME = "binary/cbor";
+  static final ByteString METADATA_ENCODING_CBOR =
+      ByteString.copyFrom(METADATA_ENCODING_CBOR_NAME, StandardCharsets.UTF_8);
 }
@@ -2,11 +2,15 @@ package io.temporal.common.converter;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.protobuf.ByteString;
 import io.temporal.api.common.v1.Payload;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
-import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -15,7 +19,7 @@ import java.util.function.Function;
  *
  * @author fateev
  */
-public final class GsonJsonPayloadConverter implements PayloadConverter {
+public final class GsonJsonPayloadConverter implements StreamingPayloadConverter {
 
   private static final PayloadConverter INSTANCE = new GsonJsonPayloadConverter();
 
@@ -50,19 +54,19 @@ public final class GsonJsonPayloadConverter implements PayloadConverter {
    * trace to save space and make them more readable.
    */
   @Override
-  public Optional<Payload> toData(Object value) throws DataConverterException {
+  public boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException {
+    payload.putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_JSON);
+    Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
     try {
-      String json = gson.toJson(value);
-      return Optional.of(
-          Payload.newBuilder()
-              .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_JSON)
-              .setData(ByteString.copyFrom(json, StandardCharsets.UTF_8))
-              .build());
+      gson.toJson(value, writer);
     } catch (DataConverterException e) {
       throw e;
     } catch (Throwable e) {
       throw new DataConverterException(e);
     }
+    writer.flush();
+    return true;
   }
 
   @Override
@@ -71,13 +75,16 @@ public final class GsonJsonPayloadConverter implements PayloadConverter {
     if (content == null) {
       return null;
     }
-    ByteString data = content.getData();
-    if (data.isEmpty()) {
+    return StreamingPayloadConverter.super.fromData(content, valueClass, valueType);
+  }
+
+  @Override
+  public <T> T readData(Payload content, InputStream data, Class<T> valueClass, Type valueType) {
+    if (content.getData().isEmpty()) {
       return null;
     }
     try {
-      String json = data.toString(StandardCharsets.UTF_8);
-      return gson.fromJson(json, valueType);
+      return gson.fromJson(new InputStreamReader(data, StandardCharsets.UTF_8), valueType);
     } catch (Exception e) {
       throw new DataConverterException(content, new Type[] {valueType}, e);
     }
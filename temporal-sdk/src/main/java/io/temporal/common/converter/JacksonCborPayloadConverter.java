@@ -0,0 +1,101 @@
+package io.temporal.common.converter;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.Experimental;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Serializes values into CBOR (RFC 8949), a compact binary equivalent of JSON, using Jackson. The
+ * payloads are marked with the {@code binary/cbor} encoding. Values are mapped the same way as by
+ * {@link JacksonJsonPayloadConverter}, so the same classes can be used with both encodings.
+ *
+ * <p>This converter requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-cbor} on
+ * the classpath. The SDK doesn't depend on it.
+ *
+ * <p>The converter is not a part of the default data converter. Switching existing workers and
+ * clients to the binary encoding is done in two steps, as payloads written by the new encoding
+ * must be readable by every process before it's used for writing:
+ *
+ * <ol>
+ *   <li>Deploy the converter for reading only. Payloads are still written as JSON, because the
+ *       converter is added after {@link JacksonJsonPayloadConverter}:
+ *       <pre>{@code
+ * DefaultDataConverter.newDefaultInstance()
+ *     .withPayloadConverterOverrides(new JacksonCborPayloadConverter());
+ * }</pre>
+ *   <li>Put the converter before {@link JacksonJsonPayloadConverter} to write new payloads as CBOR.
+ *       Payloads written as JSON stay readable:
+ *       <pre>{@code
+ * new DefaultDataConverter(
+ *     new NullPayloadConverter(),
+ *     new ByteArrayPayloadConverter(),
+ *     new ProtobufJsonPayloadConverter(),
+ *     new ProtobufPayloadConverter(),
+ *     new JacksonCborPayloadConverter(),
+ *     new JacksonJsonPayloadConverter());
+ * }</pre>
+ * </ol>
+ *
+ * <p>Note that the payloads of workflows using this encoding are not human-readable in the UI and
+ * CLI without a codec server or a converter plugin decoding them.
+ */
+@Experimental
+public class JacksonCborPayloadConverter implements StreamingPayloadConverter {
+
+  private final ObjectMapper mapper;
+
+  /**
+   * Can be used as a starting point for custom user configurations of ObjectMapper.
+   *
+   * @return a CBOR {@link ObjectMapper} with the same configuration as {@link
+   *     JacksonJsonPayloadConverter#newDefaultObjectMapper()}.
+   */
+  public static ObjectMapper newDefaultObjectMapper() {
+    return JacksonJsonPayloadConverter.configureDefaultObjectMapper(
+        new ObjectMapper(new CBORFactory()));
+  }
+
+  public JacksonCborPayloadConverter() {
+    this(newDefaultObjectMapper());
+  }
+
+  /**
+   * @param mapper mapper created with a {@link CBORFactory}
+   */
+  public JacksonCborPayloadConverter(ObjectMapper mapper) {
+    if (!(mapper.getFactory() instanceof CBORFactory)) {
+      throw new IllegalArgumentException(
+          "mapper must use CBORFactory, got " + mapper.getFactory().getClass().getName());
+    }
+    this.mapper = mapper;
+  }
+
+  @Override
+  public String getEncodingType() {
+    return EncodingKeys.METADATA_ENCODING_CBOR_NAME;
+  }
+
+  @Override
+  public boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException {
+    payload.putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_CBOR);
+    mapper.writeValue(output, value);
+    return true;
+  }
+
+  @Override
+  public <T> T readData(Payload content, InputStream data, Class<T> valueClass, Type valueType)
+      throws IOException {
+    if (content.getData().isEmpty()) {
+      return null;
+    }
+    JavaType reference = mapper.getTypeFactory().constructType(valueType);
+    return mapper.readValue(data, reference);
+  }
+}
@@ -2,20 +2,19 @@ package io.temporal.common.converter;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.protobuf.ByteString;
 import io.temporal.api.common.v1.Payload;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
-import java.util.Optional;
 
-public class JacksonJsonPayloadConverter implements PayloadConverter {
+public class JacksonJsonPayloadConverter implements StreamingPayloadConverter {
 
   private final ObjectMapper mapper;
 
@@ -26,7 +25,11 @@ public class JacksonJsonPayloadConverter implements PayloadConverter {
    *     JacksonJsonPayloadConverter}.
    */
   public static ObjectMapper newDefaultObjectMapper() {
-    ObjectMapper mapper = new ObjectMapper();
+    return configureDefaultObjectMapper(new ObjectMapper());
+  }
+
+  /** Applies the default configuration of {@link #newDefaultObjectMapper()} to the mapper. */
+  static ObjectMapper configureDefaultObjectMapper(ObjectMapper mapper) {
     // preserve the original value of timezone coming from the server in Payload
     // without adjusting to the host timezone
     // may be important if the replay is happening on a host in another timezone
@@ -52,33 +55,21 @@ public class JacksonJsonPayloadConverter implements PayloadConverter {
   }
 
   @Override
-  public Optional<Payload> toData(Object value) throws DataConverterException {
-    try {
-      byte[] serialized = mapper.writeValueAsBytes(value);
-      return Optional.of(
-          Payload.newBuilder()
-              .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_JSON)
-              .setData(ByteString.copyFrom(serialized))
-              .build());
-
-    } catch (JsonProcessingException e) {
-      throw new DataConverterException(e);
-    }
+  public boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException {
+    payload.putMetadata(EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_JSON);
+    mapper.writeValue(output, value);
+    return true;
   }
 
   @Override
-  public <T> T fromData(Payload content, Class<T> valueClass, Type valueType)
-      throws DataConverterException {
-    ByteString data = content.getData();
-    if (data.isEmpty()) {
+  public <T> T readData(Payload content, InputStream data, Class<T> valueClass, Type valueType)
+      throws IOException {
+    if (content.getData().isEmpty()) {
       return null;
     }
-    try {
-      @SuppressWarnings("deprecation")
-      JavaType reference = mapper.getTypeFactory().constructType(valueType, valueClass);
-      return mapper.readValue(content.getData().toByteArray(), reference);
-    } catch (IOException e) {
-      throw new DataConverterException(e);
-    }
+    @SuppressWarnings("deprecation")
+    JavaType reference = mapper.getTypeFactory().constructType(valueType, valueClass);
+    return mapper.readValue(data, reference);
   }
 }
@@ -2,19 +2,23 @@ package io.temporal.common.converter;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.MessageOrBuilder;
 import com.google.protobuf.util.JsonFormat;
 import io.temporal.api.common.v1.Payload;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Objects;
-import java.util.Optional;
 
 public final class ProtobufJsonPayloadConverter extends AbstractProtobufPayloadConverter
-    implements PayloadConverter {
+    implements StreamingPayloadConverter {
 
   private final JsonFormat.Printer printer;
   private final JsonFormat.Parser parser;
@@ -47,37 +51,35 @@ public final class ProtobufJsonPayloadConverter extends AbstractProtobufPayloadC
   }
 
   @Override
-  public Optional<Payload> toData(Object value) throws DataConverterException {
+  public boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException {
     if (!(value instanceof MessageOrBuilder)) {
-      return Optional.empty();
+      return false;
     }
 
+    payload.putMetadata(
+        EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_PROTOBUF_JSON);
+    super.addMessageType(payload, value);
+    Writer writer = new OutputStreamWriter(output, UTF_8);
     try {
-      String data = printer.print((MessageOrBuilder) value);
-      Payload.Builder builder =
-          Payload.newBuilder()
-              .putMetadata(
-                  EncodingKeys.METADATA_ENCODING_KEY, EncodingKeys.METADATA_ENCODING_PROTOBUF_JSON)
-              .setData(ByteString.copyFrom(data, UTF_8));
-      super.addMessageType(builder, value);
-      return Optional.of(builder.build());
+      printer.appendTo((MessageOrBuilder) value, writer);
     } catch (InvalidProtocolBufferException e) {
       throw new DataConverterException(e);
     }
+    writer.flush();
+    return true;
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public <T> T fromData(Payload content, Class<T> valueClass, Type valueType)
-      throws DataConverterException {
-    ByteString data = content.getData();
+  public <T> T readData(Payload content, InputStream data, Class<T> valueClass, Type valueType) {
     if (!MessageOrBuilder.class.isAssignableFrom(valueClass)) {
       throw new IllegalArgumentException("Not a protobuf. valueClass=" + valueClass.getName());
     }
     try {
       Method toBuilder = valueClass.getMethod("newBuilder");
       Message.Builder builder = (Message.Builder) toBuilder.invoke(null);
-      parser.merge(data.toString(UTF_8), builder);
+      parser.merge(new InputStreamReader(data, UTF_8), builder);
       Message instance = builder.build();
       super.checkMessageType(content, instance);
       return (T) instance;
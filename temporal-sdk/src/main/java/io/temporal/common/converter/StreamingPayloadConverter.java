@@ -0,0 +1,74 @@
+package io.temporal.common.converter;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.Experimental;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * {@link PayloadConverter} that serializes values directly into the data of the {@link Payload} and
+ * deserializes them directly from it. {@link #toData(Object)} passes a {@link ByteString.Output} to
+ * {@link #writeData} and uses the chunks written into it as the payload data without copying them.
+ * {@link #fromData(Payload, Class, Type)} passes {@link ByteString#newInput()} to {@link
+ * #readData}. No intermediate byte arrays of the size of the payload are allocated on either path.
+ */
+@Experimental
+public interface StreamingPayloadConverter extends PayloadConverter {
+
+  /**
+   * Serializes a value into the data of a payload.
+   *
+   * @param value Java value to convert
+   * @param payload builder of the payload produced by the converter. The converter is expected to
+   *     put its metadata into it, the data is set by the caller from {@code output}
+   * @param output receives the serialized value
+   * @return false if this converter doesn't handle the value. Nothing should be written into
+   *     {@code payload} or {@code output} in this case.
+   * @throws IOException if writing into {@code output} failed
+   * @throws DataConverterException if conversion of the value failed for any other reason
+   */
+  boolean writeData(Object value, Payload.Builder payload, OutputStream output)
+      throws IOException, DataConverterException;
+
+  /**
+   * Deserializes a value from the data of a payload.
+   *
+   * @param content payload which data is deserialized
+   * @param data stream over the data of {@code content}
+   * @param valueType type of the value stored in the {@code content}
+   * @param valueGenericType generic type of the value stored in the {@code content}
+   * @return converted Java object
+   * @throws IOException if reading from {@code data} failed
+   * @throws DataConverterException if conversion of the data failed for any other reason
+   */
+  <T> T readData(Payload content, InputStream data, Class<T> valueType, Type valueGenericType)
+      throws IOException, DataConverterException;
+
+  @Override
+  default Optional<Payload> toData(Object value) throws DataConverterException {
+    Payload.Builder payload = Payload.newBuilder();
+    ByteString.Output output = ByteString.newOutput();
+    try {
+      if (!writeData(value, payload, output)) {
+        return Optional.empty();
+      }
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+    return Optional.of(payload.setData(output.toByteString()).build());
+  }
+
+  @Override
+  default <T> T fromData(Payload content, Class<T> valueType, Type valueGenericType)
+      throws DataConverterException {
+    try (InputStream data = content.getData().newInput()) {
+      return readData(content, data, valueType, valueGenericType);
+    } catch (IOException e) {
+      throw new DataConverterException(e);
+    }
+  }
+}
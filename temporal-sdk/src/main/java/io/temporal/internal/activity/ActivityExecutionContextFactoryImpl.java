@@ -7,6 +7,7 @@ import io.temporal.internal.client.external.ManualActivityCompletionClientFactor
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.Nullable;
 
 public class ActivityExecutionContextFactoryImpl implements ActivityExecutionContextFactory {
   private final WorkflowClient client;
@@ -16,6 +17,7 @@ public class ActivityExecutionContextFactoryImpl implements ActivityExecutionCon
   private final Duration defaultHeartbeatThrottleInterval;
   private final DataConverter dataConverter;
   private final ScheduledExecutorService heartbeatExecutor;
+  private final Duration heartbeatCoalescingWindow;
   private final ManualActivityCompletionClientFactory manualCompletionClientFactory;
 
   public ActivityExecutionContextFactoryImpl(
@@ -26,6 +28,30 @@ public class ActivityExecutionContextFactoryImpl implements ActivityExecutionCon
       Duration defaultHeartbeatThrottleInterval,
       DataConverter dataConverter,
       ScheduledExecutorService heartbeatExecutor) {
+    this(
+        client,
+        identity,
+        namespace,
+        maxHeartbeatThrottleInterval,
+        defaultHeartbeatThrottleInterval,
+        dataConverter,
+        heartbeatExecutor,
+        null);
+  }
+
+  /**
+   * @param heartbeatCoalescingWindow delay of the first heartbeat of an activity, null or zero to
+   *     send it right away
+   */
+  public ActivityExecutionContextFactoryImpl(
+      WorkflowClient client,
+      String identity,
+      String namespace,
+      Duration maxHeartbeatThrottleInterval,
+      Duration defaultHeartbeatThrottleInterval,
+      DataConverter dataConverter,
+      ScheduledExecutorService heartbeatExecutor,
+      @Nullable Duration heartbeatCoalescingWindow) {
     this.client = Objects.requireNonNull(client);
     this.identity = identity;
     this.namespace = Objects.requireNonNull(namespace);
@@ -34,6 +60,8 @@ public class ActivityExecutionContextFactoryImpl implements ActivityExecutionCon
         Objects.requireNonNull(defaultHeartbeatThrottleInterval);
     this.dataConverter = Objects.requireNonNull(dataConverter);
     this.heartbeatExecutor = Objects.requireNonNull(heartbeatExecutor);
+    this.heartbeatCoalescingWindow =
+        heartbeatCoalescingWindow != null ? heartbeatCoalescingWindow : Duration.ZERO;
     this.manualCompletionClientFactory =
         ManualActivityCompletionClientFactory.newFactory(
             client.getWorkflowServiceStubs(), namespace, identity, dataConverter);
@@ -54,6 +82,7 @@ public class ActivityExecutionContextFactoryImpl implements ActivityExecutionCon
         metricsScope,
         identity,
         maxHeartbeatThrottleInterval,
-        defaultHeartbeatThrottleInterval);
+        defaultHeartbeatThrottleInterval,
+        heartbeatCoalescingWindow);
   }
 }
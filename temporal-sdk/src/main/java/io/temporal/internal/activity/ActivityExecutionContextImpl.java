@@ -51,7 +51,8 @@ class ActivityExecutionContextImpl implements InternalActivityExecutionContext {
       Scope metricsScope,
       String identity,
       Duration maxHeartbeatThrottleInterval,
-      Duration defaultHeartbeatThrottleInterval) {
+      Duration defaultHeartbeatThrottleInterval,
+      Duration heartbeatCoalescingWindow) {
     this.client = client;
     this.activity = activity;
     this.metricsScope = metricsScope;
@@ -68,7 +69,8 @@ class ActivityExecutionContextImpl implements InternalActivityExecutionContext {
             metricsScope,
             identity,
             maxHeartbeatThrottleInterval,
-            defaultHeartbeatThrottleInterval);
+            defaultHeartbeatThrottleInterval,
+            heartbeatCoalescingWindow);
   }
 
   /**
@@ -156,6 +158,11 @@ class ActivityExecutionContextImpl implements InternalActivityExecutionContext {
     return heartbeatContext.getLastHeartbeatDetails();
   }
 
+  @Override
+  public void cancelOutstandingHeartbeat() {
+    heartbeatContext.cancelOutstandingHeartbeat();
+  }
+
   @Override
   public WorkflowClient getWorkflowClient() {
     return client;
@@ -17,10 +17,12 @@ import io.temporal.common.interceptors.ActivityInboundCallsInterceptor.ActivityO
 import io.temporal.common.interceptors.Header;
 import io.temporal.common.interceptors.WorkerInterceptor;
 import io.temporal.internal.common.FailureUtils;
+import io.temporal.internal.common.MethodInvoker;
 import io.temporal.internal.worker.ActivityTaskHandler;
 import io.temporal.payload.context.ActivitySerializationContext;
 import io.temporal.serviceclient.CheckedExceptionWrapper;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,8 +94,11 @@ final class ActivityTaskExecutors {
               info.getActivityId(), null, null, null, context.isUseLocalManualCompletion());
         }
 
+        context.cancelOutstandingHeartbeat();
         return this.constructSuccessfulResultValue(info, result, dataConverterWithActivityContext);
       } catch (Throwable e) {
+        // the last heartbeat details are reported with the failure
+        context.cancelOutstandingHeartbeat();
         Throwable ex = CheckedExceptionWrapper.unwrap(e);
         boolean local = info.isLocal();
         if (ex instanceof ActivityCanceledException) {
@@ -173,7 +178,9 @@ final class ActivityTaskExecutors {
   }
 
   static class POJOActivityImplementation extends BaseActivityTaskExecutor {
-    private final Method method;
+    private final MethodInvoker method;
+    private final Class<?>[] parameterTypes;
+    private final Type[] genericParameterTypes;
     private final Object activity;
 
     POJOActivityImplementation(
@@ -184,7 +191,10 @@ final class ActivityTaskExecutors {
         WorkerInterceptor[] interceptors,
         ActivityExecutionContextFactory executionContextFactory) {
       super(dataConverter, contextPropagators, interceptors, executionContextFactory);
-      this.method = interfaceMethod;
+      // Resolved once per activity type instead of on every invocation
+      this.method = MethodInvoker.of(interfaceMethod);
+      this.parameterTypes = interfaceMethod.getParameterTypes();
+      this.genericParameterTypes = interfaceMethod.getGenericParameterTypes();
       this.activity = activity;
     }
 
@@ -202,7 +212,7 @@ final class ActivityTaskExecutors {
     @Override
     Object[] provideArgs(Optional<Payloads> input, DataConverter dataConverterWithActivityContext) {
       return dataConverterWithActivityContext.fromPayloads(
-          input, method.getParameterTypes(), method.getGenericParameterTypes());
+          input, parameterTypes, genericParameterTypes);
     }
 
     @Override
@@ -213,7 +223,7 @@ final class ActivityTaskExecutors {
       return constructResultValue(
           info,
           // if the expected result of the method is null, we don't publish result at all
-          method.getReturnType() != Void.TYPE ? result : null,
+          method.getMethod().getReturnType() != Void.TYPE ? result : null,
           dataConverterWithActivityContext);
     }
   }
@@ -17,4 +17,10 @@ interface HeartbeatContext {
   <V> Optional<V> getHeartbeatDetails(Class<V> detailsClass, Type detailsGenericType);
 
   Object getLastHeartbeatDetails();
+
+  /**
+   * Drops the heartbeat that was recorded but not sent yet. No-op if heartbeat coalescing is
+   * disabled.
+   */
+  void cancelOutstandingHeartbeat();
 }
@@ -12,6 +12,7 @@ import io.temporal.common.converter.DataConverter;
 import io.temporal.internal.client.ActivityClientHelper;
 import io.temporal.payload.context.ActivitySerializationContext;
 import io.temporal.serviceclient.WorkflowServiceStubs;
+import io.temporal.worker.MetricsType;
 import java.lang.reflect.Type;
 import java.time.Duration;
 import java.util.Optional;
@@ -37,6 +38,7 @@ class HeartbeatContextImpl implements HeartbeatContext {
   private final String identity;
   private final ScheduledExecutorService heartbeatExecutor;
   private final long heartbeatIntervalMillis;
+  private final long heartbeatCoalescingWindowMillis;
   private final DataConverter dataConverter;
   private final DataConverter dataConverterWithActivityContext;
 
@@ -47,6 +49,8 @@ class HeartbeatContextImpl implements HeartbeatContext {
   private boolean receivedAHeartbeat = false;
   private Object lastDetails;
   private boolean hasOutstandingHeartbeat;
+  // System.nanoTime() of the first heartbeat that is not sent yet, used with coalescing only
+  private long outstandingSinceNanos;
   private ScheduledFuture<?> scheduledHeartbeat;
 
   private ActivityCompletionException lastException;
@@ -60,7 +64,8 @@ class HeartbeatContextImpl implements HeartbeatContext {
       Scope metricsScope,
       String identity,
       Duration maxHeartbeatThrottleInterval,
-      Duration defaultHeartbeatThrottleInterval) {
+      Duration defaultHeartbeatThrottleInterval,
+      Duration heartbeatCoalescingWindow) {
     this.service = service;
     this.metricsScope = metricsScope;
     this.dataConverter = dataConverter;
@@ -83,6 +88,7 @@ class HeartbeatContextImpl implements HeartbeatContext {
             info.getHeartbeatTimeout(),
             maxHeartbeatThrottleInterval,
             defaultHeartbeatThrottleInterval);
+    this.heartbeatCoalescingWindowMillis = heartbeatCoalescingWindow.toMillis();
   }
 
   /**
@@ -97,10 +103,18 @@ class HeartbeatContextImpl implements HeartbeatContext {
     try {
       receivedAHeartbeat = true;
       lastDetails = details;
-      hasOutstandingHeartbeat = true;
+      if (!hasOutstandingHeartbeat) {
+        hasOutstandingHeartbeat = true;
+        outstandingSinceNanos = System.nanoTime();
+      }
       // Only do sync heartbeat if there is no such call scheduled.
       if (scheduledHeartbeat == null) {
-        doHeartBeatLocked(details);
+        if (heartbeatCoalescingWindowMillis > 0) {
+          // the heartbeats recorded during the window are sent in one request
+          scheduleNextHeartbeatLocked(heartbeatCoalescingWindowMillis);
+        } else {
+          doHeartBeatLocked(details);
+        }
       }
       if (lastException != null) {
         throw lastException;
@@ -143,8 +157,31 @@ class HeartbeatContextImpl implements HeartbeatContext {
     }
   }
 
+  @Override
+  public void cancelOutstandingHeartbeat() {
+    if (heartbeatCoalescingWindowMillis <= 0) {
+      // without coalescing the outstanding heartbeat is still sent after the completion
+      return;
+    }
+    lock.lock();
+    try {
+      hasOutstandingHeartbeat = false;
+      if (scheduledHeartbeat != null) {
+        scheduledHeartbeat.cancel(false);
+        scheduledHeartbeat = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
   private void doHeartBeatLocked(Object details) {
     long nextHeartbeatDelay;
+    if (heartbeatCoalescingWindowMillis > 0) {
+      metricsScope
+          .timer(MetricsType.ACTIVITY_HEARTBEAT_COALESCING_LATENCY)
+          .record(com.uber.m3.util.Duration.ofNanos(System.nanoTime() - outstandingSinceNanos));
+    }
     try {
       sendHeartbeatRequest(details);
       hasOutstandingHeartbeat = false;
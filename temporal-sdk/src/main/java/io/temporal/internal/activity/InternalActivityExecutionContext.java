@@ -9,4 +9,11 @@ import io.temporal.activity.ActivityExecutionContext;
 public interface InternalActivityExecutionContext extends ActivityExecutionContext {
   /** Get the latest value of {@link ActivityExecutionContext#heartbeat(Object)}. */
   Object getLastHeartbeatValue();
+
+  /**
+   * Drops the heartbeat that was recorded by the activity but not sent to the service yet. Called
+   * when the activity completes, as the completion supersedes the heartbeat. No-op if heartbeat
+   * coalescing is disabled.
+   */
+  void cancelOutstandingHeartbeat();
 }
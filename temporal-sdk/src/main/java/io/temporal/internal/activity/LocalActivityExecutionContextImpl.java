@@ -79,6 +79,11 @@ class LocalActivityExecutionContextImpl implements InternalActivityExecutionCont
     return null;
   }
 
+  @Override
+  public void cancelOutstandingHeartbeat() {
+    // Ignored
+  }
+
   @Override
   public WorkflowClient getWorkflowClient() {
     return client;
@@ -5,8 +5,7 @@ import io.temporal.activity.ActivityExecutionContext;
 import io.temporal.activity.DynamicActivity;
 import io.temporal.common.converter.EncodedValues;
 import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import io.temporal.internal.common.MethodInvoker;
 
 abstract class RootActivityInboundCallsInterceptor implements ActivityInboundCallsInterceptor {
   private ActivityExecutionContext context;
@@ -31,9 +30,9 @@ abstract class RootActivityInboundCallsInterceptor implements ActivityInboundCal
 
   static class POJOActivityInboundCallsInterceptor extends RootActivityInboundCallsInterceptor {
     private final Object activity;
-    private final Method method;
+    private final MethodInvoker method;
 
-    POJOActivityInboundCallsInterceptor(Object activity, Method method) {
+    POJOActivityInboundCallsInterceptor(Object activity, MethodInvoker method) {
       this.activity = activity;
       this.method = method;
     }
@@ -42,9 +41,7 @@ abstract class RootActivityInboundCallsInterceptor implements ActivityInboundCal
     protected Object executeActivity(ActivityInput input) {
       try {
         return method.invoke(activity, input.getArguments());
-      } catch (InvocationTargetException e) {
-        throw Activity.wrap(e.getTargetException());
-      } catch (Exception e) {
+      } catch (Throwable e) {
         throw Activity.wrap(e);
       }
     }
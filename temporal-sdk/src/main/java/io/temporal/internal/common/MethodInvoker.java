@@ -0,0 +1,92 @@
+package io.temporal.internal.common;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Invokes activity, workflow, signal, query and update methods with an argument array.
+ *
+ * <p>The method is resolved once to a {@link MethodHandle} adapted to {@code (Object,
+ * Object[])Object}, which avoids the access checks and argument copying that {@link
+ * Method#invoke(Object, Object...)} performs on every call. Methods that can't be accessed through
+ * a {@link MethodHandles.Lookup} of the SDK, like public methods of non-public interfaces, are
+ * invoked through reflection exactly as before.
+ */
+@ThreadSafe
+public final class MethodInvoker {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /**
+   * Invokers keyed by the class declaring the method, so that the cache doesn't prevent user
+   * classes from being unloaded.
+   */
+  private static final ClassValue<Map<Method, MethodInvoker>> INVOKERS =
+      new ClassValue<Map<Method, MethodInvoker>>() {
+        @Override
+        protected Map<Method, MethodInvoker> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final Method method;
+  private final @Nullable MethodHandle handle;
+
+  /**
+   * @return invoker of the method that is resolved on the first call and cached afterward
+   */
+  public static MethodInvoker of(Method method) {
+    return INVOKERS.get(method.getDeclaringClass()).computeIfAbsent(method, MethodInvoker::new);
+  }
+
+  private MethodInvoker(Method method) {
+    this.method = method;
+    this.handle = toSpreadHandle(method);
+  }
+
+  @Nullable
+  private static MethodHandle toSpreadHandle(Method method) {
+    MethodHandle handle;
+    try {
+      handle = LOOKUP.unreflect(method);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+    int parameterCount = method.getParameterCount();
+    return handle
+        .asFixedArity()
+        .asType(MethodType.genericMethodType(parameterCount + 1))
+        .asSpreader(Object[].class, parameterCount);
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  /**
+   * Invokes the method. Unlike {@link Method#invoke(Object, Object...)} exceptions thrown by the
+   * method are not wrapped into {@link InvocationTargetException}.
+   *
+   * @param target object to invoke the method on
+   * @param args arguments of the method
+   * @return value returned by the method or null if the method is void
+   * @throws Throwable exception thrown by the method, or a {@link RuntimeException} if the
+   *     arguments don't match the parameters of the method
+   */
+  public Object invoke(Object target, Object[] args) throws Throwable {
+    if (handle != null) {
+      return (Object) handle.invokeExact(target, args);
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+}
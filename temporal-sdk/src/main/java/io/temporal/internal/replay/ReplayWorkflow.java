@@ -51,6 +51,11 @@ public interface ReplayWorkflow {
    */
   Optional<Payloads> query(WorkflowQuery query);
 
+  /**
+   * @return number of workflow threads of this workflow that are currently alive
+   */
+  int getWorkflowThreadCount();
+
   // TODO we should inverse the control. WorkflowContext should have and expose a reference to
   //  ReplayWorkflow, not the other way around.
   /**
@@ -46,6 +46,11 @@ import java.util.concurrent.locks.ReentrantLock;
  * is created per cached workflow run.
  */
 class ReplayWorkflowRunTaskHandler implements WorkflowRunTaskHandler {
+  // Rough heap costs used by getEstimatedRetainedSize. These are estimates, not measurements.
+  private static final long BASE_RETAINED_SIZE_BYTES = 16 * 1024;
+  private static final long RETAINED_SIZE_PER_ENTITY_BYTES = 512;
+  private static final long RETAINED_SIZE_PER_WORKFLOW_THREAD_BYTES = 32 * 1024;
+
   private final Scope metricsScope;
 
   private final WorkflowExecutionStartedEventAttributes startedEvent;
@@ -75,6 +80,9 @@ class ReplayWorkflowRunTaskHandler implements WorkflowRunTaskHandler {
 
   private final GetSystemInfoResponse.Capabilities capabilities;
 
+  // Updated under the lock after each applied history, read by the workflow cache without it
+  private volatile int retainedEntityCount;
+
   ReplayWorkflowRunTaskHandler(
       String namespace,
       ReplayWorkflow workflow,
@@ -214,13 +222,28 @@ class ReplayWorkflowRunTaskHandler implements WorkflowRunTaskHandler {
     workflowStateMachines.resetStartedEventId(eventId);
   }
 
+  @Override
+  public long getEstimatedRetainedSize() {
+    // Processed events are not retained, only the started event and the state machines that
+    // are still open are, so the estimate doesn't grow with the length of the history. Payloads
+    // other than the ones of the started event are not counted.
+    return BASE_RETAINED_SIZE_BYTES
+        + startedEvent.getSerializedSize()
+        + (long) retainedEntityCount * RETAINED_SIZE_PER_ENTITY_BYTES
+        + workflow.getWorkflowThreadCount() * RETAINED_SIZE_PER_WORKFLOW_THREAD_BYTES;
+  }
+
   private void handleWorkflowTaskImpl(
       PollWorkflowTaskQueueResponseOrBuilder workflowTask,
       WorkflowHistoryIterator historyIterator) {
     workflowStateMachines.setWorkflowStartedEventId(workflowTask.getStartedEventId());
     workflowStateMachines.setReplaying(workflowTask.getPreviousStartedEventId() > 0);
     workflowStateMachines.setMessages(workflowTask.getMessagesList());
-    applyServerHistory(workflowTask.getStartedEventId(), historyIterator);
+    try {
+      applyServerHistory(workflowTask.getStartedEventId(), historyIterator);
+    } finally {
+      retainedEntityCount = workflowStateMachines.getRetainedEntityCount();
+    }
   }
 
   private void applyServerHistory(long lastEventId, WorkflowHistoryIterator historyIterator) {
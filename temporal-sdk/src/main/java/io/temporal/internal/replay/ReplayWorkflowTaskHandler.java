@@ -86,6 +86,7 @@ public final class ReplayWorkflowTaskHandler implements WorkflowTaskHandler {
     AtomicBoolean createdNew = new AtomicBoolean();
     WorkflowExecution execution = workflowTask.getWorkflowExecution();
     WorkflowRunTaskHandler workflowRunTaskHandler = null;
+    ServiceWorkflowHistoryIterator historyIterator = null;
     boolean useCache = stickyTaskQueue != null;
 
     try {
@@ -93,8 +94,14 @@ public final class ReplayWorkflowTaskHandler implements WorkflowTaskHandler {
           getOrCreateWorkflowExecutor(useCache, workflowTask, metricsScope, createdNew);
       logWorkflowTaskToBeProcessed(workflowTask, createdNew);
 
-      ServiceWorkflowHistoryIterator historyIterator =
-          new ServiceWorkflowHistoryIterator(service, namespace, workflowTask, metricsScope);
+      historyIterator =
+          new ServiceWorkflowHistoryIterator(
+              service,
+              namespace,
+              workflowTask,
+              metricsScope,
+              options.getWorkflowHistoryReadAheadPages(),
+              options.getWorkflowHistoryReadAheadBytes());
       boolean finalCommand;
       Result result;
 
@@ -128,6 +135,8 @@ public final class ReplayWorkflowTaskHandler implements WorkflowTaskHandler {
           cache.invalidate(execution, metricsScope, "FinalCommand", null);
         } else if (createdNew.get()) {
           cache.addToCache(execution, workflowRunTaskHandler);
+        } else {
+          cache.updateWeight(execution, workflowRunTaskHandler);
         }
       }
 
@@ -163,6 +172,10 @@ public final class ReplayWorkflowTaskHandler implements WorkflowTaskHandler {
         return failureToWFTResult(workflowTask, e, dataConverterWithWorkflowContext);
       }
     } finally {
+      if (historyIterator != null) {
+        // the iteration is normally complete at this point, unless the task failed
+        historyIterator.cancelReadAhead();
+      }
       if (!useCache && workflowRunTaskHandler != null) {
         // we close the execution in finally only if we don't use cache, otherwise it stays open
         workflowRunTaskHandler.close();
@@ -2,6 +2,10 @@ package io.temporal.internal.replay;
 
 import static io.temporal.serviceclient.MetricsTag.METRICS_TAGS_CALL_OPTIONS_KEY;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.protobuf.ByteString;
 import com.uber.m3.tally.Scope;
 import io.grpc.Deadline;
@@ -12,14 +16,31 @@ import io.temporal.api.history.v1.HistoryEvent;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryRequest;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryResponse;
 import io.temporal.api.workflowservice.v1.PollWorkflowTaskQueueResponseOrBuilder;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
 import io.temporal.internal.retryer.GrpcRetryer;
 import io.temporal.serviceclient.RpcRetryOptions;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
-/** Supports iteration over history while loading new pages through calls to the service. */
+/**
+ * Supports iteration over history while loading new pages through calls to the service.
+ *
+ * <p>Only the pages that are being iterated over or read ahead are referenced by this iterator, the
+ * consumed pages become garbage as soon as the iteration moves to the next page. If read-ahead is
+ * enabled, the following pages are requested one after another through the future stub as soon as
+ * the iteration starts, so the replay of the current page overlaps with the round trips to the
+ * service. The read-ahead stops when the configured number of pages is requested or when the
+ * loaded pages that are not consumed yet exceed the byte budget, and it resumes as the pages are
+ * consumed. A failed read-ahead request is not an error, the page is requested again using the
+ * regular retry policy.
+ */
 class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
 
   private final Duration retryServiceOperationInitialInterval = Duration.ofMillis(200);
@@ -29,16 +50,47 @@ class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
   private final Scope metricsScope;
   private final PollWorkflowTaskQueueResponseOrBuilder task;
   private final GrpcRetryer grpcRetryer;
+  private final int readAheadPages;
+  private final long readAheadBytes;
   private Deadline deadline;
   private Iterator<HistoryEvent> current;
   ByteString nextPageToken;
 
+  // Requests for the pages following nextPageToken in the history order. Accessed by the iterating
+  // thread and by the callbacks of the completed requests.
+  @GuardedBy("this")
+  private final ArrayDeque<PageRequest> readAhead = new ArrayDeque<>();
+
+  @GuardedBy("this")
+  private long readAheadLoadedBytes;
+
+  @GuardedBy("this")
+  private boolean cancelled;
+
   ServiceWorkflowHistoryIterator(
       WorkflowServiceStubs service,
       String namespace,
       PollWorkflowTaskQueueResponseOrBuilder task,
       Scope metricsScope) {
+    this(service, namespace, task, metricsScope, 0, 0);
+  }
+
+  /**
+   * @param readAheadPages maximum number of pages that are requested before the iteration reaches
+   *     them, 0 disables the read-ahead
+   * @param readAheadBytes no more pages are requested while the loaded pages that are not consumed
+   *     yet take more than this number of bytes
+   */
+  ServiceWorkflowHistoryIterator(
+      WorkflowServiceStubs service,
+      String namespace,
+      PollWorkflowTaskQueueResponseOrBuilder task,
+      Scope metricsScope,
+      int readAheadPages,
+      long readAheadBytes) {
     this.service = service;
+    this.readAheadPages = readAheadPages;
+    this.readAheadBytes = readAheadBytes;
     this.namespace = namespace;
     this.task = task;
     this.metricsScope = metricsScope;
@@ -62,10 +114,11 @@ class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
       // We need to verify that page is valid before returning true.
       // Otherwise, next() method would throw NoSuchElementException after hasNext() returning
       // true.
-      GetWorkflowExecutionHistoryResponse response = queryWorkflowExecutionHistory();
+      GetWorkflowExecutionHistoryResponse response = nextPage();
 
       current = response.getHistory().getEventsList().iterator();
       nextPageToken = response.getNextPageToken();
+      readAhead();
       // Server can return an empty page, but a valid nextPageToken that contains
       // more events.
       if (current.hasNext()) {
@@ -85,6 +138,107 @@ class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
 
   public void initDeadline(Deadline deadline) {
     this.deadline = deadline;
+    // the iteration is about to start, it's the earliest point where the deadline is known
+    readAhead();
+  }
+
+  /**
+   * Cancels the requests of the pages that were not consumed yet. Should be called when the
+   * iteration is abandoned before reaching the end of the history.
+   */
+  public synchronized void cancelReadAhead() {
+    cancelled = true;
+    for (PageRequest request : readAhead) {
+      request.response.cancel(true);
+    }
+    readAhead.clear();
+    readAheadLoadedBytes = 0;
+  }
+
+  private GetWorkflowExecutionHistoryResponse nextPage() {
+    PageRequest request;
+    synchronized (this) {
+      request = readAhead.pollFirst();
+      if (request != null) {
+        readAheadLoadedBytes -= request.loadedBytes;
+      }
+    }
+    if (request != null) {
+      try {
+        // the request has the same deadline as the whole pagination, so this wait is bounded
+        return Uninterruptibles.getUninterruptibly(request.response);
+      } catch (ExecutionException | CancellationException e) {
+        // fall through to the retried request,
+        // no pages are requested after a failed one, so there is nothing else to cancel
+      }
+    }
+    return queryWorkflowExecutionHistory();
+  }
+
+  /** Called by the iterating thread when it moves to a new page. */
+  private synchronized void readAhead() {
+    readAheadLocked(nextPageToken);
+  }
+
+  /**
+   * Requests the page that follows the last requested one if it's known and the limits allow it.
+   *
+   * @param pageToken token to use if there are no requests in the queue, null if this call is not
+   *     made by the iterating thread and {@link #nextPageToken} can't be read
+   */
+  @GuardedBy("this")
+  private void readAheadLocked(@Nullable ByteString pageToken) {
+    if (readAheadPages <= 0
+        || cancelled
+        || readAhead.size() >= readAheadPages
+        || readAheadLoadedBytes >= readAheadBytes) {
+      return;
+    }
+    PageRequest last = readAhead.peekLast();
+    if (last != null) {
+      if (last.loaded == null) {
+        // the token of the next page is not known until the last request completes
+        return;
+      }
+      pageToken = last.loaded.getNextPageToken();
+    }
+    if (pageToken == null || pageToken.isEmpty()) {
+      return;
+    }
+    PageRequest request = new PageRequest(queryWorkflowExecutionHistoryAsync(pageToken));
+    readAhead.addLast(request);
+    request.response.addListener(() -> onPageLoaded(request), MoreExecutors.directExecutor());
+  }
+
+  private void onPageLoaded(PageRequest request) {
+    GetWorkflowExecutionHistoryResponse response;
+    try {
+      response = Futures.getDone(request.response);
+    } catch (ExecutionException | CancellationException e) {
+      // the iteration will retry this page when it gets to it
+      return;
+    }
+    synchronized (this) {
+      if (!readAhead.contains(request)) {
+        // already consumed or cancelled
+        return;
+      }
+      request.loaded = response;
+      request.loadedBytes = response.getSerializedSize();
+      readAheadLoadedBytes += request.loadedBytes;
+      readAheadLocked(null);
+    }
+  }
+
+  /** Requests the page for the {@code pageToken} without retries. */
+  ListenableFuture<GetWorkflowExecutionHistoryResponse> queryWorkflowExecutionHistoryAsync(
+      ByteString pageToken) {
+    WorkflowServiceGrpc.WorkflowServiceFutureStub stub =
+        service.futureStub().withOption(METRICS_TAGS_CALL_OPTIONS_KEY, metricsScope);
+    if (deadline != null) {
+      stub = stub.withDeadline(deadline);
+    }
+    return stub.getWorkflowExecutionHistory(newRequest(pageToken));
   }
 
   GetWorkflowExecutionHistoryResponse queryWorkflowExecutionHistory() {
@@ -95,12 +249,7 @@ class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
             .validateBuildWithDefaults();
     GrpcRetryer.GrpcRetryerOptions grpcRetryerOptions =
         new GrpcRetryer.GrpcRetryerOptions(retryOptions, deadline);
-    GetWorkflowExecutionHistoryRequest request =
-        GetWorkflowExecutionHistoryRequest.newBuilder()
-            .setNamespace(namespace)
-            .setExecution(task.getWorkflowExecution())
-            .setNextPageToken(nextPageToken)
-            .build();
+    GetWorkflowExecutionHistoryRequest request = newRequest(nextPageToken);
     try {
       return grpcRetryer.retryWithResult(
           () ->
@@ -120,4 +269,23 @@ class ServiceWorkflowHistoryIterator implements WorkflowHistoryIterator {
       throw ex;
     }
   }
+
+  private GetWorkflowExecutionHistoryRequest newRequest(ByteString pageToken) {
+    return GetWorkflowExecutionHistoryRequest.newBuilder()
+        .setNamespace(namespace)
+        .setExecution(task.getWorkflowExecution())
+        .setNextPageToken(pageToken)
+        .build();
+  }
+
+  private static final class PageRequest {
+    final ListenableFuture<GetWorkflowExecutionHistoryResponse> response;
+    // set when the response is loaded while the request is in the read-ahead queue
+    @Nullable GetWorkflowExecutionHistoryResponse loaded;
+    long loadedBytes;
+
+    PageRequest(ListenableFuture<GetWorkflowExecutionHistoryResponse> response) {
+      this.response = response;
+    }
+  }
 }
@@ -43,5 +43,17 @@ public interface WorkflowRunTaskHandler {
    */
   void resetStartedEventId(Long eventId);
 
+  /**
+   * Estimates the amount of heap retained by this handler. Used to weigh the entry when the
+   * workflow cache is bounded by memory instead of a number of entries. The value is an
+   * approximation based on the state machines that are still open, the start event and the live
+   * workflow threads.
+   *
+   * <p>Payloads are counted only as a part of the start event, which carries the workflow input.
+   *
+   * @return estimated retained size in bytes
+   */
+  long getEstimatedRetainedSize();
+
   void close();
 }
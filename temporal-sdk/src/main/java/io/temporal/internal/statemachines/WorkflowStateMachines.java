@@ -243,6 +243,21 @@ public final class WorkflowStateMachines {
     return isContinueAsNewSuggested;
   }
 
+  /**
+   * @return number of state machines, commands and markers this instance keeps between workflow
+   *     tasks. Completed state machines are released, so this doesn't grow with the history.
+   */
+  public int getRetainedEntityCount() {
+    return stateMachines.size()
+        + protocolStateMachines.size()
+        + commands.size()
+        + cancellableCommands.size()
+        + mutableSideEffects.size()
+        + versions.size()
+        + localActivityMap.size()
+        + acceptedUpdates.size();
+  }
+
   public void setReplaying(boolean replaying) {
     this.replaying = replaying;
   }
@@ -71,6 +71,9 @@ interface DeterministicRunner {
   /** Stack trace of all threads owned by the DeterministicRunner instance */
   String stackTrace();
 
+  /** Number of workflow threads owned by the DeterministicRunner instance that are not done yet */
+  int getThreadCount();
+
   /**
    * Executes a runnable in a specially created workflow thread. This newly created thread is given
    * chance to run before any other existing threads. This is used to ensure that some operations
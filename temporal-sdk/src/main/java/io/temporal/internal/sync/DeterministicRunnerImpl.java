@@ -19,7 +19,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
@@ -49,7 +48,7 @@ class DeterministicRunnerImpl implements DeterministicRunner {
   // method.
   // To check for an active event loop, inRunUntilAllBlocked value taken under Runner Lock should be
   // used.
-  private final Lock lock = new ReentrantLock();
+  private final ReentrantLock lock = new ReentrantLock();
   // true when the control code of the main workflow event loop is running.
   // Workflow methods may get unblocked and executed by the control code when true.
   // Updated always with Runner Lock taken.
@@ -405,6 +404,19 @@ class DeterministicRunnerImpl implements DeterministicRunner {
     return result.toString();
   }
 
+  @Override
+  public int getThreadCount() {
+    lock.lock();
+    try {
+      if (closeFuture.isDone()) {
+        return 0;
+      }
+      return threads.size() + workflowThreadsToAdd.size() + callbackThreadsToAdd.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
   private void appendWorkflowThreadsLocked() {
     threads.addAll(workflowThreadsToAdd);
     workflowThreadsToAdd.clear();
@@ -520,7 +532,7 @@ class DeterministicRunnerImpl implements DeterministicRunner {
     }
   }
 
-  Lock getLock() {
+  ReentrantLock getLock() {
     return lock;
   }
 
@@ -19,6 +19,7 @@ import io.temporal.common.metadata.POJOWorkflowImplMetadata;
 import io.temporal.common.metadata.POJOWorkflowInterfaceMetadata;
 import io.temporal.common.metadata.POJOWorkflowMethodMetadata;
 import io.temporal.failure.CanceledFailure;
+import io.temporal.internal.common.MethodInvoker;
 import io.temporal.internal.common.env.ReflectionUtils;
 import io.temporal.internal.replay.ReplayWorkflow;
 import io.temporal.internal.replay.ReplayWorkflowFactory;
@@ -403,13 +404,12 @@ public final class POJOWorkflowImplementationFactory implements ReplayWorkflowFa
       @Override
       public WorkflowOutput execute(WorkflowInput input) {
         try {
-          Object result = workflowMethod.getWorkflowMethod().invoke(workflow, input.getArguments());
+          Object result =
+              MethodInvoker.of(workflowMethod.getWorkflowMethod())
+                  .invoke(workflow, input.getArguments());
           return new WorkflowOutput(result);
-        } catch (IllegalAccessException e) {
+        } catch (Throwable e) {
           throw wrap(e);
-        } catch (InvocationTargetException e) {
-          Throwable target = e.getTargetException();
-          throw wrap(target);
         }
       }
 
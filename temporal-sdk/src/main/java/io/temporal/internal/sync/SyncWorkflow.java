@@ -232,6 +232,11 @@ class SyncWorkflow implements ReplayWorkflow {
     return workflowProc.handleQuery(query.getQueryType(), query.getHeader(), args);
   }
 
+  @Override
+  public int getWorkflowThreadCount() {
+    return runner == null ? 0 : runner.getThreadCount();
+  }
+
   @Override
   public WorkflowContext getWorkflowContext() {
     return workflowContext;
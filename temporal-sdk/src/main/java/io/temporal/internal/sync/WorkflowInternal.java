@@ -23,6 +23,7 @@ import io.temporal.common.metadata.POJOWorkflowInterfaceMetadata;
 import io.temporal.common.metadata.POJOWorkflowMethodMetadata;
 import io.temporal.internal.WorkflowThreadMarker;
 import io.temporal.internal.common.ActivityOptionUtils;
+import io.temporal.internal.common.MethodInvoker;
 import io.temporal.internal.common.NonIdempotentHandle;
 import io.temporal.internal.common.SdkFlag;
 import io.temporal.internal.common.SearchAttributesUtil;
@@ -152,6 +153,7 @@ public final class WorkflowInternal {
     POJOWorkflowImplMetadata workflowMetadata = POJOWorkflowImplMetadata.newListenerInstance(cls);
     for (POJOWorkflowMethodMetadata methodMetadata : workflowMetadata.getQueryMethods()) {
       Method method = methodMetadata.getWorkflowMethod();
+      MethodInvoker invoker = MethodInvoker.of(method);
       getWorkflowOutboundInterceptor()
           .registerQuery(
               new WorkflowOutboundCallsInterceptor.RegisterQueryInput(
@@ -161,7 +163,7 @@ public final class WorkflowInternal {
                   method.getGenericParameterTypes(),
                   (args) -> {
                     try {
-                      return method.invoke(implementation, args);
+                      return invoker.invoke(implementation, args);
                     } catch (Throwable e) {
                       throw CheckedExceptionWrapper.wrap(e);
                     }
@@ -171,6 +173,7 @@ public final class WorkflowInternal {
     for (POJOWorkflowMethodMetadata methodMetadata : workflowMetadata.getSignalMethods()) {
       Method method = methodMetadata.getWorkflowMethod();
       SignalMethod signalMethod = method.getAnnotation(SignalMethod.class);
+      MethodInvoker invoker = MethodInvoker.of(method);
       requests.add(
           new WorkflowOutboundCallsInterceptor.SignalRegistrationRequest(
               methodMetadata.getName(),
@@ -180,7 +183,7 @@ public final class WorkflowInternal {
               method.getGenericParameterTypes(),
               (args) -> {
                 try {
-                  method.invoke(implementation, args);
+                  invoker.invoke(implementation, args);
                 } catch (Throwable e) {
                   throw CheckedExceptionWrapper.wrap(e);
                 }
@@ -211,6 +214,7 @@ public final class WorkflowInternal {
     for (POJOWorkflowMethodMetadata methodMetadata : workflowMetadata.getUpdateMethods()) {
       Method method = methodMetadata.getWorkflowMethod();
       UpdateMethod updateMethod = method.getAnnotation(UpdateMethod.class);
+      MethodInvoker invoker = MethodInvoker.of(method);
       // Get the update name, defaulting to the method name if not specified.
       String updateMethodName = updateMethod.name();
       if (updateMethodName.isEmpty()) {
@@ -218,17 +222,18 @@ public final class WorkflowInternal {
       }
       // Check if any validators claim they are the validator for this update
       POJOWorkflowMethodMetadata validatorMethodMetadata = validators.remove(updateMethodName);
-      Method validatorMethod;
+      MethodInvoker validatorInvoker;
       if (validatorMethodMetadata != null) {
-        validatorMethod = validatorMethodMetadata.getWorkflowMethod();
+        Method validatorMethod = validatorMethodMetadata.getWorkflowMethod();
         if (!Arrays.equals(validatorMethod.getParameterTypes(), method.getParameterTypes())) {
           throw new IllegalArgumentException(
               "Validator for: "
                   + updateMethodName
                   + " type parameters do not match the update handle");
         }
+        validatorInvoker = MethodInvoker.of(validatorMethod);
       } else {
-        validatorMethod = null;
+        validatorInvoker = null;
       }
       updateRequests.add(
           new WorkflowOutboundCallsInterceptor.UpdateRegistrationRequest(
@@ -239,8 +244,8 @@ public final class WorkflowInternal {
               method.getGenericParameterTypes(),
               (args) -> {
                 try {
-                  if (validatorMethod != null) {
-                    validatorMethod.invoke(implementation, args);
+                  if (validatorInvoker != null) {
+                    validatorInvoker.invoke(implementation, args);
                   }
                 } catch (Throwable e) {
                   throw CheckedExceptionWrapper.wrap(e);
@@ -248,7 +253,7 @@ public final class WorkflowInternal {
               },
               (args) -> {
                 try {
-                  return method.invoke(implementation, args);
+                  return invoker.invoke(implementation, args);
                 } catch (Throwable e) {
                   throw CheckedExceptionWrapper.wrap(e);
                 }
@@ -7,7 +7,7 @@ import io.temporal.internal.common.env.DebugModeUtils;
 import io.temporal.workflow.Functions;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -17,7 +17,7 @@ class WorkflowThreadContext {
   private static final Logger log = LoggerFactory.getLogger(WorkflowThreadContext.class);
 
   // Shared runner lock
-  private final Lock runnerLock;
+  private final ReentrantLock runnerLock;
   private final WorkflowThreadScheduler scheduler;
   // Used to block evaluateInCoroutineContext
   private final Condition evaluationCondition;
@@ -33,9 +33,13 @@ class WorkflowThreadContext {
   private String yieldReason;
   private boolean destroyRequested;
 
-  WorkflowThreadContext(Lock runnerLock) {
+  /**
+   * @param handoffSpinNanos how long the threads handing control over to each other spin before
+   *     parking, see {@link WorkflowThreadExecutor#getHandoffSpinNanos()}
+   */
+  WorkflowThreadContext(ReentrantLock runnerLock, long handoffSpinNanos) {
     this.runnerLock = runnerLock;
-    this.scheduler = new WorkflowThreadScheduler(runnerLock);
+    this.scheduler = new WorkflowThreadScheduler(runnerLock, handoffSpinNanos);
     this.evaluationCondition = runnerLock.newCondition();
   }
 
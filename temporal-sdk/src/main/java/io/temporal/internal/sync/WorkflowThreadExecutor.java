@@ -23,4 +23,18 @@ public interface WorkflowThreadExecutor {
    * @throws NullPointerException if the task is null
    */
   Future<?> submit(@Nonnull Runnable task);
+
+  /**
+   * Control is handed over between a workflow task thread and the workflow threads of a workflow
+   * every time a workflow thread blocks or is unblocked. By default, the thread giving up control
+   * parks immediately and has to be unparked by the other side. If this method returns a positive
+   * value, the thread giving up control spins for up to this time waiting for the control to come
+   * back before parking. This avoids park/unpark round trips for the short turns typical for
+   * replay and signal processing at the cost of burning CPU while spinning.
+   *
+   * @return maximum spin time in nanoseconds, 0 disables spinning
+   */
+  default long getHandoffSpinNanos() {
+    return 0;
+  }
 }
@@ -162,7 +162,9 @@ class WorkflowThreadImpl implements WorkflowThread {
     this.workflowThreadExecutor = workflowThreadExecutor;
     this.syncWorkflowContext = Preconditions.checkNotNull(syncWorkflowContext);
     this.runner = runner;
-    this.context = new WorkflowThreadContext(runner.getLock());
+    this.context =
+        new WorkflowThreadContext(
+            runner.getLock(), workflowThreadExecutor.getHandoffSpinNanos());
     this.cache = cache;
     this.priority = priority;
     this.task =
@@ -3,27 +3,32 @@ package io.temporal.internal.sync;
 import com.google.common.base.Preconditions;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 class WorkflowThreadScheduler {
   // A single lock shared between all workflow threads of a workflow. Created in
   // DeterministicRunnerImpl
-  private final Lock runnerLock;
+  private final ReentrantLock runnerLock;
   // Used to block runUntilBlocked call on
   private final Condition yieldedCondition;
   // Used to block yield call on
   private final Condition runCondition;
+  // See WorkflowThreadExecutor#getHandoffSpinNanos
+  private final long handoffSpinNanos;
 
-  private boolean yielded;
-  private boolean completed;
+  // updated under the runner lock, volatile to be checked by the spinning threads without it
+  private volatile boolean yielded;
+  private volatile boolean completed;
 
   private int deadlockDetectionLockCounter;
   private long lastProgressTimestampNs;
 
-  WorkflowThreadScheduler(Lock runnerLock) {
+  WorkflowThreadScheduler(ReentrantLock runnerLock, long handoffSpinNanos) {
     this.runnerLock = runnerLock;
     this.runCondition = runnerLock.newCondition();
     this.yieldedCondition = runnerLock.newCondition();
+    this.handoffSpinNanos = handoffSpinNanos;
   }
 
   public void madeProgressLocked() {
@@ -34,6 +39,10 @@ class WorkflowThreadScheduler {
     madeProgressLocked();
     this.yielded = true;
     this.yieldedCondition.signal();
+    if (spinLocked(() -> !this.yielded)) {
+      // scheduled again while spinning
+      return;
+    }
     this.runCondition.await();
   }
 
@@ -83,6 +92,9 @@ class WorkflowThreadScheduler {
         deadlockDetectionLockCounter == 0,
         "Unbalanced lockDeadlockDetection/unlockDeadlockDetection calls");
     this.lastProgressTimestampNs = System.nanoTime();
+    if (spinLocked(() -> this.yielded || this.completed)) {
+      return completed ? WaitForYieldResult.COMPLETED : WaitForYieldResult.YIELDED;
+    }
     long sinceLastProgressMadeNs = 0;
     while (true) {
       boolean timedOut =
@@ -113,6 +125,36 @@ class WorkflowThreadScheduler {
     }
   }
 
+  /**
+   * Releases the runner lock and spins for up to {@link #handoffSpinNanos} waiting for {@code
+   * condition}. Like {@link Condition#await()}, releases all the holds of the runner lock and
+   * reacquires them before returning.
+   *
+   * @return true if {@code condition} is satisfied, the result is verified under the lock
+   */
+  private boolean spinLocked(BooleanSupplier condition) {
+    if (handoffSpinNanos <= 0) {
+      return false;
+    }
+    int holdCount = runnerLock.getHoldCount();
+    for (int i = 0; i < holdCount; i++) {
+      runnerLock.unlock();
+    }
+    try {
+      long spinStartNs = System.nanoTime();
+      while (!condition.getAsBoolean()
+          && System.nanoTime() - spinStartNs < handoffSpinNanos
+          && !Thread.currentThread().isInterrupted()) {
+        // busy wait
+      }
+    } finally {
+      for (int i = 0; i < holdCount; i++) {
+        runnerLock.lock();
+      }
+    }
+    return condition.getAsBoolean();
+  }
+
   enum WaitForYieldResult {
     YIELDED,
     COMPLETED,
@@ -0,0 +1,110 @@
+package io.temporal.internal.worker;
+
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.Duration;
+import io.temporal.worker.MetricsType;
+import java.util.concurrent.*;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Sends the results of activity tasks to the service from a dedicated pool of threads instead of
+ * the threads executing the activities. Results produced by many short activities are multiplexed
+ * over a few threads, and activity task threads are released as soon as the result is queued.
+ *
+ * <p>The number of results that are queued or being sent is bounded. A thread submitting a result
+ * when the limit is reached waits until one of the results is sent, which propagates the
+ * backpressure to the activity task executor and the pollers. The wait ends when the executor is
+ * shut down or the waiting thread is interrupted, the result is sent by the calling thread then.
+ */
+@ThreadSafe
+final class ActivityResponseExecutor {
+  // how often a thread waiting for a free slot checks if the executor is shut down
+  private static final long SHUTDOWN_CHECK_INTERVAL_MILLIS = 100;
+
+  private final ThreadPoolExecutor executor;
+  private final Semaphore pendingResponses;
+
+  /**
+   * @param threads number of threads sending the results
+   * @param maxPendingResponses maximum number of results that are queued or being sent
+   */
+  ActivityResponseExecutor(int threads, int maxPendingResponses, String threadNamePrefix) {
+    this.executor =
+        new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    this.executor.allowCoreThreadTimeOut(true);
+    this.executor.setThreadFactory(new ExecutorThreadFactory(threadNamePrefix, null));
+    this.pendingResponses = new Semaphore(maxPendingResponses);
+  }
+
+  /**
+   * Queues sending of a result. Blocks while the maximum number of results is pending. If the
+   * executor is shut down or the calling thread is interrupted, the result is sent by the calling
+   * thread.
+   *
+   * @param send sends the result to the service
+   * @param metricsScope scope to report the time the result spent in the queue
+   * @return future completed when the result is sent
+   */
+  CompletableFuture<Void> execute(Runnable send, Scope metricsScope) {
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    if (!acquirePendingResponse()) {
+      sendDirectly(send, result);
+      return result;
+    }
+    long queuedAt = System.nanoTime();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              metricsScope
+                  .timer(MetricsType.ACTIVITY_RESPONSE_COALESCING_LATENCY)
+                  .record(Duration.ofNanos(System.nanoTime() - queuedAt));
+              send.run();
+              result.complete(null);
+            } catch (Throwable e) {
+              result.completeExceptionally(e);
+            } finally {
+              pendingResponses.release();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      pendingResponses.release();
+      sendDirectly(send, result);
+    }
+    return result;
+  }
+
+  /**
+   * @return true if a slot for a pending response is taken, false if the executor is shut down or
+   *     the thread is interrupted while waiting for it
+   */
+  private boolean acquirePendingResponse() {
+    try {
+      while (!pendingResponses.tryAcquire(SHUTDOWN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (executor.isShutdown()) {
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void sendDirectly(Runnable send, CompletableFuture<Void> result) {
+    try {
+      send.run();
+      result.complete(null);
+    } catch (Throwable ex) {
+      result.completeExceptionally(ex);
+    }
+  }
+
+  /**
+   * @return executor to shut down after no more activity results can be produced
+   */
+  ExecutorService getExecutorService() {
+    return executor;
+  }
+}
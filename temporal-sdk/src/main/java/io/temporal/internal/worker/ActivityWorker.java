@@ -26,6 +26,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -35,6 +36,8 @@ final class ActivityWorker implements SuspendableWorker {
 
   private SuspendableWorker poller = new NoopWorker();
   private PollTaskExecutor<ActivityTask> pollTaskExecutor;
+  // null if the results are sent by the activity threads
+  @Nullable private ActivityResponseExecutor responseExecutor;
 
   private final ActivityTaskHandler handler;
   private final WorkflowServiceStubs service;
@@ -76,6 +79,13 @@ final class ActivityWorker implements SuspendableWorker {
   @Override
   public boolean start() {
     if (handler.isAnyTypeSupported()) {
+      if (options.getActivityResponseExecutorSize() > 0) {
+        this.responseExecutor =
+            new ActivityResponseExecutor(
+                options.getActivityResponseExecutorSize(),
+                options.getActivityResponseQueueSize(),
+                WorkerThreadsNameHelper.getActivityResponseThreadPrefix(namespace, taskQueue));
+      }
       this.pollTaskExecutor =
           new PollTaskExecutor<>(
               namespace,
@@ -101,7 +111,8 @@ final class ActivityWorker implements SuspendableWorker {
                   service.getServerCapabilities()),
               this.pollTaskExecutor,
               pollerOptions,
-              workerMetricsScope);
+              workerMetricsScope,
+              this.slotSupplier);
       poller.start();
       workerMetricsScope.counter(MetricsType.WORKER_START_COUNTER).inc(1);
       return true;
@@ -126,6 +137,12 @@ final class ActivityWorker implements SuspendableWorker {
                 pollTaskExecutor != null
                     ? pollTaskExecutor.shutdown(shutdownManager, interruptTasks)
                     : CompletableFuture.completedFuture(null))
+        .thenCompose(
+            ignore ->
+                responseExecutor != null
+                    ? shutdownManager.shutdownExecutorUntimed(
+                        responseExecutor.getExecutorService(), this + "#responseExecutor")
+                    : CompletableFuture.completedFuture(null))
         .exceptionally(
             e -> {
               log.error("Unexpected exception during shutdown", e);
@@ -136,9 +153,11 @@ final class ActivityWorker implements SuspendableWorker {
   @Override
   public void awaitTermination(long timeout, TimeUnit unit) {
     long timeoutMillis = ShutdownManager.awaitTermination(poller, unit.toMillis(timeout));
-    // relies on the fact that the pollTaskExecutor is the last one to be shutdown, no need to
+    timeoutMillis = ShutdownManager.awaitTermination(pollTaskExecutor, timeoutMillis);
+    // relies on the fact that the responseExecutor is the last one to be shutdown, no need to
     // wait separately for intermediate steps
-    ShutdownManager.awaitTermination(pollTaskExecutor, timeoutMillis);
+    ShutdownManager.awaitTermination(
+        responseExecutor != null ? responseExecutor.getExecutorService() : null, timeoutMillis);
   }
 
   @Override
@@ -158,7 +177,9 @@ final class ActivityWorker implements SuspendableWorker {
 
   @Override
   public boolean isTerminated() {
-    return poller.isTerminated() && (pollTaskExecutor == null || pollTaskExecutor.isTerminated());
+    return poller.isTerminated()
+        && (pollTaskExecutor == null || pollTaskExecutor.isTerminated())
+        && (responseExecutor == null || responseExecutor.getExecutorService().isTerminated());
   }
 
   @Override
@@ -277,6 +298,25 @@ final class ActivityWorker implements SuspendableWorker {
         sw.stop();
       }
 
+      if (responseExecutor != null) {
+        ActivityTaskHandler.Result reply = result;
+        responseExecutor
+            .execute(() -> sendReply(taskToken, reply, metricsScope), metricsScope)
+            .whenComplete(
+                (r, e) -> {
+                  if (e != null) {
+                    logExceptionDuringResultReporting(e, pollResponse, reply);
+                    MDC.remove(LoggerTag.ACTIVITY_ID);
+                    MDC.remove(LoggerTag.ACTIVITY_TYPE);
+                    MDC.remove(LoggerTag.WORKFLOW_ID);
+                    MDC.remove(LoggerTag.RUN_ID);
+                  } else {
+                    recordSucceedE2ELatency(pollResponse, reply, metricsScope);
+                  }
+                });
+        return result;
+      }
+
       try {
         sendReply(taskToken, result, metricsScope);
       } catch (Exception e) {
@@ -288,13 +328,19 @@ final class ActivityWorker implements SuspendableWorker {
         throw e;
       }
 
+      recordSucceedE2ELatency(pollResponse, result, metricsScope);
+      return result;
+    }
+
+    private void recordSucceedE2ELatency(
+        PollActivityTaskQueueResponseOrBuilder pollResponse,
+        ActivityTaskHandler.Result result,
+        Scope metricsScope) {
       if (result.getTaskCompleted() != null) {
         Duration e2eDuration =
             ProtobufTimeUtils.toM3DurationSinceNow(pollResponse.getScheduledTime());
         metricsScope.timer(MetricsType.ACTIVITY_SUCCEED_E2E_LATENCY).record(e2eDuration);
       }
-
-      return result;
     }
 
     @Override
@@ -377,7 +423,7 @@ final class ActivityWorker implements SuspendableWorker {
     }
 
     private void logExceptionDuringResultReporting(
-        Exception e,
+        Throwable e,
         PollActivityTaskQueueResponseOrBuilder pollResponse,
         ActivityTaskHandler.Result result) {
       MDC.put(LoggerTag.ACTIVITY_ID, pollResponse.getActivityId());
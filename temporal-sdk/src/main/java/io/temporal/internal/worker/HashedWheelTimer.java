@@ -0,0 +1,571 @@
+package io.temporal.internal.worker;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ScheduledExecutorService} for a large number of short one-shot timers that are mostly
+ * cancelled before they fire, like local activity timeouts and heartbeat throttling.
+ *
+ * <p>Unlike {@link java.util.concurrent.ScheduledThreadPoolExecutor} that keeps the timers in a
+ * heap under a lock, the timers are hashed into the buckets of a wheel by their deadline. Schedule
+ * and cancel are lock free and O(1): a new timer is added to a queue and a cancelled timer is only
+ * marked as cancelled. A single wheel thread moves the new timers into their buckets, unlinks the
+ * cancelled ones and expires the timers of a bucket in a batch once per tick. Timers further than a
+ * full turn of the wheel stay in their bucket for the remaining rounds.
+ *
+ * <p>Timers fire up to one tick late. The expired timers are run by a pool of task threads, so a
+ * slow task doesn't delay the other timers. The wheel thread doesn't tick while there are no
+ * pending timers, it's woken up by the next scheduled timer.
+ *
+ * <p>Periodic tasks are scheduled again as a new timer after each run. Like the default {@link
+ * java.util.concurrent.ScheduledThreadPoolExecutor} policy, the one-shot timers scheduled before
+ * {@link #shutdown()} still fire while the periodic tasks are cancelled, {@link #shutdownNow()}
+ * cancels all of them.
+ */
+final class HashedWheelTimer extends AbstractExecutorService implements ScheduledExecutorService {
+  private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+  static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(10);
+  static final int DEFAULT_WHEEL_SIZE = 512;
+
+  private static final int STATE_INIT = 0;
+  private static final int STATE_CANCELLED = 1;
+  private static final int STATE_EXPIRED = 2;
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final long startNanos;
+  private final ThreadPoolExecutor taskExecutor;
+  private final Thread wheelThread;
+  private final CountDownLatch wheelThreadTerminated = new CountDownLatch(1);
+
+  private final Queue<Timeout<?>> newTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout<?>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+  private final Set<Timeout<?>> periodicTimeouts = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger pendingTimeouts = new AtomicInteger();
+  private volatile boolean shutdown;
+  private volatile boolean stopped;
+  // the wheel thread is parked until a timer is scheduled
+  private volatile boolean idle;
+
+  // accessed by the wheel thread only
+  private long tick;
+
+  /**
+   * @param threadPrefix prefix of the names of the wheel and the task threads
+   * @param taskThreads number of threads running the expired timers
+   */
+  HashedWheelTimer(String threadPrefix, int taskThreads) {
+    this(threadPrefix, taskThreads, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+  }
+
+  HashedWheelTimer(String threadPrefix, int taskThreads, Duration tickDuration, int wheelSize) {
+    Preconditions.checkArgument(taskThreads > 0, "taskThreads must be positive: %s", taskThreads);
+    Preconditions.checkArgument(
+        !tickDuration.isNegative() && !tickDuration.isZero(),
+        "tickDuration must be positive: %s",
+        tickDuration);
+    Preconditions.checkArgument(
+        wheelSize > 0 && Integer.bitCount(wheelSize) == 1,
+        "wheelSize must be a power of 2: %s",
+        wheelSize);
+    this.tickNanos = tickDuration.toNanos();
+    this.wheel = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheelSize - 1;
+    this.taskExecutor =
+        new ThreadPoolExecutor(
+            taskThreads,
+            taskThreads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new ExecutorThreadFactory(threadPrefix, null));
+    this.startNanos = System.nanoTime();
+    this.wheelThread = new Thread(this::runWheel, threadPrefix + ": wheel");
+    wheelThread.setDaemon(true);
+    wheelThread.start();
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(Executors.callable(command), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return schedule(callable, unit.toNanos(delay), 0);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(
+      Runnable command, long initialDelay, long period, TimeUnit unit) {
+    Preconditions.checkArgument(period > 0, "period must be positive: %s", period);
+    return schedule(Executors.callable(command), unit.toNanos(initialDelay), unit.toNanos(period));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(
+      Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    Preconditions.checkArgument(delay > 0, "delay must be positive: %s", delay);
+    return schedule(Executors.callable(command), unit.toNanos(initialDelay), -unit.toNanos(delay));
+  }
+
+  /**
+   * @param periodNanos positive for a fixed rate, negative for a fixed delay, 0 for a one-shot
+   *     timer
+   */
+  private <V> Timeout<V> schedule(Callable<V> callable, long delayNanos, long periodNanos) {
+    Preconditions.checkNotNull(callable, "callable");
+    if (shutdown) {
+      throw new RejectedExecutionException("HashedWheelTimer is shut down");
+    }
+    Timeout<V> timeout = new Timeout<>(callable, System.nanoTime() + delayNanos, periodNanos);
+    if (periodNanos != 0) {
+      periodicTimeouts.add(timeout);
+    }
+    pendingTimeouts.incrementAndGet();
+    if (delayNanos <= 0) {
+      expire(timeout);
+    } else {
+      addNewTimeout(timeout);
+    }
+    return timeout;
+  }
+
+  private void addNewTimeout(Timeout<?> timeout) {
+    newTimeouts.add(timeout);
+    if (idle) {
+      LockSupport.unpark(wheelThread);
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("HashedWheelTimer is shut down");
+    }
+    taskExecutor.execute(command);
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    for (Timeout<?> timeout : periodicTimeouts) {
+      timeout.cancel(false);
+    }
+    LockSupport.unpark(wheelThread);
+  }
+
+  /** Cancels the pending timers. The cancelled timers are not returned. */
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    stopped = true;
+    wheelThread.interrupt();
+    taskExecutor.shutdownNow();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return wheelThreadTerminated.getCount() == 0 && taskExecutor.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    if (!wheelThreadTerminated.await(timeout, unit)) {
+      return false;
+    }
+    return taskExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  /** Number of timers that are neither expired nor cancelled. */
+  int getPendingTimeouts() {
+    return pendingTimeouts.get();
+  }
+
+  private void runWheel() {
+    List<Timeout<?>> expired = new ArrayList<>();
+    try {
+      while (!stopped) {
+        if (pendingTimeouts.get() == 0 && !shutdown) {
+          waitForTimeouts();
+        }
+        long tickDeadline = waitForNextTick();
+        if (stopped) {
+          break;
+        }
+        transferNewTimeouts();
+        removeCancelledTimeouts();
+        wheel[(int) (tick & mask)].expireTimeouts(tickDeadline, expired);
+        for (Timeout<?> timeout : expired) {
+          expire(timeout);
+        }
+        expired.clear();
+        tick++;
+        if (shutdown && pendingTimeouts.get() == 0) {
+          break;
+        }
+      }
+    } catch (Throwable e) {
+      log.error("[BUG] Unexpected exception in the timer wheel", e);
+    } finally {
+      cancelRemainingTimeouts();
+      taskExecutor.shutdown();
+      wheelThreadTerminated.countDown();
+    }
+  }
+
+  /**
+   * Parks the wheel thread while there are no pending timers. The wheel is empty at this point
+   * besides the cancelled timers, so it moves to the current tick instead of going through the
+   * ticks missed while parked.
+   */
+  private void waitForTimeouts() {
+    idle = true;
+    try {
+      // a timer scheduled after this check sees idle and unparks the thread
+      while (pendingTimeouts.get() == 0 && !shutdown && !stopped) {
+        LockSupport.park(this);
+      }
+    } finally {
+      idle = false;
+    }
+    removeCancelledTimeouts();
+    tick = Math.max(tick, (System.nanoTime() - startNanos) / tickNanos);
+  }
+
+  /**
+   * Sleeps until the end of the current tick.
+   *
+   * @return the deadline of the current tick relative to {@link #startNanos}
+   */
+  private long waitForNextTick() {
+    long tickDeadline = tickNanos * (tick + 1);
+    while (true) {
+      long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+      if (sleepNanos <= 0 || stopped) {
+        return tickDeadline;
+      }
+      if (shutdown && pendingTimeouts.get() == 0) {
+        return tickDeadline;
+      }
+      LockSupport.parkNanos(this, sleepNanos);
+    }
+  }
+
+  private void transferNewTimeouts() {
+    Timeout<?> timeout;
+    while ((timeout = newTimeouts.poll()) != null) {
+      if (timeout.state != STATE_INIT) {
+        continue;
+      }
+      long deadlineTicks = (timeout.deadlineNanos - startNanos) / tickNanos;
+      timeout.remainingRounds = (deadlineTicks - tick) / wheel.length;
+      // a timer already past its deadline goes into the current bucket
+      long ticks = Math.max(deadlineTicks, tick);
+      wheel[(int) (ticks & mask)].add(timeout);
+    }
+  }
+
+  private void removeCancelledTimeouts() {
+    Timeout<?> timeout;
+    while ((timeout = cancelledTimeouts.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void expire(Timeout<?> timeout) {
+    if (!STATE_UPDATER.compareAndSet(timeout, STATE_INIT, STATE_EXPIRED)) {
+      return;
+    }
+    pendingTimeouts.decrementAndGet();
+    try {
+      taskExecutor.execute(timeout);
+    } catch (RejectedExecutionException e) {
+      // shutdownNow
+      timeout.complete();
+    }
+  }
+
+  private void cancelRemainingTimeouts() {
+    for (Bucket bucket : wheel) {
+      bucket.cancelAll();
+    }
+    Timeout<?> timeout;
+    while ((timeout = newTimeouts.poll()) != null) {
+      timeout.cancel(false);
+    }
+    cancelledTimeouts.clear();
+  }
+
+  /** Doubly linked list of the timers of a bucket, accessed by the wheel thread only. */
+  private static final class Bucket {
+    private @Nullable Timeout<?> head;
+    private @Nullable Timeout<?> tail;
+
+    void add(Timeout<?> timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void remove(Timeout<?> timeout) {
+      Timeout<?> next = timeout.next;
+      if (timeout.prev != null) {
+        timeout.prev.next = next;
+      }
+      if (next != null) {
+        next.prev = timeout.prev;
+      }
+      if (timeout == head) {
+        head = next;
+      }
+      if (timeout == tail) {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+
+    void expireTimeouts(long tickDeadline, List<Timeout<?>> expired) {
+      Timeout<?> timeout = head;
+      while (timeout != null) {
+        Timeout<?> next = timeout.next;
+        if (timeout.state != STATE_INIT) {
+          remove(timeout);
+        } else if (timeout.remainingRounds <= 0) {
+          remove(timeout);
+          expired.add(timeout);
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    void cancelAll() {
+      Timeout<?> timeout = head;
+      while (timeout != null) {
+        Timeout<?> next = timeout.next;
+        remove(timeout);
+        timeout.cancel(false);
+        timeout = next;
+      }
+    }
+  }
+
+  private final class Timeout<V> implements ScheduledFuture<V>, Runnable {
+    private final Callable<V> callable;
+    // positive for a fixed rate, negative for a fixed delay, 0 for a one-shot timer
+    private final long periodNanos;
+    private volatile long deadlineNanos;
+    // not private, the field updater can't access private fields of a nested class on Java 8
+    volatile int state = STATE_INIT;
+
+    // accessed by the wheel thread only
+    private long remainingRounds;
+    private @Nullable Bucket bucket;
+    private @Nullable Timeout<?> prev;
+    private @Nullable Timeout<?> next;
+
+    // guarded by this
+    private boolean done;
+    private @Nullable V result;
+    private @Nullable Throwable failure;
+
+    Timeout(Callable<V> callable, long deadlineNanos, long periodNanos) {
+      this.callable = callable;
+      this.deadlineNanos = deadlineNanos;
+      this.periodNanos = periodNanos;
+    }
+
+    @Override
+    public void run() {
+      if (periodNanos != 0) {
+        runPeriodic();
+        return;
+      }
+      V result = null;
+      Throwable failure = null;
+      try {
+        result = callable.call();
+      } catch (Throwable e) {
+        failure = e;
+      }
+      synchronized (this) {
+        this.result = result;
+        this.failure = failure;
+        this.done = true;
+        notifyAll();
+      }
+    }
+
+    private void runPeriodic() {
+      if (state != STATE_EXPIRED) {
+        // cancelled after it expired
+        return;
+      }
+      try {
+        callable.call();
+      } catch (Throwable e) {
+        // like in ScheduledThreadPoolExecutor, a failure suppresses the subsequent runs
+        periodicTimeouts.remove(this);
+        synchronized (this) {
+          this.failure = e;
+          this.done = true;
+          notifyAll();
+        }
+        return;
+      }
+      if (shutdown) {
+        cancel(false);
+        return;
+      }
+      deadlineNanos =
+          periodNanos > 0 ? deadlineNanos + periodNanos : System.nanoTime() - periodNanos;
+      pendingTimeouts.incrementAndGet();
+      if (!STATE_UPDATER.compareAndSet(this, STATE_EXPIRED, STATE_INIT)) {
+        // cancelled while running
+        pendingTimeouts.decrementAndGet();
+        return;
+      }
+      addNewTimeout(this);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      while (true) {
+        int current = state;
+        if (current == STATE_INIT) {
+          if (STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_CANCELLED)) {
+            pendingTimeouts.decrementAndGet();
+            cancelledTimeouts.add(this);
+            break;
+          }
+        } else if (current == STATE_EXPIRED && periodNanos != 0 && !isDone()) {
+          // a periodic task that is running or about to run is not scheduled again
+          if (STATE_UPDATER.compareAndSet(this, STATE_EXPIRED, STATE_CANCELLED)) {
+            break;
+          }
+        } else {
+          return false;
+        }
+      }
+      if (periodNanos != 0) {
+        periodicTimeouts.remove(this);
+      }
+      complete();
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state == STATE_CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+      return done;
+    }
+
+    @Override
+    public synchronized V get() throws InterruptedException, ExecutionException {
+      while (!done) {
+        wait();
+      }
+      return getResult();
+    }
+
+    @Override
+    public synchronized V get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      while (!done) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new TimeoutException();
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+      return getResult();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    /** Completes a timer that is not going to run. */
+    synchronized void complete() {
+      done = true;
+      notifyAll();
+    }
+
+    // guarded by this
+    private V getResult() throws ExecutionException {
+      if (state == STATE_CANCELLED) {
+        throw new CancellationException();
+      }
+      if (failure != null) {
+        throw new ExecutionException(failure);
+      }
+      return result;
+    }
+  }
+}
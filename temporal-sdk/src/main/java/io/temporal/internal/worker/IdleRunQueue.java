@@ -0,0 +1,201 @@
+package io.temporal.internal.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * LRU queue of the cached workflow runs that are not locked by a workflow task processing at the
+ * moment. It's an intrusive doubly linked list indexed by runId, so all the operations are
+ * amortized O(1).
+ *
+ * <p>The lock and unlock notifications are on the path of every workflow task, so they don't take
+ * the lock of the list. A lock only flips the idle flag of the run. An unlock flips it back and
+ * appends the run to a lock-free buffer, once until it's drained. The buffer is drained into the
+ * list when a run is polled or removed, the runs unlocked again while buffered go after the others.
+ * The poll skips and unlinks the runs that are not idle anymore.
+ *
+ * <p>The queue is driven by notifications from {@link WorkflowRunLockManager} that may be delivered
+ * slightly out of order relative to each other. It should be treated as a hint and callers must
+ * confirm that a run is not in processing by taking its lock.
+ */
+@ThreadSafe
+final class IdleRunQueue implements WorkflowRunLockManager.LockListener {
+  private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+  // runs unlocked since the last drain, in the order of unlocking
+  private final Queue<Node> unlockedBuffer = new ConcurrentLinkedQueue<>();
+
+  // least recently used idle run
+  @GuardedBy("this")
+  private Node head;
+
+  // most recently used idle run
+  @GuardedBy("this")
+  private Node tail;
+
+  /**
+   * Starts tracking a cached run.
+   *
+   * @param idle if true, the run is queued as the most recently used idle run
+   */
+  void add(String runId, boolean idle) {
+    Node node = nodes.computeIfAbsent(runId, Node::new);
+    if (idle) {
+      markIdle(node);
+    } else {
+      node.idle = false;
+    }
+  }
+
+  /** Stops tracking a run that is not cached anymore. */
+  synchronized void remove(String runId) {
+    Node node = nodes.remove(runId);
+    if (node != null) {
+      node.removed = true;
+      node.idle = false;
+      // the buffer may hold the removed run, it's drained to not retain it
+      drainUnlockedBuffer();
+      unlink(node);
+    }
+  }
+
+  /**
+   * Dequeues the least recently used idle run. The dequeued run is still tracked and will be queued
+   * again when it gets unlocked next time.
+   *
+   * @param excludedRunId run that shouldn't be dequeued
+   * @return runId of the dequeued run or null if there are no idle runs besides {@code
+   *     excludedRunId}
+   */
+  @Nullable
+  synchronized String pollLeastRecentlyUsed(String excludedRunId) {
+    drainUnlockedBuffer();
+    Node node = head;
+    while (node != null) {
+      Node next = node.next;
+      if (!node.idle || node.removed) {
+        // locked or removed after it was queued, it's queued again on unlock
+        unlink(node);
+      } else if (!node.runId.equals(excludedRunId)) {
+        unlink(node);
+        return node.runId;
+      }
+      node = next;
+    }
+    return null;
+  }
+
+  @Override
+  public void locked(String runId) {
+    Node node = nodes.get(runId);
+    if (node != null && node.idle) {
+      node.idle = false;
+    }
+  }
+
+  @Override
+  public void unlocked(String runId) {
+    Node node = nodes.get(runId);
+    if (node != null) {
+      markIdle(node);
+    }
+  }
+
+  private void markIdle(Node node) {
+    node.idle = true;
+    // the reads avoid failing CASes and repeated writes for the runs that are already buffered
+    if (!node.buffered.get() && node.buffered.compareAndSet(false, true)) {
+      unlockedBuffer.add(node);
+    } else if (!node.unlockedAgain) {
+      node.unlockedAgain = true;
+    }
+  }
+
+  @GuardedBy("this")
+  private void drainUnlockedBuffer() {
+    if (unlockedBuffer.isEmpty()) {
+      return;
+    }
+    // the buffer has a run at the position of its first unlock since the last drain, the runs
+    // unlocked again are more recently used than that
+    List<Node> unlockedAgain = new ArrayList<>();
+    Node node;
+    while ((node = unlockedBuffer.poll()) != null) {
+      // cleared before reading the flags, so an unlock racing with the drain buffers the run again
+      node.buffered.set(false);
+      boolean again = node.unlockedAgain;
+      node.unlockedAgain = false;
+      if (!node.idle || node.removed) {
+        continue;
+      }
+      if (again) {
+        unlockedAgain.add(node);
+      } else {
+        moveToTail(node);
+      }
+    }
+    for (Node againNode : unlockedAgain) {
+      moveToTail(againNode);
+    }
+  }
+
+  @GuardedBy("this")
+  private void moveToTail(Node node) {
+    if (node == tail) {
+      return;
+    }
+    unlink(node);
+    node.prev = tail;
+    if (tail != null) {
+      tail.next = node;
+    } else {
+      head = node;
+    }
+    tail = node;
+    node.linked = true;
+  }
+
+  @GuardedBy("this")
+  private void unlink(Node node) {
+    if (!node.linked) {
+      return;
+    }
+    if (node.prev != null) {
+      node.prev.next = node.next;
+    } else {
+      head = node.next;
+    }
+    if (node.next != null) {
+      node.next.prev = node.prev;
+    } else {
+      tail = node.prev;
+    }
+    node.prev = null;
+    node.next = null;
+    node.linked = false;
+  }
+
+  private static final class Node {
+    private final String runId;
+    private final AtomicBoolean buffered = new AtomicBoolean();
+    private volatile boolean idle;
+    private volatile boolean removed;
+    private volatile boolean unlockedAgain;
+
+    // guarded by the queue
+    private Node prev;
+    private Node next;
+    private boolean linked;
+
+    private Node(String runId) {
+      this.runId = runId;
+    }
+  }
+}
@@ -651,14 +651,9 @@ final class LocalActivityWorker implements Startable, Shutdownable {
   public boolean start() {
     if (handler.isAnyTypeSupported()) {
       this.scheduledExecutor =
-          Executors.newSingleThreadScheduledExecutor(
-              r -> {
-                Thread thread = new Thread(r);
-                thread.setName(
-                    WorkerThreadsNameHelper.getLocalActivitySchedulerThreadPrefix(
-                        namespace, taskQueue));
-                return thread;
-              });
+          new HashedWheelTimer(
+              WorkerThreadsNameHelper.getLocalActivitySchedulerThreadPrefix(namespace, taskQueue),
+              1);
 
       this.activityAttemptTaskExecutor =
           new PollTaskExecutor<>(
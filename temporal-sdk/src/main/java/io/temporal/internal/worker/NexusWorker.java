@@ -98,7 +98,8 @@ final class NexusWorker implements SuspendableWorker {
                   service.getServerCapabilities()),
               this.pollTaskExecutor,
               pollerOptions,
-              workerMetricsScope);
+              workerMetricsScope,
+              this.slotSupplier);
       poller.start();
       workerMetricsScope.counter(MetricsType.WORKER_START_COUNTER).inc(1);
       return true;
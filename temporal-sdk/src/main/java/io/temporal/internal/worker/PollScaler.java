@@ -0,0 +1,96 @@
+package io.temporal.internal.worker;
+
+import io.grpc.Status;
+import io.temporal.worker.tuning.PollerBehaviorAutoscaling;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Decides how many poll loops of a {@link Poller} should be running, see {@link
+ * PollerBehaviorAutoscaling} for the rules. The poll loops report the outcome of each poll, exit
+ * when there are more of them running than the target and ask for the number of loops to start
+ * when there are fewer.
+ */
+@ThreadSafe
+final class PollScaler {
+  private final int minPollers;
+  private final int maxPollers;
+  @Nullable private final TrackingSlotSupplier<?> slotSupplier;
+  private int targetPollers;
+  private int runningPollers;
+
+  /**
+   * @param slotSupplier slot supplier of the tasks returned by the poller, null if unknown
+   */
+  PollScaler(PollerBehaviorAutoscaling behavior, @Nullable TrackingSlotSupplier<?> slotSupplier) {
+    this.minPollers = behavior.getMinConcurrentTaskPollers();
+    this.maxPollers = behavior.getMaxConcurrentTaskPollers();
+    this.targetPollers = behavior.getInitialConcurrentTaskPollers();
+    this.slotSupplier = slotSupplier;
+  }
+
+  /**
+   * @param backlogCountHint number of tasks backlogged in the task queue according to the service,
+   *     0 if unknown
+   */
+  synchronized void taskReceived(long backlogCountHint) {
+    if (slotsExhausted()) {
+      return;
+    }
+    long increment = backlogCountHint > 0 ? Math.max(1, backlogCountHint / 2) : 1;
+    targetPollers = (int) Math.min(maxPollers, targetPollers + increment);
+  }
+
+  synchronized void noTaskReceived() {
+    targetPollers = Math.max(minPollers, targetPollers - 1);
+  }
+
+  synchronized void pollFailed(Status.Code code) {
+    if (code == Status.Code.RESOURCE_EXHAUSTED) {
+      targetPollers = Math.max(minPollers, targetPollers / 2);
+    }
+  }
+
+  /**
+   * Called by a poll loop after each poll.
+   *
+   * @return true if the calling loop should stop because there are more loops than needed
+   */
+  synchronized boolean shouldStop() {
+    if (runningPollers > targetPollers) {
+      runningPollers--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reserves the poll loops to start to reach the target. The caller is responsible for starting
+   * them.
+   *
+   * @return number of poll loops to start
+   */
+  synchronized int pollersToStart() {
+    int toStart = Math.max(0, targetPollers - runningPollers);
+    runningPollers += toStart;
+    return toStart;
+  }
+
+  /** Called when a reserved poll loop couldn't be started. */
+  synchronized void pollerStopped() {
+    runningPollers--;
+  }
+
+  synchronized int getTargetPollers() {
+    return targetPollers;
+  }
+
+  private boolean slotsExhausted() {
+    if (slotSupplier == null) {
+      return false;
+    }
+    Optional<Integer> maximumSlots = slotSupplier.maximumSlots();
+    return maximumSlots.isPresent() && slotSupplier.getIssuedSlots() >= maximumSlots.get();
+  }
+}
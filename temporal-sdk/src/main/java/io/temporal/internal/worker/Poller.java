@@ -7,6 +7,8 @@ import io.temporal.internal.BackoffThrottler;
 import io.temporal.internal.common.GrpcUtils;
 import io.temporal.internal.task.VirtualThreadDelegate;
 import io.temporal.worker.MetricsType;
+import io.temporal.worker.tuning.PollerBehavior;
+import io.temporal.worker.tuning.PollerBehaviorAutoscaling;
 import io.temporal.worker.tuning.SlotPermit;
 import io.temporal.worker.tuning.SlotReleaseReason;
 import io.temporal.worker.tuning.SlotSupplierFuture;
@@ -15,6 +17,7 @@ import java.util.Objects;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +34,14 @@ final class Poller<T> implements SuspendableWorker {
      * @return result of the task
      */
     TT poll();
+
+    /**
+     * @return number of tasks backlogged in the task queue according to the poll response that
+     *     returned the task, 0 if the response doesn't carry this information
+     */
+    default long getBacklogCountHint(TT task) {
+      return 0;
+    }
   }
 
   interface ThrowingRunnable {
@@ -44,6 +55,9 @@ final class Poller<T> implements SuspendableWorker {
   private static final Logger log = LoggerFactory.getLogger(Poller.class);
   private ExecutorService pollExecutor;
   private final Scope workerMetricsScope;
+  @Nullable private final TrackingSlotSupplier<?> slotSupplier;
+  // null if the number of poll loops is fixed
+  @Nullable private PollScaler pollScaler;
 
   private final AtomicReference<CountDownLatch> suspendLatch = new AtomicReference<>();
 
@@ -57,7 +71,8 @@ final class Poller<T> implements SuspendableWorker {
       PollTask<T> pollTask,
       ShutdownableTaskExecutor<T> taskExecutor,
       PollerOptions pollerOptions,
-      Scope workerMetricsScope) {
+      Scope workerMetricsScope,
+      @Nullable TrackingSlotSupplier<?> slotSupplier) {
     Objects.requireNonNull(identity, "identity cannot be null");
     Objects.requireNonNull(pollTask, "poll service should not be null");
     Objects.requireNonNull(taskExecutor, "taskExecutor should not be null");
@@ -69,6 +84,7 @@ final class Poller<T> implements SuspendableWorker {
     this.taskExecutor = taskExecutor;
     this.pollerOptions = pollerOptions;
     this.workerMetricsScope = workerMetricsScope;
+    this.slotSupplier = slotSupplier;
   }
 
   @Override
@@ -82,6 +98,13 @@ final class Poller<T> implements SuspendableWorker {
               pollerOptions.getMaximumPollRatePerSecond(),
               pollerOptions.getMaximumPollRateIntervalMilliseconds());
     }
+    int maxPollers = pollerOptions.getPollThreadCount();
+    PollerBehavior pollerBehavior = pollerOptions.getPollerBehavior();
+    if (pollerBehavior instanceof PollerBehaviorAutoscaling) {
+      PollerBehaviorAutoscaling autoscaling = (PollerBehaviorAutoscaling) pollerBehavior;
+      maxPollers = autoscaling.getMaxConcurrentTaskPollers();
+      pollScaler = new PollScaler(autoscaling, slotSupplier);
+    }
     // If virtual threads are enabled, we use a virtual thread executor.
     if (pollerOptions.isUsingVirtualThreads()) {
       AtomicInteger threadIndex = new AtomicInteger();
@@ -94,16 +117,16 @@ final class Poller<T> implements SuspendableWorker {
                 t.setUncaughtExceptionHandler(uncaughtExceptionHandler);
               });
     } else {
-      // It is important to pass blocking queue of at least options.getPollThreadCount() capacity.
+      // It is important to pass blocking queue of at least maxPollers capacity.
       // As task enqueues next task the buffering is needed to queue task until the previous one
       // releases a thread.
       ThreadPoolExecutor threadPoolPoller =
           new ThreadPoolExecutor(
-              pollerOptions.getPollThreadCount(),
-              pollerOptions.getPollThreadCount(),
-              1,
-              TimeUnit.SECONDS,
-              new ArrayBlockingQueue<>(pollerOptions.getPollThreadCount()));
+              maxPollers, maxPollers, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(maxPollers));
+      if (pollScaler != null) {
+        // threads of the poll loops stopped by scaling down shouldn't stay around
+        threadPoolPoller.allowCoreThreadTimeOut(true);
+      }
       threadPoolPoller.setThreadFactory(
           new ExecutorThreadFactory(
               pollerOptions.getPollThreadNamePrefix(),
@@ -111,14 +134,30 @@ final class Poller<T> implements SuspendableWorker {
       pollExecutor = threadPoolPoller;
     }
 
-    for (int i = 0; i < pollerOptions.getPollThreadCount(); i++) {
-      pollExecutor.execute(new PollLoopTask(new PollExecutionTask()));
-      workerMetricsScope.counter(MetricsType.POLLER_START_COUNTER).inc(1);
+    if (pollScaler != null) {
+      startPollLoops(pollScaler.pollersToStart());
+    } else {
+      startPollLoops(pollerOptions.getPollThreadCount());
     }
 
     return true;
   }
 
+  private void startPollLoops(int count) {
+    for (int i = 0; i < count; i++) {
+      try {
+        pollExecutor.execute(new PollLoopTask(new PollExecutionTask()));
+      } catch (RejectedExecutionException e) {
+        // shutting down
+        if (pollScaler != null) {
+          pollScaler.pollerStopped();
+        }
+        throw e;
+      }
+      workerMetricsScope.counter(MetricsType.POLLER_START_COUNTER).inc(1);
+    }
+  }
+
   @Override
   public CompletableFuture<Void> shutdown(ShutdownManager shutdownManager, boolean interruptTasks) {
     log.info("shutdown: {}", this);
@@ -280,17 +319,28 @@ final class Poller<T> implements SuspendableWorker {
           // we restore the flag here, so it can be checked and processed (with exit) in finally.
           Thread.currentThread().interrupt();
         } else {
-          // Don't increase throttle on InterruptedException
-          pollBackoffThrottler.failure(
+          Status.Code code =
               (e instanceof StatusRuntimeException)
                   ? ((StatusRuntimeException) e).getStatus().getCode()
-                  : Status.Code.UNKNOWN);
+                  : Status.Code.UNKNOWN;
+          // Don't increase throttle on InterruptedException
+          pollBackoffThrottler.failure(code);
+          if (pollScaler != null) {
+            pollScaler.pollFailed(code);
+          }
         }
         uncaughtExceptionHandler.uncaughtException(Thread.currentThread(), e);
       } finally {
         if (!shouldTerminate()) {
-          // Resubmit itself back to pollExecutor
-          pollExecutor.execute(this);
+          if (pollScaler == null) {
+            // Resubmit itself back to pollExecutor
+            pollExecutor.execute(this);
+          } else {
+            if (!pollScaler.shouldStop()) {
+              pollExecutor.execute(this);
+            }
+            startPollLoops(pollScaler.pollersToStart());
+          }
         } else {
           log.info("poll loop is terminated: {}", Poller.this.pollTask.getClass().getSimpleName());
         }
@@ -314,6 +364,13 @@ final class Poller<T> implements SuspendableWorker {
     @Override
     public void run() throws Exception {
       T task = pollTask.poll();
+      if (pollScaler != null) {
+        if (task != null) {
+          pollScaler.taskReceived(pollTask.getBacklogCountHint(task));
+        } else {
+          pollScaler.noTaskReceived();
+        }
+      }
       if (task != null) {
         taskExecutor.process(task);
       }
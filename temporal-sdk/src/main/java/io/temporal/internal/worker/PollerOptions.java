@@ -2,6 +2,7 @@ package io.temporal.internal.worker;
 
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.temporal.worker.tuning.PollerBehavior;
 import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import org.slf4j.Logger;
@@ -45,6 +46,7 @@ public final class PollerOptions {
     private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
     private boolean usingVirtualThreads;
     private ExecutorService pollerTaskExecutorOverride;
+    private PollerBehavior pollerBehavior;
 
     private Builder() {}
 
@@ -64,6 +66,7 @@ public final class PollerOptions {
       this.uncaughtExceptionHandler = options.getUncaughtExceptionHandler();
       this.usingVirtualThreads = options.isUsingVirtualThreads();
       this.pollerTaskExecutorOverride = options.getPollerTaskExecutorOverride();
+      this.pollerBehavior = options.getPollerBehavior();
     }
 
     /** Defines interval for measuring poll rate. Larger the interval more spiky can be the load. */
@@ -151,6 +154,16 @@ public final class PollerOptions {
       return this;
     }
 
+    /**
+     * Defines how the number of concurrent polls is managed. If not set or not {@link
+     * io.temporal.worker.tuning.PollerBehaviorAutoscaling}, {@link #setPollThreadCount(int)} polls
+     * are run concurrently.
+     */
+    public Builder setPollerBehavior(PollerBehavior pollerBehavior) {
+      this.pollerBehavior = pollerBehavior;
+      return this;
+    }
+
     public PollerOptions build() {
       if (uncaughtExceptionHandler == null) {
         uncaughtExceptionHandler =
@@ -179,7 +192,8 @@ public final class PollerOptions {
           uncaughtExceptionHandler,
           pollThreadNamePrefix,
           usingVirtualThreads,
-          pollerTaskExecutorOverride);
+          pollerTaskExecutorOverride,
+          pollerBehavior);
     }
   }
 
@@ -197,6 +211,7 @@ public final class PollerOptions {
   private final String pollThreadNamePrefix;
   private final boolean usingVirtualThreads;
   private final ExecutorService pollerTaskExecutorOverride;
+  private final PollerBehavior pollerBehavior;
 
   private PollerOptions(
       int maximumPollRateIntervalMilliseconds,
@@ -210,7 +225,8 @@ public final class PollerOptions {
       Thread.UncaughtExceptionHandler uncaughtExceptionHandler,
       String pollThreadNamePrefix,
       boolean usingVirtualThreads,
-      ExecutorService pollerTaskExecutorOverride) {
+      ExecutorService pollerTaskExecutorOverride,
+      PollerBehavior pollerBehavior) {
     this.maximumPollRateIntervalMilliseconds = maximumPollRateIntervalMilliseconds;
     this.maximumPollRatePerSecond = maximumPollRatePerSecond;
     this.backoffCoefficient = backoffCoefficient;
@@ -223,6 +239,7 @@ public final class PollerOptions {
     this.pollThreadNamePrefix = pollThreadNamePrefix;
     this.usingVirtualThreads = usingVirtualThreads;
     this.pollerTaskExecutorOverride = pollerTaskExecutorOverride;
+    this.pollerBehavior = pollerBehavior;
   }
 
   public int getMaximumPollRateIntervalMilliseconds() {
@@ -273,6 +290,10 @@ public final class PollerOptions {
     return pollerTaskExecutorOverride;
   }
 
+  public PollerBehavior getPollerBehavior() {
+    return pollerBehavior;
+  }
+
   @Override
   public String toString() {
     return "PollerOptions{"
@@ -297,6 +318,8 @@ public final class PollerOptions {
         + ", usingVirtualThreads='"
         + usingVirtualThreads
         + '\''
+        + ", pollerBehavior="
+        + pollerBehavior
         + '}';
   }
 }
@@ -40,6 +40,11 @@ public final class SingleWorkerOptions {
     private Duration drainStickyTaskQueueTimeout;
     private boolean usingVirtualThreads;
     private WorkerDeploymentOptions deploymentOptions;
+    private int workflowHistoryReadAheadPages;
+    private long workflowHistoryReadAheadBytes;
+    private int activityResponseExecutorSize;
+    private int activityResponseQueueSize;
+    private Duration activityHeartbeatCoalescingWindow;
 
     private Builder() {}
 
@@ -64,6 +69,11 @@ public final class SingleWorkerOptions {
       this.drainStickyTaskQueueTimeout = options.getDrainStickyTaskQueueTimeout();
       this.usingVirtualThreads = options.isUsingVirtualThreads();
       this.deploymentOptions = options.getDeploymentOptions();
+      this.workflowHistoryReadAheadPages = options.getWorkflowHistoryReadAheadPages();
+      this.workflowHistoryReadAheadBytes = options.getWorkflowHistoryReadAheadBytes();
+      this.activityResponseExecutorSize = options.getActivityResponseExecutorSize();
+      this.activityResponseQueueSize = options.getActivityResponseQueueSize();
+      this.activityHeartbeatCoalescingWindow = options.getActivityHeartbeatCoalescingWindow();
     }
 
     public Builder setIdentity(String identity) {
@@ -155,6 +165,32 @@ public final class SingleWorkerOptions {
       return this;
     }
 
+    public Builder setWorkflowHistoryReadAheadPages(int workflowHistoryReadAheadPages) {
+      this.workflowHistoryReadAheadPages = workflowHistoryReadAheadPages;
+      return this;
+    }
+
+    public Builder setWorkflowHistoryReadAheadBytes(long workflowHistoryReadAheadBytes) {
+      this.workflowHistoryReadAheadBytes = workflowHistoryReadAheadBytes;
+      return this;
+    }
+
+    public Builder setActivityResponseExecutorSize(int activityResponseExecutorSize) {
+      this.activityResponseExecutorSize = activityResponseExecutorSize;
+      return this;
+    }
+
+    public Builder setActivityResponseQueueSize(int activityResponseQueueSize) {
+      this.activityResponseQueueSize = activityResponseQueueSize;
+      return this;
+    }
+
+    public Builder setActivityHeartbeatCoalescingWindow(
+        Duration activityHeartbeatCoalescingWindow) {
+      this.activityHeartbeatCoalescingWindow = activityHeartbeatCoalescingWindow;
+      return this;
+    }
+
     public SingleWorkerOptions build() {
       PollerOptions pollerOptions = this.pollerOptions;
       if (pollerOptions == null) {
@@ -193,7 +229,12 @@ public final class SingleWorkerOptions {
           this.defaultHeartbeatThrottleInterval,
           drainStickyTaskQueueTimeout,
           usingVirtualThreads,
-          this.deploymentOptions);
+          this.deploymentOptions,
+          this.workflowHistoryReadAheadPages,
+          this.workflowHistoryReadAheadBytes,
+          this.activityResponseExecutorSize,
+          this.activityResponseQueueSize,
+          this.activityHeartbeatCoalescingWindow);
     }
   }
 
@@ -214,6 +255,11 @@ public final class SingleWorkerOptions {
   private final Duration drainStickyTaskQueueTimeout;
   private final boolean usingVirtualThreads;
   private final WorkerDeploymentOptions deploymentOptions;
+  private final int workflowHistoryReadAheadPages;
+  private final long workflowHistoryReadAheadBytes;
+  private final int activityResponseExecutorSize;
+  private final int activityResponseQueueSize;
+  private final Duration activityHeartbeatCoalescingWindow;
 
   private SingleWorkerOptions(
       String identity,
@@ -232,7 +278,12 @@ public final class SingleWorkerOptions {
       Duration defaultHeartbeatThrottleInterval,
       Duration drainStickyTaskQueueTimeout,
       boolean usingVirtualThreads,
-      WorkerDeploymentOptions deploymentOptions) {
+      WorkerDeploymentOptions deploymentOptions,
+      int workflowHistoryReadAheadPages,
+      long workflowHistoryReadAheadBytes,
+      int activityResponseExecutorSize,
+      int activityResponseQueueSize,
+      Duration activityHeartbeatCoalescingWindow) {
     this.identity = identity;
     this.binaryChecksum = binaryChecksum;
     this.buildId = buildId;
@@ -250,6 +301,11 @@ public final class SingleWorkerOptions {
     this.drainStickyTaskQueueTimeout = drainStickyTaskQueueTimeout;
     this.usingVirtualThreads = usingVirtualThreads;
     this.deploymentOptions = deploymentOptions;
+    this.workflowHistoryReadAheadPages = workflowHistoryReadAheadPages;
+    this.workflowHistoryReadAheadBytes = workflowHistoryReadAheadBytes;
+    this.activityResponseExecutorSize = activityResponseExecutorSize;
+    this.activityResponseQueueSize = activityResponseQueueSize;
+    this.activityHeartbeatCoalescingWindow = activityHeartbeatCoalescingWindow;
   }
 
   public String getIdentity() {
@@ -335,4 +391,24 @@ public final class SingleWorkerOptions {
     return new WorkerVersioningOptions(
         this.getBuildId(), this.isUsingBuildIdForVersioning(), this.getDeploymentOptions());
   }
+
+  public int getWorkflowHistoryReadAheadPages() {
+    return workflowHistoryReadAheadPages;
+  }
+
+  public long getWorkflowHistoryReadAheadBytes() {
+    return workflowHistoryReadAheadBytes;
+  }
+
+  public int getActivityResponseExecutorSize() {
+    return activityResponseExecutorSize;
+  }
+
+  public int getActivityResponseQueueSize() {
+    return activityResponseQueueSize;
+  }
+
+  public Duration getActivityHeartbeatCoalescingWindow() {
+    return activityHeartbeatCoalescingWindow;
+  }
 }
@@ -8,7 +8,6 @@ import io.temporal.worker.tuning.ActivitySlotInfo;
 import io.temporal.worker.tuning.SlotSupplier;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -38,15 +37,8 @@ public class SyncActivityWorker implements SuspendableWorker {
     this.taskQueue = taskQueue;
 
     this.heartbeatExecutor =
-        Executors.newScheduledThreadPool(
-            4,
-            new ExecutorThreadFactory(
-                WorkerThreadsNameHelper.getActivityHeartbeatThreadPrefix(namespace, taskQueue),
-                // TODO we currently don't have an uncaught exception handler to pass here on
-                // options,
-                // the closest thing is options.getPollerOptions().getUncaughtExceptionHandler(),
-                // but it's pollerOptions, not heartbeat.
-                null));
+        new HashedWheelTimer(
+            WorkerThreadsNameHelper.getActivityHeartbeatThreadPrefix(namespace, taskQueue), 4);
     ActivityExecutionContextFactory activityExecutionContextFactory =
         new ActivityExecutionContextFactoryImpl(
             client,
@@ -55,7 +47,8 @@ public class SyncActivityWorker implements SuspendableWorker {
             options.getMaxHeartbeatThrottleInterval(),
             options.getDefaultHeartbeatThrottleInterval(),
             options.getDataConverter(),
-            heartbeatExecutor);
+            heartbeatExecutor,
+            options.getActivityHeartbeatCoalescingWindow());
     this.taskHandler =
         new ActivityTaskHandlerImpl(
             namespace,
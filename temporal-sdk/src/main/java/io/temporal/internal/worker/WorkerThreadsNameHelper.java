@@ -8,6 +8,7 @@ class WorkerThreadsNameHelper {
   private static final String NEXUS_POLL_THREAD_NAME_PREFIX = "Nexus Poller taskQueue=";
   public static final String SHUTDOWN_MANAGER_THREAD_NAME_PREFIX = "TemporalShutdownManager";
   public static final String ACTIVITY_HEARTBEAT_THREAD_NAME_PREFIX = "TemporalActivityHeartbeat-";
+  public static final String ACTIVITY_RESPONSE_THREAD_NAME_PREFIX = "TemporalActivityResponse-";
 
   public static final String LOCAL_ACTIVITY_SCHEDULER_THREAD_NAME_PREFIX =
       "LocalActivityScheduler-";
@@ -43,6 +44,10 @@ class WorkerThreadsNameHelper {
     return ACTIVITY_HEARTBEAT_THREAD_NAME_PREFIX + namespace + "-" + taskQueue;
   }
 
+  public static String getActivityResponseThreadPrefix(String namespace, String taskQueue) {
+    return ACTIVITY_RESPONSE_THREAD_NAME_PREFIX + namespace + "-" + taskQueue;
+  }
+
   public static String getLocalActivitySchedulerThreadPrefix(String namespace, String taskQueue) {
     return LOCAL_ACTIVITY_SCHEDULER_THREAD_NAME_PREFIX + namespace + "-" + taskQueue;
   }
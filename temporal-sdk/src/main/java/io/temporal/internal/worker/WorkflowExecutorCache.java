@@ -5,7 +5,12 @@ import static io.temporal.internal.common.WorkflowExecutionUtils.isFullHistory;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.primitives.Ints;
+import com.uber.m3.tally.Buckets;
 import com.uber.m3.tally.Scope;
+import com.uber.m3.tally.ValueBuckets;
 import io.temporal.api.common.v1.WorkflowExecution;
 import io.temporal.api.workflowservice.v1.PollWorkflowTaskQueueResponseOrBuilder;
 import io.temporal.internal.replay.WorkflowRunTaskHandler;
@@ -19,26 +24,69 @@ import org.slf4j.LoggerFactory;
 
 @ThreadSafe
 public final class WorkflowExecutorCache {
+  // 1KB to 4GB
+  private static final Buckets ENTRY_WEIGHT_BUCKETS = ValueBuckets.exponential(1024, 4, 12);
+  // TODO this number is taken out of the blue.
+  //  This number should be calculated based on the number of all workers workflow task
+  //  processors.
+  private static final int CONCURRENCY_LEVEL = 128;
+  private static final long MIN_SEGMENT_WEIGHT_BYTES = 64 * 1024 * 1024;
+
   private final Logger log = LoggerFactory.getLogger(WorkflowExecutorCache.class);
   private final WorkflowRunLockManager runLockManager;
+  // cached runs that are not in processing, used to pick a victim for a forced eviction
+  private final IdleRunQueue idleRuns = new IdleRunQueue();
   private final Cache<String, WorkflowRunTaskHandler> cache;
+  private final boolean weighted;
   private final Scope metricsScope;
 
   public WorkflowExecutorCache(
       int workflowCacheSize, WorkflowRunLockManager runLockManager, Scope scope) {
-    Preconditions.checkArgument(workflowCacheSize > 0, "Max cache size must be greater than 0");
+    this(workflowCacheSize, 0, runLockManager, scope);
+  }
+
+  /**
+   * @param workflowCacheSize maximum number of cached workflow runs, ignored if {@code
+   *     workflowCacheMaxSizeBytes} is positive
+   * @param workflowCacheMaxSizeBytes if positive, the cache is bounded by the sum of {@link
+   *     WorkflowRunTaskHandler#getEstimatedRetainedSize()} of the cached runs instead of their
+   *     number
+   */
+  public WorkflowExecutorCache(
+      int workflowCacheSize,
+      long workflowCacheMaxSizeBytes,
+      WorkflowRunLockManager runLockManager,
+      Scope scope) {
+    Preconditions.checkArgument(
+        workflowCacheSize > 0 || workflowCacheMaxSizeBytes > 0,
+        "Max cache size must be greater than 0");
     this.runLockManager = runLockManager;
+    this.weighted = workflowCacheMaxSizeBytes > 0;
+    CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+    if (weighted) {
+      cacheBuilder
+          .maximumWeight(workflowCacheMaxSizeBytes)
+          .weigher(
+              (String runId, WorkflowRunTaskHandler entry) ->
+                  Ints.saturatedCast(entry.getEstimatedRetainedSize()))
+          .concurrencyLevel(weightedConcurrencyLevel(workflowCacheMaxSizeBytes));
+    } else {
+      cacheBuilder.maximumSize(workflowCacheSize).concurrencyLevel(CONCURRENCY_LEVEL);
+    }
     this.cache =
-        CacheBuilder.newBuilder()
-            .maximumSize(workflowCacheSize)
-            // TODO this number is taken out of the blue.
-            //  This number should be calculated based on the number of all workers workflow task
-            //  processors.
-            .concurrencyLevel(128)
+        cacheBuilder
             .removalListener(
-                e -> {
-                  WorkflowRunTaskHandler entry = (WorkflowRunTaskHandler) e.getValue();
+                (RemovalNotification<String, WorkflowRunTaskHandler> e) -> {
+                  WorkflowRunTaskHandler entry = e.getValue();
+                  if (e.getCause() != RemovalCause.REPLACED) {
+                    idleRuns.remove(e.getKey());
+                  }
                   if (entry != null) {
+                    if (e.getCause() == RemovalCause.REPLACED
+                        && this.cache.asMap().get(e.getKey()) == entry) {
+                      // the entry was put again to update its weight, it's still in the cache
+                      return;
+                    }
                     try {
                       log.trace(
                           "Closing workflow execution for runId {}, cause {}",
@@ -55,6 +103,18 @@ public final class WorkflowExecutorCache {
             .build();
     this.metricsScope = Objects.requireNonNull(scope);
     this.metricsScope.gauge(MetricsType.STICKY_CACHE_SIZE).update(size());
+    runLockManager.addListener(idleRuns);
+  }
+
+  /**
+   * Guava splits the maximum weight evenly between the segments and evicts from a segment when its
+   * share is exceeded, so a segment has to be able to hold a heavy workflow. We use as many
+   * segments as the unweighted cache as long as each of them gets at least {@link
+   * #MIN_SEGMENT_WEIGHT_BYTES}, and fewer segments for smaller budgets.
+   */
+  private static int weightedConcurrencyLevel(long workflowCacheMaxSizeBytes) {
+    long segments = workflowCacheMaxSizeBytes / MIN_SEGMENT_WEIGHT_BYTES;
+    return (int) Math.max(1, Math.min(CONCURRENCY_LEVEL, segments));
   }
 
   public WorkflowRunTaskHandler getOrCreate(
@@ -91,7 +151,12 @@ public final class WorkflowExecutorCache {
 
   public void addToCache(
       WorkflowExecution workflowExecution, WorkflowRunTaskHandler workflowRunTaskHandler) {
-    cache.put(workflowExecution.getRunId(), workflowRunTaskHandler);
+    String runId = workflowExecution.getRunId();
+    recordWeight(workflowRunTaskHandler);
+    // the run is normally locked by the workflow task that created it and will become idle when
+    // the task releases the lock
+    idleRuns.add(runId, !runLockManager.isLockedByCurrentThread(runId));
+    cache.put(runId, workflowRunTaskHandler);
     log.trace(
         "Workflow Execution {}-{} has been added to cache",
         workflowExecution.getWorkflowId(),
@@ -100,6 +165,36 @@ public final class WorkflowExecutorCache {
   }
 
   /**
+   * Recalculates the weight of a cached workflow run after it processed a workflow task. No-op if
+   * the cache is not bounded by memory or if the run is not cached by this handler anymore.
+   */
+  public void updateWeight(
+      WorkflowExecution workflowExecution, WorkflowRunTaskHandler workflowRunTaskHandler) {
+    if (!weighted) {
+      return;
+    }
+    recordWeight(workflowRunTaskHandler);
+    // Guava computes the weight of an entry only when it's written, so we write it again
+    if (cache
+        .asMap()
+        .replace(workflowExecution.getRunId(), workflowRunTaskHandler, workflowRunTaskHandler)) {
+      this.metricsScope.gauge(MetricsType.STICKY_CACHE_SIZE).update(size());
+    }
+  }
+
+  private void recordWeight(WorkflowRunTaskHandler workflowRunTaskHandler) {
+    if (weighted) {
+      metricsScope
+          .histogram(MetricsType.STICKY_CACHE_ENTRY_WEIGHT, ENTRY_WEIGHT_BUCKETS)
+          .recordValue(workflowRunTaskHandler.getEstimatedRetainedSize());
+    }
+  }
+
+  /**
+   * Evicts the least recently used cached workflow run that is not in processing. The victim is
+   * taken from the queue of idle runs maintained on lock and unlock of the runs, so the cost
+   * doesn't depend on the size of the cache.
+   *
    * @param workflowTypeScope accepts workflow metric scope (tagged with task queue and workflow
    *     type)
    */
@@ -108,19 +203,24 @@ public final class WorkflowExecutorCache {
       WorkflowExecution inFavorOfExecution, Scope workflowTypeScope) {
     try {
       String inFavorOfRunId = inFavorOfExecution.getRunId();
-      for (String key : cache.asMap().keySet()) {
-        if (key.equals(inFavorOfRunId)) continue;
+      String key;
+      while ((key = idleRuns.pollLeastRecentlyUsed(inFavorOfRunId)) != null) {
         boolean locked = runLockManager.tryLock(key);
         // if we were able to take a lock here, it means that the workflow is not in processing
-        // currently on workers of this WorkerFactory and can be evicted
+        // currently on workers of this WorkerFactory and can be evicted.
+        // Otherwise, the run got locked after it was queued as idle, it will be queued again on
+        // unlock.
         if (locked) {
           try {
+            if (cache.asMap().remove(key) == null) {
+              // the run was removed from the cache concurrently
+              continue;
+            }
             log.trace(
                 "Workflow Execution {}-{} caused eviction of Workflow Execution with runId {}",
                 inFavorOfExecution.getWorkflowId(),
                 inFavorOfRunId,
                 key);
-            cache.invalidate(key);
             workflowTypeScope.counter(MetricsType.STICKY_CACHE_THREAD_FORCED_EVICTION).inc(1);
             workflowTypeScope.counter(MetricsType.STICKY_CACHE_TOTAL_FORCED_EVICTION).inc(1);
             return true;
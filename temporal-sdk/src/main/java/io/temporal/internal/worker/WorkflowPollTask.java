@@ -173,6 +173,11 @@ final class WorkflowPollTask implements Poller.PollTask<WorkflowTask> {
     }
   }
 
+  @Override
+  public long getBacklogCountHint(WorkflowTask task) {
+    return task.getResponse().getBacklogCountHint();
+  }
+
   @Nullable
   private PollWorkflowTaskQueueResponse doPoll(
       PollWorkflowTaskQueueRequest request, Scope metricsScope) {
@@ -2,81 +2,253 @@ package io.temporal.internal.worker;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public final class WorkflowRunLockManager {
-  private final Map<String, RefCountedLock> runIdLock = new ConcurrentHashMap<>();
+  private final LockTable lockTable;
+  private final List<LockListener> listeners = new CopyOnWriteArrayList<>();
+
+  /** Creates a lock manager that allocates a dedicated lock for each locked runId. */
+  public WorkflowRunLockManager() {
+    this(0);
+  }
+
+  /**
+   * @param lockStripes if positive, runIds are mapped by their hash to a fixed table of this many
+   *     preallocated locks instead of allocating a dedicated lock per runId. Runs sharing a stripe
+   *     exclude each other, so the number of stripes should be much higher than the number of
+   *     workflow tasks processed concurrently. Rounded up to the power of two.
+   */
+  public WorkflowRunLockManager(int lockStripes) {
+    Preconditions.checkArgument(
+        lockStripes >= 0 && lockStripes <= 1 << 30, "lockStripes out of range: %s", lockStripes);
+    this.lockTable =
+        lockStripes > 0 ? new StripedLockTable(lockStripes) : new RefCountedLockTable();
+  }
 
   public boolean tryLock(String runId, long timeout, TimeUnit unit) throws InterruptedException {
-    RefCountedLock runLock = obtainLock(runId);
-
-    boolean obtained = false;
-    try {
-      obtained = runLock.lock.tryLock(timeout, unit);
-      return obtained;
-    } finally {
-      if (!obtained) {
-        derefAndUnlock(runId, false);
-      }
+    boolean obtained = lockTable.tryLock(runId, timeout, unit);
+    if (obtained) {
+      notifyLocked(runId);
     }
+    return obtained;
   }
 
   public boolean tryLock(String runId) {
-    RefCountedLock runLock = obtainLock(runId);
-
-    boolean obtained = false;
-    try {
-      obtained = runLock.lock.tryLock();
-      return obtained;
-    } finally {
-      if (!obtained) {
-        derefAndUnlock(runId, false);
-      }
+    boolean obtained = lockTable.tryLock(runId);
+    if (obtained) {
+      notifyLocked(runId);
     }
+    return obtained;
   }
 
   public void unlock(String runId) {
-    derefAndUnlock(runId, true);
+    lockTable.unlock(runId);
+    for (LockListener listener : listeners) {
+      listener.unlocked(runId);
+    }
   }
 
-  private RefCountedLock obtainLock(String runId) {
-    return runIdLock.compute(
-        runId,
-        (id, lock) -> {
-          if (lock == null) {
-            lock = new RefCountedLock();
-          }
-          lock.refCount++;
-          return lock;
-        });
+  /**
+   * @return true if the current thread holds the lock of the run
+   */
+  public boolean isLockedByCurrentThread(String runId) {
+    return lockTable.isLockedByCurrentThread(runId);
   }
 
-  private void derefAndUnlock(String runId, boolean unlock) {
-    runIdLock.compute(
-        runId,
-        (id, runLock) -> {
-          Preconditions.checkState(
-              runLock != null,
-              "Thread '%s' doesn't have an acquired lock for runId '%s'",
-              Thread.currentThread().getName(),
-              runId);
-          if (unlock) {
-            runLock.lock.unlock();
-          }
-          return --runLock.refCount == 0 ? null : runLock;
-        });
+  void addListener(LockListener listener) {
+    listeners.add(listener);
+  }
+
+  private void notifyLocked(String runId) {
+    for (LockListener listener : listeners) {
+      listener.locked(runId);
+    }
   }
 
   @VisibleForTesting
   int totalLocks() {
-    return runIdLock.size();
+    return lockTable.totalLocks();
+  }
+
+  /**
+   * Receives notifications about runs getting locked and unlocked. The notifications are delivered
+   * outside the lock manager synchronization and may be observed out of order by the listener if
+   * the lock is handed over between threads.
+   */
+  interface LockListener {
+    void locked(String runId);
+
+    void unlocked(String runId);
+  }
+
+  private interface LockTable {
+    boolean tryLock(String runId, long timeout, TimeUnit unit) throws InterruptedException;
+
+    boolean tryLock(String runId);
+
+    void unlock(String runId);
+
+    boolean isLockedByCurrentThread(String runId);
+
+    int totalLocks();
+  }
+
+  /**
+   * Allocates a lock for a runId when it's requested for the first time and releases it when the
+   * last thread holding or waiting for it is done.
+   */
+  private static class RefCountedLockTable implements LockTable {
+    private final Map<String, RefCountedLock> runIdLock = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryLock(String runId, long timeout, TimeUnit unit)
+        throws InterruptedException {
+      RefCountedLock runLock = obtainLock(runId);
+
+      boolean obtained = false;
+      try {
+        obtained = runLock.lock.tryLock(timeout, unit);
+        return obtained;
+      } finally {
+        if (!obtained) {
+          derefAndUnlock(runId, false);
+        }
+      }
+    }
+
+    @Override
+    public boolean tryLock(String runId) {
+      RefCountedLock runLock = obtainLock(runId);
+
+      boolean obtained = false;
+      try {
+        obtained = runLock.lock.tryLock();
+        return obtained;
+      } finally {
+        if (!obtained) {
+          derefAndUnlock(runId, false);
+        }
+      }
+    }
+
+    @Override
+    public void unlock(String runId) {
+      derefAndUnlock(runId, true);
+    }
+
+    @Override
+    public boolean isLockedByCurrentThread(String runId) {
+      RefCountedLock runLock = runIdLock.get(runId);
+      return runLock != null && runLock.lock.isHeldByCurrentThread();
+    }
+
+    @Override
+    public int totalLocks() {
+      return runIdLock.size();
+    }
+
+    private RefCountedLock obtainLock(String runId) {
+      return runIdLock.compute(
+          runId,
+          (id, lock) -> {
+            if (lock == null) {
+              lock = new RefCountedLock();
+            }
+            lock.refCount++;
+            return lock;
+          });
+    }
+
+    private void derefAndUnlock(String runId, boolean unlock) {
+      runIdLock.compute(
+          runId,
+          (id, runLock) -> {
+            Preconditions.checkState(
+                runLock != null,
+                "Thread '%s' doesn't have an acquired lock for runId '%s'",
+                Thread.currentThread().getName(),
+                runId);
+            if (unlock) {
+              runLock.lock.unlock();
+            }
+            return --runLock.refCount == 0 ? null : runLock;
+          });
+    }
   }
 
   private static class RefCountedLock {
     final ReentrantLock lock = new ReentrantLock();
     int refCount = 0;
   }
+
+  /**
+   * Maps runIds to a fixed table of preallocated locks. Locking and unlocking don't allocate and
+   * don't touch any shared map.
+   */
+  private static class StripedLockTable implements LockTable {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    StripedLockTable(int stripes) {
+      int size = Integer.highestOneBit(stripes - 1) << 1;
+      if (size <= 0) {
+        size = 1;
+      }
+      this.locks = new ReentrantLock[size];
+      for (int i = 0; i < size; i++) {
+        locks[i] = new ReentrantLock();
+      }
+      this.mask = size - 1;
+    }
+
+    @Override
+    public boolean tryLock(String runId, long timeout, TimeUnit unit)
+        throws InterruptedException {
+      return lockFor(runId).tryLock(timeout, unit);
+    }
+
+    @Override
+    public boolean tryLock(String runId) {
+      return lockFor(runId).tryLock();
+    }
+
+    @Override
+    public void unlock(String runId) {
+      ReentrantLock lock = lockFor(runId);
+      Preconditions.checkState(
+          lock.isHeldByCurrentThread(),
+          "Thread '%s' doesn't have an acquired lock for runId '%s'",
+          Thread.currentThread().getName(),
+          runId);
+      lock.unlock();
+    }
+
+    @Override
+    public boolean isLockedByCurrentThread(String runId) {
+      return lockFor(runId).isHeldByCurrentThread();
+    }
+
+    @Override
+    public int totalLocks() {
+      int result = 0;
+      for (ReentrantLock lock : locks) {
+        if (lock.isLocked()) {
+          result++;
+        }
+      }
+      return result;
+    }
+
+    private ReentrantLock lockFor(String runId) {
+      int h = runId.hashCode();
+      // spread the higher bits down, the same way as HashMap does
+      return locks[(h ^ (h >>> 16)) & mask];
+    }
+  }
 }
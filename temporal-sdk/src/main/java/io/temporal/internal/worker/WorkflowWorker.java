@@ -122,7 +122,8 @@ final class WorkflowWorker implements SuspendableWorker {
                   service.getServerCapabilities()),
               pollTaskExecutor,
               pollerOptions,
-              workerMetricsScope);
+              workerMetricsScope,
+              slotSupplier);
       poller.start();
 
       workerMetricsScope.counter(MetricsType.WORKER_START_COUNTER).inc(1);
@@ -0,0 +1,174 @@
+package io.temporal.payload.codec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.uber.m3.tally.NoopScope;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.Duration;
+import com.uber.m3.util.ImmutableMap;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.serviceclient.MetricsTag;
+import io.temporal.worker.MetricsType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Base of the codecs compressing whole payloads with a block compressor. The data of an encoded
+ * payload is the size of the serialized original payload as a varint followed by the compressed
+ * serialized original payload.
+ *
+ * <p>Payloads smaller than the threshold and payloads that don't become smaller after the
+ * compression are left as is. Encoded payloads that declare an original size larger than the
+ * limit are rejected without allocating the buffer for them.
+ */
+abstract class CompressionPayloadCodec implements PayloadCodec {
+  private final ByteString encoding;
+  private final int minPayloadSize;
+  private final int maxDecodedPayloadSize;
+  private final Scope metricsScope;
+
+  /**
+   * @param encoding value of the {@link EncodingKeys#METADATA_ENCODING_KEY} of the encoded payloads
+   * @param minPayloadSize serialized payloads smaller than this are not compressed
+   * @param maxDecodedPayloadSize encoded payloads declaring a larger serialized original payload
+   *     fail to decode
+   * @param metricsScope scope to report the metrics to, null to not report them
+   * @param codecName value of the {@link MetricsTag#PAYLOAD_CODEC} tag of the metrics
+   */
+  CompressionPayloadCodec(
+      ByteString encoding,
+      int minPayloadSize,
+      int maxDecodedPayloadSize,
+      @Nullable Scope metricsScope,
+      String codecName) {
+    this.encoding = encoding;
+    this.minPayloadSize = minPayloadSize;
+    this.maxDecodedPayloadSize = maxDecodedPayloadSize;
+    this.metricsScope =
+        metricsScope == null
+            ? new NoopScope()
+            : metricsScope.tagged(
+                new ImmutableMap.Builder<String, String>(1)
+                    .put(MetricsTag.PAYLOAD_CODEC, codecName)
+                    .build());
+  }
+
+  /**
+   * @return maximum size of the compressed data of the {@code length} bytes of input
+   */
+  abstract int maxCompressedLength(int length);
+
+  /**
+   * Compresses {@code src} into {@code dest} starting at {@code destOffset}.
+   *
+   * @return size of the compressed data
+   */
+  abstract int compress(byte[] src, byte[] dest, int destOffset, int maxDestLength);
+
+  /** Decompresses exactly {@code dest.length} bytes from {@code src} into {@code dest}. */
+  abstract void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest);
+
+  @Nonnull
+  @Override
+  public List<Payload> encode(@Nonnull List<Payload> payloads) {
+    List<Payload> result = new ArrayList<>(payloads.size());
+    for (Payload payload : payloads) {
+      result.add(encodePayload(payload));
+    }
+    return result;
+  }
+
+  @Nonnull
+  @Override
+  public List<Payload> decode(@Nonnull List<Payload> payloads) {
+    List<Payload> result = new ArrayList<>(payloads.size());
+    for (Payload payload : payloads) {
+      result.add(decodePayload(payload));
+    }
+    return result;
+  }
+
+  private Payload encodePayload(Payload originalPayload) {
+    int inputSize = originalPayload.getSerializedSize();
+    metricsScope.counter(MetricsType.PAYLOAD_CODEC_UNCOMPRESSED_BYTES).inc(inputSize);
+    if (inputSize < minPayloadSize) {
+      return skip(originalPayload, inputSize);
+    }
+    long start = System.nanoTime();
+    byte[] input = originalPayload.toByteArray();
+    int headerSize = CodedOutputStream.computeUInt32SizeNoTag(inputSize);
+    byte[] output = new byte[headerSize + maxCompressedLength(inputSize)];
+    try {
+      CodedOutputStream.newInstance(output, 0, headerSize).writeUInt32NoTag(inputSize);
+    } catch (IOException e) {
+      throw new PayloadCodecException(e);
+    }
+    int outputSize;
+    try {
+      outputSize = headerSize + compress(input, output, headerSize, output.length - headerSize);
+    } catch (RuntimeException e) {
+      throw new PayloadCodecException(e);
+    }
+    metricsScope
+        .timer(MetricsType.PAYLOAD_CODEC_ENCODE_LATENCY)
+        .record(Duration.ofNanos(System.nanoTime() - start));
+    if (outputSize >= inputSize) {
+      return skip(originalPayload, inputSize);
+    }
+    metricsScope.counter(MetricsType.PAYLOAD_CODEC_COMPRESSED_BYTES).inc(outputSize);
+    return Payload.newBuilder()
+        .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, encoding)
+        .setData(ByteString.copyFrom(output, 0, outputSize))
+        .build();
+  }
+
+  private Payload skip(Payload originalPayload, int inputSize) {
+    metricsScope.counter(MetricsType.PAYLOAD_CODEC_SKIPPED_COUNTER).inc(1);
+    metricsScope.counter(MetricsType.PAYLOAD_CODEC_COMPRESSED_BYTES).inc(inputSize);
+    return originalPayload;
+  }
+
+  private Payload decodePayload(Payload originalPayload) {
+    if (!encoding.equals(
+        originalPayload.getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null))) {
+      // This payload is not encoded by this codec
+      return originalPayload;
+    }
+    long start = System.nanoTime();
+    byte[] input = originalPayload.getData().toByteArray();
+    Payload result;
+    try {
+      CodedInputStream header = CodedInputStream.newInstance(input);
+      int outputSize = header.readUInt32();
+      if (outputSize < 0) {
+        throw new PayloadCodecException("Invalid size of the compressed payload: " + outputSize);
+      }
+      if (outputSize > maxDecodedPayloadSize) {
+        // the size comes from the payload itself, it's checked before the buffer is allocated
+        throw new PayloadCodecException(
+            "Size of the compressed payload "
+                + outputSize
+                + " exceeds the maximum of "
+                + maxDecodedPayloadSize
+                + " bytes");
+      }
+      int headerSize = header.getTotalBytesRead();
+      byte[] output = new byte[outputSize];
+      decompress(input, headerSize, input.length - headerSize, output);
+      result = Payload.parseFrom(output);
+    } catch (PayloadCodecException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      throw new PayloadCodecException(e);
+    }
+    metricsScope
+        .timer(MetricsType.PAYLOAD_CODEC_DECODE_LATENCY)
+        .record(Duration.ofNanos(System.nanoTime() - start));
+    return result;
+  }
+}
@@ -0,0 +1,140 @@
+package io.temporal.payload.codec;
+
+import com.google.protobuf.ByteString;
+import com.uber.m3.tally.Scope;
+import io.temporal.common.Experimental;
+import javax.annotation.Nullable;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * PayloadCodec that compresses payloads using LZ4. LZ4 is several times faster than Zlib in both
+ * directions at the cost of a lower compression ratio, which makes it a good default for payloads
+ * produced on hot paths.
+ *
+ * <p>Payloads smaller than {@link Builder#setMinPayloadSize(int)} and payloads that don't become
+ * smaller after the compression are left as is. The codec can be combined with other codecs, like
+ * encryption, using {@link ChainCodec}. Compression should be applied before encryption, so it
+ * should be the last codec passed to {@link ChainCodec}.
+ *
+ * <p>This codec requires {@code org.lz4:lz4-java} on the classpath. The SDK doesn't depend on it.
+ */
+@Experimental
+public class Lz4PayloadCodec extends CompressionPayloadCodec {
+  static final ByteString METADATA_ENCODING_LZ4 = ByteString.copyFromUtf8("binary/lz4");
+
+  /** Default value of {@link Builder#setMinPayloadSize(int)} */
+  public static final int DEFAULT_MIN_PAYLOAD_SIZE = 256;
+
+  /** Default value of {@link Builder#setMaxDecodedPayloadSize(int)} */
+  public static final int DEFAULT_MAX_DECODED_PAYLOAD_SIZE = 128 * 1024 * 1024;
+
+  private final LZ4Compressor compressor;
+  private final LZ4SafeDecompressor decompressor;
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public Lz4PayloadCodec() {
+    this(newBuilder());
+  }
+
+  private Lz4PayloadCodec(Builder builder) {
+    super(
+        METADATA_ENCODING_LZ4,
+        builder.minPayloadSize,
+        builder.maxDecodedPayloadSize,
+        builder.metricsScope,
+        "lz4");
+    LZ4Factory factory = LZ4Factory.fastestInstance();
+    // LZ4 compressors and decompressors are stateless and thread safe
+    this.compressor =
+        builder.compressionLevel > 0
+            ? factory.highCompressor(builder.compressionLevel)
+            : factory.fastCompressor();
+    this.decompressor = factory.safeDecompressor();
+  }
+
+  @Override
+  int maxCompressedLength(int length) {
+    return compressor.maxCompressedLength(length);
+  }
+
+  @Override
+  int compress(byte[] src, byte[] dest, int destOffset, int maxDestLength) {
+    return compressor.compress(src, 0, src.length, dest, destOffset, maxDestLength);
+  }
+
+  @Override
+  void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest) {
+    int size = decompressor.decompress(src, srcOffset, srcLength, dest, 0, dest.length);
+    if (size != dest.length) {
+      throw new PayloadCodecException(
+          "Decompressed " + size + " bytes, expected " + dest.length + " bytes");
+    }
+  }
+
+  public static final class Builder {
+    private int minPayloadSize = DEFAULT_MIN_PAYLOAD_SIZE;
+    private int maxDecodedPayloadSize = DEFAULT_MAX_DECODED_PAYLOAD_SIZE;
+    private int compressionLevel;
+    private @Nullable Scope metricsScope;
+
+    private Builder() {}
+
+    /**
+     * Serialized payloads smaller than this size are not compressed. Default is {@link
+     * Lz4PayloadCodec#DEFAULT_MIN_PAYLOAD_SIZE} bytes.
+     */
+    public Builder setMinPayloadSize(int minPayloadSize) {
+      if (minPayloadSize < 0) {
+        throw new IllegalArgumentException("negative minPayloadSize: " + minPayloadSize);
+      }
+      this.minPayloadSize = minPayloadSize;
+      return this;
+    }
+
+    /**
+     * Encoded payloads declaring a serialized original payload larger than this size fail to decode
+     * with {@link PayloadCodecException}. Protects from allocating huge buffers for corrupted
+     * payloads. Default is {@link Lz4PayloadCodec#DEFAULT_MAX_DECODED_PAYLOAD_SIZE} bytes.
+     */
+    public Builder setMaxDecodedPayloadSize(int maxDecodedPayloadSize) {
+      if (maxDecodedPayloadSize < 1) {
+        throw new IllegalArgumentException(
+            "maxDecodedPayloadSize should be positive: " + maxDecodedPayloadSize);
+      }
+      this.maxDecodedPayloadSize = maxDecodedPayloadSize;
+      return this;
+    }
+
+    /**
+     * Level of the LZ4 HC compressor from 1 to 17. Higher levels compress better and slower,
+     * decompression speed doesn't depend on the level. Default is 0, which uses the fast LZ4
+     * compressor.
+     */
+    public Builder setCompressionLevel(int compressionLevel) {
+      if (compressionLevel < 0 || compressionLevel > 17) {
+        throw new IllegalArgumentException("invalid compressionLevel: " + compressionLevel);
+      }
+      this.compressionLevel = compressionLevel;
+      return this;
+    }
+
+    /**
+     * Scope to report the compression metrics to, see {@link
+     * io.temporal.worker.MetricsType#PAYLOAD_CODEC_ENCODE_LATENCY} and the other payload codec
+     * metrics. Default is null, which doesn't report metrics.
+     */
+    public Builder setMetricsScope(@Nullable Scope metricsScope) {
+      this.metricsScope = metricsScope;
+      return this;
+    }
+
+    public Lz4PayloadCodec build() {
+      return new Lz4PayloadCodec(this);
+    }
+  }
+}
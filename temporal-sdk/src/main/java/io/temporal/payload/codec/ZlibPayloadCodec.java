@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 import javax.annotation.Nonnull;
 
@@ -20,6 +21,8 @@ import javax.annotation.Nonnull;
  */
 public class ZlibPayloadCodec implements PayloadCodec {
   static final ByteString METADATA_ENCODING_ZLIB = ByteString.copyFromUtf8("binary/zlib");
+  private static final int MAX_INITIAL_BUFFER_SIZE = 64 * 1024;
+  private static final int DEFLATER_BUFFER_SIZE = 8 * 1024;
   final int level;
 
   public ZlibPayloadCodec() {
@@ -47,23 +50,28 @@ public class ZlibPayloadCodec implements PayloadCodec {
   }
 
   private Payload encodePayload(final Payload originalPayload) {
-    if (originalPayload.getSerializedSize() < 7) {
+    int inputSize = originalPayload.getSerializedSize();
+    if (inputSize < 7) {
       // Can't be effectively deflated because of the Zlib ANTLER-32 header which takes 4 bytes
       return originalPayload;
     }
-    byte[] input = originalPayload.toByteArray();
-    int inputSize = input.length;
+    // the payload is serialized straight into the compressor and the compressed chunks become the
+    // data of the encoded payload without copying
+    ByteString.Output output = ByteString.newOutput(Math.min(inputSize, MAX_INITIAL_BUFFER_SIZE));
     Deflater compressor = new Deflater(level);
-    compressor.setInput(input);
-    compressor.finish();
-    byte[] output = new byte[inputSize];
-    int deflatedLength = compressor.deflate(output);
-    compressor.end();
+    try (DeflaterOutputStream deflaterOutputStream =
+        new DeflaterOutputStream(output, compressor, DEFLATER_BUFFER_SIZE)) {
+      originalPayload.writeTo(deflaterOutputStream);
+    } catch (IOException e) {
+      throw new PayloadCodecException(e);
+    } finally {
+      compressor.end();
+    }
 
-    if (deflatedLength < inputSize) {
+    if (output.size() < inputSize) {
       return Payload.newBuilder()
           .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, METADATA_ENCODING_ZLIB)
-          .setData(ByteString.copyFrom(output, 0, deflatedLength))
+          .setData(output.toByteString())
           .build();
     } else {
       return originalPayload;
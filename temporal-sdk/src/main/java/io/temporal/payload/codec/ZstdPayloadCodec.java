@@ -0,0 +1,260 @@
+package io.temporal.payload.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.google.protobuf.ByteString;
+import com.uber.m3.tally.Scope;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.Experimental;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.annotation.Nullable;
+
+/**
+ * PayloadCodec that compresses payloads using Zstandard. Zstandard compresses better and faster
+ * than Zlib at its default level and decompresses several times faster.
+ *
+ * <p>Small payloads that share a structure, like JSON of the same classes, compress much better
+ * with a dictionary trained on sample payloads, see {@link #trainDictionary(List, int)}. Payloads
+ * compressed with a dictionary can be decoded only by a codec that has the same dictionary, so the
+ * dictionary has to be deployed to all the workers and clients before it is used for encoding.
+ *
+ * <p>Zstandard contexts are native objects that are expensive to create. The codec keeps a pool
+ * of them, which size can be set by {@link Builder#setContextPoolSize(int)}. Contexts created when
+ * the pool is empty are released after use if the pool is full. The pooled contexts hold native
+ * memory until the codec is closed with {@link #close()}.
+ *
+ * <p>Payloads smaller than {@link Builder#setMinPayloadSize(int)} and payloads that don't become
+ * smaller after the compression are left as is. The codec can be combined with other codecs, like
+ * encryption, using {@link ChainCodec}. Compression should be applied before encryption, so it
+ * should be the last codec passed to {@link ChainCodec}.
+ *
+ * <p>This codec requires {@code com.github.luben:zstd-jni} on the classpath. The SDK doesn't
+ * depend on it.
+ */
+@Experimental
+public class ZstdPayloadCodec extends CompressionPayloadCodec implements AutoCloseable {
+  static final ByteString METADATA_ENCODING_ZSTD = ByteString.copyFromUtf8("binary/zstd");
+
+  /** Default value of {@link Builder#setMinPayloadSize(int)} */
+  public static final int DEFAULT_MIN_PAYLOAD_SIZE = 128;
+
+  /** Default value of {@link Builder#setMaxDecodedPayloadSize(int)} */
+  public static final int DEFAULT_MAX_DECODED_PAYLOAD_SIZE = 128 * 1024 * 1024;
+
+  /** Default value of {@link Builder#setCompressionLevel(int)} */
+  public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+  /** Default value of {@link Builder#setContextPoolSize(int)} */
+  public static final int DEFAULT_CONTEXT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  private final int compressionLevel;
+  private final @Nullable byte[] dictionary;
+  private final BlockingQueue<ZstdCompressCtx> compressContexts;
+  private final BlockingQueue<ZstdDecompressCtx> decompressContexts;
+  private volatile boolean closed;
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public ZstdPayloadCodec() {
+    this(newBuilder());
+  }
+
+  private ZstdPayloadCodec(Builder builder) {
+    super(
+        METADATA_ENCODING_ZSTD,
+        builder.minPayloadSize,
+        builder.maxDecodedPayloadSize,
+        builder.metricsScope,
+        "zstd");
+    this.compressionLevel = builder.compressionLevel;
+    this.dictionary = builder.dictionary;
+    this.compressContexts = new ArrayBlockingQueue<>(builder.contextPoolSize);
+    this.decompressContexts = new ArrayBlockingQueue<>(builder.contextPoolSize);
+  }
+
+  /**
+   * Trains a dictionary on sample payloads. The samples should be representative of the payloads
+   * the codec is going to encode, for example payloads captured from the existing workflows. A few
+   * thousand samples are usually enough.
+   *
+   * @param samples payloads to train the dictionary on
+   * @param dictionarySize maximum size of the dictionary in bytes, 16-112KB is typical
+   * @return dictionary to pass to {@link Builder#setDictionary(byte[])}
+   */
+  public static byte[] trainDictionary(List<Payload> samples, int dictionarySize) {
+    long samplesSize = 0;
+    for (Payload sample : samples) {
+      samplesSize += sample.getSerializedSize();
+    }
+    if (samplesSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Total size of samples is too large: " + samplesSize);
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer((int) samplesSize, dictionarySize);
+    for (Payload sample : samples) {
+      trainer.addSample(sample.toByteArray());
+    }
+    return trainer.trainSamples();
+  }
+
+  @Override
+  int maxCompressedLength(int length) {
+    return (int) Zstd.compressBound(length);
+  }
+
+  @Override
+  int compress(byte[] src, byte[] dest, int destOffset, int maxDestLength) {
+    ZstdCompressCtx context = compressContexts.poll();
+    if (context == null) {
+      context = new ZstdCompressCtx();
+      context.setLevel(compressionLevel);
+      if (dictionary != null) {
+        context.loadDict(dictionary);
+      }
+    }
+    try {
+      return context.compressByteArray(dest, destOffset, maxDestLength, src, 0, src.length);
+    } finally {
+      if (!compressContexts.offer(context)) {
+        context.close();
+      } else if (closed && compressContexts.remove(context)) {
+        // the codec was closed concurrently and the pool was already drained
+        context.close();
+      }
+    }
+  }
+
+  @Override
+  void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest) {
+    ZstdDecompressCtx context = decompressContexts.poll();
+    if (context == null) {
+      context = new ZstdDecompressCtx();
+      if (dictionary != null) {
+        context.loadDict(dictionary);
+      }
+    }
+    try {
+      int size = context.decompressByteArray(dest, 0, dest.length, src, srcOffset, srcLength);
+      if (size != dest.length) {
+        throw new PayloadCodecException(
+            "Decompressed " + size + " bytes, expected " + dest.length + " bytes");
+      }
+    } finally {
+      if (!decompressContexts.offer(context)) {
+        context.close();
+      } else if (closed && decompressContexts.remove(context)) {
+        // the codec was closed concurrently and the pool was already drained
+        context.close();
+      }
+    }
+  }
+
+  /**
+   * Releases the native memory of the pooled Zstandard contexts. The codec can still be used after
+   * it's closed, but the contexts are not pooled anymore and are released after each use.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    ZstdCompressCtx compressContext;
+    while ((compressContext = compressContexts.poll()) != null) {
+      compressContext.close();
+    }
+    ZstdDecompressCtx decompressContext;
+    while ((decompressContext = decompressContexts.poll()) != null) {
+      decompressContext.close();
+    }
+  }
+
+  public static final class Builder {
+    private int minPayloadSize = DEFAULT_MIN_PAYLOAD_SIZE;
+    private int maxDecodedPayloadSize = DEFAULT_MAX_DECODED_PAYLOAD_SIZE;
+    private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+    private int contextPoolSize = DEFAULT_CONTEXT_POOL_SIZE;
+    private @Nullable byte[] dictionary;
+    private @Nullable Scope metricsScope;
+
+    private Builder() {}
+
+    /**
+     * Serialized payloads smaller than this size are not compressed. Default is {@link
+     * ZstdPayloadCodec#DEFAULT_MIN_PAYLOAD_SIZE} bytes.
+     */
+    public Builder setMinPayloadSize(int minPayloadSize) {
+      if (minPayloadSize < 0) {
+        throw new IllegalArgumentException("negative minPayloadSize: " + minPayloadSize);
+      }
+      this.minPayloadSize = minPayloadSize;
+      return this;
+    }
+
+    /**
+     * Encoded payloads declaring a serialized original payload larger than this size fail to decode
+     * with {@link PayloadCodecException}. Protects from allocating huge buffers for corrupted
+     * payloads. Default is {@link ZstdPayloadCodec#DEFAULT_MAX_DECODED_PAYLOAD_SIZE} bytes.
+     */
+    public Builder setMaxDecodedPayloadSize(int maxDecodedPayloadSize) {
+      if (maxDecodedPayloadSize < 1) {
+        throw new IllegalArgumentException(
+            "maxDecodedPayloadSize should be positive: " + maxDecodedPayloadSize);
+      }
+      this.maxDecodedPayloadSize = maxDecodedPayloadSize;
+      return this;
+    }
+
+    /**
+     * Zstandard compression level from 1 to 22. Higher levels compress better and slower,
+     * decompression speed doesn't depend on the level. Default is {@link
+     * ZstdPayloadCodec#DEFAULT_COMPRESSION_LEVEL}.
+     */
+    public Builder setCompressionLevel(int compressionLevel) {
+      if (compressionLevel < 1 || compressionLevel > 22) {
+        throw new IllegalArgumentException("invalid compressionLevel: " + compressionLevel);
+      }
+      this.compressionLevel = compressionLevel;
+      return this;
+    }
+
+    /**
+     * Maximum number of compression and decompression contexts kept for reuse. Default is {@link
+     * ZstdPayloadCodec#DEFAULT_CONTEXT_POOL_SIZE}.
+     */
+    public Builder setContextPoolSize(int contextPoolSize) {
+      if (contextPoolSize < 1) {
+        throw new IllegalArgumentException(
+            "contextPoolSize should be positive: " + contextPoolSize);
+      }
+      this.contextPoolSize = contextPoolSize;
+      return this;
+    }
+
+    /**
+     * Dictionary to compress and decompress the payloads with, see {@link
+     * ZstdPayloadCodec#trainDictionary(List, int)}. Default is null, which doesn't use a
+     * dictionary.
+     */
+    public Builder setDictionary(@Nullable byte[] dictionary) {
+      this.dictionary = dictionary == null ? null : dictionary.clone();
+      return this;
+    }
+
+    /**
+     * Scope to report the compression metrics to, see {@link
+     * io.temporal.worker.MetricsType#PAYLOAD_CODEC_ENCODE_LATENCY} and the other payload codec
+     * metrics. Default is null, which doesn't report metrics.
+     */
+    public Builder setMetricsScope(@Nullable Scope metricsScope) {
+      this.metricsScope = metricsScope;
+      return this;
+    }
+
+    public ZstdPayloadCodec build() {
+      return new ZstdPayloadCodec(this);
+    }
+  }
+}
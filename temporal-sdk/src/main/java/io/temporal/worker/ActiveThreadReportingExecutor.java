@@ -17,11 +17,14 @@ import javax.annotation.Nonnull;
 class ActiveThreadReportingExecutor implements WorkflowThreadExecutor {
   private final ExecutorService workflowThreadPool;
   private final Scope metricsScope;
+  private final long handoffSpinNanos;
   private final AtomicInteger tasksInFlight = new AtomicInteger();
 
-  ActiveThreadReportingExecutor(ExecutorService workflowThreadPool, Scope metricsScope) {
+  ActiveThreadReportingExecutor(
+      ExecutorService workflowThreadPool, Scope metricsScope, long handoffSpinNanos) {
     this.workflowThreadPool = workflowThreadPool;
     this.metricsScope = metricsScope;
+    this.handoffSpinNanos = handoffSpinNanos;
   }
 
   @Override
@@ -38,4 +41,9 @@ class ActiveThreadReportingExecutor implements WorkflowThreadExecutor {
           }
         });
   }
+
+  @Override
+  public long getHandoffSpinNanos() {
+    return handoffSpinNanos;
+  }
 }
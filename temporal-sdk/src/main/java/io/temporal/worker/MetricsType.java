@@ -73,6 +73,21 @@ public final class MetricsType {
   public static final String ACTIVITY_SUCCEED_E2E_LATENCY =
       TEMPORAL_METRICS_PREFIX + "activity_succeed_endtoend_latency";
 
+  /**
+   * Time an activity result spent queued before it was sent to the service when the results are
+   * sent by a dedicated executor, see {@link WorkerOptions.Builder#setActivityResponseExecutorSize}
+   */
+  public static final String ACTIVITY_RESPONSE_COALESCING_LATENCY =
+      TEMPORAL_METRICS_PREFIX + "activity_response_coalescing_latency";
+
+  /**
+   * Time between the first heartbeat of an activity not sent yet and the heartbeat request when
+   * heartbeats are coalesced, see {@link
+   * WorkerOptions.Builder#setActivityHeartbeatCoalescingWindow}
+   */
+  public static final String ACTIVITY_HEARTBEAT_COALESCING_LATENCY =
+      TEMPORAL_METRICS_PREFIX + "activity_heartbeat_coalescing_latency";
+
   public static final String ACTIVITY_EXEC_FAILED_COUNTER =
       TEMPORAL_METRICS_PREFIX + "activity_execution_failed";
   public static final String ACTIVITY_EXEC_CANCELLED_COUNTER =
@@ -184,6 +199,11 @@ public final class MetricsType {
       TEMPORAL_METRICS_PREFIX + "sticky_cache_thread_forced_eviction";
   // gauge, tagged with namespace
   public static final String STICKY_CACHE_SIZE = TEMPORAL_METRICS_PREFIX + "sticky_cache_size";
+  // histogram of estimated retained bytes per cached workflow run, tagged with namespace.
+  // Reported only if the cache is bounded by memory.
+  @Experimental
+  public static final String STICKY_CACHE_ENTRY_WEIGHT =
+      TEMPORAL_METRICS_PREFIX + "sticky_cache_entry_weight";
   // gauge
   public static final String WORKFLOW_ACTIVE_THREAD_COUNT =
       TEMPORAL_METRICS_PREFIX + "workflow_active_thread_count";
@@ -196,4 +216,70 @@ public final class MetricsType {
   public static final String RESOURCE_CPU_USAGE = "resource_slots_cpu_usage";
   public static final String RESOURCE_MEM_PID = "resource_slots_mem_pid_output";
   public static final String RESOURCE_CPU_PID = "resource_slots_cpu_pid_output";
+
+  //
+  // Payload codecs
+  //
+  // Tagged with payload_codec. Reported by the compression codecs that are given a metrics scope.
+  @Experimental
+  public static final String PAYLOAD_CODEC_ENCODE_LATENCY =
+      TEMPORAL_METRICS_PREFIX + "payload_codec_encode_latency";
+
+  @Experimental
+  public static final String PAYLOAD_CODEC_DECODE_LATENCY =
+      TEMPORAL_METRICS_PREFIX + "payload_codec_decode_latency";
+
+  /** Bytes of payloads before compression, the compression ratio is compressed / uncompressed */
+  @Experimental
+  public static final String PAYLOAD_CODEC_UNCOMPRESSED_BYTES =
+      TEMPORAL_METRICS_PREFIX + "payload_codec_uncompressed_bytes";
+
+  /** Bytes of payloads after compression, including the payloads left uncompressed */
+  @Experimental
+  public static final String PAYLOAD_CODEC_COMPRESSED_BYTES =
+      TEMPORAL_METRICS_PREFIX + "payload_codec_compressed_bytes";
+
+  /** Payloads left uncompressed because they are too small or don't compress */
+  @Experimental
+  public static final String PAYLOAD_CODEC_SKIPPED_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "payload_codec_skipped";
+
+  // Tagged with operation (encode or decode). Reported by the remote data encoder codecs that are
+  // given a metrics scope.
+  @Experimental
+  public static final String REMOTE_DATA_ENCODER_REQUEST_LATENCY =
+      TEMPORAL_METRICS_PREFIX + "remote_data_encoder_request_latency";
+
+  @Experimental
+  public static final String REMOTE_DATA_ENCODER_REQUEST_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "remote_data_encoder_request";
+
+  /** Codec calls sent to the remote data encoder, the batch size is calls / requests */
+  @Experimental
+  public static final String REMOTE_DATA_ENCODER_CALL_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "remote_data_encoder_call";
+
+  //
+  // Bulk start
+  //
+  @Experimental
+  public static final String BULK_START_SUCCEEDED_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "bulk_start_succeeded";
+
+  @Experimental
+  public static final String BULK_START_FAILED_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "bulk_start_failed";
+
+  /** Start attempts repeated after a transient failure */
+  @Experimental
+  public static final String BULK_START_RETRY_COUNTER =
+      TEMPORAL_METRICS_PREFIX + "bulk_start_retry";
+
+  /** Latency of a single start including the retries */
+  @Experimental
+  public static final String BULK_START_LATENCY = TEMPORAL_METRICS_PREFIX + "bulk_start_latency";
+
+  @Experimental
+  public static final String BULK_START_IN_FLIGHT =
+      TEMPORAL_METRICS_PREFIX + "bulk_start_in_flight";
 }
@@ -559,9 +559,16 @@ public final class Worker {
         .setPollerOptions(
             PollerOptions.newBuilder()
                 .setMaximumPollRatePerSecond(options.getMaxWorkerActivitiesPerSecond())
-                .setPollThreadCount(options.getMaxConcurrentActivityTaskPollers())
+                .setPollThreadCount(
+                    getPollThreadCount(
+                        options.getActivityTaskPollersBehavior(),
+                        options.getMaxConcurrentActivityTaskPollers()))
+                .setPollerBehavior(options.getActivityTaskPollersBehavior())
                 .setUsingVirtualThreads(options.isUsingVirtualThreadsOnActivityWorker())
                 .build())
+        .setActivityResponseExecutorSize(options.getActivityResponseExecutorSize())
+        .setActivityResponseQueueSize(options.getActivityResponseQueueSize())
+        .setActivityHeartbeatCoalescingWindow(options.getActivityHeartbeatCoalescingWindow())
         .setMetricsScope(metricsScope)
         .build();
   }
@@ -575,7 +582,11 @@ public final class Worker {
     return toSingleWorkerOptions(factoryOptions, options, clientOptions, contextPropagators)
         .setPollerOptions(
             PollerOptions.newBuilder()
-                .setPollThreadCount(options.getMaxConcurrentNexusTaskPollers())
+                .setPollThreadCount(
+                    getPollThreadCount(
+                        options.getNexusTaskPollersBehavior(),
+                        options.getMaxConcurrentNexusTaskPollers()))
+                .setPollerBehavior(options.getNexusTaskPollersBehavior())
                 .setUsingVirtualThreads(options.isUsingVirtualThreadsOnNexusWorker())
                 .build())
         .setMetricsScope(metricsScope)
@@ -601,7 +612,23 @@ public final class Worker {
           factoryOptions.getWorkflowHostLocalTaskQueueScheduleToStartTimeout();
     }
 
-    int maxConcurrentWorkflowTaskPollers = options.getMaxConcurrentWorkflowTaskPollers();
+    PollerBehavior workflowTaskPollersBehavior = options.getWorkflowTaskPollersBehavior();
+    if (workflowTaskPollersBehavior instanceof PollerBehaviorAutoscaling) {
+      PollerBehaviorAutoscaling autoscaling =
+          (PollerBehaviorAutoscaling) workflowTaskPollersBehavior;
+      if (autoscaling.getMinConcurrentTaskPollers() == 1) {
+        log.warn(
+            "WorkerOptions.Builder#setWorkflowTaskPollersBehavior was set to autoscaling with the minimum of 1 poller. This is an illegal value. The minimum number of Workflow Task Pollers is forced to 2. See documentation on WorkerOptions.Builder#setWorkflowTaskPollersBehavior");
+        workflowTaskPollersBehavior =
+            new PollerBehaviorAutoscaling(
+                2,
+                Math.max(2, autoscaling.getMaxConcurrentTaskPollers()),
+                Math.max(2, autoscaling.getInitialConcurrentTaskPollers()));
+      }
+    }
+    int maxConcurrentWorkflowTaskPollers =
+        getPollThreadCount(
+            workflowTaskPollersBehavior, options.getMaxConcurrentWorkflowTaskPollers());
     if (maxConcurrentWorkflowTaskPollers == 1) {
       log.warn(
           "WorkerOptions.Builder#setMaxConcurrentWorkflowTaskPollers was set to 1. This is an illegal value. The number of Workflow Task Pollers is forced to 2. See documentation on WorkerOptions.Builder#setMaxConcurrentWorkflowTaskPollers");
@@ -612,16 +639,33 @@ public final class Worker {
         .setPollerOptions(
             PollerOptions.newBuilder()
                 .setPollThreadCount(maxConcurrentWorkflowTaskPollers)
+                .setPollerBehavior(workflowTaskPollersBehavior)
                 .setUsingVirtualThreads(options.isUsingVirtualThreadsOnWorkflowWorker())
                 .build())
         .setStickyQueueScheduleToStartTimeout(stickyQueueScheduleToStartTimeout)
         .setStickyTaskQueueDrainTimeout(options.getStickyTaskQueueDrainTimeout())
         .setUsingVirtualThreads(options.isUsingVirtualThreadsOnWorkflowWorker())
         .setDefaultDeadlockDetectionTimeout(options.getDefaultDeadlockDetectionTimeout())
+        .setWorkflowHistoryReadAheadPages(options.getWorkflowHistoryReadAheadPages())
+        .setWorkflowHistoryReadAheadBytes(options.getWorkflowHistoryReadAheadBytes())
         .setMetricsScope(metricsScope.tagged(tags))
         .build();
   }
 
+  /**
+   * @return the maximum number of concurrent polls defined by the poller behavior if it's set,
+   *     {@code maxConcurrentTaskPollers} otherwise
+   */
+  private static int getPollThreadCount(
+      @Nullable PollerBehavior pollerBehavior, int maxConcurrentTaskPollers) {
+    if (pollerBehavior instanceof PollerBehaviorSimpleMaximum) {
+      return ((PollerBehaviorSimpleMaximum) pollerBehavior).getMaxConcurrentTaskPollers();
+    } else if (pollerBehavior instanceof PollerBehaviorAutoscaling) {
+      return ((PollerBehaviorAutoscaling) pollerBehavior).getMaxConcurrentTaskPollers();
+    }
+    return maxConcurrentTaskPollers;
+  }
+
   private static SingleWorkerOptions toLocalActivityOptions(
       WorkerFactoryOptions factoryOptions,
       WorkerOptions options,
@@ -27,7 +27,7 @@ import org.slf4j.LoggerFactory;
 public final class WorkerFactory {
   private static final Logger log = LoggerFactory.getLogger(WorkerFactory.class);
 
-  private final WorkflowRunLockManager runLocks = new WorkflowRunLockManager();
+  private final WorkflowRunLockManager runLocks;
 
   private final Scope metricsScope;
 
@@ -94,11 +94,19 @@ public final class WorkerFactory {
     }
 
     this.workflowThreadExecutor =
-        new ActiveThreadReportingExecutor(this.workflowThreadPool, this.metricsScope);
+        new ActiveThreadReportingExecutor(
+            this.workflowThreadPool,
+            this.metricsScope,
+            this.factoryOptions.getWorkflowThreadHandoffSpinTime().toNanos());
+
+    this.runLocks = new WorkflowRunLockManager(this.factoryOptions.getWorkflowRunLockStripes());
 
     this.cache =
         new WorkflowExecutorCache(
-            this.factoryOptions.getWorkflowCacheSize(), runLocks, metricsScope);
+            this.factoryOptions.getWorkflowCacheSize(),
+            this.factoryOptions.getWorkflowCacheMaxSizeBytes(),
+            runLocks,
+            metricsScope);
   }
 
   /**
@@ -35,7 +35,10 @@ public class WorkerFactoryOptions {
 
     private Duration workflowHostLocalTaskQueueScheduleToStartTimeout;
     private int workflowCacheSize;
+    private long workflowCacheMaxSizeBytes;
+    private int workflowRunLockStripes;
     private int maxWorkflowThreadCount;
+    private Duration workflowThreadHandoffSpinTime;
     private WorkerInterceptor[] workerInterceptors;
     private boolean enableLoggingInReplay;
     private boolean usingVirtualWorkflowThreads;
@@ -50,7 +53,10 @@ public class WorkerFactoryOptions {
       this.workflowHostLocalTaskQueueScheduleToStartTimeout =
           options.workflowHostLocalTaskQueueScheduleToStartTimeout;
       this.workflowCacheSize = options.workflowCacheSize;
+      this.workflowCacheMaxSizeBytes = options.workflowCacheMaxSizeBytes;
+      this.workflowRunLockStripes = options.workflowRunLockStripes;
       this.maxWorkflowThreadCount = options.maxWorkflowThreadCount;
+      this.workflowThreadHandoffSpinTime = options.workflowThreadHandoffSpinTime;
       this.workerInterceptors = options.workerInterceptors;
       this.enableLoggingInReplay = options.enableLoggingInReplay;
       this.usingVirtualWorkflowThreads = options.usingVirtualWorkflowThreads;
@@ -70,6 +76,40 @@ public class WorkerFactoryOptions {
       return this;
     }
 
+    /**
+     * Bounds the workflow cache by the estimated amount of memory retained by the cached workflows
+     * instead of their number. The estimate of each cached workflow accounts for its open state
+     * machines, its start event and its live workflow threads. When set, {@link
+     * #setWorkflowCacheSize(int)} is ignored.
+     *
+     * <p>The payloads other than the workflow input, such as buffered signals and the state kept by
+     * the workflow code, are not included in the estimate, so the limit should leave room for them.
+     *
+     * <p>Default is 0 which means that the cache is bounded by {@link #setWorkflowCacheSize(int)}
+     */
+    @Experimental
+    public Builder setWorkflowCacheMaxSizeBytes(long workflowCacheMaxSizeBytes) {
+      this.workflowCacheMaxSizeBytes = workflowCacheMaxSizeBytes;
+      return this;
+    }
+
+    /**
+     * Workflow tasks of the same workflow run are processed one at a time, which is enforced by a
+     * lock per workflow run. By default, a lock is allocated for each run when its workflow task is
+     * picked up for processing. If set to a positive value, workflow runs are mapped by their runId
+     * hash to a fixed table of this many preallocated locks instead. This avoids allocations and
+     * contention on a shared map under a high rate of workflow tasks, but runs sharing a lock wait
+     * for each other. This value should be much higher than the number of workflow tasks that are
+     * processed concurrently by all workers created by the Factory.
+     *
+     * <p>Default is 0 which means a dedicated lock per workflow run
+     */
+    @Experimental
+    public Builder setWorkflowRunLockStripes(int workflowRunLockStripes) {
+      this.workflowRunLockStripes = workflowRunLockStripes;
+      return this;
+    }
+
     /**
      * Maximum number of threads available for workflow execution across all workers created by the
      * Factory. This includes cached workflows.
@@ -81,6 +121,23 @@ public class WorkerFactoryOptions {
       return this;
     }
 
+    /**
+     * Every time a workflow thread blocks or gets unblocked, the control is handed over between the
+     * workflow task thread and the workflow thread. By default, the thread giving up the control
+     * parks immediately. If set, the thread giving up the control spins for up to this time waiting
+     * for the control to come back before parking. This avoids most of the park/unpark round trips
+     * during replay of long histories and processing of many signals, at the cost of CPU burnt by
+     * spinning. Values of a few dozen microseconds are usually enough. Makes sense only if the
+     * worker has spare CPU cores.
+     *
+     * <p>Default is {@link Duration#ZERO} which means no spinning
+     */
+    @Experimental
+    public Builder setWorkflowThreadHandoffSpinTime(Duration workflowThreadHandoffSpinTime) {
+      this.workflowThreadHandoffSpinTime = workflowThreadHandoffSpinTime;
+      return this;
+    }
+
     /**
      * Timeout for a workflow task routed to the "sticky worker" - host that has the workflow
      * instance cached in memory. Once it times out, then it can be picked up by any worker.
@@ -138,7 +195,10 @@ public class WorkerFactoryOptions {
     public WorkerFactoryOptions build() {
       return new WorkerFactoryOptions(
           workflowCacheSize,
+          workflowCacheMaxSizeBytes,
+          workflowRunLockStripes,
           maxWorkflowThreadCount,
+          workflowThreadHandoffSpinTime,
           workflowHostLocalTaskQueueScheduleToStartTimeout,
           workerInterceptors,
           enableLoggingInReplay,
@@ -150,7 +210,10 @@ public class WorkerFactoryOptions {
     public WorkerFactoryOptions validateAndBuildWithDefaults() {
       return new WorkerFactoryOptions(
           workflowCacheSize,
+          workflowCacheMaxSizeBytes,
+          workflowRunLockStripes,
           maxWorkflowThreadCount,
+          workflowThreadHandoffSpinTime,
           workflowHostLocalTaskQueueScheduleToStartTimeout,
           workerInterceptors == null ? new WorkerInterceptor[0] : workerInterceptors,
           enableLoggingInReplay,
@@ -161,7 +224,10 @@ public class WorkerFactoryOptions {
   }
 
   private final int workflowCacheSize;
+  private final long workflowCacheMaxSizeBytes;
+  private final int workflowRunLockStripes;
   private final int maxWorkflowThreadCount;
+  private final Duration workflowThreadHandoffSpinTime;
   private final @Nullable Duration workflowHostLocalTaskQueueScheduleToStartTimeout;
   private final WorkerInterceptor[] workerInterceptors;
   private final boolean enableLoggingInReplay;
@@ -170,7 +236,10 @@ public class WorkerFactoryOptions {
 
   private WorkerFactoryOptions(
       int workflowCacheSize,
+      long workflowCacheMaxSizeBytes,
+      int workflowRunLockStripes,
       int maxWorkflowThreadCount,
+      Duration workflowThreadHandoffSpinTime,
       @Nullable Duration workflowHostLocalTaskQueueScheduleToStartTimeout,
       WorkerInterceptor[] workerInterceptors,
       boolean enableLoggingInReplay,
@@ -182,11 +251,19 @@ public class WorkerFactoryOptions {
       if (workflowCacheSize <= 0) {
         workflowCacheSize = DEFAULT_WORKFLOW_CACHE_SIZE;
       }
+      Preconditions.checkState(
+          workflowCacheMaxSizeBytes >= 0, "negative workflowCacheMaxSizeBytes");
+      Preconditions.checkState(workflowRunLockStripes >= 0, "negative workflowRunLockStripes");
 
       Preconditions.checkState(maxWorkflowThreadCount >= 0, "negative maxWorkflowThreadCount");
       if (maxWorkflowThreadCount == 0) {
         maxWorkflowThreadCount = DEFAULT_MAX_WORKFLOW_THREAD_COUNT;
       }
+      if (workflowThreadHandoffSpinTime == null) {
+        workflowThreadHandoffSpinTime = Duration.ZERO;
+      }
+      Preconditions.checkState(
+          !workflowThreadHandoffSpinTime.isNegative(), "negative workflowThreadHandoffSpinTime");
       if (workflowHostLocalTaskQueueScheduleToStartTimeout != null) {
         Preconditions.checkState(
             !workflowHostLocalTaskQueueScheduleToStartTimeout.isNegative(),
@@ -197,7 +274,10 @@ public class WorkerFactoryOptions {
       }
     }
     this.workflowCacheSize = workflowCacheSize;
+    this.workflowCacheMaxSizeBytes = workflowCacheMaxSizeBytes;
+    this.workflowRunLockStripes = workflowRunLockStripes;
     this.maxWorkflowThreadCount = maxWorkflowThreadCount;
+    this.workflowThreadHandoffSpinTime = workflowThreadHandoffSpinTime;
     this.workflowHostLocalTaskQueueScheduleToStartTimeout =
         workflowHostLocalTaskQueueScheduleToStartTimeout;
     this.workerInterceptors = workerInterceptors;
@@ -210,10 +290,25 @@ public class WorkerFactoryOptions {
     return workflowCacheSize;
   }
 
+  @Experimental
+  public long getWorkflowCacheMaxSizeBytes() {
+    return workflowCacheMaxSizeBytes;
+  }
+
+  @Experimental
+  public int getWorkflowRunLockStripes() {
+    return workflowRunLockStripes;
+  }
+
   public int getMaxWorkflowThreadCount() {
     return maxWorkflowThreadCount;
   }
 
+  @Experimental
+  public Duration getWorkflowThreadHandoffSpinTime() {
+    return workflowThreadHandoffSpinTime;
+  }
+
   @Nullable
   public Duration getWorkflowHostLocalTaskQueueScheduleToStartTimeout() {
     return workflowHostLocalTaskQueueScheduleToStartTimeout;
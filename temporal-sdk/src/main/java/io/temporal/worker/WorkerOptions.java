@@ -48,6 +48,9 @@ public final class WorkerOptions {
     private static final Duration DEFAULT_MAX_HEARTBEAT_THROTTLE_INTERVAL = Duration.ofSeconds(60);
     private static final Duration DEFAULT_DEFAULT_HEARTBEAT_THROTTLE_INTERVAL =
         Duration.ofSeconds(30);
+    private static final int DEFAULT_WORKFLOW_HISTORY_READ_AHEAD_PAGES = 1;
+    private static final long DEFAULT_WORKFLOW_HISTORY_READ_AHEAD_BYTES = 16 * 1024 * 1024;
+    private static final int DEFAULT_ACTIVITY_RESPONSE_QUEUE_SIZE = 1000;
 
     private double maxWorkerActivitiesPerSecond;
     private int maxConcurrentActivityExecutionSize;
@@ -74,6 +77,14 @@ public final class WorkerOptions {
     private boolean usingVirtualThreadsOnNexusWorker;
     private String identity;
     private WorkerDeploymentOptions deploymentOptions;
+    private int workflowHistoryReadAheadPages = DEFAULT_WORKFLOW_HISTORY_READ_AHEAD_PAGES;
+    private long workflowHistoryReadAheadBytes = DEFAULT_WORKFLOW_HISTORY_READ_AHEAD_BYTES;
+    private PollerBehavior workflowTaskPollersBehavior;
+    private PollerBehavior activityTaskPollersBehavior;
+    private PollerBehavior nexusTaskPollersBehavior;
+    private int activityResponseExecutorSize;
+    private int activityResponseQueueSize;
+    private Duration activityHeartbeatCoalescingWindow;
 
     private Builder() {}
 
@@ -106,6 +117,14 @@ public final class WorkerOptions {
       this.usingVirtualThreadsOnLocalActivityWorker = o.usingVirtualThreadsOnLocalActivityWorker;
       this.usingVirtualThreadsOnNexusWorker = o.usingVirtualThreadsOnNexusWorker;
       this.deploymentOptions = o.deploymentOptions;
+      this.workflowHistoryReadAheadPages = o.workflowHistoryReadAheadPages;
+      this.workflowHistoryReadAheadBytes = o.workflowHistoryReadAheadBytes;
+      this.workflowTaskPollersBehavior = o.workflowTaskPollersBehavior;
+      this.activityTaskPollersBehavior = o.activityTaskPollersBehavior;
+      this.nexusTaskPollersBehavior = o.nexusTaskPollersBehavior;
+      this.activityResponseExecutorSize = o.activityResponseExecutorSize;
+      this.activityResponseQueueSize = o.activityResponseQueueSize;
+      this.activityHeartbeatCoalescingWindow = o.activityHeartbeatCoalescingWindow;
     }
 
     /**
@@ -487,6 +506,169 @@ public final class WorkerOptions {
       return this;
     }
 
+    /**
+     * When a workflow task requires the full workflow history, for example when the workflow is not
+     * in the cache of the worker, the history is loaded from the service page by page while the
+     * workflow is replayed. This option sets how many pages following the one being replayed may be
+     * requested from the service in advance, so the replay and the loading of the history overlap.
+     * Pages are requested sequentially as the token of each page is returned with the previous one.
+     *
+     * <p>0 disables the read-ahead. Default is 1.
+     *
+     * @see #setWorkflowHistoryReadAheadBytes(long)
+     */
+    @Experimental
+    public Builder setWorkflowHistoryReadAheadPages(int workflowHistoryReadAheadPages) {
+      if (workflowHistoryReadAheadPages < 0) {
+        throw new IllegalArgumentException(
+            "Negative workflowHistoryReadAheadPages value: " + workflowHistoryReadAheadPages);
+      }
+      this.workflowHistoryReadAheadPages = workflowHistoryReadAheadPages;
+      return this;
+    }
+
+    /**
+     * Limits the memory taken by the history pages that were read ahead but not replayed yet. No
+     * more pages are requested while the loaded pages take more than this number of bytes.
+     *
+     * <p>0 disables the read-ahead. Default is 16MB.
+     *
+     * @see #setWorkflowHistoryReadAheadPages(int)
+     */
+    @Experimental
+    public Builder setWorkflowHistoryReadAheadBytes(long workflowHistoryReadAheadBytes) {
+      if (workflowHistoryReadAheadBytes < 0) {
+        throw new IllegalArgumentException(
+            "Negative workflowHistoryReadAheadBytes value: " + workflowHistoryReadAheadBytes);
+      }
+      this.workflowHistoryReadAheadBytes = workflowHistoryReadAheadBytes;
+      return this;
+    }
+
+    /**
+     * Sets the behavior of the workflow task pollers. With {@link PollerBehaviorAutoscaling} the
+     * number of simultaneous long poll requests is adjusted between the configured minimum and
+     * maximum according to whether the polls return tasks, the backlog reported by the server and
+     * the availability of execution slots. With {@link PollerBehaviorSimpleMaximum} the worker
+     * keeps the configured number of polls running, the same as with {@link
+     * #setMaxConcurrentWorkflowTaskPollers(int)}.
+     *
+     * <p>Takes precedence over {@link #setMaxConcurrentWorkflowTaskPollers(int)} if set. Default is
+     * null.
+     *
+     * <p>As pollers alternate between sticky and non-sticky queues, the minimum number of workflow
+     * task pollers is raised to 2 if it's set to 1.
+     */
+    @Experimental
+    public Builder setWorkflowTaskPollersBehavior(
+        @Nullable PollerBehavior workflowTaskPollersBehavior) {
+      this.workflowTaskPollersBehavior = workflowTaskPollersBehavior;
+      return this;
+    }
+
+    /**
+     * Sets the behavior of the activity task pollers. With {@link PollerBehaviorAutoscaling} the
+     * number of simultaneous long poll requests is adjusted between the configured minimum and
+     * maximum according to whether the polls return tasks, the backlog reported by the server and
+     * the availability of execution slots. With {@link PollerBehaviorSimpleMaximum} the worker
+     * keeps the configured number of polls running, the same as with {@link
+     * #setMaxConcurrentActivityTaskPollers(int)}.
+     *
+     * <p>Takes precedence over {@link #setMaxConcurrentActivityTaskPollers(int)} if set. Default is
+     * null.
+     */
+    @Experimental
+    public Builder setActivityTaskPollersBehavior(
+        @Nullable PollerBehavior activityTaskPollersBehavior) {
+      this.activityTaskPollersBehavior = activityTaskPollersBehavior;
+      return this;
+    }
+
+    /**
+     * Sets the behavior of the nexus task pollers. With {@link PollerBehaviorAutoscaling} the
+     * number of simultaneous long poll requests is adjusted between the configured minimum and
+     * maximum according to whether the polls return tasks, the backlog reported by the server and
+     * the availability of execution slots. With {@link PollerBehaviorSimpleMaximum} the worker
+     * keeps the configured number of polls running, the same as with {@link
+     * #setMaxConcurrentNexusTaskPollers(int)}.
+     *
+     * <p>Takes precedence over {@link #setMaxConcurrentNexusTaskPollers(int)} if set. Default is
+     * null.
+     */
+    @Experimental
+    public Builder setNexusTaskPollersBehavior(
+        @Nullable PollerBehavior nexusTaskPollersBehavior) {
+      this.nexusTaskPollersBehavior = nexusTaskPollersBehavior;
+      return this;
+    }
+
+    /**
+     * Sets the number of threads sending the results of the activities to the service. By
+     * default, the result of an activity is sent by the thread that executed it, so the thread and
+     * the execution slot stay occupied for the duration of the request. With a dedicated executor
+     * the results of many short activities are multiplexed over a few threads, and the activity
+     * threads are released as soon as the result is queued.
+     *
+     * <p>The time the results spend in the queue is reported as {@link
+     * MetricsType#ACTIVITY_RESPONSE_COALESCING_LATENCY}.
+     *
+     * <p>Default is 0, which means the results are sent by the activity threads.
+     *
+     * @see #setActivityResponseQueueSize(int)
+     */
+    @Experimental
+    public Builder setActivityResponseExecutorSize(int activityResponseExecutorSize) {
+      if (activityResponseExecutorSize < 0) {
+        throw new IllegalArgumentException(
+            "Negative activityResponseExecutorSize value: " + activityResponseExecutorSize);
+      }
+      this.activityResponseExecutorSize = activityResponseExecutorSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of activity results that are queued or being sent by the executor
+     * enabled with {@link #setActivityResponseExecutorSize(int)}. When the limit is reached,
+     * activity threads wait for a free space in the queue before accepting the next task.
+     *
+     * <p>Default is 1000, which is chosen if set to zero.
+     */
+    @Experimental
+    public Builder setActivityResponseQueueSize(int activityResponseQueueSize) {
+      if (activityResponseQueueSize < 0) {
+        throw new IllegalArgumentException(
+            "Negative activityResponseQueueSize value: " + activityResponseQueueSize);
+      }
+      this.activityResponseQueueSize = activityResponseQueueSize;
+      return this;
+    }
+
+    /**
+     * By default, the first heartbeat of an activity is sent to the service right away and the
+     * following ones are throttled according to {@link #setMaxHeartbeatThrottleInterval} and
+     * {@link #setDefaultHeartbeatThrottleInterval}. If this window is set, the first heartbeat is
+     * delayed by it as well, so all the heartbeats recorded in the window are coalesced into a
+     * single request. Heartbeats that are still pending when the activity completes are not sent
+     * at all, which saves a request per activity for short activities that heartbeat.
+     *
+     * <p>Cancellation of the activity is delivered to the activity by a heartbeat call after the
+     * heartbeat is sent, so it's observed later with a longer window.
+     *
+     * <p>The time heartbeats wait to be sent is reported as {@link
+     * MetricsType#ACTIVITY_HEARTBEAT_COALESCING_LATENCY}.
+     *
+     * <p>Default is 0, which disables coalescing of the first heartbeat.
+     */
+    @Experimental
+    public Builder setActivityHeartbeatCoalescingWindow(@Nullable Duration window) {
+      Preconditions.checkArgument(
+          window == null || !window.isNegative(),
+          "Negative activityHeartbeatCoalescingWindow value: %s",
+          window);
+      this.activityHeartbeatCoalescingWindow = window;
+      return this;
+    }
+
     public WorkerOptions build() {
       return new WorkerOptions(
           maxWorkerActivitiesPerSecond,
@@ -513,7 +695,15 @@ public final class WorkerOptions {
           usingVirtualThreadsOnActivityWorker,
           usingVirtualThreadsOnLocalActivityWorker,
           usingVirtualThreadsOnNexusWorker,
-          deploymentOptions);
+          deploymentOptions,
+          workflowHistoryReadAheadPages,
+          workflowHistoryReadAheadBytes,
+          workflowTaskPollersBehavior,
+          activityTaskPollersBehavior,
+          nexusTaskPollersBehavior,
+          activityResponseExecutorSize,
+          activityResponseQueueSize,
+          activityHeartbeatCoalescingWindow);
     }
 
     public WorkerOptions validateAndBuildWithDefaults() {
@@ -572,6 +762,10 @@ public final class WorkerOptions {
           "negative stickyTaskQueueDrainTimeout");
       Preconditions.checkState(
           maxConcurrentNexusTaskPollers >= 0, "negative maxConcurrentNexusTaskPollers");
+      Preconditions.checkState(
+          workflowHistoryReadAheadPages >= 0, "negative workflowHistoryReadAheadPages");
+      Preconditions.checkState(
+          workflowHistoryReadAheadBytes >= 0, "negative workflowHistoryReadAheadBytes");
 
       return new WorkerOptions(
           maxWorkerActivitiesPerSecond,
@@ -622,7 +816,19 @@ public final class WorkerOptions {
           usingVirtualThreadsOnActivityWorker,
           usingVirtualThreadsOnLocalActivityWorker,
           usingVirtualThreadsOnNexusWorker,
-          deploymentOptions);
+          deploymentOptions,
+          workflowHistoryReadAheadPages,
+          workflowHistoryReadAheadBytes,
+          workflowTaskPollersBehavior,
+          activityTaskPollersBehavior,
+          nexusTaskPollersBehavior,
+          activityResponseExecutorSize,
+          activityResponseQueueSize == 0
+              ? DEFAULT_ACTIVITY_RESPONSE_QUEUE_SIZE
+              : activityResponseQueueSize,
+          activityHeartbeatCoalescingWindow == null
+              ? Duration.ZERO
+              : activityHeartbeatCoalescingWindow);
     }
   }
 
@@ -651,6 +857,14 @@ public final class WorkerOptions {
   private final boolean usingVirtualThreadsOnLocalActivityWorker;
   private final boolean usingVirtualThreadsOnNexusWorker;
   private final WorkerDeploymentOptions deploymentOptions;
+  private final int workflowHistoryReadAheadPages;
+  private final long workflowHistoryReadAheadBytes;
+  private final PollerBehavior workflowTaskPollersBehavior;
+  private final PollerBehavior activityTaskPollersBehavior;
+  private final PollerBehavior nexusTaskPollersBehavior;
+  private final int activityResponseExecutorSize;
+  private final int activityResponseQueueSize;
+  private final Duration activityHeartbeatCoalescingWindow;
 
   private WorkerOptions(
       double maxWorkerActivitiesPerSecond,
@@ -677,7 +891,15 @@ public final class WorkerOptions {
       boolean useThreadsEnabledOnActivityWorker,
       boolean virtualThreadsEnabledOnLocalActivityWorker,
       boolean virtualThreadsEnabledOnNexusWorker,
-      WorkerDeploymentOptions deploymentOptions) {
+      WorkerDeploymentOptions deploymentOptions,
+      int workflowHistoryReadAheadPages,
+      long workflowHistoryReadAheadBytes,
+      PollerBehavior workflowTaskPollersBehavior,
+      PollerBehavior activityTaskPollersBehavior,
+      PollerBehavior nexusTaskPollersBehavior,
+      int activityResponseExecutorSize,
+      int activityResponseQueueSize,
+      Duration activityHeartbeatCoalescingWindow) {
     this.maxWorkerActivitiesPerSecond = maxWorkerActivitiesPerSecond;
     this.maxConcurrentActivityExecutionSize = maxConcurrentActivityExecutionSize;
     this.maxConcurrentWorkflowTaskExecutionSize = maxConcurrentWorkflowTaskExecutionSize;
@@ -703,6 +925,14 @@ public final class WorkerOptions {
     this.usingVirtualThreadsOnLocalActivityWorker = virtualThreadsEnabledOnLocalActivityWorker;
     this.usingVirtualThreadsOnNexusWorker = virtualThreadsEnabledOnNexusWorker;
     this.deploymentOptions = deploymentOptions;
+    this.workflowHistoryReadAheadPages = workflowHistoryReadAheadPages;
+    this.workflowHistoryReadAheadBytes = workflowHistoryReadAheadBytes;
+    this.workflowTaskPollersBehavior = workflowTaskPollersBehavior;
+    this.activityTaskPollersBehavior = activityTaskPollersBehavior;
+    this.nexusTaskPollersBehavior = nexusTaskPollersBehavior;
+    this.activityResponseExecutorSize = activityResponseExecutorSize;
+    this.activityResponseQueueSize = activityResponseQueueSize;
+    this.activityHeartbeatCoalescingWindow = activityHeartbeatCoalescingWindow;
   }
 
   public double getMaxWorkerActivitiesPerSecond() {
@@ -823,6 +1053,47 @@ public final class WorkerOptions {
     return deploymentOptions;
   }
 
+  public int getWorkflowHistoryReadAheadPages() {
+    return workflowHistoryReadAheadPages;
+  }
+
+  public long getWorkflowHistoryReadAheadBytes() {
+    return workflowHistoryReadAheadBytes;
+  }
+
+  @Experimental
+  @Nullable
+  public PollerBehavior getWorkflowTaskPollersBehavior() {
+    return workflowTaskPollersBehavior;
+  }
+
+  @Experimental
+  @Nullable
+  public PollerBehavior getActivityTaskPollersBehavior() {
+    return activityTaskPollersBehavior;
+  }
+
+  @Experimental
+  @Nullable
+  public PollerBehavior getNexusTaskPollersBehavior() {
+    return nexusTaskPollersBehavior;
+  }
+
+  @Experimental
+  public int getActivityResponseExecutorSize() {
+    return activityResponseExecutorSize;
+  }
+
+  @Experimental
+  public int getActivityResponseQueueSize() {
+    return activityResponseQueueSize;
+  }
+
+  @Experimental
+  public Duration getActivityHeartbeatCoalescingWindow() {
+    return activityHeartbeatCoalescingWindow;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -851,7 +1122,16 @@ public final class WorkerOptions {
         && usingVirtualThreadsOnWorkflowWorker == that.usingVirtualThreadsOnWorkflowWorker
         && usingVirtualThreadsOnActivityWorker == that.usingVirtualThreadsOnActivityWorker
         && usingVirtualThreadsOnLocalActivityWorker == that.usingVirtualThreadsOnLocalActivityWorker
-        && usingVirtualThreadsOnNexusWorker == that.usingVirtualThreadsOnNexusWorker;
+        && usingVirtualThreadsOnNexusWorker == that.usingVirtualThreadsOnNexusWorker
+        && workflowHistoryReadAheadPages == that.workflowHistoryReadAheadPages
+        && workflowHistoryReadAheadBytes == that.workflowHistoryReadAheadBytes
+        && Objects.equals(workflowTaskPollersBehavior, that.workflowTaskPollersBehavior)
+        && Objects.equals(activityTaskPollersBehavior, that.activityTaskPollersBehavior)
+        && Objects.equals(nexusTaskPollersBehavior, that.nexusTaskPollersBehavior)
+        && activityResponseExecutorSize == that.activityResponseExecutorSize
+        && activityResponseQueueSize == that.activityResponseQueueSize
+        && Objects.equals(
+            activityHeartbeatCoalescingWindow, that.activityHeartbeatCoalescingWindow);
   }
 
   @Override
@@ -880,7 +1160,15 @@ public final class WorkerOptions {
         usingVirtualThreadsOnWorkflowWorker,
         usingVirtualThreadsOnActivityWorker,
         usingVirtualThreadsOnLocalActivityWorker,
-        usingVirtualThreadsOnNexusWorker);
+        usingVirtualThreadsOnNexusWorker,
+        workflowHistoryReadAheadPages,
+        workflowHistoryReadAheadBytes,
+        workflowTaskPollersBehavior,
+        activityTaskPollersBehavior,
+        nexusTaskPollersBehavior,
+        activityResponseExecutorSize,
+        activityResponseQueueSize,
+        activityHeartbeatCoalescingWindow);
   }
 
   @Override
@@ -935,6 +1223,22 @@ public final class WorkerOptions {
         + usingVirtualThreadsOnLocalActivityWorker
         + ", usingVirtualThreadsOnNexusWorker="
         + usingVirtualThreadsOnNexusWorker
+        + ", workflowHistoryReadAheadPages="
+        + workflowHistoryReadAheadPages
+        + ", workflowHistoryReadAheadBytes="
+        + workflowHistoryReadAheadBytes
+        + ", workflowTaskPollersBehavior="
+        + workflowTaskPollersBehavior
+        + ", activityTaskPollersBehavior="
+        + activityTaskPollersBehavior
+        + ", nexusTaskPollersBehavior="
+        + nexusTaskPollersBehavior
+        + ", activityResponseExecutorSize="
+        + activityResponseExecutorSize
+        + ", activityResponseQueueSize="
+        + activityResponseQueueSize
+        + ", activityHeartbeatCoalescingWindow="
+        + activityHeartbeatCoalescingWindow
         + '}';
   }
 }
@@ -0,0 +1,12 @@
+package io.temporal.worker.tuning;
+
+import io.temporal.common.Experimental;
+
+/**
+ * Defines how many concurrent long polls a worker keeps open against a task queue.
+ *
+ * @see PollerBehaviorSimpleMaximum
+ * @see PollerBehaviorAutoscaling
+ */
+@Experimental
+public interface PollerBehavior {}
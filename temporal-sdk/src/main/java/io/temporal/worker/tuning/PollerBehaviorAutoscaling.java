@@ -0,0 +1,102 @@
+package io.temporal.worker.tuning;
+
+import com.google.common.base.Preconditions;
+import io.temporal.common.Experimental;
+import java.util.Objects;
+
+/**
+ * Scales the number of concurrent long polls between a minimum and a maximum based on the outcome
+ * of the polls:
+ *
+ * <ul>
+ *   <li>a poll that returned a task adds a poller, more if the service reported a backlog of tasks,
+ *       unless all the task slots of the worker are taken, in which case more pollers won't make
+ *       the worker process tasks faster
+ *   <li>a poll that returned no task before the long poll timeout removes a poller
+ *   <li>a poll rejected by the service with {@code RESOURCE_EXHAUSTED} halves the number of
+ *       pollers
+ * </ul>
+ *
+ * Pollers that are not needed don't keep threads or long polls open.
+ */
+@Experimental
+public final class PollerBehaviorAutoscaling implements PollerBehavior {
+  private final int minConcurrentTaskPollers;
+  private final int maxConcurrentTaskPollers;
+  private final int initialConcurrentTaskPollers;
+
+  /** Creates an autoscaling behavior with 1 minimum, 100 maximum and 5 initial pollers. */
+  public PollerBehaviorAutoscaling() {
+    this(1, 100, 5);
+  }
+
+  /**
+   * @param minConcurrentTaskPollers lower bound of the number of concurrent long polls
+   * @param maxConcurrentTaskPollers upper bound of the number of concurrent long polls
+   * @param initialConcurrentTaskPollers number of concurrent long polls when the worker starts
+   */
+  public PollerBehaviorAutoscaling(
+      int minConcurrentTaskPollers,
+      int maxConcurrentTaskPollers,
+      int initialConcurrentTaskPollers) {
+    Preconditions.checkArgument(
+        minConcurrentTaskPollers > 0,
+        "minConcurrentTaskPollers must be positive: %s",
+        minConcurrentTaskPollers);
+    Preconditions.checkArgument(
+        maxConcurrentTaskPollers >= minConcurrentTaskPollers,
+        "maxConcurrentTaskPollers %s is less than minConcurrentTaskPollers %s",
+        maxConcurrentTaskPollers,
+        minConcurrentTaskPollers);
+    Preconditions.checkArgument(
+        initialConcurrentTaskPollers >= minConcurrentTaskPollers
+            && initialConcurrentTaskPollers <= maxConcurrentTaskPollers,
+        "initialConcurrentTaskPollers %s is out of [%s, %s]",
+        initialConcurrentTaskPollers,
+        minConcurrentTaskPollers,
+        maxConcurrentTaskPollers);
+    this.minConcurrentTaskPollers = minConcurrentTaskPollers;
+    this.maxConcurrentTaskPollers = maxConcurrentTaskPollers;
+    this.initialConcurrentTaskPollers = initialConcurrentTaskPollers;
+  }
+
+  public int getMinConcurrentTaskPollers() {
+    return minConcurrentTaskPollers;
+  }
+
+  public int getMaxConcurrentTaskPollers() {
+    return maxConcurrentTaskPollers;
+  }
+
+  public int getInitialConcurrentTaskPollers() {
+    return initialConcurrentTaskPollers;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PollerBehaviorAutoscaling that = (PollerBehaviorAutoscaling) o;
+    return minConcurrentTaskPollers == that.minConcurrentTaskPollers
+        && maxConcurrentTaskPollers == that.maxConcurrentTaskPollers
+        && initialConcurrentTaskPollers == that.initialConcurrentTaskPollers;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        minConcurrentTaskPollers, maxConcurrentTaskPollers, initialConcurrentTaskPollers);
+  }
+
+  @Override
+  public String toString() {
+    return "PollerBehaviorAutoscaling{"
+        + "minConcurrentTaskPollers="
+        + minConcurrentTaskPollers
+        + ", maxConcurrentTaskPollers="
+        + maxConcurrentTaskPollers
+        + ", initialConcurrentTaskPollers="
+        + initialConcurrentTaskPollers
+        + '}';
+  }
+}
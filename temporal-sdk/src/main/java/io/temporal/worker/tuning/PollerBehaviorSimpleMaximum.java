@@ -0,0 +1,47 @@
+package io.temporal.worker.tuning;
+
+import com.google.common.base.Preconditions;
+import io.temporal.common.Experimental;
+import java.util.Objects;
+
+/** Keeps a fixed number of concurrent long polls open. This is the default behavior. */
+@Experimental
+public final class PollerBehaviorSimpleMaximum implements PollerBehavior {
+  private final int maxConcurrentTaskPollers;
+
+  /**
+   * @param maxConcurrentTaskPollers number of concurrent long polls
+   */
+  public PollerBehaviorSimpleMaximum(int maxConcurrentTaskPollers) {
+    Preconditions.checkArgument(
+        maxConcurrentTaskPollers > 0,
+        "maxConcurrentTaskPollers must be positive: %s",
+        maxConcurrentTaskPollers);
+    this.maxConcurrentTaskPollers = maxConcurrentTaskPollers;
+  }
+
+  public int getMaxConcurrentTaskPollers() {
+    return maxConcurrentTaskPollers;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    PollerBehaviorSimpleMaximum that = (PollerBehaviorSimpleMaximum) o;
+    return maxConcurrentTaskPollers == that.maxConcurrentTaskPollers;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxConcurrentTaskPollers);
+  }
+
+  @Override
+  public String toString() {
+    return "PollerBehaviorSimpleMaximum{"
+        + "maxConcurrentTaskPollers="
+        + maxConcurrentTaskPollers
+        + '}';
+  }
+}
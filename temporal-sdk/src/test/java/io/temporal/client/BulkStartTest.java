@@ -0,0 +1,122 @@
+package io.temporal.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.testing.internal.SDKTestOptions;
+import io.temporal.testing.internal.SDKTestWorkflowRule;
+import io.temporal.workflow.shared.TestWorkflows;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class BulkStartTest {
+  private static final int WORKFLOW_COUNT = 50;
+
+  @Rule
+  public SDKTestWorkflowRule testWorkflowRule =
+      SDKTestWorkflowRule.newBuilder()
+          .setWorkflowTypes(TestWorkflows.DoNothingNoArgsWorkflow.class)
+          .build();
+
+  private WorkflowOptions options(String workflowId) {
+    return SDKTestOptions.newWorkflowOptionsWithTimeouts(testWorkflowRule.getTaskQueue())
+        .toBuilder()
+        .setWorkflowId(workflowId)
+        .setWorkflowIdReusePolicy(WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_REJECT_DUPLICATE)
+        .build();
+  }
+
+  @Test
+  public void testBulkStart() {
+    String prefix = testWorkflowRule.getTaskQueue() + "-";
+    Stream<BulkStartRequest> requests =
+        IntStream.range(0, WORKFLOW_COUNT)
+            .mapToObj(
+                i ->
+                    i % 2 == 0
+                        ? BulkStartRequest.newRequest(
+                            TestWorkflows.NoArgsWorkflow.class, options(prefix + i))
+                        : BulkStartRequest.newRequest("NoArgsWorkflow", options(prefix + i)));
+    List<BulkStartResult> results;
+    try (Stream<BulkStartResult> stream =
+        testWorkflowRule
+            .getWorkflowClient()
+            .bulkStart(requests, BulkStartOptions.newBuilder().setMaxInFlight(8).build())) {
+      results = stream.collect(Collectors.toList());
+    }
+    assertEquals(WORKFLOW_COUNT, results.size());
+    Set<String> workflowIds =
+        results.stream()
+            .peek(result -> assertTrue(String.valueOf(result.getFailure()), result.isSuccessful()))
+            .peek(result -> assertEquals(1, result.getAttempts()))
+            .map(result -> result.getExecution().getWorkflowId())
+            .collect(Collectors.toSet());
+    assertEquals(WORKFLOW_COUNT, workflowIds.size());
+    for (String workflowId : workflowIds) {
+      testWorkflowRule
+          .getWorkflowClient()
+          .newUntypedWorkflowStub(workflowId)
+          .getResult(Void.class);
+    }
+  }
+
+  @Test
+  public void testBulkStartReportsFailures() {
+    String workflowId = testWorkflowRule.getTaskQueue() + "-duplicate";
+    Stream<BulkStartRequest> requests =
+        Stream.of(
+            BulkStartRequest.newRequest(TestWorkflows.NoArgsWorkflow.class, options(workflowId)),
+            BulkStartRequest.newRequest(TestWorkflows.NoArgsWorkflow.class, options(workflowId)));
+    List<BulkStartResult> results =
+        testWorkflowRule
+            .getWorkflowClient()
+            .bulkStart(requests, BulkStartOptions.getDefaultInstance())
+            .collect(Collectors.toList());
+    assertEquals(2, results.size());
+    assertEquals(1, results.stream().filter(BulkStartResult::isSuccessful).count());
+    BulkStartResult failed =
+        results.stream().filter(result -> !result.isSuccessful()).findFirst().get();
+    assertNotNull(failed.getFailure());
+    assertTrue(
+        String.valueOf(failed.getFailure()),
+        failed.getFailure() instanceof WorkflowExecutionAlreadyStarted);
+    assertEquals(1, failed.getAttempts());
+  }
+
+  @Test
+  public void testBulkStartReportsErrors() {
+    String workflowId = testWorkflowRule.getTaskQueue() + "-error";
+    // the argument fails the start with an Error thrown by the data converter
+    Stream<BulkStartRequest> requests =
+        Stream.of(
+            BulkStartRequest.newRequest(
+                "NoArgsWorkflow", options(workflowId), new FailingArgument()));
+    List<BulkStartResult> results =
+        testWorkflowRule
+            .getWorkflowClient()
+            .bulkStart(requests, BulkStartOptions.getDefaultInstance())
+            .collect(Collectors.toList());
+    assertEquals(1, results.size());
+    BulkStartResult failed = results.get(0);
+    assertFalse(failed.isSuccessful());
+    boolean causedByError = false;
+    for (Throwable cause = failed.getFailure(); cause != null; cause = cause.getCause()) {
+      causedByError |= cause instanceof AssertionError;
+    }
+    assertTrue(String.valueOf(failed.getFailure()), causedByError);
+  }
+
+  public static class FailingArgument {
+    public String getValue() {
+      throw new AssertionError("failing argument");
+    }
+  }
+}
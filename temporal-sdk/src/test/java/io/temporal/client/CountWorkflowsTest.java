@@ -1,7 +1,6 @@
 package io.temporal.client;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assume.assumeTrue;
 
 import io.temporal.testing.internal.SDKTestWorkflowRule;
 import io.temporal.workflow.shared.TestWorkflows;
@@ -17,10 +16,6 @@ public class CountWorkflowsTest {
 
   @Test
   public void countWorkflowExecutions_returnsAllExecutions() throws InterruptedException {
-    assumeTrue(
-        "Test Server doesn't support countWorkflowExecutions endpoint yet",
-        SDKTestWorkflowRule.useExternalService);
-
     final int EXECUTIONS_COUNT = 5;
 
     for (int i = 0; i < EXECUTIONS_COUNT; i++) {
@@ -1,10 +1,11 @@
 package io.temporal.client;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assume.assumeTrue;
 
 import io.temporal.testing.internal.SDKTestWorkflowRule;
 import io.temporal.workflow.shared.TestWorkflows;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,10 +24,6 @@ public class ListWorkflowExecutionsTest {
     final int EXECUTIONS_COUNT = 30;
     final String QUERY = "TaskQueue='" + testWorkflowRule.getTaskQueue() + "'";
 
-    assumeTrue(
-        "Test Server doesn't support listWorkflowExecutions endpoint yet",
-        SDKTestWorkflowRule.useExternalService);
-
     for (int i = 0; i < EXECUTIONS_COUNT; i++) {
       WorkflowStub.fromTyped(testWorkflowRule.newWorkflowStub(TestWorkflows.NoArgsWorkflow.class))
           .start();
@@ -55,10 +52,6 @@ public class ListWorkflowExecutionsTest {
     final int EXECUTIONS_COUNT = 30;
     final String QUERY = "TaskQueue='" + testWorkflowRule.getTaskQueue() + "'";
 
-    assumeTrue(
-        "Test Server doesn't support listWorkflowExecutions endpoint yet",
-        SDKTestWorkflowRule.useExternalService);
-
     for (int i = 0; i < EXECUTIONS_COUNT; i++) {
       WorkflowStub.fromTyped(testWorkflowRule.newWorkflowStub(TestWorkflows.NoArgsWorkflow.class))
           .start();
@@ -87,4 +80,45 @@ public class ListWorkflowExecutionsTest {
         EXECUTIONS_COUNT,
         workflowIds.size());
   }
+
+  @Test
+  public void listWorkflowExecutions_returnsAllExecutions_partitioned()
+      throws InterruptedException {
+    final int EXECUTIONS_COUNT = 30;
+    final String QUERY = "TaskQueue='" + testWorkflowRule.getTaskQueue() + "'";
+
+    for (int i = 0; i < EXECUTIONS_COUNT; i++) {
+      WorkflowStub.fromTyped(testWorkflowRule.newWorkflowStub(TestWorkflows.NoArgsWorkflow.class))
+          .start();
+    }
+
+    // listWorkflowExecutions is Visibility API
+    // Temporal Visibility has latency and is not transactional with the Server API call
+    Thread.sleep(4_000);
+
+    Instant now = Instant.now();
+    ListExecutionsOptions options =
+        ListExecutionsOptions.newBuilder()
+            .setPageSize(4)
+            .setPrefetchPages(1)
+            .setStartTimePartitions(now.minus(Duration.ofMinutes(1)), now, 5)
+            .setMaxConcurrentPartitions(3)
+            .build();
+    List<WorkflowExecutionMetadata> executions =
+        testWorkflowRule
+            .getWorkflowClient()
+            .listExecutions(QUERY, options)
+            .collect(Collectors.toList());
+    assertEquals(
+        "Should return the original amount of the workflows", EXECUTIONS_COUNT, executions.size());
+    Set<String> workflowIds =
+        executions.stream()
+            .map(meta -> meta.getExecution().getWorkflowId())
+            .collect(Collectors.toSet());
+
+    assertEquals(
+        "Each of the returned workflowIds should be different",
+        EXECUTIONS_COUNT,
+        workflowIds.size());
+  }
 }
@@ -15,6 +15,12 @@ import io.temporal.payload.codec.PayloadCodecException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.junit.Before;
@@ -24,12 +30,14 @@ import org.junit.rules.Timeout;
 
 public class CodecDataConverterTest {
   public @Rule Timeout timeout = Timeout.seconds(10);
+  private static final String CODEC_THREAD_NAME = "codec-thread";
 
   private CodecDataConverter dataConverter;
+  private PrefixPayloadCodec prefixPayloadCodec;
 
   @Before
   public void setUp() {
-    PrefixPayloadCodec prefixPayloadCodec = new PrefixPayloadCodec();
+    prefixPayloadCodec = new PrefixPayloadCodec();
     this.dataConverter =
         new CodecDataConverter(
             DefaultDataConverter.newDefaultInstance(),
@@ -119,6 +127,64 @@ public class CodecDataConverterTest {
     assertEquals(p, converted.getPayload());
   }
 
+  @Test
+  public void testFailureChainIsEncodedWithSingleCodecCall() {
+    ApplicationFailure cause = ApplicationFailure.newFailure("Cause", "CauseType", "causeDetail");
+    ApplicationFailure originalException =
+        ApplicationFailure.newFailureWithCause("Message", "Type", cause);
+    Failure failure = dataConverter.exceptionToFailure(originalException);
+    assertEquals(1, prefixPayloadCodec.encodeCalls.get());
+    assertTrue(
+        isEncoded(failure.getCause().getApplicationFailureInfo().getDetails().getPayloads(0)));
+
+    ApplicationFailure decodedException =
+        (ApplicationFailure) dataConverter.failureToException(failure);
+    assertEquals(1, prefixPayloadCodec.decodeCalls.get());
+    assertEquals("Message", decodedException.getOriginalMessage());
+    ApplicationFailure decodedCause = (ApplicationFailure) decodedException.getCause();
+    assertEquals("Cause", decodedCause.getOriginalMessage());
+    assertEquals("causeDetail", decodedCause.getDetails().get(String.class));
+  }
+
+  @Test
+  public void testParallelCodec() {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(2, r -> new Thread(r, CODEC_THREAD_NAME));
+    AtomicInteger submissions = new AtomicInteger();
+    Executor countingExecutor =
+        task -> {
+          submissions.incrementAndGet();
+          executor.execute(task);
+        };
+    try {
+      PrefixPayloadCodec codec = new PrefixPayloadCodec();
+      CodecDataConverter parallelConverter =
+          new CodecDataConverter(
+              DefaultDataConverter.newDefaultInstance(),
+              Collections.singletonList(codec),
+              true,
+              countingExecutor,
+              3);
+      Object[] values = new Object[] {"a", 1, "b", 2, "c", 3, "d"};
+      Optional<Payloads> parallel = parallelConverter.toPayloads(values);
+      assertEquals(dataConverter.toPayloads(values), parallel);
+      // 7 payloads are split into 3 parts, the first part is encoded by the calling thread
+      assertEquals(2, submissions.get());
+      assertEquals(3, codec.encodeCalls.get());
+      assertTrue(codec.threadNames.contains(Thread.currentThread().getName()));
+      assertTrue(codec.threadNames.contains(CODEC_THREAD_NAME));
+
+      codec.threadNames.clear();
+      for (int i = 0; i < values.length; i++) {
+        assertEquals(
+            values[i], parallelConverter.fromPayloads(i, parallel, Object.class, Object.class));
+      }
+      assertTrue(codec.threadNames.contains(CODEC_THREAD_NAME));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   static boolean isEncoded(Payload payload) {
     return payload.getData().startsWith(PrefixPayloadCodec.PREFIX);
   }
@@ -126,9 +192,15 @@ public class CodecDataConverterTest {
   private static final class PrefixPayloadCodec implements PayloadCodec {
     public static final ByteString PREFIX = ByteString.copyFromUtf8("ENCODED: ");
 
+    private final AtomicInteger encodeCalls = new AtomicInteger();
+    private final AtomicInteger decodeCalls = new AtomicInteger();
+    private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
     @Override
     @Nonnull
     public List<Payload> encode(@Nonnull List<Payload> payloads) {
+      encodeCalls.incrementAndGet();
+      threadNames.add(Thread.currentThread().getName());
       return payloads.stream().map(this::encode).collect(Collectors.toList());
     }
 
@@ -140,6 +212,8 @@ public class CodecDataConverterTest {
     @Override
     @Nonnull
     public List<Payload> decode(@Nonnull List<Payload> payloads) {
+      decodeCalls.incrementAndGet();
+      threadNames.add(Thread.currentThread().getName());
       return payloads.stream().map(this::decode).collect(Collectors.toList());
     }
 
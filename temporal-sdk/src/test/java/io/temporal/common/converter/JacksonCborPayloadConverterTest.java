@@ -0,0 +1,69 @@
+package io.temporal.common.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.temporal.api.common.v1.Payload;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class JacksonCborPayloadConverterTest {
+  @Test
+  public void testCbor() {
+    JacksonCborPayloadConverter converter = new JacksonCborPayloadConverter();
+    ProtoPayloadConverterTest.TestPayload value =
+        new ProtoPayloadConverterTest.TestPayload(1L, Instant.now(), "myPayload");
+    Payload payload = converter.toData(value).get();
+    assertEquals(
+        EncodingKeys.METADATA_ENCODING_CBOR,
+        payload.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    assertEquals(
+        value,
+        converter.fromData(
+            payload,
+            ProtoPayloadConverterTest.TestPayload.class,
+            ProtoPayloadConverterTest.TestPayload.class));
+
+    Payload json = new JacksonJsonPayloadConverter().toData(value).get();
+    assertTrue(payload.getData().size() < json.getData().size());
+  }
+
+  @Test
+  public void testMigrationFromJson() throws Exception {
+    DataConverter jsonConverter = DefaultDataConverter.newDefaultInstance();
+    DataConverter readingConverter =
+        DefaultDataConverter.newDefaultInstance()
+            .withPayloadConverterOverrides(new JacksonCborPayloadConverter());
+    DataConverter writingConverter =
+        new DefaultDataConverter(
+            new NullPayloadConverter(),
+            new ByteArrayPayloadConverter(),
+            new ProtobufJsonPayloadConverter(),
+            new ProtobufPayloadConverter(),
+            new JacksonCborPayloadConverter(),
+            new JacksonJsonPayloadConverter());
+    List<String> value = Arrays.asList("a", "b");
+    Type type = getClass().getDeclaredMethod("listOfStrings").getGenericReturnType();
+
+    // the reading converter still writes json
+    Payload json = readingConverter.toPayload(value).get();
+    assertEquals(jsonConverter.toPayload(value).get(), json);
+
+    Payload cbor = writingConverter.toPayload(value).get();
+    assertEquals(
+        EncodingKeys.METADATA_ENCODING_CBOR,
+        cbor.getMetadataOrThrow(EncodingKeys.METADATA_ENCODING_KEY));
+    for (DataConverter converter : Arrays.asList(readingConverter, writingConverter)) {
+      assertEquals(value, converter.fromPayload(json, List.class, type));
+      assertEquals(value, converter.fromPayload(cbor, List.class, type));
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static List<String> listOfStrings() {
+    return null;
+  }
+}
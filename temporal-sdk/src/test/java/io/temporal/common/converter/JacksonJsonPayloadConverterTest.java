@@ -1,9 +1,16 @@
 package io.temporal.common.converter;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import io.temporal.api.common.v1.Payload;
 import io.temporal.api.common.v1.Payloads;
+import java.lang.reflect.Type;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.junit.Test;
@@ -39,6 +46,64 @@ public class JacksonJsonPayloadConverterTest {
     assertEquals("myPayload", converted.getName().get());
   }
 
+  @Test
+  public void testStreamingProducesSameDataAsObjectMapper() throws Exception {
+    JacksonJsonPayloadConverter converter = new JacksonJsonPayloadConverter();
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      name.append(i);
+    }
+    ProtoPayloadConverterTest.TestPayload value =
+        new ProtoPayloadConverterTest.TestPayload(1L, Instant.now(), name.toString());
+    Payload payload = converter.toData(value).get();
+    assertArrayEquals(
+        JacksonJsonPayloadConverter.newDefaultObjectMapper().writeValueAsBytes(value),
+        payload.getData().toByteArray());
+    assertEquals(
+        value,
+        converter.fromData(
+            payload,
+            ProtoPayloadConverterTest.TestPayload.class,
+            ProtoPayloadConverterTest.TestPayload.class));
+  }
+
+  @Test
+  public void testCachingConverterProducesSameDataAsDefault() throws Exception {
+    JacksonJsonPayloadConverter defaultConverter = new JacksonJsonPayloadConverter();
+    CachingJacksonJsonPayloadConverter converter = new CachingJacksonJsonPayloadConverter();
+    ProtoPayloadConverterTest.TestPayload value =
+        new ProtoPayloadConverterTest.TestPayload(1L, Instant.now(), "myPayload");
+    for (int i = 0; i < 2; i++) {
+      Payload payload = converter.toData(value).get();
+      assertEquals(defaultConverter.toData(value).get(), payload);
+      assertEquals(
+          value,
+          converter.fromData(
+              payload,
+              ProtoPayloadConverterTest.TestPayload.class,
+              ProtoPayloadConverterTest.TestPayload.class));
+    }
+  }
+
+  @Test
+  public void testCachingConverterGenericTypes() throws Exception {
+    CachingJacksonJsonPayloadConverter converter = new CachingJacksonJsonPayloadConverter();
+    Type listType = getClass().getDeclaredField("genericList").getGenericType();
+    Type mapType = getClass().getDeclaredField("genericMap").getGenericType();
+    List<Instant> list = Arrays.asList(Instant.ofEpochSecond(1), Instant.ofEpochSecond(2));
+    Map<String, Instant> map = Collections.singletonMap("key", Instant.ofEpochSecond(3));
+    for (int i = 0; i < 2; i++) {
+      assertEquals(list, converter.fromData(converter.toData(list).get(), List.class, listType));
+      assertEquals(map, converter.fromData(converter.toData(map).get(), Map.class, mapType));
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private List<Instant> genericList;
+
+  @SuppressWarnings("unused")
+  private Map<String, Instant> genericMap;
+
   static class TestOptionalPayload {
     private Optional<Long> id;
     private Optional<Instant> timestamp;
@@ -0,0 +1,74 @@
+package io.temporal.internal.common;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class MethodInvokerTest {
+
+  public interface Calls {
+    int add(int a, int b);
+
+    void run();
+
+    String join(String... values);
+
+    void fail() throws IOException;
+  }
+
+  public static class CallsImpl implements Calls {
+    int runs;
+
+    @Override
+    public int add(int a, int b) {
+      return a + b;
+    }
+
+    @Override
+    public void run() {
+      runs++;
+    }
+
+    @Override
+    public String join(String... values) {
+      return String.join(",", values);
+    }
+
+    @Override
+    public void fail() throws IOException {
+      throw new IOException("failed");
+    }
+  }
+
+  @Test
+  public void invokesMethods() throws Throwable {
+    CallsImpl calls = new CallsImpl();
+    Method add = Calls.class.getMethod("add", int.class, int.class);
+    assertEquals(5, MethodInvoker.of(add).invoke(calls, args(2, 3)));
+    assertNull(MethodInvoker.of(Calls.class.getMethod("run")).invoke(calls, new Object[0]));
+    assertEquals(1, calls.runs);
+    assertEquals(
+        "a,b",
+        MethodInvoker.of(Calls.class.getMethod("join", String[].class))
+            .invoke(calls, args((Object) new String[] {"a", "b"})));
+  }
+
+  @Test
+  public void throwsExceptionOfTheMethod() throws NoSuchMethodException {
+    MethodInvoker invoker = MethodInvoker.of(Calls.class.getMethod("fail"));
+    IOException e = assertThrows(IOException.class, () -> invoker.invoke(new CallsImpl(), null));
+    assertEquals("failed", e.getMessage());
+  }
+
+  @Test
+  public void cachesInvokers() throws NoSuchMethodException {
+    Method method = Calls.class.getMethod("run");
+    assertSame(MethodInvoker.of(method), MethodInvoker.of(Calls.class.getMethod("run")));
+  }
+
+  private static Object[] args(Object... args) {
+    return args;
+  }
+}
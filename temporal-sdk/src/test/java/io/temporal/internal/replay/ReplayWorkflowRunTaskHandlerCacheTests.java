@@ -245,6 +245,65 @@ public class ReplayWorkflowRunTaskHandlerCacheTests {
     assertEquals(1, cache.size());
   }
 
+  @Test
+  public void evictAnySkipsRunsInProcessing() throws Exception {
+    // Arrange
+    WorkflowRunLockManager runLockManager = new WorkflowRunLockManager();
+    WorkflowExecutorCache cache = new WorkflowExecutorCache(50, runLockManager, new NoopScope());
+    PollWorkflowTaskQueueResponse workflowTask1 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    PollWorkflowTaskQueueResponse workflowTask2 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    PollWorkflowTaskQueueResponse workflowTask3 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    String runId1 = workflowTask1.getWorkflowExecution().getRunId();
+    String runId2 = workflowTask2.getWorkflowExecution().getRunId();
+    cache.addToCache(workflowTask1.getWorkflowExecution(), createFakeExecutor(workflowTask1));
+    cache.addToCache(workflowTask2.getWorkflowExecution(), createFakeExecutor(workflowTask2));
+    WorkflowExecution execution = workflowTask3.getWorkflowExecution();
+    cache.addToCache(execution, createFakeExecutor(workflowTask3));
+
+    // Act
+    assertTrue(runLockManager.tryLock(runId1));
+    try {
+      assertTrue(cache.evictAnyNotInProcessing(execution, new NoopScope()));
+      assertFalse(cache.evictAnyNotInProcessing(execution, new NoopScope()));
+    } finally {
+      runLockManager.unlock(runId1);
+    }
+
+    // Assert
+    assertEquals(2, cache.size());
+    assertCacheIsEmpty(cache, runId2);
+    assertTrue(cache.evictAnyNotInProcessing(execution, new NoopScope()));
+    assertCacheIsEmpty(cache, runId1);
+  }
+
+  @Test
+  public void weightedCacheEvictsWhenOverMaxSizeBytes() throws Exception {
+    // Arrange
+    PollWorkflowTaskQueueResponse workflowTask1 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    PollWorkflowTaskQueueResponse workflowTask2 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    PollWorkflowTaskQueueResponse workflowTask3 =
+        HistoryUtils.generateWorkflowTaskWithInitialHistory();
+    long entrySize = createFakeExecutor(workflowTask1).getEstimatedRetainedSize();
+    WorkflowExecutorCache cache =
+        new WorkflowExecutorCache(
+            1, entrySize * 5 / 2, new WorkflowRunLockManager(), new NoopScope());
+
+    // Act
+    cache.addToCache(workflowTask1.getWorkflowExecution(), createFakeExecutor(workflowTask1));
+    cache.addToCache(workflowTask2.getWorkflowExecution(), createFakeExecutor(workflowTask2));
+    assertEquals(2, cache.size());
+    cache.addToCache(workflowTask3.getWorkflowExecution(), createFakeExecutor(workflowTask3));
+
+    // Assert
+    assertEquals(2, cache.size());
+    assertCacheIsEmpty(cache, workflowTask1.getWorkflowExecution().getRunId());
+  }
+
   private void assertCacheIsEmpty(WorkflowExecutorCache cache, String runId) throws Exception {
     Throwable ex = null;
     try {
@@ -306,6 +365,11 @@ public class ReplayWorkflowRunTaskHandlerCacheTests {
             return Optional.empty();
           }
 
+          @Override
+          public int getWorkflowThreadCount() {
+            return 0;
+          }
+
           @Override
           public WorkflowContext getWorkflowContext() {
             return null;
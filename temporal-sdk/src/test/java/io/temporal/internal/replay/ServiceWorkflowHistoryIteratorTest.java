@@ -1,12 +1,23 @@
 package io.temporal.internal.replay;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.ByteString;
+import io.grpc.Deadline;
 import io.temporal.api.history.v1.History;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryResponse;
 import io.temporal.api.workflowservice.v1.PollWorkflowTaskQueueResponse;
 import io.temporal.testUtils.HistoryUtils;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Test;
@@ -84,4 +95,135 @@ public class ServiceWorkflowHistoryIteratorTest {
     Assert.assertThrows(NoSuchElementException.class, iterator::next);
     Assert.assertEquals(4, timesCalledServer.get());
   }
+
+  @Test
+  public void prefetchesNextPageWhileCurrentIsIterated() throws Exception {
+    History history = HistoryUtils.generateWorkflowTaskWithInitialHistory().getHistory();
+    PollWorkflowTaskQueueResponse workflowTask =
+        PollWorkflowTaskQueueResponse.newBuilder()
+            .setHistory(history)
+            .setNextPageToken(NEXT_PAGE_TOKEN)
+            .build();
+
+    AtomicInteger timesPrefetched = new AtomicInteger(0);
+    AtomicInteger timesCalledServer = new AtomicInteger(0);
+    SettableFuture<GetWorkflowExecutionHistoryResponse> nextPage = SettableFuture.create();
+    ServiceWorkflowHistoryIterator iterator =
+        new ServiceWorkflowHistoryIterator(null, "default", workflowTask, null, 1, Long.MAX_VALUE) {
+          @Override
+          ListenableFuture<GetWorkflowExecutionHistoryResponse> queryWorkflowExecutionHistoryAsync(
+              ByteString pageToken) {
+            timesPrefetched.incrementAndGet();
+            if (NEXT_PAGE_TOKEN.equals(pageToken)) {
+              return nextPage;
+            }
+            return Futures.immediateFailedFuture(new RuntimeException("prefetch failed"));
+          }
+
+          @Override
+          GetWorkflowExecutionHistoryResponse queryWorkflowExecutionHistory() {
+            timesCalledServer.incrementAndGet();
+            Assert.assertEquals(NEXT_NEXT_PAGE_TOKEN, nextPageToken);
+            return GetWorkflowExecutionHistoryResponse.newBuilder().setHistory(history).build();
+          }
+        };
+
+    iterator.initDeadline(Deadline.after(1, TimeUnit.MINUTES));
+    Assert.assertEquals(1, timesPrefetched.get());
+    for (int i = 0; i < history.getEventsCount(); i++) {
+      Assert.assertNotNull(iterator.next());
+    }
+    nextPage.set(
+        GetWorkflowExecutionHistoryResponse.newBuilder()
+            .setHistory(history)
+            .setNextPageToken(NEXT_NEXT_PAGE_TOKEN)
+            .build());
+    Assert.assertTrue(iterator.hasNext());
+    // the page after the prefetched one is requested right away and the request fails
+    Assert.assertEquals(2, timesPrefetched.get());
+    Assert.assertEquals(0, timesCalledServer.get());
+    for (int i = 0; i < history.getEventsCount(); i++) {
+      Assert.assertNotNull(iterator.next());
+    }
+    // the failed prefetch is replaced with a regular request
+    Assert.assertTrue(iterator.hasNext());
+    Assert.assertEquals(1, timesCalledServer.get());
+    for (int i = 0; i < history.getEventsCount(); i++) {
+      Assert.assertNotNull(iterator.next());
+    }
+    Assert.assertFalse(iterator.hasNext());
+    Assert.assertEquals(2, timesPrefetched.get());
+  }
+
+  @Test
+  public void readAheadIsLimitedByPagesAndBytesAndCanBeCancelled() throws Exception {
+    History history = HistoryUtils.generateWorkflowTaskWithInitialHistory().getHistory();
+    PollWorkflowTaskQueueResponse workflowTask =
+        PollWorkflowTaskQueueResponse.newBuilder()
+            .setHistory(history)
+            .setNextPageToken(NEXT_PAGE_TOKEN)
+            .build();
+    Map<ByteString, ByteString> followingTokens = new HashMap<>();
+    followingTokens.put(NEXT_PAGE_TOKEN, EMPTY_HISTORY_PAGE);
+    followingTokens.put(EMPTY_HISTORY_PAGE, NEXT_NEXT_PAGE_TOKEN);
+    followingTokens.put(NEXT_NEXT_PAGE_TOKEN, EMPTY_PAGE_TOKEN);
+    followingTokens.put(EMPTY_PAGE_TOKEN, ByteString.EMPTY);
+
+    // all the pages are loaded instantly, the read-ahead is limited by the number of pages
+    List<ByteString> requested = new ArrayList<>();
+    ServiceWorkflowHistoryIterator iterator =
+        new ServiceWorkflowHistoryIterator(null, "default", workflowTask, null, 2, Long.MAX_VALUE) {
+          @Override
+          ListenableFuture<GetWorkflowExecutionHistoryResponse> queryWorkflowExecutionHistoryAsync(
+              ByteString pageToken) {
+            requested.add(pageToken);
+            return Futures.immediateFuture(
+                GetWorkflowExecutionHistoryResponse.newBuilder()
+                    .setHistory(history)
+                    .setNextPageToken(followingTokens.get(pageToken))
+                    .build());
+          }
+        };
+    iterator.initDeadline(Deadline.after(1, TimeUnit.MINUTES));
+    Assert.assertEquals(Arrays.asList(NEXT_PAGE_TOKEN, EMPTY_HISTORY_PAGE), requested);
+    int events = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      events++;
+    }
+    Assert.assertEquals(5 * history.getEventsCount(), events);
+    Assert.assertEquals(followingTokens.size(), requested.size());
+
+    // a single loaded page exceeds the byte budget
+    requested.clear();
+    iterator =
+        new ServiceWorkflowHistoryIterator(null, "default", workflowTask, null, 2, 1) {
+          @Override
+          ListenableFuture<GetWorkflowExecutionHistoryResponse> queryWorkflowExecutionHistoryAsync(
+              ByteString pageToken) {
+            requested.add(pageToken);
+            return Futures.immediateFuture(
+                GetWorkflowExecutionHistoryResponse.newBuilder()
+                    .setHistory(history)
+                    .setNextPageToken(followingTokens.get(pageToken))
+                    .build());
+          }
+        };
+    iterator.initDeadline(Deadline.after(1, TimeUnit.MINUTES));
+    Assert.assertEquals(Collections.singletonList(NEXT_PAGE_TOKEN), requested);
+
+    // the requests in flight are cancelled with the read-ahead
+    SettableFuture<GetWorkflowExecutionHistoryResponse> inFlight = SettableFuture.create();
+    iterator =
+        new ServiceWorkflowHistoryIterator(null, "default", workflowTask, null, 2, Long.MAX_VALUE) {
+          @Override
+          ListenableFuture<GetWorkflowExecutionHistoryResponse> queryWorkflowExecutionHistoryAsync(
+              ByteString pageToken) {
+            return inFlight;
+          }
+        };
+    iterator.initDeadline(Deadline.after(1, TimeUnit.MINUTES));
+    iterator.cancelReadAhead();
+    Assert.assertTrue(inFlight.isCancelled());
+  }
 }
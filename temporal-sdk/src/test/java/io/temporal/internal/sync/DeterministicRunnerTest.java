@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -42,6 +43,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import javax.annotation.Nonnull;
 import org.junit.*;
 
 public class DeterministicRunnerTest {
@@ -102,6 +104,46 @@ public class DeterministicRunnerTest {
     assertTrue(d.isDone());
   }
 
+  @Test
+  public void testYieldWithHandoffSpin() {
+    WorkflowThreadExecutor spinningExecutor =
+        new WorkflowThreadExecutor() {
+          @Override
+          public Future<?> submit(@Nonnull Runnable task) {
+            return threadPool.submit(task);
+          }
+
+          @Override
+          public long getHandoffSpinNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(1);
+          }
+        };
+    DeterministicRunner d =
+        new DeterministicRunnerImpl(
+            spinningExecutor,
+            DummySyncWorkflowContext.newDummySyncWorkflowContext(),
+            () -> {
+              Promise<Void> child =
+                  Async.procedure(
+                      () -> {
+                        trace.add("child started");
+                        WorkflowThread.await("reason2", () -> unblock2);
+                        trace.add("child done");
+                      });
+              trace.add("root started");
+              WorkflowThread.await("reason1", () -> unblock1);
+              unblock2 = true;
+              child.get();
+              trace.add("root done");
+            });
+    d.runUntilAllBlocked(DeterministicRunner.DEFAULT_DEADLOCK_DETECTION_TIMEOUT_MS);
+    assertFalse(d.isDone());
+    unblock1 = true;
+    d.runUntilAllBlocked(DeterministicRunner.DEFAULT_DEADLOCK_DETECTION_TIMEOUT_MS);
+    assertTrue(d.isDone());
+    trace.setExpected("root started", "child started", "child done", "root done");
+  }
+
   /**
    * Async retry cannot be tested here as it relies on timer that is implemented outside of
    * Dispatcher.
@@ -791,6 +833,11 @@ public class DeterministicRunnerTest {
     @Override
     public void resetStartedEventId(Long event) {}
 
+    @Override
+    public long getEstimatedRetainedSize() {
+      return 0;
+    }
+
     @Override
     public void close() {
       runner.close();
@@ -2,6 +2,8 @@ package io.temporal.internal.testing;
 
 import io.temporal.activity.ActivityOptions;
 import io.temporal.activity.LocalActivityOptions;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.HistoryEvent;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryRequest;
 import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryResponse;
 import io.temporal.api.workflowservice.v1.ListClosedWorkflowExecutionsRequest;
@@ -14,6 +16,9 @@ import io.temporal.common.WorkflowExecutionHistory;
 import io.temporal.testing.ReplayResults;
 import io.temporal.testing.TestEnvironmentOptions;
 import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowHistoryArchive;
+import io.temporal.testing.WorkflowHistoryArchiveWriter;
+import io.temporal.testing.WorkflowHistoryLoader;
 import io.temporal.testing.WorkflowReplayer;
 import io.temporal.worker.Worker;
 import io.temporal.workflow.Workflow;
@@ -21,20 +26,25 @@ import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 import io.temporal.workflow.shared.TestActivities.NoArgsActivity;
 import io.temporal.workflow.shared.TestWorkflows;
+import java.io.File;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.*;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 
 public class WorkflowReplayerTest {
   @Rule public Timeout testTimeout = Timeout.seconds(10);
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
   private TestWorkflowEnvironment testEnvironment;
   private static final String TASK_QUEUE = "workflow-replay-test";
+  private List<WorkflowExecution> executions;
   private List<WorkflowExecutionHistory> histories;
 
   @Before
@@ -66,18 +76,21 @@ public class WorkflowReplayerTest {
     ListClosedWorkflowExecutionsResponse resp =
         blockingStub.listClosedWorkflowExecutions(
             ListClosedWorkflowExecutionsRequest.newBuilder().build());
-    histories =
+    executions =
         resp.getExecutionsList().stream()
+            .map((info) -> info.getExecution())
+            .collect(Collectors.toList());
+    histories =
+        executions.stream()
             .map(
-                (info) -> {
+                (execution) -> {
                   GetWorkflowExecutionHistoryResponse weh =
                       blockingStub.getWorkflowExecutionHistory(
                           GetWorkflowExecutionHistoryRequest.newBuilder()
                               .setNamespace(testEnvironment.getNamespace())
-                              .setExecution(info.getExecution())
+                              .setExecution(execution)
                               .build());
-                  return new WorkflowExecutionHistory(
-                      weh.getHistory(), info.getExecution().getWorkflowId());
+                  return new WorkflowExecutionHistory(weh.getHistory(), execution.getWorkflowId());
                 })
             .collect(Collectors.toList());
 
@@ -115,6 +128,131 @@ public class WorkflowReplayerTest {
     Assert.assertEquals(5, errors.size());
   }
 
+  @Test
+  public void testParallelHistoryReplayOk() throws Exception {
+    ReplayResults results =
+        WorkflowReplayer.replayWorkflowExecutions(
+            histories, true, 4, TestWorkflowA.class, TestWorkflowB.class, TestWorkflowC.class);
+    Assert.assertFalse(results.hadAnyError());
+    Assert.assertEquals(15, results.allTimings().size());
+    List<ReplayResults.ReplayTiming> slowest = results.slowestReplays(3);
+    Assert.assertEquals(3, slowest.size());
+    Assert.assertTrue(slowest.get(0).duration.compareTo(slowest.get(2).duration) >= 0);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testParallelHistoryReplayFailFast() throws Exception {
+    WorkflowReplayer.replayWorkflowExecutions(
+        histories.stream(),
+        true,
+        4,
+        TestWorkflowAIncompatible.class,
+        TestWorkflowB.class,
+        TestWorkflowC.class);
+  }
+
+  @Test
+  public void testParallelHistoryReplayFailSlow() throws Exception {
+    ReplayResults results =
+        WorkflowReplayer.replayWorkflowExecutions(
+            histories,
+            false,
+            4,
+            TestWorkflowAIncompatible.class,
+            TestWorkflowB.class,
+            TestWorkflowC.class);
+    Assert.assertTrue(results.hadAnyError());
+    Assert.assertEquals(5, results.allErrors().size());
+    Assert.assertEquals(5, results.allTimings().stream().filter(timing -> timing.failed).count());
+    Assert.assertEquals(15, results.allTimings().size());
+  }
+
+  @Test
+  public void testHistoryArchiveRoundTrip() throws Exception {
+    for (boolean compressed : new boolean[] {false, true}) {
+      File archiveFile = temporaryFolder.newFile();
+      try (WorkflowHistoryArchiveWriter writer =
+          WorkflowHistoryArchive.newWriter(archiveFile, compressed)) {
+        for (int i = 0; i < histories.size(); i++) {
+          writer.add(executions.get(i), histories.get(i));
+        }
+      }
+      try (WorkflowHistoryArchive archive = WorkflowHistoryLoader.openHistoryArchive(archiveFile)) {
+        Assert.assertEquals(histories.size(), archive.size());
+        for (WorkflowExecutionHistory history : histories) {
+          String workflowId = history.getWorkflowExecution().getWorkflowId();
+          Assert.assertEquals(
+              history.getHistory(), archive.getHistory(workflowId, null).getHistory());
+          Assert.assertEquals(
+              history.getEvents(),
+              archive.streamEvents(workflowId, null).collect(Collectors.toList()));
+        }
+        Assert.assertEquals(
+            histories.stream()
+                .map(WorkflowExecutionHistory::getHistory)
+                .collect(Collectors.toList()),
+            archive
+                .streamHistories()
+                .map(WorkflowExecutionHistory::getHistory)
+                .collect(Collectors.toList()));
+        Assert.assertFalse(archive.contains("unknown", null));
+      }
+    }
+  }
+
+  @Test
+  public void testHistoryArchiveStreamFailure() throws Exception {
+    File archiveFile = temporaryFolder.newFile();
+    WorkflowExecution execution = executions.get(0);
+    WorkflowExecutionHistory history = histories.get(0);
+    try (WorkflowHistoryArchiveWriter writer = WorkflowHistoryArchive.newWriter(archiveFile)) {
+      Stream<HistoryEvent> failing =
+          Stream.concat(
+              history.getEvents().stream().limit(2),
+              Stream.generate(
+                      () -> {
+                        throw new IllegalStateException("stream failure");
+                      })
+                  .map(HistoryEvent.class::cast));
+      Assert.assertThrows(IllegalStateException.class, () -> writer.add(execution, failing));
+      Assert.assertEquals(0, writer.size());
+      // the execution can be added again and the events of the failed attempt don't leak into it
+      writer.add(execution, history.getEvents().stream());
+      writer.add(executions.get(1), histories.get(1));
+    }
+    try (WorkflowHistoryArchive archive = WorkflowHistoryLoader.openHistoryArchive(archiveFile)) {
+      Assert.assertEquals(2, archive.size());
+      Assert.assertEquals(
+          history.getHistory(),
+          archive.getHistory(execution.getWorkflowId(), execution.getRunId()).getHistory());
+      Assert.assertEquals(
+          histories.get(1).getHistory(),
+          archive
+              .getHistory(executions.get(1).getWorkflowId(), executions.get(1).getRunId())
+              .getHistory());
+    }
+  }
+
+  @Test
+  public void testReplayFromHistoryArchive() throws Exception {
+    File archiveFile = temporaryFolder.newFile();
+    try (WorkflowHistoryArchiveWriter writer = WorkflowHistoryArchive.newWriter(archiveFile)) {
+      for (int i = 0; i < histories.size(); i++) {
+        writer.add(executions.get(i), histories.get(i));
+      }
+    }
+    ReplayResults results =
+        WorkflowReplayer.replayWorkflowExecutionsFromArchive(
+            archiveFile,
+            false,
+            4,
+            TestWorkflowAIncompatible.class,
+            TestWorkflowB.class,
+            TestWorkflowC.class);
+    Assert.assertEquals(5, results.allErrors().size());
+    Assert.assertEquals(15, results.allTimings().size());
+  }
+
   public static class TestWorkflowA implements TestWorkflows.NoArgsWorkflow {
     @Override
     public void execute() {
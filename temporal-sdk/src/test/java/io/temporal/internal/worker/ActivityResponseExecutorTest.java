@@ -0,0 +1,94 @@
+package io.temporal.internal.worker;
+
+import static org.junit.Assert.*;
+
+import com.uber.m3.tally.NoopScope;
+import java.util.concurrent.*;
+import org.junit.Test;
+
+public class ActivityResponseExecutorTest {
+
+  @Test
+  public void blocksWhenMaxPendingResponsesIsReached() throws Exception {
+    ActivityResponseExecutor responseExecutor = new ActivityResponseExecutor(1, 2, "test");
+    CountDownLatch sendBlocked = new CountDownLatch(1);
+    CompletableFuture<Void> first =
+        responseExecutor.execute(
+            () -> {
+              try {
+                sendBlocked.await();
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            },
+            new NoopScope());
+    CompletableFuture<Void> second = responseExecutor.execute(() -> {}, new NoopScope());
+
+    ExecutorService submitter = Executors.newSingleThreadExecutor();
+    Future<CompletableFuture<Void>> third =
+        submitter.submit(() -> responseExecutor.execute(() -> {}, new NoopScope()));
+    assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+
+    sendBlocked.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    third.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+    submitter.shutdown();
+    responseExecutor.getExecutorService().shutdown();
+  }
+
+  @Test
+  public void blockedCallerSendsDirectlyAfterShutdown() throws Exception {
+    ActivityResponseExecutor responseExecutor = new ActivityResponseExecutor(1, 1, "test");
+    CountDownLatch sendBlocked = new CountDownLatch(1);
+    CompletableFuture<Void> first =
+        responseExecutor.execute(
+            () -> {
+              try {
+                sendBlocked.await();
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            },
+            new NoopScope());
+
+    ExecutorService submitter = Executors.newSingleThreadExecutor();
+    Future<Boolean> sentByCaller =
+        submitter.submit(
+            () -> {
+              Thread caller = Thread.currentThread();
+              CompletableFuture<Thread> sender = new CompletableFuture<>();
+              responseExecutor
+                  .execute(() -> sender.complete(Thread.currentThread()), new NoopScope())
+                  .get();
+              return sender.get() == caller;
+            });
+    assertThrows(TimeoutException.class, () -> sentByCaller.get(200, TimeUnit.MILLISECONDS));
+
+    // the pending slot is still taken by the first response, the caller stops waiting for it
+    responseExecutor.getExecutorService().shutdown();
+    assertTrue(sentByCaller.get(5, TimeUnit.SECONDS));
+    sendBlocked.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    submitter.shutdown();
+  }
+
+  @Test
+  public void sendsFromCallerThreadAfterShutdown() throws Exception {
+    ActivityResponseExecutor responseExecutor = new ActivityResponseExecutor(1, 1, "test");
+    responseExecutor.getExecutorService().shutdown();
+    Thread caller = Thread.currentThread();
+    CompletableFuture<Void> sent =
+        responseExecutor.execute(() -> assertSame(caller, Thread.currentThread()), new NoopScope());
+    sent.get(5, TimeUnit.SECONDS);
+
+    CompletableFuture<Void> failed =
+        responseExecutor.execute(
+            () -> {
+              throw new IllegalStateException("failed");
+            },
+            new NoopScope());
+    ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+    assertTrue(e.getCause() instanceof IllegalStateException);
+  }
+}
@@ -0,0 +1,186 @@
+package io.temporal.internal.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+  private HashedWheelTimer timer;
+
+  @After
+  public void tearDown() {
+    if (timer != null) {
+      timer.shutdownNow();
+    }
+  }
+
+  @Test
+  public void timersFireInDeadlineOrderAndNotEarly() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    List<Integer> fired = new CopyOnWriteArrayList<>();
+    CountDownLatch latch = new CountDownLatch(3);
+    List<Long> elapsedNanos = new CopyOnWriteArrayList<>();
+    long startNanos = System.nanoTime();
+    for (int delay : new int[] {150, 50, 100}) {
+      Runnable task =
+          () -> {
+            elapsedNanos.add(System.nanoTime() - startNanos);
+            fired.add(delay);
+            latch.countDown();
+          };
+      timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(50, 100, 150), fired);
+    for (int i = 0; i < fired.size(); i++) {
+      assertTrue(elapsedNanos.get(i) >= TimeUnit.MILLISECONDS.toNanos(fired.get(i)));
+    }
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  public void cancelBeforeExpiration() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    AtomicInteger runs = new AtomicInteger();
+    Runnable task = runs::incrementAndGet;
+    ScheduledFuture<?> cancelled = timer.schedule(task, 50, TimeUnit.MILLISECONDS);
+    ScheduledFuture<Integer> kept = timer.schedule(() -> 42, 100, TimeUnit.MILLISECONDS);
+    assertTrue(cancelled.cancel(false));
+    assertTrue(cancelled.isCancelled());
+    assertTrue(cancelled.isDone());
+    assertThrows(CancellationException.class, cancelled::get);
+
+    assertEquals(42, (int) kept.get(5, TimeUnit.SECONDS));
+    // an expired timer can't be cancelled
+    assertFalse(kept.cancel(false));
+    assertFalse(kept.isCancelled());
+    assertEquals(0, runs.get());
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  public void timerLongerThanWheelRotation() throws Exception {
+    // a rotation of this wheel takes 40ms
+    timer = new HashedWheelTimer("test", 1, Duration.ofMillis(5), 8);
+    long startNanos = System.nanoTime();
+    ScheduledFuture<Long> future =
+        timer.schedule(() -> System.nanoTime() - startNanos, 200, TimeUnit.MILLISECONDS);
+    assertTrue(future.get(5, TimeUnit.SECONDS) >= TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  public void failureIsReportedThroughFuture() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    Callable<Object> failing =
+        () -> {
+          throw new IllegalStateException("simulated");
+        };
+    ScheduledFuture<Object> future = timer.schedule(failing, 0, TimeUnit.MILLISECONDS);
+    ExecutionException e = assertThrows(ExecutionException.class, future::get);
+    assertTrue(e.getCause() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void shutdownRunsPendingTimers() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    ScheduledFuture<Integer> future = timer.schedule(() -> 1, 50, TimeUnit.MILLISECONDS);
+    timer.shutdown();
+    assertThrows(
+        RejectedExecutionException.class, () -> timer.schedule(() -> 2, 0, TimeUnit.SECONDS));
+    assertTrue(timer.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(timer.isTerminated());
+    assertEquals(1, (int) future.get());
+  }
+
+  @Test
+  public void shutdownNowCancelsPendingTimers() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    ScheduledFuture<Integer> future = timer.schedule(() -> 1, 1, TimeUnit.HOURS);
+    timer.shutdownNow();
+    assertTrue(timer.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(future.isCancelled());
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  public void idleWheelIsWokenUpByNewTimer() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    // the wheel thread parks without pending timers
+    Thread.sleep(100);
+    long startNanos = System.nanoTime();
+    ScheduledFuture<Long> future =
+        timer.schedule(() -> System.nanoTime() - startNanos, 50, TimeUnit.MILLISECONDS);
+    long elapsedNanos = future.get(5, TimeUnit.SECONDS);
+    assertTrue(elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertTrue(elapsedNanos < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  public void fixedRateTaskRunsUntilCancelled() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(3);
+    Runnable task =
+        () -> {
+          runs.incrementAndGet();
+          latch.countDown();
+        };
+    ScheduledFuture<?> future = timer.scheduleAtFixedRate(task, 0, 20, TimeUnit.MILLISECONDS);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertFalse(future.isDone());
+    assertTrue(future.cancel(false));
+    assertTrue(future.isCancelled());
+    assertThrows(CancellationException.class, future::get);
+    // a run in progress while cancelling may still complete
+    Thread.sleep(50);
+    int cancelledRuns = runs.get();
+    Thread.sleep(100);
+    assertEquals(cancelledRuns, runs.get());
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  public void fixedDelayTaskFailureSuppressesSubsequentRuns() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    AtomicInteger runs = new AtomicInteger();
+    Runnable task =
+        () -> {
+          if (runs.incrementAndGet() == 2) {
+            throw new IllegalStateException("simulated");
+          }
+        };
+    ScheduledFuture<?> future = timer.scheduleWithFixedDelay(task, 10, 10, TimeUnit.MILLISECONDS);
+    ExecutionException e =
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof IllegalStateException);
+    Thread.sleep(100);
+    assertEquals(2, runs.get());
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  public void shutdownCancelsPeriodicTasks() throws Exception {
+    timer = new HashedWheelTimer("test", 1);
+    ScheduledFuture<?> future = timer.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+    timer.shutdown();
+    assertTrue(timer.awaitTermination(5, TimeUnit.SECONDS));
+    assertTrue(future.isCancelled());
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+}
@@ -0,0 +1,75 @@
+package io.temporal.internal.worker;
+
+import static org.junit.Assert.*;
+
+import com.uber.m3.tally.NoopScope;
+import io.grpc.Status;
+import io.temporal.worker.tuning.ActivitySlotInfo;
+import io.temporal.worker.tuning.FixedSizeSlotSupplier;
+import io.temporal.worker.tuning.PollerBehaviorAutoscaling;
+import io.temporal.worker.tuning.SlotPermit;
+import io.temporal.worker.tuning.SlotReleaseReason;
+import java.util.Optional;
+import org.junit.Test;
+
+public class PollScalerTest {
+
+  @Test
+  public void scalesBetweenMinAndMax() {
+    PollScaler scaler = new PollScaler(new PollerBehaviorAutoscaling(2, 10, 3), null);
+    assertEquals(3, scaler.pollersToStart());
+    assertEquals(0, scaler.pollersToStart());
+
+    scaler.taskReceived(0);
+    assertEquals(4, scaler.getTargetPollers());
+    assertEquals(1, scaler.pollersToStart());
+
+    // backlog scales up faster but not above the maximum
+    scaler.taskReceived(100);
+    assertEquals(10, scaler.getTargetPollers());
+    assertEquals(6, scaler.pollersToStart());
+
+    for (int i = 0; i < 20; i++) {
+      scaler.noTaskReceived();
+    }
+    assertEquals(2, scaler.getTargetPollers());
+    int stopped = 0;
+    for (int i = 0; i < 10; i++) {
+      if (scaler.shouldStop()) {
+        stopped++;
+      }
+    }
+    assertEquals(8, stopped);
+    assertEquals(0, scaler.pollersToStart());
+  }
+
+  @Test
+  public void resourceExhaustedHalvesPollers() {
+    PollScaler scaler = new PollScaler(new PollerBehaviorAutoscaling(1, 10, 8), null);
+    scaler.pollFailed(Status.Code.UNAVAILABLE);
+    assertEquals(8, scaler.getTargetPollers());
+    scaler.pollFailed(Status.Code.RESOURCE_EXHAUSTED);
+    assertEquals(4, scaler.getTargetPollers());
+    scaler.pollFailed(Status.Code.RESOURCE_EXHAUSTED);
+    scaler.pollFailed(Status.Code.RESOURCE_EXHAUSTED);
+    scaler.pollFailed(Status.Code.RESOURCE_EXHAUSTED);
+    assertEquals(1, scaler.getTargetPollers());
+  }
+
+  @Test
+  public void doesntScaleUpWhenSlotsAreExhausted() {
+    TrackingSlotSupplier<ActivitySlotInfo> slotSupplier =
+        new TrackingSlotSupplier<>(new FixedSizeSlotSupplier<>(1), new NoopScope());
+    PollScaler scaler = new PollScaler(new PollerBehaviorAutoscaling(1, 10, 1), slotSupplier);
+
+    Optional<SlotPermit> permit =
+        slotSupplier.tryReserveSlot(new SlotReservationData("queue", "identity", "buildId"));
+    assertTrue(permit.isPresent());
+    scaler.taskReceived(10);
+    assertEquals(1, scaler.getTargetPollers());
+
+    slotSupplier.releaseSlot(SlotReleaseReason.taskComplete(), permit.get());
+    scaler.taskReceived(10);
+    assertEquals(6, scaler.getTargetPollers());
+  }
+}
@@ -9,18 +9,31 @@ import org.slf4j.LoggerFactory;
 
 public class WorkflowRunLockManagerTest {
   private static final Logger log = LoggerFactory.getLogger(WorkflowRunLockManagerTest.class);
-  private final WorkflowRunLockManager runLockManager = new WorkflowRunLockManager();
 
   @Test
   public void lockAndUnlockTest() throws ExecutionException, InterruptedException {
+    lockAndUnlock(new WorkflowRunLockManager());
+  }
+
+  @Test
+  public void stripedLockAndUnlockTest() throws ExecutionException, InterruptedException {
+    lockAndUnlock(new WorkflowRunLockManager(1024));
+  }
+
+  private void lockAndUnlock(WorkflowRunLockManager runLockManager)
+      throws ExecutionException, InterruptedException {
     ExecutorService executor = Executors.newFixedThreadPool(4);
     ConcurrentLinkedQueue<String> finishedTasks = new ConcurrentLinkedQueue<>();
-    Future<?> f1 = executor.submit(() -> finishedTasks.add(processTask("run1", 1)));
+    Future<?> f1 =
+        executor.submit(() -> finishedTasks.add(processTask(runLockManager, "run1", 1)));
     Thread.sleep(100);
-    Future<?> f3 = executor.submit(() -> finishedTasks.add(processTask("run1", 2)));
-    Future<?> f2 = executor.submit(() -> finishedTasks.add(processTask("run2", 1)));
+    Future<?> f3 =
+        executor.submit(() -> finishedTasks.add(processTask(runLockManager, "run1", 2)));
+    Future<?> f2 =
+        executor.submit(() -> finishedTasks.add(processTask(runLockManager, "run2", 1)));
     Thread.sleep(100);
-    Future<?> f4 = executor.submit(() -> finishedTasks.add(processTask("run1", 3)));
+    Future<?> f4 =
+        executor.submit(() -> finishedTasks.add(processTask(runLockManager, "run1", 3)));
 
     f1.get();
     f2.get();
@@ -34,7 +47,7 @@ public class WorkflowRunLockManagerTest {
     assertArrayEquals(expectedTasks, finishedTasks.toArray(processedTasks));
   }
 
-  private String processTask(String runId, int taskId) {
+  private String processTask(WorkflowRunLockManager runLockManager, String runId, int taskId) {
     try {
       log.info("trying to get a lock runId " + runId + " taskId " + taskId);
       boolean locked = runLockManager.tryLock(runId, 10, TimeUnit.SECONDS);
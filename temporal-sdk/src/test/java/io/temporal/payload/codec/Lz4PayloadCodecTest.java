@@ -0,0 +1,90 @@
+package io.temporal.payload.codec;
+
+import static org.junit.Assert.*;
+
+import com.google.protobuf.ByteString;
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.reporter.TestStatsReporter;
+import io.temporal.serviceclient.MetricsTag;
+import io.temporal.worker.MetricsType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class Lz4PayloadCodecTest {
+  private static final Payload LARGE_PAYLOAD =
+      Payload.newBuilder()
+          .setData(ByteString.copyFrom(repeat("compressible", 100), StandardCharsets.UTF_8))
+          .build();
+  private static final Payload SMALL_PAYLOAD =
+      Payload.newBuilder()
+          .setData(ByteString.copyFrom("compressible", StandardCharsets.UTF_8))
+          .build();
+
+  @Test
+  public void compressesLargePayloadsOnly() {
+    TestStatsReporter reporter = new TestStatsReporter();
+    Scope scope =
+        new RootScopeBuilder()
+            .reporter(reporter)
+            .reportEvery(com.uber.m3.util.Duration.ofSeconds(10));
+    PayloadCodec codec = Lz4PayloadCodec.newBuilder().setMetricsScope(scope).build();
+
+    List<Payload> encoded = codec.encode(Arrays.asList(LARGE_PAYLOAD, SMALL_PAYLOAD));
+    assertEquals(
+        Lz4PayloadCodec.METADATA_ENCODING_LZ4,
+        encoded.get(0).getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null));
+    assertTrue(encoded.get(0).getSerializedSize() < LARGE_PAYLOAD.getSerializedSize());
+    assertSame(SMALL_PAYLOAD, encoded.get(1));
+
+    assertEquals(Arrays.asList(LARGE_PAYLOAD, SMALL_PAYLOAD), codec.decode(encoded));
+
+    scope.close();
+    Map<String, String> tags = Collections.singletonMap(MetricsTag.PAYLOAD_CODEC, "lz4");
+    reporter.assertCounter(MetricsType.PAYLOAD_CODEC_SKIPPED_COUNTER, tags, 1);
+    reporter.assertCounter(
+        MetricsType.PAYLOAD_CODEC_UNCOMPRESSED_BYTES,
+        tags,
+        LARGE_PAYLOAD.getSerializedSize() + SMALL_PAYLOAD.getSerializedSize());
+    reporter.assertCounter(
+        MetricsType.PAYLOAD_CODEC_COMPRESSED_BYTES,
+        tags,
+        encoded.get(0).getData().size() + SMALL_PAYLOAD.getSerializedSize());
+  }
+
+  @Test
+  public void highCompressionLevel() {
+    PayloadCodec codec = Lz4PayloadCodec.newBuilder().setCompressionLevel(9).build();
+    List<Payload> encoded = codec.encode(Collections.singletonList(LARGE_PAYLOAD));
+    assertEquals(
+        Lz4PayloadCodec.METADATA_ENCODING_LZ4,
+        encoded.get(0).getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null));
+    assertEquals(Collections.singletonList(LARGE_PAYLOAD), codec.decode(encoded));
+  }
+
+  @Test
+  public void composesWithChainCodec() {
+    PayloadCodec codec =
+        new ChainCodec(Arrays.asList(new ZlibPayloadCodec(), new Lz4PayloadCodec()));
+    List<Payload> encoded = codec.encode(Collections.singletonList(LARGE_PAYLOAD));
+    assertEquals(Collections.singletonList(LARGE_PAYLOAD), codec.decode(encoded));
+    // payloads encoded only by a single codec of the chain are decoded as well
+    assertEquals(
+        Collections.singletonList(LARGE_PAYLOAD),
+        codec.decode(new Lz4PayloadCodec().encode(Collections.singletonList(LARGE_PAYLOAD))));
+  }
+
+  static String repeat(String value, int times) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      result.append(value).append(i);
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,108 @@
+package io.temporal.payload.codec;
+
+import static org.junit.Assert.*;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class ZstdPayloadCodecTest {
+
+  @Test
+  public void compressesLargePayloadsOnly() {
+    Payload large =
+        Payload.newBuilder()
+            .setData(
+                ByteString.copyFrom(
+                    Lz4PayloadCodecTest.repeat("compressible", 100), StandardCharsets.UTF_8))
+            .build();
+    Payload small =
+        Payload.newBuilder()
+            .setData(ByteString.copyFrom("compressible", StandardCharsets.UTF_8))
+            .build();
+    PayloadCodec codec = ZstdPayloadCodec.newBuilder().setContextPoolSize(1).build();
+
+    for (int i = 0; i < 3; i++) {
+      List<Payload> encoded = codec.encode(Arrays.asList(large, small));
+      assertEquals(
+          ZstdPayloadCodec.METADATA_ENCODING_ZSTD,
+          encoded.get(0).getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null));
+      assertTrue(encoded.get(0).getSerializedSize() < large.getSerializedSize());
+      assertSame(small, encoded.get(1));
+      assertEquals(Arrays.asList(large, small), codec.decode(encoded));
+    }
+  }
+
+  @Test
+  public void dictionary() {
+    List<Payload> samples = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      samples.add(jsonPayload(i));
+    }
+    byte[] dictionary = ZstdPayloadCodec.trainDictionary(samples, 2 * 1024);
+    PayloadCodec codec =
+        ZstdPayloadCodec.newBuilder().setMinPayloadSize(0).setDictionary(dictionary).build();
+    PayloadCodec codecWithoutDictionary =
+        ZstdPayloadCodec.newBuilder().setMinPayloadSize(0).build();
+
+    List<Payload> payload = Collections.singletonList(jsonPayload(10000));
+    List<Payload> encoded = codec.encode(payload);
+    assertEquals(
+        ZstdPayloadCodec.METADATA_ENCODING_ZSTD,
+        encoded.get(0).getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null));
+    assertEquals(payload, codec.decode(encoded));
+    assertThrows(PayloadCodecException.class, () -> codecWithoutDictionary.decode(encoded));
+  }
+
+  @Test
+  public void rejectsPayloadsDeclaringTooLargeSize() throws Exception {
+    ByteString.Output data = ByteString.newOutput();
+    CodedOutputStream header = CodedOutputStream.newInstance(data);
+    header.writeUInt32NoTag(1024 * 1024 + 1);
+    header.flush();
+    data.write(new byte[] {1, 2, 3});
+    Payload corrupted =
+        Payload.newBuilder()
+            .putMetadata(
+                EncodingKeys.METADATA_ENCODING_KEY, ZstdPayloadCodec.METADATA_ENCODING_ZSTD)
+            .setData(data.toByteString())
+            .build();
+    PayloadCodec codec =
+        ZstdPayloadCodec.newBuilder().setMaxDecodedPayloadSize(1024 * 1024).build();
+
+    PayloadCodecException e =
+        assertThrows(
+            PayloadCodecException.class, () -> codec.decode(Collections.singletonList(corrupted)));
+    assertTrue(e.getMessage(), e.getMessage().contains("exceeds the maximum"));
+  }
+
+  @Test
+  public void canBeUsedAfterClose() {
+    List<Payload> payload = Collections.singletonList(jsonPayload(1));
+    ZstdPayloadCodec codec = ZstdPayloadCodec.newBuilder().setMinPayloadSize(0).build();
+    List<Payload> encoded = codec.encode(payload);
+    assertEquals(payload, codec.decode(encoded));
+
+    codec.close();
+    assertEquals(payload, codec.decode(codec.encode(payload)));
+    codec.close();
+  }
+
+  private static Payload jsonPayload(int i) {
+    String json =
+        "{\"customerId\":\""
+            + i
+            + "\",\"orderStatus\":\"PENDING\",\"shippingAddress\":{\"country\":\"US\"}}";
+    return Payload.newBuilder()
+        .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ByteString.copyFromUtf8("json/plain"))
+        .setData(ByteString.copyFromUtf8(json))
+        .build();
+  }
+}
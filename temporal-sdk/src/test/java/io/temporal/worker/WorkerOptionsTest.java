@@ -26,6 +26,15 @@ public class WorkerOptionsTest {
     assertEquals(11, options.getMaxConcurrentLocalActivityExecutionSize());
   }
 
+  @Test
+  public void zeroWorkflowHistoryReadAheadBytesIsKept() {
+    WorkerOptions options =
+        WorkerOptions.newBuilder()
+            .setWorkflowHistoryReadAheadBytes(0)
+            .validateAndBuildWithDefaults();
+    assertEquals(0, options.getWorkflowHistoryReadAheadBytes());
+  }
+
   @Test
   public void verifyWorkerOptionsEquality() {
     WorkerOptions w1 = WorkerOptions.newBuilder().build();
@@ -11,6 +11,7 @@ import io.temporal.api.workflowservice.v1.GetSystemInfoResponse.Capabilities;
 import io.temporal.internal.retryer.GrpcRetryer;
 import io.temporal.internal.retryer.GrpcRetryer.GrpcRetryerOptions;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -70,6 +71,8 @@ final class ChannelManager {
   private final Channel interceptedChannel;
   private final HealthGrpc.HealthBlockingStub healthBlockingStub;
 
+  private final @Nullable RpcLatencyTracker latencyTracker;
+
   private final CompletableFuture<Capabilities> serverCapabilitiesFuture =
       new CompletableFuture<>();
 
@@ -82,6 +85,18 @@ final class ChannelManager {
       ServiceStubsOptions options,
       List<ClientInterceptor> additionalHeadInterceptors,
       @Nullable Capabilities fixedServerCapabilities) {
+    this(options, additionalHeadInterceptors, fixedServerCapabilities, null);
+  }
+
+  /**
+   * @param latencyTracker if not null, receives the latencies of the successful calls
+   */
+  public ChannelManager(
+      ServiceStubsOptions options,
+      List<ClientInterceptor> additionalHeadInterceptors,
+      @Nullable Capabilities fixedServerCapabilities,
+      @Nullable RpcLatencyTracker latencyTracker) {
+    this.latencyTracker = latencyTracker;
     // If fixed capabilities are present, set them on the future
     if (fixedServerCapabilities != null) {
       serverCapabilitiesFuture.complete(fixedServerCapabilities);
@@ -95,7 +110,7 @@ final class ChannelManager {
       this.rawChannel = options.getChannel();
       this.grpcConnectionManager = null;
     } else {
-      this.rawChannel = prepareChannel();
+      this.rawChannel = prepareChannelOrPool();
 
       this.grpcConnectionManager = grpcConnectionManager();
       // we can't do it for externally passed channel safely because of grpc race condition bug
@@ -126,7 +141,7 @@ final class ChannelManager {
   /** These interceptors will be called last in the interceptors chain */
   private Channel applyTailStandardInterceptors(Channel channel) {
     GrpcMetricsInterceptor metricsInterceptor =
-        new GrpcMetricsInterceptor(options.getMetricsScope());
+        new GrpcMetricsInterceptor(options.getMetricsScope(), latencyTracker);
 
     channel = ClientInterceptors.intercept(channel, metricsInterceptor);
 
@@ -181,6 +196,21 @@ final class ChannelManager {
     return channel;
   }
 
+  private ManagedChannel prepareChannelOrPool() {
+    if (options.getChannelPoolSize() == 1 && options.getLongPollChannelPoolSize() == 0) {
+      return prepareChannel();
+    }
+    List<ManagedChannel> channels = new ArrayList<>(options.getChannelPoolSize());
+    for (int i = 0; i < options.getChannelPoolSize(); i++) {
+      channels.add(prepareChannel());
+    }
+    List<ManagedChannel> longPollChannels = new ArrayList<>(options.getLongPollChannelPoolSize());
+    for (int i = 0; i < options.getLongPollChannelPoolSize(); i++) {
+      longPollChannels.add(prepareChannel());
+    }
+    return new ChannelPool(channels, longPollChannels);
+  }
+
   private ManagedChannel prepareChannel() {
     NettyChannelBuilder builder =
         NettyChannelBuilder.forTarget(options.getTarget())
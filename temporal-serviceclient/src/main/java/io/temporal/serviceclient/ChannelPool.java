@@ -0,0 +1,274 @@
+package io.temporal.serviceclient;
+
+import com.google.common.base.Preconditions;
+import io.grpc.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Channel that spreads calls over several underlying channels, each of them having its own
+ * connection. A call is sent to the channel with the least number of outstanding calls.
+ *
+ * <p>Long polls can be given a separate group of channels. This way long polls holding HTTP/2
+ * streams for up to a minute don't compete for the concurrent stream limit and the event loop with
+ * the latency-sensitive calls, like the task completions.
+ */
+@ThreadSafe
+final class ChannelPool extends ManagedChannel {
+  private final List<PooledChannel> channels;
+  private final List<PooledChannel> longPollChannels;
+  private final List<ManagedChannel> allChannels;
+  private final boolean dedicatedLongPollChannels;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+
+  /**
+   * @param channels channels for the calls
+   * @param longPollChannels channels dedicated to the long polls, empty to send the long polls to
+   *     {@code channels}
+   */
+  ChannelPool(List<ManagedChannel> channels, List<ManagedChannel> longPollChannels) {
+    Preconditions.checkArgument(!channels.isEmpty(), "channels is empty");
+    this.channels = pooled(channels);
+    this.longPollChannels = longPollChannels.isEmpty() ? this.channels : pooled(longPollChannels);
+    this.allChannels = new ArrayList<>(channels);
+    this.allChannels.addAll(longPollChannels);
+    this.dedicatedLongPollChannels = !longPollChannels.isEmpty();
+  }
+
+  private static List<PooledChannel> pooled(List<ManagedChannel> channels) {
+    List<PooledChannel> result = new ArrayList<>(channels.size());
+    for (ManagedChannel channel : channels) {
+      result.add(new PooledChannel(channel));
+    }
+    return result;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+      MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+    List<PooledChannel> group =
+        LongPollUtil.isLongPoll(methodDescriptor, callOptions) ? longPollChannels : channels;
+    PooledChannel channel = leastOutstanding(group);
+    return new CountingCall<>(
+        channel.channel.newCall(methodDescriptor, callOptions), channel.outstandingCalls);
+  }
+
+  /**
+   * Scans the group starting from a rotating index, so the channels with the same number of
+   * outstanding calls are used in turns.
+   */
+  private PooledChannel leastOutstanding(List<PooledChannel> group) {
+    int size = group.size();
+    if (size == 1) {
+      return group.get(0);
+    }
+    int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+    PooledChannel result = group.get(start);
+    int min = result.outstandingCalls.get();
+    for (int i = 1; i < size && min > 0; i++) {
+      PooledChannel candidate = group.get((start + i) % size);
+      int outstanding = candidate.outstandingCalls.get();
+      if (outstanding < min) {
+        result = candidate;
+        min = outstanding;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String authority() {
+    return channels.get(0).channel.authority();
+  }
+
+  /**
+   * @return the most connected state of the underlying channels
+   */
+  @Override
+  public ConnectivityState getState(boolean requestConnection) {
+    ConnectivityState result = ConnectivityState.SHUTDOWN;
+    for (ManagedChannel channel : allChannels) {
+      ConnectivityState state = channel.getState(requestConnection);
+      if (rank(state) > rank(result)) {
+        result = state;
+      }
+    }
+    return result;
+  }
+
+  private static int rank(ConnectivityState state) {
+    switch (state) {
+      case READY:
+        return 4;
+      case CONNECTING:
+        return 3;
+      case IDLE:
+        return 2;
+      case TRANSIENT_FAILURE:
+        return 1;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Calls the callback once, when the state of any of the underlying channels changes. The caller
+   * is expected to check {@link #getState(boolean)} again, as the state of the pool may stay the
+   * same.
+   */
+  @Override
+  public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+    AtomicBoolean notified = new AtomicBoolean();
+    for (ManagedChannel channel : allChannels) {
+      channel.notifyWhenStateChanged(
+          channel.getState(false),
+          () -> {
+            if (notified.compareAndSet(false, true)) {
+              callback.run();
+            }
+          });
+    }
+  }
+
+  @Override
+  public void resetConnectBackoff() {
+    for (ManagedChannel channel : allChannels) {
+      channel.resetConnectBackoff();
+    }
+  }
+
+  @Override
+  public void enterIdle() {
+    for (ManagedChannel channel : allChannels) {
+      channel.enterIdle();
+    }
+  }
+
+  @Override
+  public ManagedChannel shutdown() {
+    for (ManagedChannel channel : allChannels) {
+      channel.shutdown();
+    }
+    return this;
+  }
+
+  @Override
+  public ManagedChannel shutdownNow() {
+    for (ManagedChannel channel : allChannels) {
+      channel.shutdownNow();
+    }
+    return this;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    for (ManagedChannel channel : allChannels) {
+      if (!channel.isShutdown()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    for (ManagedChannel channel : allChannels) {
+      if (!channel.isTerminated()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (ManagedChannel channel : allChannels) {
+      long left = deadline - System.nanoTime();
+      if (!channel.awaitTermination(Math.max(left, 0), TimeUnit.NANOSECONDS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return number of the outstanding calls of each channel, long poll channels last
+   */
+  int[] getOutstandingCalls() {
+    int[] result = new int[allChannels.size()];
+    int i = 0;
+    for (PooledChannel channel : channels) {
+      result[i++] = channel.outstandingCalls.get();
+    }
+    if (dedicatedLongPollChannels) {
+      for (PooledChannel channel : longPollChannels) {
+        result[i++] = channel.outstandingCalls.get();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "ChannelPool{"
+        + "channels="
+        + channels.size()
+        + ", longPollChannels="
+        + (dedicatedLongPollChannels ? longPollChannels.size() : 0)
+        + ", authority="
+        + authority()
+        + '}';
+  }
+
+  private static final class PooledChannel {
+    private final ManagedChannel channel;
+    private final AtomicInteger outstandingCalls = new AtomicInteger();
+
+    private PooledChannel(ManagedChannel channel) {
+      this.channel = channel;
+    }
+  }
+
+  /** Counts the call as outstanding from its start until it is closed. */
+  private static final class CountingCall<ReqT, RespT>
+      extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+    private final AtomicInteger outstandingCalls;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private CountingCall(ClientCall<ReqT, RespT> delegate, AtomicInteger outstandingCalls) {
+      super(delegate);
+      this.outstandingCalls = outstandingCalls;
+    }
+
+    @Override
+    public void start(Listener<RespT> responseListener, Metadata headers) {
+      outstandingCalls.incrementAndGet();
+      try {
+        super.start(
+            new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(
+                responseListener) {
+              @Override
+              public void onClose(Status status, Metadata trailers) {
+                release();
+                super.onClose(status, trailers);
+              }
+            },
+            headers);
+      } catch (RuntimeException e) {
+        release();
+        throw e;
+      }
+    }
+
+    private void release() {
+      if (closed.compareAndSet(false, true)) {
+        outstandingCalls.decrementAndGet();
+      }
+    }
+  }
+}
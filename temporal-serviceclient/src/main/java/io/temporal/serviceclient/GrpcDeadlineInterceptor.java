@@ -22,14 +22,40 @@ class GrpcDeadlineInterceptor implements ClientInterceptor {
   private final @Nonnull Duration rpcTimeout;
   private final @Nullable Duration rpcLongPollTimeout;
   private final @Nullable Duration rpcQueryTimeout;
+  private final @Nullable RpcLatencyTracker latencyTracker;
+  private final double adaptiveDeadlineMultiplier;
+  private final long minAdaptiveRpcTimeoutMillis;
 
   public GrpcDeadlineInterceptor(
       @Nonnull Duration rpcTimeout,
       @Nullable Duration rpcLongPollTimeout,
       @Nullable Duration rpcQueryTimeout) {
+    this(rpcTimeout, rpcLongPollTimeout, rpcQueryTimeout, null, null);
+  }
+
+  /**
+   * @param latencyTracker latencies the adaptive deadlines are based on
+   * @param hedgingOptions if not null and {@link RpcHedgingOptions#getAdaptiveDeadlineMultiplier()}
+   *     is set, the deadlines of the calls tracked by {@code latencyTracker} are shortened
+   *     according to their recent latencies
+   */
+  public GrpcDeadlineInterceptor(
+      @Nonnull Duration rpcTimeout,
+      @Nullable Duration rpcLongPollTimeout,
+      @Nullable Duration rpcQueryTimeout,
+      @Nullable RpcLatencyTracker latencyTracker,
+      @Nullable RpcHedgingOptions hedgingOptions) {
     this.rpcTimeout = rpcTimeout;
     this.rpcLongPollTimeout = rpcLongPollTimeout;
     this.rpcQueryTimeout = rpcQueryTimeout;
+    boolean adaptive =
+        latencyTracker != null
+            && hedgingOptions != null
+            && hedgingOptions.getAdaptiveDeadlineMultiplier() > 0;
+    this.latencyTracker = adaptive ? latencyTracker : null;
+    this.adaptiveDeadlineMultiplier = adaptive ? hedgingOptions.getAdaptiveDeadlineMultiplier() : 0;
+    this.minAdaptiveRpcTimeoutMillis =
+        adaptive ? hedgingOptions.getMinAdaptiveRpcTimeout().toMillis() : 0;
   }
 
   @Override
@@ -45,6 +71,16 @@ class GrpcDeadlineInterceptor implements ClientInterceptor {
       duration = rpcTimeout.toMillis();
     }
 
+    if (latencyTracker != null && GrpcHedgingInterceptor.isHedgeable(method, callOptions)) {
+      long percentile =
+          latencyTracker.getPercentile(method, RpcHedgingOptions.ADAPTIVE_DEADLINE_PERCENTILE);
+      if (percentile >= 0) {
+        long adaptive =
+            (long) (TimeUnit.NANOSECONDS.toMillis(percentile) * adaptiveDeadlineMultiplier);
+        duration = Math.min(duration, Math.max(adaptive, minAdaptiveRpcTimeoutMillis));
+      }
+    }
+
     Deadline deadline = callOptions.getDeadline();
     if (deadline != null) {
       duration = Math.min(duration, deadline.timeRemaining(TimeUnit.MILLISECONDS));
@@ -0,0 +1,359 @@
+package io.temporal.serviceclient;
+
+import static io.temporal.serviceclient.MetricsTag.OPERATION_NAME;
+
+import com.google.common.collect.ImmutableSet;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.ImmutableMap;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Deadline;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends a second request for the idempotent read calls that take longer than a percentile of the
+ * recent latencies of their method and uses the response that comes first.
+ *
+ * <p>This interceptor should be placed after {@link GrpcDeadlineInterceptor}, so both requests
+ * share the deadline of the call. The second requests are marked with {@link #HEDGE_ATTEMPT}, so
+ * their latencies, which are measured from a later start, don't get into the {@link
+ * RpcLatencyTracker}. If the second request wins, the time since the start of the call is recorded
+ * instead.
+ *
+ * @see RpcHedgingOptions
+ */
+class GrpcHedgingInterceptor implements ClientInterceptor {
+  private static final Logger log = LoggerFactory.getLogger(GrpcHedgingInterceptor.class);
+
+  /** Set on the calls of the second requests sent by this interceptor */
+  static final CallOptions.Key<Boolean> HEDGE_ATTEMPT =
+      CallOptions.Key.createWithDefault("temporal-hedge-attempt", false);
+
+  /**
+   * Cause of the cancellation of the requests that lost to the response of another request of the
+   * same call, {@link GrpcMetricsInterceptor} doesn't count them as failures
+   */
+  static final Throwable HEDGE_LOST =
+      new CancellationException("Response of another hedged request is used");
+
+  /** Idempotent read methods that can be hedged and get adaptive deadlines */
+  static final Set<MethodDescriptor<?, ?>> HEDGED_METHODS =
+      ImmutableSet.of(
+          WorkflowServiceGrpc.getDescribeWorkflowExecutionMethod(),
+          WorkflowServiceGrpc.getGetWorkflowExecutionHistoryMethod(),
+          WorkflowServiceGrpc.getGetWorkflowExecutionHistoryReverseMethod(),
+          WorkflowServiceGrpc.getQueryWorkflowMethod(),
+          WorkflowServiceGrpc.getListWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getListOpenWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getListClosedWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getListArchivedWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getScanWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getCountWorkflowExecutionsMethod(),
+          WorkflowServiceGrpc.getDescribeTaskQueueMethod());
+
+  private final RpcLatencyTracker latencyTracker;
+  private final double hedgingPercentile;
+  private final long minHedgingDelayNanos;
+  private final ScheduledExecutorService scheduler;
+  private final Scope metricsScope;
+
+  GrpcHedgingInterceptor(
+      RpcLatencyTracker latencyTracker,
+      RpcHedgingOptions options,
+      ScheduledExecutorService scheduler,
+      Scope metricsScope) {
+    this.latencyTracker = latencyTracker;
+    this.hedgingPercentile = options.getHedgingPercentile();
+    this.minHedgingDelayNanos = options.getMinHedgingDelay().toNanos();
+    this.scheduler = scheduler;
+    this.metricsScope = metricsScope.tagged(MetricsTag.defaultTags(MetricsTag.DEFAULT_VALUE));
+  }
+
+  /**
+   * @return true if the call is an idempotent read that can be hedged or get an adaptive deadline
+   */
+  static boolean isHedgeable(MethodDescriptor<?, ?> method, CallOptions callOptions) {
+    return HEDGED_METHODS.contains(method) && !LongPollUtil.isLongPoll(method, callOptions);
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    if (!isHedgeable(method, callOptions)) {
+      return next.newCall(method, callOptions);
+    }
+    long percentile = latencyTracker.getPercentile(method, hedgingPercentile);
+    if (percentile < 0) {
+      return next.newCall(method, callOptions);
+    }
+    long delayNanos = Math.max(percentile, minHedgingDelayNanos);
+    Deadline deadline = callOptions.getDeadline();
+    if (deadline != null && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= delayNanos) {
+      return next.newCall(method, callOptions);
+    }
+    String name = method.getFullMethodName();
+    Scope scope =
+        metricsScope.tagged(
+            new ImmutableMap.Builder<String, String>(1)
+                .put(OPERATION_NAME, name.substring(name.lastIndexOf('/') + 1))
+                .build());
+    return new HedgingClientCall<>(next, method, callOptions, delayNanos, scope);
+  }
+
+  /**
+   * Unary call that starts the first attempt right away and the second one after the delay, if the
+   * first one hasn't completed by then. The responses of the attempts are buffered and only the
+   * response of the attempt that completes successfully first, or of the last failed attempt, is
+   * delivered to the listener of the call.
+   */
+  private class HedgingClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+    private final Channel next;
+    private final MethodDescriptor<ReqT, RespT> method;
+    private final CallOptions callOptions;
+    private final long delayNanos;
+    private final Scope scope;
+
+    @GuardedBy("this")
+    private Listener<RespT> listener;
+
+    @GuardedBy("this")
+    private Metadata headers;
+
+    @GuardedBy("this")
+    private final List<ReqT> messages = new ArrayList<>(1);
+
+    @GuardedBy("this")
+    private int requested;
+
+    @GuardedBy("this")
+    private boolean halfClosed;
+
+    @GuardedBy("this")
+    private final List<Attempt> attempts = new ArrayList<>(2);
+
+    @GuardedBy("this")
+    private @Nullable ScheduledFuture<?> hedgeTimer;
+
+    @GuardedBy("this")
+    private boolean committed;
+
+    @GuardedBy("this")
+    private boolean cancelled;
+
+    @GuardedBy("this")
+    private long startNanos;
+
+    private HedgingClientCall(
+        Channel next,
+        MethodDescriptor<ReqT, RespT> method,
+        CallOptions callOptions,
+        long delayNanos,
+        Scope scope) {
+      this.next = next;
+      this.method = method;
+      this.callOptions = callOptions;
+      this.delayNanos = delayNanos;
+      this.scope = scope;
+    }
+
+    // The calls of the attempts are accessed under the lock to replay the buffered requests to the
+    // hedge attempt without racing with the new requests. ClientCall methods don't block.
+
+    @Override
+    public synchronized void start(Listener<RespT> responseListener, Metadata headers) {
+      this.listener = responseListener;
+      this.headers = headers;
+      this.startNanos = System.nanoTime();
+      Attempt attempt = new Attempt(false);
+      attempts.add(attempt);
+      attempt.call.start(attempt, copyOf(headers));
+      hedgeTimer = scheduler.schedule(this::hedge, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void hedge() {
+      hedgeTimer = null;
+      // the timer may fire concurrently with the cancellation and get here after it
+      if (committed || cancelled) {
+        return;
+      }
+      scope.counter(MetricsType.TEMPORAL_REQUEST_HEDGE).inc(1);
+      Attempt attempt = new Attempt(true);
+      attempts.add(attempt);
+      try {
+        attempt.call.start(attempt, copyOf(headers));
+        if (requested > 0) {
+          attempt.call.request(requested);
+        }
+        for (ReqT message : messages) {
+          attempt.call.sendMessage(message);
+        }
+        if (halfClosed) {
+          attempt.call.halfClose();
+        }
+      } catch (RuntimeException e) {
+        log.warn("Failure sending a hedged request", e);
+        attempt.call.cancel("Failure sending a hedged request", e);
+      }
+    }
+
+    @Override
+    public synchronized void request(int numMessages) {
+      requested += numMessages;
+      for (Attempt attempt : attempts) {
+        attempt.call.request(numMessages);
+      }
+    }
+
+    @Override
+    public synchronized void sendMessage(ReqT message) {
+      messages.add(message);
+      for (Attempt attempt : attempts) {
+        attempt.call.sendMessage(message);
+      }
+    }
+
+    @Override
+    public synchronized void halfClose() {
+      halfClosed = true;
+      for (Attempt attempt : attempts) {
+        attempt.call.halfClose();
+      }
+    }
+
+    @Override
+    public synchronized void cancel(@Nullable String message, @Nullable Throwable cause) {
+      cancelled = true;
+      cancelHedgeTimer();
+      // the listener receives onClose of the last cancelled attempt
+      for (Attempt attempt : new ArrayList<>(attempts)) {
+        attempt.call.cancel(message, cause);
+      }
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+      for (Attempt attempt : attempts) {
+        if (!attempt.closed && attempt.call.isReady()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @GuardedBy("this")
+    private void cancelHedgeTimer() {
+      if (hedgeTimer != null) {
+        hedgeTimer.cancel(false);
+        hedgeTimer = null;
+      }
+    }
+
+    /**
+     * Decides if the closed attempt provides the result of the call.
+     *
+     * @return listener to deliver the result of the attempt to and the attempts to cancel, null if
+     *     the result of the attempt should be dropped
+     */
+    private synchronized @Nullable Listener<RespT> commit(
+        Attempt closed, Status status, List<Attempt> toCancel) {
+      closed.closed = true;
+      if (committed) {
+        return null;
+      }
+      boolean otherInFlight = false;
+      for (Attempt attempt : attempts) {
+        if (attempt != closed && !attempt.closed) {
+          otherInFlight = true;
+        }
+      }
+      if (!status.isOk() && otherInFlight) {
+        // the other attempt may still succeed
+        return null;
+      }
+      committed = true;
+      cancelHedgeTimer();
+      for (Attempt attempt : attempts) {
+        if (attempt != closed && !attempt.closed) {
+          toCancel.add(attempt);
+        }
+      }
+      if (closed.hedge && status.isOk()) {
+        // the first attempt would have taken at least this long, its latency is not recorded as
+        // it gets cancelled
+        latencyTracker.record(method, System.nanoTime() - startNanos);
+      }
+      return listener;
+    }
+
+    /** Listener of an attempt buffering its response. */
+    private class Attempt extends Listener<RespT> {
+      private final ClientCall<ReqT, RespT> call;
+      private final boolean hedge;
+      private @Nullable Metadata responseHeaders;
+      private final List<RespT> responseMessages = new ArrayList<>(1);
+
+      @GuardedBy("HedgingClientCall.this")
+      private boolean closed;
+
+      private Attempt(boolean hedge) {
+        this.call =
+            next.newCall(method, hedge ? callOptions.withOption(HEDGE_ATTEMPT, true) : callOptions);
+        this.hedge = hedge;
+      }
+
+      @Override
+      public void onHeaders(Metadata headers) {
+        responseHeaders = headers;
+      }
+
+      @Override
+      public void onMessage(RespT message) {
+        responseMessages.add(message);
+      }
+
+      @Override
+      public void onClose(Status status, Metadata trailers) {
+        List<Attempt> toCancel = new ArrayList<>(1);
+        Listener<RespT> listener = commit(this, status, toCancel);
+        if (listener == null) {
+          return;
+        }
+        for (Attempt attempt : toCancel) {
+          attempt.call.cancel(HEDGE_LOST.getMessage(), HEDGE_LOST);
+        }
+        if (hedge && status.isOk()) {
+          scope.counter(MetricsType.TEMPORAL_REQUEST_HEDGE_WIN).inc(1);
+        }
+        if (responseHeaders != null) {
+          listener.onHeaders(responseHeaders);
+        }
+        for (RespT message : responseMessages) {
+          listener.onMessage(message);
+        }
+        listener.onClose(status, trailers);
+      }
+    }
+  }
+
+  private static Metadata copyOf(Metadata headers) {
+    Metadata result = new Metadata();
+    result.merge(headers);
+    return result;
+  }
+}
@@ -18,15 +18,33 @@ import io.grpc.ServiceDescriptor;
 import io.grpc.Status;
 import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
 import java.util.*;
+import javax.annotation.Nullable;
 
-/** Reports metrics on GRPC service calls */
+/**
+ * Reports metrics on GRPC service calls
+ *
+ * <p>The second requests sent by {@link GrpcHedgingInterceptor} are counted by {@link
+ * MetricsType#TEMPORAL_REQUEST_HEDGE} only, so a hedged call is counted once. The requests
+ * cancelled because another request of the same call provided the result are not counted as
+ * failures.
+ */
 class GrpcMetricsInterceptor implements ClientInterceptor {
   private static final Map<Status.Code, Map<String, String>> STATUS_CODE_TAGS;
 
   private final Scope defaultScope;
   private final Map<MethodDescriptor<?, ?>, Map<String, String>> methodTags;
+  private final @Nullable RpcLatencyTracker latencyTracker;
 
   GrpcMetricsInterceptor(Scope scope) {
+    this(scope, null);
+  }
+
+  /**
+   * @param latencyTracker if not null, receives the latencies of the successful calls, except the
+   *     second requests sent by {@link GrpcHedgingInterceptor}
+   */
+  GrpcMetricsInterceptor(Scope scope, @Nullable RpcLatencyTracker latencyTracker) {
+    this.latencyTracker = latencyTracker;
     this.defaultScope = scope.tagged(MetricsTag.defaultTags(MetricsTag.DEFAULT_VALUE));
     ServiceDescriptor descriptor = WorkflowServiceGrpc.getServiceDescriptor();
     String serviceName = descriptor.getName();
@@ -52,26 +70,42 @@ class GrpcMetricsInterceptor implements ClientInterceptor {
     }
     Map<String, String> tags = methodTags.get(method);
     scope = scope.tagged(tags);
-    return new MetricsClientCall<>(next, method, callOptions, scope);
+    return new MetricsClientCall<>(next, method, callOptions, scope, latencyTracker);
   }
 
   private static class MetricsClientCall<ReqT, RespT>
       extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+    private final MethodDescriptor<ReqT, RespT> method;
     private final Scope metricsScope;
-    private final Stopwatch sw;
+    private final @Nullable Stopwatch sw;
     private final boolean longPoll;
+    private final boolean hedgeAttempt;
+    private final @Nullable RpcLatencyTracker latencyTracker;
+    private final long startNanos;
+    // set when the hedging interceptor cancels the call as the other request provided the result
+    private volatile boolean hedgeLost;
 
     MetricsClientCall(
         Channel next,
         MethodDescriptor<ReqT, RespT> method,
         CallOptions callOptions,
-        Scope metricsScope) {
+        Scope metricsScope,
+        @Nullable RpcLatencyTracker latencyTracker) {
       super(next.newCall(method, callOptions));
+      this.method = method;
       this.metricsScope = metricsScope;
+      // the second requests of hedged calls start late, their latency is recorded by the hedging
+      // interceptor
+      this.hedgeAttempt = callOptions.getOption(GrpcHedgingInterceptor.HEDGE_ATTEMPT);
+      this.latencyTracker = hedgeAttempt ? null : latencyTracker;
+      this.startNanos = System.nanoTime();
       longPoll = LongPollUtil.isLongPoll(method, callOptions);
       if (longPoll) {
         metricsScope.counter(MetricsType.TEMPORAL_LONG_REQUEST).inc(1);
         sw = metricsScope.timer(MetricsType.TEMPORAL_LONG_REQUEST_LATENCY).start();
+      } else if (hedgeAttempt) {
+        // the call is counted and timed by its first request
+        sw = null;
       } else {
         metricsScope.counter(MetricsType.TEMPORAL_REQUEST).inc(1);
         sw = metricsScope.timer(MetricsType.TEMPORAL_REQUEST_LATENCY).start();
@@ -83,6 +117,14 @@ class GrpcMetricsInterceptor implements ClientInterceptor {
       super.sendMessage(message);
     }
 
+    @Override
+    public void cancel(@Nullable String message, @Nullable Throwable cause) {
+      if (cause == GrpcHedgingInterceptor.HEDGE_LOST) {
+        hedgeLost = true;
+      }
+      super.cancel(message, cause);
+    }
+
     @Override
     public void start(Listener<RespT> responseListener, Metadata headers) {
       Listener<RespT> listener =
@@ -97,8 +139,13 @@ class GrpcMetricsInterceptor implements ClientInterceptor {
                 // by putting temporal metrics code into finally block
                 super.onClose(status, trailers);
               } finally {
-                sw.stop();
-                if (!status.isOk()) {
+                if (sw != null) {
+                  sw.stop();
+                }
+                if (latencyTracker != null && status.isOk() && !longPoll) {
+                  latencyTracker.record(method, System.nanoTime() - startNanos);
+                }
+                if (!status.isOk() && !hedgeAttempt && !hedgeLost) {
                   Scope scope = metricsScope.tagged(STATUS_CODE_TAGS.get(status.getCode()));
                   if (longPoll) {
                     scope.counter(MetricsType.TEMPORAL_LONG_REQUEST_FAILURE).inc(1);
@@ -25,6 +25,7 @@ public class MetricsTag {
   public static final String OPERATION_NAME = "operation";
   public static final String TASK_FAILURE_TYPE = "failure_reason";
   public static final String POLLER_TYPE = "poller_type";
+  public static final String PAYLOAD_CODEC = "payload_codec";
 
   /** Used to pass metrics scope to the interceptor */
   public static final CallOptions.Key<Scope> METRICS_TAGS_CALL_OPTIONS_KEY =
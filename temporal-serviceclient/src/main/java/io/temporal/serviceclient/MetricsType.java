@@ -11,4 +11,10 @@ public final class MetricsType {
   public static final String TEMPORAL_LONG_REQUEST = TEMPORAL_METRICS_PREFIX + "long_request";
   public static final String TEMPORAL_LONG_REQUEST_FAILURE = TEMPORAL_LONG_REQUEST + "_failure";
   public static final String TEMPORAL_LONG_REQUEST_LATENCY = TEMPORAL_LONG_REQUEST + "_latency";
+
+  /** Number of the second requests sent for the slow calls, see {@link RpcHedgingOptions} */
+  public static final String TEMPORAL_REQUEST_HEDGE = TEMPORAL_REQUEST + "_hedge";
+
+  /** Number of the calls that used the response of the second request */
+  public static final String TEMPORAL_REQUEST_HEDGE_WIN = TEMPORAL_REQUEST_HEDGE + "_win";
 }
@@ -0,0 +1,241 @@
+package io.temporal.serviceclient;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Options of the hedging and adaptive deadlines of the idempotent read calls, like {@code
+ * DescribeWorkflowExecution}, {@code GetWorkflowExecutionHistory}, {@code QueryWorkflow} and the
+ * workflow listing calls.
+ *
+ * <p>The latencies of the recent successful calls of each of these methods are tracked. Once a
+ * call takes longer than the {@link Builder#setHedgingPercentile(double)} of the latencies of its
+ * method, a second identical request is sent and the response that comes first is used, the other
+ * request is cancelled. This cuts the tail latency caused by a slow server instance, for example
+ * one going through a garbage collection pause, at the cost of a few percent of additional
+ * requests.
+ *
+ * <p>With {@link Builder#setAdaptiveDeadlineMultiplier(double)} set, the deadline of each attempt
+ * of these calls is the 99th percentile of the latencies of its method multiplied by the
+ * multiplier, but not more than the configured RPC timeout. The attempts that time out are retried
+ * according to the {@link RpcRetryOptions}.
+ *
+ * @see WorkflowServiceStubsOptions.Builder#setRpcHedgingOptions(RpcHedgingOptions)
+ */
+public final class RpcHedgingOptions {
+  /** Percentile of the latencies the deadlines are based on */
+  static final double ADAPTIVE_DEADLINE_PERCENTILE = 0.99;
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  public static Builder newBuilder(RpcHedgingOptions options) {
+    return new Builder(options);
+  }
+
+  public static RpcHedgingOptions getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  private static final RpcHedgingOptions DEFAULT_INSTANCE;
+
+  static {
+    DEFAULT_INSTANCE = RpcHedgingOptions.newBuilder().build();
+  }
+
+  public static final class Builder {
+    private boolean hedgingEnabled = true;
+    private double hedgingPercentile = 0.95;
+    private Duration minHedgingDelay = Duration.ofMillis(10);
+    private double adaptiveDeadlineMultiplier;
+    private Duration minAdaptiveRpcTimeout = Duration.ofSeconds(1);
+    private int minSamples = 100;
+
+    private Builder() {}
+
+    private Builder(RpcHedgingOptions options) {
+      if (options == null) {
+        return;
+      }
+      this.hedgingEnabled = options.hedgingEnabled;
+      this.hedgingPercentile = options.hedgingPercentile;
+      this.minHedgingDelay = options.minHedgingDelay;
+      this.adaptiveDeadlineMultiplier = options.adaptiveDeadlineMultiplier;
+      this.minAdaptiveRpcTimeout = options.minAdaptiveRpcTimeout;
+      this.minSamples = options.minSamples;
+    }
+
+    /**
+     * Enables sending a second request for the calls slower than {@link
+     * #setHedgingPercentile(double)}. Set to false to use only the adaptive deadlines. Default is
+     * true.
+     */
+    public Builder setHedgingEnabled(boolean hedgingEnabled) {
+      this.hedgingEnabled = hedgingEnabled;
+      return this;
+    }
+
+    /**
+     * Percentile of the recent latencies of a method after which a second request is sent. Lower
+     * values cut the tail latency more at the cost of more additional requests, roughly {@code 1 -
+     * hedgingPercentile} of the calls are hedged. Default is 0.95.
+     */
+    public Builder setHedgingPercentile(double hedgingPercentile) {
+      Preconditions.checkArgument(
+          hedgingPercentile > 0 && hedgingPercentile < 1,
+          "hedgingPercentile should be between 0 and 1 exclusive: %s",
+          hedgingPercentile);
+      this.hedgingPercentile = hedgingPercentile;
+      return this;
+    }
+
+    /**
+     * Minimum time to wait for the first response before sending a second request, which protects
+     * from hedging most of the calls of a method with very fast responses. Default is 10ms.
+     */
+    public Builder setMinHedgingDelay(Duration minHedgingDelay) {
+      Preconditions.checkArgument(
+          !Objects.requireNonNull(minHedgingDelay).isNegative(), "negative minHedgingDelay");
+      this.minHedgingDelay = minHedgingDelay;
+      return this;
+    }
+
+    /**
+     * Enables adaptive deadlines: the deadline of an attempt is the 99th percentile of the recent
+     * latencies of its method multiplied by this value, but not less than {@link
+     * #setMinAdaptiveRpcTimeout(Duration)} and not more than the configured RPC timeout. Default is
+     * 0, which disables the adaptive deadlines.
+     */
+    public Builder setAdaptiveDeadlineMultiplier(double adaptiveDeadlineMultiplier) {
+      Preconditions.checkArgument(
+          adaptiveDeadlineMultiplier == 0 || adaptiveDeadlineMultiplier >= 1,
+          "adaptiveDeadlineMultiplier should be 0 or at least 1: %s",
+          adaptiveDeadlineMultiplier);
+      this.adaptiveDeadlineMultiplier = adaptiveDeadlineMultiplier;
+      return this;
+    }
+
+    /** Lower bound of the adaptive deadlines. Default is 1 second. */
+    public Builder setMinAdaptiveRpcTimeout(Duration minAdaptiveRpcTimeout) {
+      Preconditions.checkArgument(
+          !Objects.requireNonNull(minAdaptiveRpcTimeout).isNegative(),
+          "negative minAdaptiveRpcTimeout");
+      this.minAdaptiveRpcTimeout = minAdaptiveRpcTimeout;
+      return this;
+    }
+
+    /**
+     * Number of the successful calls of a method required before the calls of the method are hedged
+     * or get adaptive deadlines. Default is 100.
+     */
+    public Builder setMinSamples(int minSamples) {
+      Preconditions.checkArgument(
+          minSamples > 0 && minSamples <= RpcLatencyTracker.WINDOW_SIZE,
+          "minSamples should be between 1 and %s: %s",
+          RpcLatencyTracker.WINDOW_SIZE,
+          minSamples);
+      this.minSamples = minSamples;
+      return this;
+    }
+
+    public RpcHedgingOptions build() {
+      return new RpcHedgingOptions(
+          hedgingEnabled,
+          hedgingPercentile,
+          minHedgingDelay,
+          adaptiveDeadlineMultiplier,
+          minAdaptiveRpcTimeout,
+          minSamples);
+    }
+  }
+
+  private final boolean hedgingEnabled;
+  private final double hedgingPercentile;
+  private final Duration minHedgingDelay;
+  private final double adaptiveDeadlineMultiplier;
+  private final Duration minAdaptiveRpcTimeout;
+  private final int minSamples;
+
+  private RpcHedgingOptions(
+      boolean hedgingEnabled,
+      double hedgingPercentile,
+      Duration minHedgingDelay,
+      double adaptiveDeadlineMultiplier,
+      Duration minAdaptiveRpcTimeout,
+      int minSamples) {
+    this.hedgingEnabled = hedgingEnabled;
+    this.hedgingPercentile = hedgingPercentile;
+    this.minHedgingDelay = minHedgingDelay;
+    this.adaptiveDeadlineMultiplier = adaptiveDeadlineMultiplier;
+    this.minAdaptiveRpcTimeout = minAdaptiveRpcTimeout;
+    this.minSamples = minSamples;
+  }
+
+  public boolean isHedgingEnabled() {
+    return hedgingEnabled;
+  }
+
+  public double getHedgingPercentile() {
+    return hedgingPercentile;
+  }
+
+  public Duration getMinHedgingDelay() {
+    return minHedgingDelay;
+  }
+
+  public double getAdaptiveDeadlineMultiplier() {
+    return adaptiveDeadlineMultiplier;
+  }
+
+  public Duration getMinAdaptiveRpcTimeout() {
+    return minAdaptiveRpcTimeout;
+  }
+
+  public int getMinSamples() {
+    return minSamples;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RpcHedgingOptions that = (RpcHedgingOptions) o;
+    return hedgingEnabled == that.hedgingEnabled
+        && Double.compare(hedgingPercentile, that.hedgingPercentile) == 0
+        && Double.compare(adaptiveDeadlineMultiplier, that.adaptiveDeadlineMultiplier) == 0
+        && minSamples == that.minSamples
+        && Objects.equals(minHedgingDelay, that.minHedgingDelay)
+        && Objects.equals(minAdaptiveRpcTimeout, that.minAdaptiveRpcTimeout);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        hedgingEnabled,
+        hedgingPercentile,
+        minHedgingDelay,
+        adaptiveDeadlineMultiplier,
+        minAdaptiveRpcTimeout,
+        minSamples);
+  }
+
+  @Override
+  public String toString() {
+    return "RpcHedgingOptions{"
+        + "hedgingEnabled="
+        + hedgingEnabled
+        + ", hedgingPercentile="
+        + hedgingPercentile
+        + ", minHedgingDelay="
+        + minHedgingDelay
+        + ", adaptiveDeadlineMultiplier="
+        + adaptiveDeadlineMultiplier
+        + ", minAdaptiveRpcTimeout="
+        + minAdaptiveRpcTimeout
+        + ", minSamples="
+        + minSamples
+        + '}';
+  }
+}
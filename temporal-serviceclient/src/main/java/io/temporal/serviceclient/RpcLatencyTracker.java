@@ -0,0 +1,97 @@
+package io.temporal.serviceclient;
+
+import io.grpc.MethodDescriptor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Keeps the latencies of the recent successful calls of a fixed set of methods and provides their
+ * percentiles. The latencies are recorded by {@link GrpcMetricsInterceptor} and used for hedging
+ * and adaptive deadlines.
+ */
+@ThreadSafe
+final class RpcLatencyTracker {
+  /** Number of the most recent latencies the percentiles are computed over */
+  static final int WINDOW_SIZE = 1024;
+
+  /** The sorted snapshot of the window is refreshed after this many new latencies */
+  private static final int REFRESH_INTERVAL = 32;
+
+  private final int minSamples;
+  private final Map<MethodDescriptor<?, ?>, MethodLatencies> latencies;
+
+  /**
+   * @param methods methods to track the latencies of, the other methods are ignored
+   * @param minSamples number of latencies required before the percentiles are provided
+   */
+  RpcLatencyTracker(Collection<MethodDescriptor<?, ?>> methods, int minSamples) {
+    this.minSamples = Math.max(1, Math.min(minSamples, WINDOW_SIZE));
+    Map<MethodDescriptor<?, ?>, MethodLatencies> latencies = new HashMap<>();
+    for (MethodDescriptor<?, ?> method : methods) {
+      latencies.put(method, new MethodLatencies());
+    }
+    this.latencies = Collections.unmodifiableMap(latencies);
+  }
+
+  boolean isTracked(MethodDescriptor<?, ?> method) {
+    return latencies.containsKey(method);
+  }
+
+  void record(MethodDescriptor<?, ?> method, long latencyNanos) {
+    MethodLatencies methodLatencies = latencies.get(method);
+    if (methodLatencies != null) {
+      methodLatencies.record(latencyNanos);
+    }
+  }
+
+  /**
+   * @param percentile from 0 to 1
+   * @return the percentile of the recent latencies of the method in nanoseconds, -1 if the method
+   *     is not tracked or doesn't have enough latencies recorded yet
+   */
+  long getPercentile(MethodDescriptor<?, ?> method, double percentile) {
+    MethodLatencies methodLatencies = latencies.get(method);
+    if (methodLatencies == null) {
+      return -1;
+    }
+    long[] sorted = methodLatencies.sorted;
+    if (sorted.length < minSamples) {
+      return -1;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static final class MethodLatencies {
+    @GuardedBy("this")
+    private final long[] window = new long[WINDOW_SIZE];
+
+    @GuardedBy("this")
+    private long count;
+
+    /** Sorted copy of the filled part of the window, replaced on refresh */
+    private volatile long[] sorted = new long[0];
+
+    private void record(long latencyNanos) {
+      long[] refreshed = null;
+      synchronized (this) {
+        window[(int) (count % WINDOW_SIZE)] = latencyNanos;
+        count++;
+        if (count % REFRESH_INTERVAL == 0 || count < REFRESH_INTERVAL) {
+          refreshed = Arrays.copyOf(window, (int) Math.min(count, WINDOW_SIZE));
+        }
+      }
+      if (refreshed != null) {
+        // sorting outside the lock, a concurrent refresh may overwrite a newer snapshot with an
+        // older one, which is fine for the percentile estimates
+        Arrays.sort(refreshed);
+        sorted = refreshed;
+      }
+    }
+  }
+}
@@ -95,6 +95,12 @@ public class ServiceStubsOptions {
    */
   protected final Duration grpcReconnectFrequency;
 
+  /** Number of channels, each with its own connection, the calls are spread over */
+  protected final int channelPoolSize;
+
+  /** Number of additional channels dedicated to long polls, 0 to share the pool with other calls */
+  protected final int longPollChannelPoolSize;
+
   /** Optional gRPC headers */
   protected final Metadata headers;
 
@@ -124,6 +130,8 @@ public class ServiceStubsOptions {
     this.rpcTimeout = that.rpcTimeout;
     this.connectionBackoffResetFrequency = that.connectionBackoffResetFrequency;
     this.grpcReconnectFrequency = that.grpcReconnectFrequency;
+    this.channelPoolSize = that.channelPoolSize;
+    this.longPollChannelPoolSize = that.longPollChannelPoolSize;
     this.headers = that.headers;
     this.grpcMetadataProviders = that.grpcMetadataProviders;
     this.grpcClientInterceptors = that.grpcClientInterceptors;
@@ -146,6 +154,8 @@ public class ServiceStubsOptions {
       Duration rpcTimeout,
       Duration connectionBackoffResetFrequency,
       Duration grpcReconnectFrequency,
+      int channelPoolSize,
+      int longPollChannelPoolSize,
       Metadata headers,
       Collection<GrpcMetadataProvider> grpcMetadataProviders,
       Collection<ClientInterceptor> grpcClientInterceptors,
@@ -165,6 +175,8 @@ public class ServiceStubsOptions {
     this.rpcTimeout = rpcTimeout;
     this.connectionBackoffResetFrequency = connectionBackoffResetFrequency;
     this.grpcReconnectFrequency = grpcReconnectFrequency;
+    this.channelPoolSize = channelPoolSize;
+    this.longPollChannelPoolSize = longPollChannelPoolSize;
     this.headers = headers;
     this.grpcMetadataProviders = grpcMetadataProviders;
     this.grpcClientInterceptors = grpcClientInterceptors;
@@ -290,6 +302,26 @@ public class ServiceStubsOptions {
     return grpcReconnectFrequency;
   }
 
+  /**
+   * WARNING: The channel pool is currently experimental.
+   *
+   * @return number of channels the calls are spread over
+   * @see Builder#setChannelPoolSize(int)
+   */
+  public int getChannelPoolSize() {
+    return channelPoolSize;
+  }
+
+  /**
+   * WARNING: The channel pool is currently experimental.
+   *
+   * @return number of additional channels dedicated to long polls
+   * @see Builder#setLongPollChannelPoolSize(int)
+   */
+  public int getLongPollChannelPoolSize() {
+    return longPollChannelPoolSize;
+  }
+
   /**
    * @return gRPC headers to be added to every call
    */
@@ -328,6 +360,8 @@ public class ServiceStubsOptions {
     return enableHttps == that.enableHttps
         && enableKeepAlive == that.enableKeepAlive
         && keepAlivePermitWithoutStream == that.keepAlivePermitWithoutStream
+        && channelPoolSize == that.channelPoolSize
+        && longPollChannelPoolSize == that.longPollChannelPoolSize
         && Objects.equals(channel, that.channel)
         && Objects.equals(target, that.target)
         && Objects.equals(channelInitializer, that.channelInitializer)
@@ -364,6 +398,8 @@ public class ServiceStubsOptions {
         rpcTimeout,
         connectionBackoffResetFrequency,
         grpcReconnectFrequency,
+        channelPoolSize,
+        longPollChannelPoolSize,
         headers,
         grpcMetadataProviders,
         grpcClientInterceptors,
@@ -404,6 +440,10 @@ public class ServiceStubsOptions {
         + connectionBackoffResetFrequency
         + ", grpcReconnectFrequency="
         + grpcReconnectFrequency
+        + ", channelPoolSize="
+        + channelPoolSize
+        + ", longPollChannelPoolSize="
+        + longPollChannelPoolSize
         + ", headers="
         + headers
         + ", grpcMetadataProviders="
@@ -431,6 +471,8 @@ public class ServiceStubsOptions {
     private Duration rpcTimeout = DEFAULT_RPC_TIMEOUT;
     private Duration connectionBackoffResetFrequency = DEFAULT_CONNECTION_BACKOFF_RESET_FREQUENCY;
     private Duration grpcReconnectFrequency = DEFAULT_GRPC_RECONNECT_FREQUENCY;
+    private int channelPoolSize = 1;
+    private int longPollChannelPoolSize;
     private Metadata headers;
     private Collection<GrpcMetadataProvider> grpcMetadataProviders;
     private Collection<ClientInterceptor> grpcClientInterceptors;
@@ -454,6 +496,8 @@ public class ServiceStubsOptions {
       this.rpcTimeout = options.rpcTimeout;
       this.connectionBackoffResetFrequency = options.connectionBackoffResetFrequency;
       this.grpcReconnectFrequency = options.grpcReconnectFrequency;
+      this.channelPoolSize = options.channelPoolSize;
+      this.longPollChannelPoolSize = options.longPollChannelPoolSize;
       this.headers = options.headers;
       this.grpcMetadataProviders = options.grpcMetadataProviders;
       this.grpcClientInterceptors = options.grpcClientInterceptors;
@@ -582,6 +626,50 @@ public class ServiceStubsOptions {
       return self();
     }
 
+    /**
+     * Sets the number of channels the calls are spread over. Each channel has its own connection
+     * to the server, with its own HTTP/2 concurrent stream limit and Netty event loop. A call is
+     * sent to the channel with the least number of outstanding calls. Workers with hundreds of
+     * pollers may saturate a single connection.
+     *
+     * <p>Mutually exclusive with {@link #setChannel(ManagedChannel)}.
+     *
+     * <p>WARNING: The channel pool is currently experimental.
+     *
+     * @param channelPoolSize number of channels, defaults to 1
+     * @return {@code this}
+     */
+    public T setChannelPoolSize(int channelPoolSize) {
+      if (channelPoolSize < 1) {
+        throw new IllegalArgumentException(
+            "channelPoolSize should be positive: " + channelPoolSize);
+      }
+      this.channelPoolSize = channelPoolSize;
+      return self();
+    }
+
+    /**
+     * Sets the number of additional channels dedicated to long polls, like the task queue polls.
+     * Long polls hold HTTP/2 streams for up to a minute, moving them to separate connections keeps
+     * latency-sensitive calls, like the task completions, from queueing behind them.
+     *
+     * <p>Mutually exclusive with {@link #setChannel(ManagedChannel)}.
+     *
+     * <p>WARNING: The channel pool is currently experimental.
+     *
+     * @param longPollChannelPoolSize number of channels, defaults to 0, which sends the long polls
+     *     to the channels of the other calls
+     * @return {@code this}
+     */
+    public T setLongPollChannelPoolSize(int longPollChannelPoolSize) {
+      if (longPollChannelPoolSize < 0) {
+        throw new IllegalArgumentException(
+            "negative longPollChannelPoolSize: " + longPollChannelPoolSize);
+      }
+      this.longPollChannelPoolSize = longPollChannelPoolSize;
+      return self();
+    }
+
     /**
      * @param headers gRPC headers to be added to every call
      * @return {@code this}
@@ -815,6 +903,8 @@ public class ServiceStubsOptions {
           this.rpcTimeout,
           this.connectionBackoffResetFrequency,
           this.grpcReconnectFrequency,
+          this.channelPoolSize,
+          this.longPollChannelPoolSize,
           this.headers,
           this.grpcMetadataProviders,
           this.grpcClientInterceptors,
@@ -842,6 +932,11 @@ public class ServiceStubsOptions {
             "Only one of the 'enableHttps' or 'channel' options can be set at a time");
       }
 
+      if ((this.channelPoolSize > 1 || this.longPollChannelPoolSize > 0) && this.channel != null) {
+        throw new IllegalStateException(
+            "Only one of the channel pool or 'channel' options can be set at a time");
+      }
+
       String target =
           this.target == null && this.channel == null ? DEFAULT_LOCAL_DOCKER_TARGET : this.target;
 
@@ -877,6 +972,8 @@ public class ServiceStubsOptions {
           this.rpcTimeout,
           this.connectionBackoffResetFrequency,
           this.grpcReconnectFrequency,
+          this.channelPoolSize,
+          this.longPollChannelPoolSize,
           headers,
           grpcMetadataProviders,
           grpcClientInterceptors,
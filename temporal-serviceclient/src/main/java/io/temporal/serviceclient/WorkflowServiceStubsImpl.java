@@ -1,13 +1,18 @@
 package io.temporal.serviceclient;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.grpc.*;
 import io.grpc.health.v1.HealthCheckResponse;
 import io.temporal.api.workflowservice.v1.GetSystemInfoResponse;
 import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
 import io.temporal.internal.testservice.InProcessGRPCServer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -20,6 +25,7 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
   private final WorkflowServiceStubsOptions options;
   private final InProcessGRPCServer inProcessServer;
   private final ChannelManager channelManager;
+  private final @Nullable ScheduledExecutorService hedgingScheduler;
 
   private final WorkflowServiceGrpc.WorkflowServiceBlockingStub blockingStub;
   private final WorkflowServiceGrpc.WorkflowServiceFutureStub futureStub;
@@ -56,12 +62,38 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
     // rpcRetryOptions
     this.options.getRpcRetryOptions().validate();
 
+    RpcHedgingOptions hedgingOptions = this.options.getRpcHedgingOptions();
+    RpcLatencyTracker latencyTracker =
+        hedgingOptions != null
+            ? new RpcLatencyTracker(
+                GrpcHedgingInterceptor.HEDGED_METHODS, hedgingOptions.getMinSamples())
+            : null;
     ClientInterceptor deadlineInterceptor =
         new GrpcDeadlineInterceptor(
-            options.getRpcTimeout(), options.getRpcLongPollTimeout(), options.getRpcQueryTimeout());
+            options.getRpcTimeout(),
+            options.getRpcLongPollTimeout(),
+            options.getRpcQueryTimeout(),
+            latencyTracker,
+            hedgingOptions);
+
+    // the last interceptor is called first, the hedged requests share the deadline of the call
+    List<ClientInterceptor> headInterceptors = new ArrayList<>(2);
+    if (hedgingOptions != null && hedgingOptions.isHedgingEnabled()) {
+      this.hedgingScheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("grpc-hedging-thread-%d")
+                  .build());
+      headInterceptors.add(
+          new GrpcHedgingInterceptor(
+              latencyTracker, hedgingOptions, hedgingScheduler, this.options.getMetricsScope()));
+    } else {
+      this.hedgingScheduler = null;
+    }
+    headInterceptors.add(deadlineInterceptor);
 
-    this.channelManager =
-        new ChannelManager(this.options, Collections.singletonList(deadlineInterceptor));
+    this.channelManager = new ChannelManager(this.options, headInterceptors, null, latencyTracker);
 
     log.info(
         String.format(
@@ -90,6 +122,9 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
   public void shutdown() {
     log.info("shutdown");
     channelManager.shutdown();
+    if (hedgingScheduler != null) {
+      hedgingScheduler.shutdown();
+    }
     if (inProcessServer != null) {
       inProcessServer.shutdown();
     }
@@ -99,6 +134,9 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
   public void shutdownNow() {
     log.info("shutdownNow");
     channelManager.shutdownNow();
+    if (hedgingScheduler != null) {
+      hedgingScheduler.shutdownNow();
+    }
     if (inProcessServer != null) {
       inProcessServer.shutdownNow();
     }
@@ -107,6 +145,9 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
   @Override
   public boolean isShutdown() {
     boolean result = channelManager.isShutdown();
+    if (hedgingScheduler != null) {
+      result = result && hedgingScheduler.isShutdown();
+    }
     if (inProcessServer != null) {
       result = result && inProcessServer.isShutdown();
     }
@@ -116,6 +157,9 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
   @Override
   public boolean isTerminated() {
     boolean result = channelManager.isTerminated();
+    if (hedgingScheduler != null) {
+      result = result && hedgingScheduler.isTerminated();
+    }
     if (inProcessServer != null) {
       result = result && inProcessServer.isTerminated();
     }
@@ -129,6 +173,17 @@ final class WorkflowServiceStubsImpl implements WorkflowServiceStubs {
     if (!channelManager.awaitTermination(timeout, unit)) {
       return false;
     }
+    if (hedgingScheduler != null) {
+      try {
+        long left = deadline - System.currentTimeMillis();
+        if (!hedgingScheduler.awaitTermination(left, TimeUnit.MILLISECONDS)) {
+          return false;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
     if (inProcessServer != null) {
       long left = deadline - System.currentTimeMillis();
       return inProcessServer.awaitTermination(left, TimeUnit.MILLISECONDS);
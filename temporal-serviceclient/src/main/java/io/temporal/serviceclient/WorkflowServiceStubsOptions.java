@@ -37,6 +37,9 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
   /** Retry options for outgoing RPC calls */
   private final RpcRetryOptions rpcRetryOptions;
 
+  /** Hedging and adaptive deadlines of the idempotent read calls, null if disabled */
+  private final RpcHedgingOptions rpcHedgingOptions;
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -54,12 +57,14 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
       boolean disableHealthCheck,
       Duration rpcLongPollTimeout,
       Duration rpcQueryTimeout,
-      RpcRetryOptions rpcRetryOptions) {
+      RpcRetryOptions rpcRetryOptions,
+      RpcHedgingOptions rpcHedgingOptions) {
     super(serviceStubsOptions);
     this.disableHealthCheck = disableHealthCheck;
     this.rpcLongPollTimeout = rpcLongPollTimeout;
     this.rpcQueryTimeout = rpcQueryTimeout;
     this.rpcRetryOptions = rpcRetryOptions;
+    this.rpcHedgingOptions = rpcHedgingOptions;
   }
 
   /**
@@ -97,6 +102,13 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
     return rpcRetryOptions;
   }
 
+  /**
+   * @return hedging and adaptive deadlines options of the idempotent read calls, null if disabled
+   */
+  public RpcHedgingOptions getRpcHedgingOptions() {
+    return rpcHedgingOptions;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -105,12 +117,18 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
     return disableHealthCheck == that.disableHealthCheck
         && Objects.equals(rpcLongPollTimeout, that.rpcLongPollTimeout)
         && Objects.equals(rpcQueryTimeout, that.rpcQueryTimeout)
-        && Objects.equals(rpcRetryOptions, that.rpcRetryOptions);
+        && Objects.equals(rpcRetryOptions, that.rpcRetryOptions)
+        && Objects.equals(rpcHedgingOptions, that.rpcHedgingOptions);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(disableHealthCheck, rpcLongPollTimeout, rpcQueryTimeout, rpcRetryOptions);
+    return Objects.hash(
+        disableHealthCheck,
+        rpcLongPollTimeout,
+        rpcQueryTimeout,
+        rpcRetryOptions,
+        rpcHedgingOptions);
   }
 
   @Override
@@ -124,6 +142,8 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
         + rpcQueryTimeout
         + ", rpcRetryOptions="
         + rpcRetryOptions
+        + ", rpcHedgingOptions="
+        + rpcHedgingOptions
         + '}';
   }
 
@@ -133,6 +153,7 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
     private Duration rpcLongPollTimeout = DEFAULT_POLL_RPC_TIMEOUT;
     private Duration rpcQueryTimeout = DEFAULT_QUERY_RPC_TIMEOUT;
     private RpcRetryOptions rpcRetryOptions = DefaultStubServiceOperationRpcRetryOptions.INSTANCE;
+    private RpcHedgingOptions rpcHedgingOptions;
 
     private Builder() {}
 
@@ -143,6 +164,7 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
         this.rpcLongPollTimeout = castedOptions.rpcLongPollTimeout;
         this.rpcQueryTimeout = castedOptions.rpcQueryTimeout;
         this.rpcRetryOptions = castedOptions.rpcRetryOptions;
+        this.rpcHedgingOptions = castedOptions.rpcHedgingOptions;
       }
     }
 
@@ -240,6 +262,19 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
       return this;
     }
 
+    /**
+     * Enables hedging and adaptive deadlines of the idempotent read calls, like {@code
+     * DescribeWorkflowExecution}, {@code GetWorkflowExecutionHistory}, {@code QueryWorkflow} and
+     * the workflow listing calls. A second request is sent for the calls slower than a percentile
+     * of the recent latencies of their method. See {@link RpcHedgingOptions} for the details.
+     *
+     * <p>Default is null, which disables the hedging and the adaptive deadlines.
+     */
+    public Builder setRpcHedgingOptions(RpcHedgingOptions rpcHedgingOptions) {
+      this.rpcHedgingOptions = rpcHedgingOptions;
+      return this;
+    }
+
     /**
      * Sets the rpc timeout value for query calls. Default is 10 seconds.
      *
@@ -262,7 +297,8 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
           this.disableHealthCheck,
           this.rpcLongPollTimeout,
           this.rpcQueryTimeout,
-          this.rpcRetryOptions);
+          this.rpcRetryOptions,
+          this.rpcHedgingOptions);
     }
 
     public WorkflowServiceStubsOptions validateAndBuildWithDefaults() {
@@ -274,7 +310,8 @@ public final class WorkflowServiceStubsOptions extends ServiceStubsOptions {
           this.disableHealthCheck,
           this.rpcLongPollTimeout,
           this.rpcQueryTimeout,
-          retryOptions);
+          retryOptions,
+          this.rpcHedgingOptions);
     }
   }
 }
@@ -0,0 +1,150 @@
+package io.temporal.serviceclient;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import io.temporal.api.workflowservice.v1.GetSystemInfoRequest;
+import io.temporal.api.workflowservice.v1.GetSystemInfoResponse;
+import io.temporal.api.workflowservice.v1.PollWorkflowTaskQueueRequest;
+import io.temporal.api.workflowservice.v1.PollWorkflowTaskQueueResponse;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc.WorkflowServiceImplBase;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ChannelPoolTest {
+  @Rule public final GrpcCleanupRule grpcCleanupRule = new GrpcCleanupRule();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<AtomicInteger> receivedCalls = new ArrayList<>();
+  private ChannelPool pool;
+
+  /** Each channel of the pool is connected to its own server to see where the calls go. */
+  @Before
+  public void setUp() throws Exception {
+    List<ManagedChannel> channels = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      AtomicInteger received = new AtomicInteger();
+      receivedCalls.add(received);
+      String serverName = InProcessServerBuilder.generateName();
+      grpcCleanupRule.register(
+          InProcessServerBuilder.forName(serverName)
+              .addService(new BlockingWorkflowService(received))
+              .build()
+              .start());
+      channels.add(grpcCleanupRule.register(InProcessChannelBuilder.forName(serverName).build()));
+    }
+    pool = new ChannelPool(channels.subList(0, 2), Collections.singletonList(channels.get(2)));
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void testCallsAreSpreadByOutstandingCalls() throws Exception {
+    WorkflowServiceGrpc.WorkflowServiceFutureStub stub = WorkflowServiceGrpc.newFutureStub(pool);
+    List<ListenableFuture<GetSystemInfoResponse>> calls = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      calls.add(stub.getSystemInfo(GetSystemInfoRequest.getDefaultInstance()));
+    }
+    assertArrayEquals(new int[] {2, 2, 0}, pool.getOutstandingCalls());
+
+    release.countDown();
+    for (ListenableFuture<GetSystemInfoResponse> call : calls) {
+      call.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(2, receivedCalls.get(0).get());
+    assertEquals(2, receivedCalls.get(1).get());
+    assertEquals(0, receivedCalls.get(2).get());
+    assertArrayEquals(new int[] {0, 0, 0}, pool.getOutstandingCalls());
+  }
+
+  @Test
+  public void testLongPollsUseDedicatedChannels() throws Exception {
+    WorkflowServiceGrpc.WorkflowServiceFutureStub stub = WorkflowServiceGrpc.newFutureStub(pool);
+    List<ListenableFuture<PollWorkflowTaskQueueResponse>> polls = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      polls.add(stub.pollWorkflowTaskQueue(PollWorkflowTaskQueueRequest.getDefaultInstance()));
+    }
+    assertArrayEquals(new int[] {0, 0, 3}, pool.getOutstandingCalls());
+
+    // the other calls are not affected by the outstanding long polls
+    ListenableFuture<GetSystemInfoResponse> call =
+        stub.getSystemInfo(GetSystemInfoRequest.getDefaultInstance());
+    assertArrayEquals(new int[] {1, 0, 3}, pool.getOutstandingCalls());
+
+    release.countDown();
+    call.get(10, TimeUnit.SECONDS);
+    for (ListenableFuture<PollWorkflowTaskQueueResponse> poll : polls) {
+      poll.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(1, receivedCalls.get(0).get());
+    assertEquals(3, receivedCalls.get(2).get());
+  }
+
+  @Test
+  public void testCancelledCallsAreNotOutstanding() throws InterruptedException {
+    WorkflowServiceGrpc.WorkflowServiceFutureStub stub = WorkflowServiceGrpc.newFutureStub(pool);
+    ListenableFuture<GetSystemInfoResponse> call =
+        stub.getSystemInfo(GetSystemInfoRequest.getDefaultInstance());
+    assertArrayEquals(new int[] {1, 0, 0}, pool.getOutstandingCalls());
+    call.cancel(true);
+    // the call is closed asynchronously after the cancellation
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (pool.getOutstandingCalls()[0] != 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertArrayEquals(new int[] {0, 0, 0}, pool.getOutstandingCalls());
+  }
+
+  private class BlockingWorkflowService extends WorkflowServiceImplBase {
+    private final AtomicInteger received;
+
+    private BlockingWorkflowService(AtomicInteger received) {
+      this.received = received;
+    }
+
+    @Override
+    public void getSystemInfo(
+        GetSystemInfoRequest request, StreamObserver<GetSystemInfoResponse> responseObserver) {
+      await();
+      responseObserver.onNext(GetSystemInfoResponse.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void pollWorkflowTaskQueue(
+        PollWorkflowTaskQueueRequest request,
+        StreamObserver<PollWorkflowTaskQueueResponse> responseObserver) {
+      await();
+      responseObserver.onNext(PollWorkflowTaskQueueResponse.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+
+    private void await() {
+      received.incrementAndGet();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
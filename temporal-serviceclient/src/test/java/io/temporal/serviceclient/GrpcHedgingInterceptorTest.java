@@ -0,0 +1,346 @@
+package io.temporal.serviceclient;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.uber.m3.tally.Buckets;
+import com.uber.m3.tally.CapableOf;
+import com.uber.m3.tally.Capabilities;
+import com.uber.m3.tally.NoopScope;
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.tally.StatsReporter;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionRequest;
+import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionResponse;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc.WorkflowServiceImplBase;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class GrpcHedgingInterceptorTest {
+  @Rule public final GrpcCleanupRule grpcCleanupRule = new GrpcCleanupRule();
+
+  private final AtomicInteger describeCount = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final RpcLatencyTracker latencyTracker =
+      new RpcLatencyTracker(GrpcHedgingInterceptor.HEDGED_METHODS, 10);
+
+  /** Only the first call is slow, it is blocked until released. */
+  private final WorkflowServiceImplBase workflowImpl =
+      new WorkflowServiceImplBase() {
+        @Override
+        public void describeWorkflowExecution(
+            DescribeWorkflowExecutionRequest request,
+            StreamObserver<DescribeWorkflowExecutionResponse> responseObserver) {
+          if (describeCount.getAndIncrement() == 0) {
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          responseObserver.onNext(DescribeWorkflowExecutionResponse.getDefaultInstance());
+          responseObserver.onCompleted();
+        }
+      };
+
+  private ManagedChannel channel;
+
+  @Before
+  public void setUp() throws Exception {
+    String serverName = InProcessServerBuilder.generateName();
+    grpcCleanupRule.register(
+        InProcessServerBuilder.forName(serverName).addService(workflowImpl).build().start());
+    channel = grpcCleanupRule.register(InProcessChannelBuilder.forName(serverName).build());
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    scheduler.shutdownNow();
+  }
+
+  private void recordLatencies(Duration latency) {
+    for (int i = 0; i < 100; i++) {
+      latencyTracker.record(
+          WorkflowServiceGrpc.getDescribeWorkflowExecutionMethod(), latency.toNanos());
+    }
+  }
+
+  private WorkflowServiceGrpc.WorkflowServiceBlockingStub stub(RpcHedgingOptions options) {
+    Channel intercepted = channel;
+    if (options.isHedgingEnabled()) {
+      intercepted =
+          ClientInterceptors.intercept(
+              intercepted,
+              new GrpcHedgingInterceptor(latencyTracker, options, scheduler, new NoopScope()));
+    }
+    intercepted =
+        ClientInterceptors.intercept(
+            intercepted,
+            new GrpcDeadlineInterceptor(
+                Duration.ofSeconds(10), null, null, latencyTracker, options));
+    return WorkflowServiceGrpc.newBlockingStub(intercepted);
+  }
+
+  @Test
+  public void testSlowCallIsHedged() {
+    recordLatencies(Duration.ofMillis(5));
+    long start = System.nanoTime();
+    stub(RpcHedgingOptions.getDefaultInstance())
+        .describeWorkflowExecution(DescribeWorkflowExecutionRequest.getDefaultInstance());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(2, describeCount.get());
+  }
+
+  @Test
+  public void testCancelledCallIsNotHedged() throws Exception {
+    recordLatencies(Duration.ofMillis(5));
+    // keeps the hedge task to run it after the cancellation, like a timer that already fired and
+    // waits for the lock held by cancel
+    CapturingScheduler capturingScheduler = new CapturingScheduler();
+    AtomicInteger newCalls = new AtomicInteger();
+    ClientInterceptor countingInterceptor =
+        new ClientInterceptor() {
+          @Override
+          public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+              MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            newCalls.incrementAndGet();
+            return next.newCall(method, callOptions);
+          }
+        };
+    Channel intercepted =
+        ClientInterceptors.intercept(
+            ClientInterceptors.intercept(channel, countingInterceptor),
+            new GrpcHedgingInterceptor(
+                latencyTracker,
+                RpcHedgingOptions.getDefaultInstance(),
+                capturingScheduler,
+                new NoopScope()));
+    try {
+      ClientCall<DescribeWorkflowExecutionRequest, DescribeWorkflowExecutionResponse> call =
+          intercepted.newCall(
+              WorkflowServiceGrpc.getDescribeWorkflowExecutionMethod(),
+              CallOptions.DEFAULT.withDeadlineAfter(10, TimeUnit.SECONDS));
+      CompletableFuture<Status> closed = new CompletableFuture<>();
+      call.start(
+          new ClientCall.Listener<DescribeWorkflowExecutionResponse>() {
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+              closed.complete(status);
+            }
+          },
+          new Metadata());
+      call.request(1);
+      call.sendMessage(DescribeWorkflowExecutionRequest.getDefaultInstance());
+      call.halfClose();
+      assertNotNull(capturingScheduler.hedge);
+
+      call.cancel("test", null);
+      capturingScheduler.hedge.run();
+      release.countDown();
+
+      assertEquals(Status.Code.CANCELLED, closed.get(5, TimeUnit.SECONDS).getCode());
+      assertEquals(1, newCalls.get());
+    } finally {
+      capturingScheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testHedgeWinIsNotCountedAsFailure() throws Exception {
+    recordLatencies(Duration.ofMillis(5));
+    CountingStatsReporter reporter = new CountingStatsReporter();
+    Scope metricsScope =
+        new RootScopeBuilder()
+            .reporter(reporter)
+            .reportEvery(com.uber.m3.util.Duration.ofSeconds(10));
+    // counts down after the metrics interceptor handled the close of the request
+    CountDownLatch requestsClosed = new CountDownLatch(2);
+    ClientInterceptor closeInterceptor =
+        new ClientInterceptor() {
+          @Override
+          public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+              MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                next.newCall(method, callOptions)) {
+              @Override
+              public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(
+                    new ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT>(
+                        responseListener) {
+                      @Override
+                      public void onClose(Status status, Metadata trailers) {
+                        super.onClose(status, trailers);
+                        requestsClosed.countDown();
+                      }
+                    },
+                    headers);
+              }
+            };
+          }
+        };
+    Channel intercepted =
+        ClientInterceptors.intercept(
+            channel,
+            closeInterceptor,
+            new GrpcMetricsInterceptor(metricsScope, latencyTracker),
+            new GrpcHedgingInterceptor(
+                latencyTracker, RpcHedgingOptions.getDefaultInstance(), scheduler, metricsScope));
+    WorkflowServiceGrpc.newBlockingStub(intercepted)
+        .withDeadlineAfter(10, TimeUnit.SECONDS)
+        .describeWorkflowExecution(DescribeWorkflowExecutionRequest.getDefaultInstance());
+    assertTrue(requestsClosed.await(5, TimeUnit.SECONDS));
+    metricsScope.close();
+
+    assertEquals(1, reporter.getCount(MetricsType.TEMPORAL_REQUEST_HEDGE_WIN));
+    assertEquals(1, reporter.getCount(MetricsType.TEMPORAL_REQUEST));
+    assertEquals(0, reporter.getCount(MetricsType.TEMPORAL_REQUEST_FAILURE));
+  }
+
+  @Test
+  public void testCallIsNotHedgedWithoutEnoughSamples() {
+    latencyTracker.record(WorkflowServiceGrpc.getDescribeWorkflowExecutionMethod(), 1000);
+    scheduler.schedule(release::countDown, 200, TimeUnit.MILLISECONDS);
+    stub(RpcHedgingOptions.getDefaultInstance())
+        .describeWorkflowExecution(DescribeWorkflowExecutionRequest.getDefaultInstance());
+    assertEquals(1, describeCount.get());
+  }
+
+  @Test
+  public void testAdaptiveDeadline() {
+    recordLatencies(Duration.ofMillis(5));
+    RpcHedgingOptions options =
+        RpcHedgingOptions.newBuilder()
+            .setHedgingEnabled(false)
+            .setAdaptiveDeadlineMultiplier(10)
+            .setMinAdaptiveRpcTimeout(Duration.ofMillis(100))
+            .build();
+    long start = System.nanoTime();
+    try {
+      stub(options)
+          .describeWorkflowExecution(DescribeWorkflowExecutionRequest.getDefaultInstance());
+      fail("unreachable");
+    } catch (StatusRuntimeException e) {
+      assertEquals(Status.Code.DEADLINE_EXCEEDED, e.getStatus().getCode());
+    }
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(1, describeCount.get());
+  }
+
+  @Test
+  public void testPercentile() {
+    RpcLatencyTracker tracker = new RpcLatencyTracker(GrpcHedgingInterceptor.HEDGED_METHODS, 100);
+    for (int i = 1; i <= 99; i++) {
+      tracker.record(WorkflowServiceGrpc.getQueryWorkflowMethod(), i);
+    }
+    assertEquals(-1, tracker.getPercentile(WorkflowServiceGrpc.getQueryWorkflowMethod(), 0.5));
+    tracker.record(WorkflowServiceGrpc.getQueryWorkflowMethod(), 100);
+    // the snapshot is refreshed every 32 records
+    for (int i = 0; i < 28; i++) {
+      tracker.record(WorkflowServiceGrpc.getQueryWorkflowMethod(), 1000);
+    }
+    assertEquals(1000, tracker.getPercentile(WorkflowServiceGrpc.getQueryWorkflowMethod(), 0.95));
+    assertEquals(64, tracker.getPercentile(WorkflowServiceGrpc.getQueryWorkflowMethod(), 0.5));
+    assertEquals(
+        -1, tracker.getPercentile(WorkflowServiceGrpc.getStartWorkflowExecutionMethod(), 0.5));
+  }
+
+  /** Sums the reported counters by name. */
+  private static class CountingStatsReporter implements StatsReporter {
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+
+    long getCount(String name) {
+      return counters.getOrDefault(name, 0L);
+    }
+
+    @Override
+    public void reportCounter(String name, Map<String, String> tags, long value) {
+      counters.merge(name, value, Long::sum);
+    }
+
+    @Override
+    public void reportGauge(String name, Map<String, String> tags, double value) {}
+
+    @Override
+    public void reportTimer(
+        String name, Map<String, String> tags, com.uber.m3.util.Duration interval) {}
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void reportHistogramValueSamples(
+        String name,
+        Map<String, String> tags,
+        Buckets buckets,
+        double bucketLowerBound,
+        double bucketUpperBound,
+        long samples) {}
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void reportHistogramDurationSamples(
+        String name,
+        Map<String, String> tags,
+        Buckets buckets,
+        com.uber.m3.util.Duration bucketLowerBound,
+        com.uber.m3.util.Duration bucketUpperBound,
+        long samples) {}
+
+    @Override
+    public Capabilities capabilities() {
+      return CapableOf.REPORTING;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private static class CapturingScheduler extends ScheduledThreadPoolExecutor {
+    private volatile Runnable hedge;
+
+    CapturingScheduler() {
+      super(1);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      hedge = command;
+      return super.schedule(() -> {}, delay, unit);
+    }
+  }
+}
@@ -26,7 +26,7 @@ public class TestServicesStarter implements Closeable {
   public TestServicesStarter(boolean lockTimeSkipping, long initialTimeMillis) {
     this.selfAdvancingTimer =
         new SelfAdvancingTimerImpl(initialTimeMillis, Clock.systemDefaultZone());
-    this.workflowStore = new TestWorkflowStoreImpl(this.selfAdvancingTimer);
+    this.workflowStore = new TestWorkflowStoreImpl(this.selfAdvancingTimer, this.visibilityStore);
     this.operatorService = new TestOperatorService(this.visibilityStore, this.nexusEndpointStore);
     this.testService =
         new TestService(this.workflowStore, this.selfAdvancingTimer, lockTimeSkipping);
@@ -1,8 +1,13 @@
 package io.temporal.internal.testservice;
 
+import com.google.protobuf.ByteString;
 import io.temporal.api.common.v1.SearchAttributes;
 import io.temporal.api.enums.v1.IndexedValueType;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.workflowservice.v1.CountWorkflowExecutionsResponse;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
 import java.io.Closeable;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
 
@@ -20,6 +25,18 @@ public interface TestVisibilityStore extends Closeable {
 
   void validateSearchAttributes(SearchAttributes searchAttributes);
 
+  /** Updates the visibility record of the execution with the events appended to its history. */
+  void recordHistoryEvents(ExecutionId executionId, List<HistoryEvent> events);
+
+  /**
+   * @param query visibility query, all the executions of the namespace are listed if empty
+   * @param nextPageToken token of the previous page, empty for the first page
+   */
+  ListWorkflowExecutionsResponse listWorkflowExecutions(
+      String namespace, String query, int pageSize, ByteString nextPageToken);
+
+  CountWorkflowExecutionsResponse countWorkflowExecutions(String namespace, String query);
+
   @Override
   void close();
 }
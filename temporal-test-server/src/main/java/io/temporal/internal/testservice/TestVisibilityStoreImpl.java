@@ -1,13 +1,18 @@
 package io.temporal.internal.testservice;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
 import io.grpc.Status;
 import io.temporal.api.common.v1.Payload;
 import io.temporal.api.common.v1.SearchAttributes;
 import io.temporal.api.enums.v1.IndexedValueType;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.workflowservice.v1.CountWorkflowExecutionsResponse;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
 import io.temporal.internal.common.ProtoEnumNameUtils;
 import io.temporal.internal.common.SearchAttributesUtil;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
@@ -39,6 +44,8 @@ class TestVisibilityStoreImpl implements TestVisibilityStore {
   private final Map<ExecutionId, SearchAttributes> executionSearchAttributes =
       new ConcurrentHashMap<>();
 
+  private final VisibilityIndex index = new VisibilityIndex(searchAttributes);
+
   @Override
   public void addSearchAttribute(String name, IndexedValueType type) {
     if (type == IndexedValueType.INDEXED_VALUE_TYPE_UNSPECIFIED) {
@@ -78,12 +85,16 @@ class TestVisibilityStoreImpl implements TestVisibilityStore {
     validateSearchAttributes(searchAttributes);
     return executionSearchAttributes.compute(
         executionId,
-        (key, value) ->
-            value == null
-                ? searchAttributes
-                : value.toBuilder()
-                    .putAllIndexedFields(searchAttributes.getIndexedFieldsMap())
-                    .build());
+        (key, value) -> {
+          SearchAttributes result =
+              value == null
+                  ? searchAttributes
+                  : value.toBuilder()
+                      .putAllIndexedFields(searchAttributes.getIndexedFieldsMap())
+                      .build();
+          index.recordSearchAttributes(executionId, result);
+          return result;
+        });
   }
 
   @Override
@@ -116,6 +127,44 @@ class TestVisibilityStoreImpl implements TestVisibilityStore {
     }
   }
 
+  @Override
+  public void recordHistoryEvents(ExecutionId executionId, List<HistoryEvent> events) {
+    index.recordEvents(executionId, events);
+  }
+
+  @Override
+  public ListWorkflowExecutionsResponse listWorkflowExecutions(
+      String namespace, String query, int pageSize, ByteString nextPageToken) {
+    VisibilityIndex.Page page =
+        index.list(namespace, VisibilityQuery.parse(query), pageSize, nextPageToken);
+    return ListWorkflowExecutionsResponse.newBuilder()
+        .addAllExecutions(page.getExecutions())
+        .setNextPageToken(page.getNextPageToken())
+        .build();
+  }
+
+  @Override
+  public CountWorkflowExecutionsResponse countWorkflowExecutions(String namespace, String query) {
+    VisibilityQuery parsed = VisibilityQuery.parse(query);
+    Map<Object, Long> groups = index.count(namespace, parsed);
+    CountWorkflowExecutionsResponse.Builder response = CountWorkflowExecutionsResponse.newBuilder();
+    long count = 0;
+    for (Map.Entry<Object, Long> group : groups.entrySet()) {
+      count += group.getValue();
+      if (parsed.getGroupBy() != null) {
+        Payload value =
+            SearchAttributesUtil.encode(
+                    Collections.singletonMap(parsed.getGroupBy(), group.getKey()))
+                .getIndexedFieldsOrThrow(parsed.getGroupBy());
+        response.addGroups(
+            CountWorkflowExecutionsResponse.AggregationGroup.newBuilder()
+                .addGroupValues(value)
+                .setCount(group.getValue()));
+      }
+    }
+    return response.setCount(count).build();
+  }
+
   @Override
   public void close() {}
 }
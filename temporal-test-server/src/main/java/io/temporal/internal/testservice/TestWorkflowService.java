@@ -74,6 +74,9 @@ public final class TestWorkflowService extends WorkflowServiceGrpc.WorkflowServi
 
   private static final String FAILURE_TYPE_STRING = Failure.getDescriptor().getFullName();
 
+  /** Page size of the visibility calls if the request doesn't have it or asks for more */
+  private static final int MAX_VISIBILITY_PAGE_SIZE = 1000;
+
   private final Map<ExecutionId, TestWorkflowMutableState> executions = new HashMap<>();
   // key->WorkflowId
   private final Map<WorkflowId, TestWorkflowMutableState> executionsByWorkflowId = new HashMap<>();
@@ -1640,6 +1643,67 @@ public final class TestWorkflowService extends WorkflowServiceGrpc.WorkflowServi
     }
   }
 
+  @Override
+  public void listWorkflowExecutions(
+      ListWorkflowExecutionsRequest listRequest,
+      StreamObserver<ListWorkflowExecutionsResponse> responseObserver) {
+    try {
+      ListWorkflowExecutionsResponse response =
+          visibilityStore.listWorkflowExecutions(
+              listRequest.getNamespace(),
+              listRequest.getQuery(),
+              getVisibilityPageSize(listRequest.getPageSize()),
+              listRequest.getNextPageToken());
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    } catch (StatusRuntimeException e) {
+      handleStatusRuntimeException(e, responseObserver);
+    }
+  }
+
+  @Override
+  public void scanWorkflowExecutions(
+      ScanWorkflowExecutionsRequest scanRequest,
+      StreamObserver<ScanWorkflowExecutionsResponse> responseObserver) {
+    try {
+      // the executions are scanned in the same order as listed
+      ListWorkflowExecutionsResponse response =
+          visibilityStore.listWorkflowExecutions(
+              scanRequest.getNamespace(),
+              scanRequest.getQuery(),
+              getVisibilityPageSize(scanRequest.getPageSize()),
+              scanRequest.getNextPageToken());
+      responseObserver.onNext(
+          ScanWorkflowExecutionsResponse.newBuilder()
+              .addAllExecutions(response.getExecutionsList())
+              .setNextPageToken(response.getNextPageToken())
+              .build());
+      responseObserver.onCompleted();
+    } catch (StatusRuntimeException e) {
+      handleStatusRuntimeException(e, responseObserver);
+    }
+  }
+
+  @Override
+  public void countWorkflowExecutions(
+      CountWorkflowExecutionsRequest countRequest,
+      StreamObserver<CountWorkflowExecutionsResponse> responseObserver) {
+    try {
+      responseObserver.onNext(
+          visibilityStore.countWorkflowExecutions(
+              countRequest.getNamespace(), countRequest.getQuery()));
+      responseObserver.onCompleted();
+    } catch (StatusRuntimeException e) {
+      handleStatusRuntimeException(e, responseObserver);
+    }
+  }
+
+  private static int getVisibilityPageSize(int requestedPageSize) {
+    return requestedPageSize <= 0 || requestedPageSize > MAX_VISIBILITY_PAGE_SIZE
+        ? MAX_VISIBILITY_PAGE_SIZE
+        : requestedPageSize;
+  }
+
   @Override
   public void respondQueryTaskCompleted(
       RespondQueryTaskCompletedRequest completeRequest,
@@ -2044,8 +2108,8 @@ public final class TestWorkflowService extends WorkflowServiceGrpc.WorkflowServi
   private TestWorkflowService(long initialTimeMillis, boolean startInProcessServer) {
     this.selfAdvancingTimer =
         new SelfAdvancingTimerImpl(initialTimeMillis, Clock.systemDefaultZone());
-    store = new TestWorkflowStoreImpl(this.selfAdvancingTimer);
     visibilityStore = new TestVisibilityStoreImpl();
+    store = new TestWorkflowStoreImpl(this.selfAdvancingTimer, visibilityStore);
     nexusEndpointStore = new TestNexusEndpointStoreImpl();
     outOfProcessServer = null;
     if (startInProcessServer) {
@@ -2082,8 +2146,8 @@ public final class TestWorkflowService extends WorkflowServiceGrpc.WorkflowServi
     inProcessServer = null;
     workflowServiceStubs = null;
     this.selfAdvancingTimer = new SelfAdvancingTimerImpl(0, Clock.systemDefaultZone());
-    store = new TestWorkflowStoreImpl(selfAdvancingTimer);
     visibilityStore = new TestVisibilityStoreImpl();
+    store = new TestWorkflowStoreImpl(selfAdvancingTimer, visibilityStore);
     nexusEndpointStore = new TestNexusEndpointStoreImpl();
     try {
       ServerBuilder<?> serverBuilder =
@@ -23,11 +23,11 @@ import io.temporal.internal.testservice.RequestContext.Timer;
 import io.temporal.workflow.Functions;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -37,18 +37,23 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Each history is guarded by its own lock and the task queues are looked up without locking, so
+ * the executions are stored and their tasks are dispatched in parallel. {@link TaskQueue} and
+ * {@link SelfAdvancingTimer} are synchronized internally.
+ */
 class TestWorkflowStoreImpl implements TestWorkflowStore {
 
   private static final Logger log = LoggerFactory.getLogger(TestWorkflowStoreImpl.class);
 
-  private final Lock lock = new ReentrantLock();
-  private final Map<ExecutionId, HistoryStore> histories = new HashMap<>();
+  private final Map<ExecutionId, HistoryStore> histories = new ConcurrentHashMap<>();
   private final Map<TaskQueueId, TaskQueue<PollActivityTaskQueueResponse.Builder>>
-      activityTaskQueues = new HashMap<>();
+      activityTaskQueues = new ConcurrentHashMap<>();
   private final Map<TaskQueueId, TaskQueue<PollWorkflowTaskQueueResponse.Builder>>
-      workflowTaskQueues = new HashMap<>();
-  private final Map<TaskQueueId, TaskQueue<NexusTask>> nexusTaskQueues = new HashMap<>();
+      workflowTaskQueues = new ConcurrentHashMap<>();
+  private final Map<TaskQueueId, TaskQueue<NexusTask>> nexusTaskQueues = new ConcurrentHashMap<>();
   private final SelfAdvancingTimer selfAdvancingTimer;
+  private final TestVisibilityStore visibilityStore;
 
   private static class HistoryStore {
 
@@ -58,9 +63,9 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
     private final List<HistoryEvent> history = new ArrayList<>();
     private boolean completed;
 
-    private HistoryStore(ExecutionId id, Lock lock) {
+    private HistoryStore(ExecutionId id) {
       this.id = id;
-      this.lock = lock;
+      this.lock = new ReentrantLock();
       this.newEventsCondition = lock.newCondition();
     }
 
@@ -150,8 +155,10 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
     }
   }
 
-  public TestWorkflowStoreImpl(SelfAdvancingTimer selfAdvancingTimer) {
+  public TestWorkflowStoreImpl(
+      SelfAdvancingTimer selfAdvancingTimer, TestVisibilityStore visibilityStore) {
     this.selfAdvancingTimer = selfAdvancingTimer;
+    this.visibilityStore = visibilityStore;
   }
 
   @Override
@@ -162,21 +169,22 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
   @Override
   public long save(RequestContext ctx) {
     long result;
-    lock.lock();
-    try {
-      ExecutionId executionId = ctx.getExecutionId();
-      HistoryStore history = histories.get(executionId);
-      List<HistoryEvent> events = ctx.getEvents();
-      if (history == null) {
-        if (events.isEmpty()
-            || events.get(0).getEventType() != EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED) {
-          throw new IllegalStateException("No history found for " + executionId);
-        }
-        history = new HistoryStore(executionId, lock);
-        histories.put(executionId, history);
+    ExecutionId executionId = ctx.getExecutionId();
+    List<HistoryEvent> events = ctx.getEvents();
+    HistoryStore history = histories.get(executionId);
+    if (history == null) {
+      if (events.isEmpty()
+          || events.get(0).getEventType() != EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED) {
+        throw new IllegalStateException("No history found for " + executionId);
       }
+      history = histories.computeIfAbsent(executionId, HistoryStore::new);
+    }
+    history.lock.lock();
+    try {
       history.checkNextEventId(ctx.getInitialEventId());
       List<HistoryEvent> newEvents = history.addAllLocked(events, ctx.currentTime());
+      // under the lock to index the events of an execution in the order they are added
+      visibilityStore.recordHistoryEvents(executionId, newEvents);
       result = history.getNextEventIdLocked();
       selfAdvancingTimer.updateLocks(ctx.getTimerLocks());
       ctx.fireCallbacks(history.getEventsLocked().size());
@@ -190,7 +198,7 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
         }
       }
     } finally {
-      lock.unlock();
+      history.lock.unlock();
     }
     // Push tasks to the queues out of locks
     WorkflowTask workflowTask = ctx.getWorkflowTaskForMatching();
@@ -245,12 +253,7 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
 
   @Override
   public void applyTimersAndLocks(RequestContext ctx) {
-    lock.lock();
-    try {
-      selfAdvancingTimer.updateLocks(ctx.getTimerLocks());
-    } finally {
-      lock.unlock();
-    }
+    selfAdvancingTimer.updateLocks(ctx.getTimerLocks());
 
     List<Timer> timers = ctx.getTimers();
     if (timers != null) {
@@ -271,48 +274,25 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
 
   private TaskQueue<PollActivityTaskQueueResponse.Builder> getActivityTaskQueueQueue(
       TaskQueueId taskQueueId) {
-    lock.lock();
-    try {
-      TaskQueue<PollActivityTaskQueueResponse.Builder> activityTaskQueue =
-          activityTaskQueues.get(taskQueueId);
-      if (activityTaskQueue == null) {
-        activityTaskQueue = new TaskQueue<>();
-        activityTaskQueues.put(taskQueueId, activityTaskQueue);
-      }
-      return activityTaskQueue;
-    } finally {
-      lock.unlock();
-    }
+    return getTaskQueue(activityTaskQueues, taskQueueId);
   }
 
   private TaskQueue<PollWorkflowTaskQueueResponse.Builder> getWorkflowTaskQueueQueue(
       TaskQueueId taskQueueId) {
-    lock.lock();
-    try {
-      TaskQueue<PollWorkflowTaskQueueResponse.Builder> workflowTaskQueue =
-          workflowTaskQueues.get(taskQueueId);
-      if (workflowTaskQueue == null) {
-        workflowTaskQueue = new TaskQueue<>();
-        workflowTaskQueues.put(taskQueueId, workflowTaskQueue);
-      }
-      return workflowTaskQueue;
-    } finally {
-      lock.unlock();
-    }
+    return getTaskQueue(workflowTaskQueues, taskQueueId);
   }
 
   private TaskQueue<NexusTask> getNexusTaskQueueQueue(TaskQueueId taskQueueId) {
-    lock.lock();
-    try {
-      TaskQueue<NexusTask> nexusTaskQueue = nexusTaskQueues.get(taskQueueId);
-      if (nexusTaskQueue == null) {
-        nexusTaskQueue = new TaskQueue<>();
-        nexusTaskQueues.put(taskQueueId, nexusTaskQueue);
-      }
-      return nexusTaskQueue;
-    } finally {
-      lock.unlock();
-    }
+    return getTaskQueue(nexusTaskQueues, taskQueueId);
+  }
+
+  private static <E> TaskQueue<E> getTaskQueue(
+      Map<TaskQueueId, TaskQueue<E>> taskQueues, TaskQueueId taskQueueId) {
+    // get first to avoid the locking of computeIfAbsent on the hot path of the existing queues
+    TaskQueue<E> taskQueue = taskQueues.get(taskQueueId);
+    return taskQueue != null
+        ? taskQueue
+        : taskQueues.computeIfAbsent(taskQueueId, id -> new TaskQueue<>());
   }
 
   @Override
@@ -344,9 +324,9 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
       TaskQueueId taskQueue,
       PollWorkflowTaskQueueResponse.Builder task,
       Priority priority) {
-    lock.lock();
+    HistoryStore historyStore = getHistoryStore(executionId);
+    historyStore.lock.lock();
     try {
-      HistoryStore historyStore = getHistoryStore(executionId);
       List<HistoryEvent> events = new ArrayList<>(historyStore.getEventsLocked());
       History.Builder history = History.newBuilder();
       PeekingIterator<HistoryEvent> iterator = Iterators.peekingIterator(events.iterator());
@@ -377,7 +357,7 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
       }
       task.setHistory(history);
     } finally {
-      lock.unlock();
+      historyStore.lock.unlock();
     }
     TaskQueue<PollWorkflowTaskQueueResponse.Builder> workflowTaskQueue =
         getWorkflowTaskQueueQueue(taskQueue);
@@ -389,12 +369,11 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
       ExecutionId executionId,
       GetWorkflowExecutionHistoryRequest getRequest,
       Deadline deadlineToReturnEmptyResponse) {
-    HistoryStore history;
+    HistoryStore history = getHistoryStore(executionId);
     // Used to eliminate the race condition on waitForNewEvents
     long expectedNextEventId;
-    lock.lock();
+    history.lock.lock();
     try {
-      history = getHistoryStore(executionId);
       if (!getRequest.getWaitNewEvent()) {
         List<HistoryEvent> events = history.getEventsLocked();
         // Copy the list as it is mutable. Individual events assumed immutable.
@@ -418,7 +397,7 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
       }
       expectedNextEventId = history.getNextEventIdLocked();
     } finally {
-      lock.unlock();
+      history.lock.unlock();
     }
     List<HistoryEvent> events =
         history.waitForNewEvents(
@@ -450,21 +429,20 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
   @Override
   public void getDiagnostics(StringBuilder result) {
     result.append("Stored Workflows:\n");
-    lock.lock();
-    try {
-      {
-        for (Entry<ExecutionId, HistoryStore> entry : this.histories.entrySet()) {
-          result.append(entry.getKey());
-          result.append("\n\n");
-          result.append(
-              new WorkflowExecutionHistory(
-                      History.newBuilder().addAllEvents(entry.getValue().getEventsLocked()).build())
-                  .toProtoText(true));
-          result.append("\n");
-        }
+    for (Entry<ExecutionId, HistoryStore> entry : this.histories.entrySet()) {
+      HistoryStore historyStore = entry.getValue();
+      historyStore.lock.lock();
+      try {
+        result.append(entry.getKey());
+        result.append("\n\n");
+        result.append(
+            new WorkflowExecutionHistory(
+                    History.newBuilder().addAllEvents(historyStore.getEventsLocked()).build())
+                .toProtoText(true));
+        result.append("\n");
+      } finally {
+        historyStore.lock.unlock();
       }
-    } finally {
-      lock.unlock();
     }
     // Uncomment to troubleshoot time skipping issues.
     //    timerService.getDiagnostics(result);
@@ -481,21 +459,27 @@ class TestWorkflowStoreImpl implements TestWorkflowStore {
         continue;
       }
 
-      if (state == WorkflowState.OPEN) {
-        if (entry.getValue().isCompleted()) {
-          continue;
-        }
-        result.add(
-            constructWorkflowExecutionInfo(
-                entry, executionId, WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_RUNNING));
-      } else {
-        if (!entry.getValue().isCompleted()) {
-          continue;
+      HistoryStore historyStore = entry.getValue();
+      historyStore.lock.lock();
+      try {
+        if (state == WorkflowState.OPEN) {
+          if (historyStore.isCompleted()) {
+            continue;
+          }
+          result.add(
+              constructWorkflowExecutionInfo(
+                  entry, executionId, WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_RUNNING));
+        } else {
+          if (!historyStore.isCompleted()) {
+            continue;
+          }
+          List<HistoryEvent> history = historyStore.getHistory();
+          WorkflowExecutionStatus status =
+              WorkflowExecutionUtils.getCloseStatus(history.get(history.size() - 1));
+          result.add(constructWorkflowExecutionInfo(entry, executionId, status));
         }
-        List<HistoryEvent> history = entry.getValue().getHistory();
-        WorkflowExecutionStatus status =
-            WorkflowExecutionUtils.getCloseStatus(history.get(history.size() - 1));
-        result.add(constructWorkflowExecutionInfo(entry, executionId, status));
+      } finally {
+        historyStore.lock.unlock();
       }
     }
     return result;
@@ -0,0 +1,873 @@
+package io.temporal.internal.testservice;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.grpc.Status;
+import io.temporal.api.common.v1.Memo;
+import io.temporal.api.common.v1.SearchAttributes;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.common.v1.WorkflowType;
+import io.temporal.api.enums.v1.EventType;
+import io.temporal.api.enums.v1.IndexedValueType;
+import io.temporal.api.enums.v1.WorkflowExecutionStatus;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.api.history.v1.WorkflowExecutionStartedEventAttributes;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import io.temporal.internal.common.ProtoEnumNameUtils;
+import io.temporal.internal.common.SearchAttributesUtil;
+import io.temporal.internal.common.WorkflowExecutionUtils;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * In-memory inverted index of the workflow executions over their built-in visibility fields and
+ * search attributes. Every indexed value of a field points to the set of the executions that have
+ * it, the values are kept sorted to answer the range and prefix conditions without scanning all
+ * the executions.
+ */
+final class VisibilityIndex {
+  static final String WORKFLOW_ID = "WorkflowId";
+  static final String RUN_ID = "RunId";
+  static final String WORKFLOW_TYPE = "WorkflowType";
+  static final String EXECUTION_STATUS = "ExecutionStatus";
+  static final String TASK_QUEUE = "TaskQueue";
+  static final String START_TIME = "StartTime";
+  static final String CLOSE_TIME = "CloseTime";
+  static final String EXECUTION_TIME = "ExecutionTime";
+  static final String HISTORY_LENGTH = "HistoryLength";
+
+  static final Map<String, IndexedValueType> BUILT_IN_FIELDS =
+      ImmutableMap.<String, IndexedValueType>builder()
+          .put(WORKFLOW_ID, IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD)
+          .put(RUN_ID, IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD)
+          .put(WORKFLOW_TYPE, IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD)
+          .put(EXECUTION_STATUS, IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD)
+          .put(TASK_QUEUE, IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD)
+          .put(START_TIME, IndexedValueType.INDEXED_VALUE_TYPE_DATETIME)
+          .put(CLOSE_TIME, IndexedValueType.INDEXED_VALUE_TYPE_DATETIME)
+          .put(EXECUTION_TIME, IndexedValueType.INDEXED_VALUE_TYPE_DATETIME)
+          .put(HISTORY_LENGTH, IndexedValueType.INDEXED_VALUE_TYPE_INT)
+          .build();
+
+  private static final String EXECUTION_STATUS_PREFIX = "WORKFLOW_EXECUTION_STATUS_";
+  private static final Pattern TEXT_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final Map<String, IndexedValueType> searchAttributes;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, NamespaceIndex> namespaces = new HashMap<>();
+
+  /**
+   * @param searchAttributes registered search attributes, the custom search attributes are indexed
+   *     according to their types in this map
+   */
+  VisibilityIndex(Map<String, IndexedValueType> searchAttributes) {
+    this.searchAttributes = searchAttributes;
+  }
+
+  /** Updates the visibility record of the execution with the events appended to its history. */
+  void recordEvents(ExecutionId executionId, List<HistoryEvent> events) {
+    if (!hasStartedOrClosedEvent(events)) {
+      // most of the events change only the history length, which is counted without the exclusive
+      // lock, so the executions record their events in parallel
+      lock.readLock().lock();
+      try {
+        NamespaceIndex index = namespaces.get(executionId.getNamespace());
+        Record record = index == null ? null : index.records.get(executionId);
+        if (record != null) {
+          record.historyLength.addAndGet(events.size());
+          return;
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+    lock.writeLock().lock();
+    try {
+      NamespaceIndex index = getNamespaceIndex(executionId.getNamespace());
+      Record record = index.getOrCreateRecord(executionId);
+      record.historyLength.addAndGet(events.size());
+      for (HistoryEvent event : events) {
+        if (event.getEventType() == EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED) {
+          WorkflowExecutionStartedEventAttributes attributes =
+              event.getWorkflowExecutionStartedEventAttributes();
+          record.type = attributes.getWorkflowType();
+          record.taskQueue = attributes.getTaskQueue().getName();
+          record.memo = attributes.getMemo();
+          record.startTime = event.getEventTime();
+          record.executionTime =
+              attributes.hasFirstWorkflowTaskBackoff()
+                  ? Timestamps.add(event.getEventTime(), attributes.getFirstWorkflowTaskBackoff())
+                  : event.getEventTime();
+          if (attributes.hasParentWorkflowExecution()) {
+            record.parentNamespaceId = attributes.getParentWorkflowNamespaceId();
+            record.parentExecution = attributes.getParentWorkflowExecution();
+          }
+          record.status = WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_RUNNING;
+        } else if (WorkflowExecutionUtils.isWorkflowExecutionClosedEvent(event)) {
+          record.status = WorkflowExecutionUtils.getCloseStatus(event);
+          record.closeTime = event.getEventTime();
+        }
+      }
+      index.reindexBuiltInFields(record);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static boolean hasStartedOrClosedEvent(List<HistoryEvent> events) {
+    for (HistoryEvent event : events) {
+      if (event.getEventType() == EventType.EVENT_TYPE_WORKFLOW_EXECUTION_STARTED
+          || WorkflowExecutionUtils.isWorkflowExecutionClosedEvent(event)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Replaces the indexed search attributes of the execution. */
+  void recordSearchAttributes(ExecutionId executionId, SearchAttributes attributes) {
+    lock.writeLock().lock();
+    try {
+      NamespaceIndex index = getNamespaceIndex(executionId.getNamespace());
+      Record record = index.getOrCreateRecord(executionId);
+      record.searchAttributes = attributes;
+      Map<String, List<Comparable<?>>> values = new HashMap<>();
+      for (String name : attributes.getIndexedFieldsMap().keySet()) {
+        IndexedValueType type = searchAttributes.get(name);
+        if (type == null || BUILT_IN_FIELDS.containsKey(name)) {
+          continue;
+        }
+        List<?> decoded = SearchAttributesUtil.decodeAsType(attributes, name, type);
+        if (decoded != null) {
+          values.put(name, toIndexedValues(type, decoded));
+        }
+      }
+      index.reindexSearchAttributes(record, values);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param nextPageToken token of the previous page, empty for the first page
+   * @return the page of the matching executions in the order of the query
+   */
+  Page list(String namespace, VisibilityQuery query, int pageSize, ByteString nextPageToken) {
+    if (query.getGroupBy() != null) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription("GROUP BY is supported only by CountWorkflowExecutions")
+          .asRuntimeException();
+    }
+    SortOrder order = toSortOrder(query.getOrderBy());
+    // the token is the sort key of the last execution of the previous page
+    List<Comparable<Object>> after =
+        nextPageToken.isEmpty() ? null : order.decodeKey(nextPageToken);
+    lock.readLock().lock();
+    try {
+      NamespaceIndex index = namespaces.get(namespace);
+      if (index == null) {
+        return new Page(Collections.emptyList(), ByteString.EMPTY);
+      }
+      List<Record> matching = new ArrayList<>();
+      try {
+        for (ExecutionId executionId : index.evaluate(query.getFilter())) {
+          Record record = index.records.get(executionId);
+          if (after == null || order.compareKeys(order.keyOf(record), after) > 0) {
+            matching.add(record);
+          }
+        }
+      } catch (ClassCastException e) {
+        // the token was issued for a query sorted by fields of other types
+        throw Status.INVALID_ARGUMENT
+            .withDescription("invalid next page token")
+            .asRuntimeException();
+      }
+      matching.sort(order);
+      // the records after the key of the last one of the previous page are returned, so the pages
+      // don't shift when the executions are started or closed between the calls, even the last one
+      List<Record> page = matching.subList(0, Math.min(pageSize, matching.size()));
+      List<WorkflowExecutionInfo> executions =
+          page.stream().map(Record::toExecutionInfo).collect(Collectors.toList());
+      ByteString token =
+          matching.size() > pageSize
+              ? order.encodeKey(order.keyOf(page.get(page.size() - 1)))
+              : ByteString.EMPTY;
+      return new Page(executions, token);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return number of the matching executions in each of the groups of the GROUP BY field in the
+   *     descending order of the counts, a single group with null value if the query doesn't have
+   *     GROUP BY
+   */
+  Map<Object, Long> count(String namespace, VisibilityQuery query) {
+    String groupBy = query.getGroupBy();
+    if (groupBy != null && !groupBy.equals(EXECUTION_STATUS)) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription("GROUP BY is supported only by " + EXECUTION_STATUS + " field")
+          .asRuntimeException();
+    }
+    if (!query.getOrderBy().isEmpty()) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription("ORDER BY is not supported by CountWorkflowExecutions")
+          .asRuntimeException();
+    }
+    lock.readLock().lock();
+    try {
+      NamespaceIndex index = namespaces.get(namespace);
+      Set<ExecutionId> matching =
+          index == null ? Collections.emptySet() : index.evaluate(query.getFilter());
+      Map<Object, Long> result = new LinkedHashMap<>();
+      if (groupBy == null) {
+        result.put(null, (long) matching.size());
+        return result;
+      }
+      Map<Object, Long> groups = new HashMap<>();
+      for (ExecutionId executionId : matching) {
+        groups.merge(index.records.get(executionId).getStatusName(), 1L, Long::sum);
+      }
+      groups.entrySet().stream()
+          .sorted(Map.Entry.<Object, Long>comparingByValue().reversed())
+          .forEach(e -> result.put(e.getKey(), e.getValue()));
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  static final class Page {
+    private final List<WorkflowExecutionInfo> executions;
+    private final ByteString nextPageToken;
+
+    private Page(List<WorkflowExecutionInfo> executions, ByteString nextPageToken) {
+      this.executions = executions;
+      this.nextPageToken = nextPageToken;
+    }
+
+    List<WorkflowExecutionInfo> getExecutions() {
+      return executions;
+    }
+
+    ByteString getNextPageToken() {
+      return nextPageToken;
+    }
+  }
+
+  private NamespaceIndex getNamespaceIndex(String namespace) {
+    return namespaces.computeIfAbsent(namespace, n -> new NamespaceIndex());
+  }
+
+  private IndexedValueType getType(String name) {
+    IndexedValueType type = BUILT_IN_FIELDS.get(name);
+    if (type == null) {
+      type = searchAttributes.get(name);
+    }
+    if (type == null) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription("search attribute " + name + " is not defined")
+          .asRuntimeException();
+    }
+    return type;
+  }
+
+  private SortOrder toSortOrder(List<VisibilityQuery.OrderBy> orderBy) {
+    SortOrder result = new SortOrder();
+    if (orderBy.isEmpty()) {
+      // the default order of the server: running executions first, then by close time, start
+      // time and run id, all descending
+      result.add(
+          r -> r.closeTime == null ? null : asComparable(toInstant(r.closeTime)),
+          Comparator.nullsFirst(Comparator.reverseOrder()));
+      result.add(r -> asComparable(toInstant(r.startTime)), Comparator.reverseOrder());
+      result.add(r -> asComparable(r.getRunId()), Comparator.reverseOrder());
+      return result;
+    }
+    for (VisibilityQuery.OrderBy field : orderBy) {
+      String name = field.getName();
+      IndexedValueType type = getType(name);
+      if (type == IndexedValueType.INDEXED_VALUE_TYPE_TEXT
+          || type == IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD_LIST) {
+        throw Status.INVALID_ARGUMENT
+            .withDescription("unable to sort by field of " + type + " type: " + name)
+            .asRuntimeException();
+      }
+      Comparator<Comparable<Object>> valueOrder =
+          field.isDescending() ? Comparator.reverseOrder() : Comparator.naturalOrder();
+      // the executions without the field go last in both directions
+      result.add(r -> r.getSortValue(name), Comparator.nullsLast(valueOrder));
+    }
+    result.add(r -> asComparable(r.getRunId()), Comparator.naturalOrder());
+    return result;
+  }
+
+  private Set<ExecutionId> evaluateComparison(
+      NamespaceIndex index, VisibilityQuery.Comparison comparison) {
+    String name = comparison.getName();
+    IndexedValueType type = getType(name);
+    Posting posting =
+        name.equals(HISTORY_LENGTH) ? index.scanHistoryLengths() : index.postings.get(name);
+    if (posting != null && posting.type != type) {
+      // the search attribute was registered again with a different type
+      posting = null;
+    }
+    Set<ExecutionId> present = posting == null ? Collections.emptySet() : posting.all;
+    List<String> values = comparison.getValues();
+    switch (comparison.getOperator()) {
+      case EQUALS:
+        return lookup(posting, type, values);
+      case NOT_EQUALS:
+      case NOT_IN:
+        return difference(present, lookup(posting, type, values));
+      case IN:
+        return lookup(posting, type, values);
+      case LESS:
+      case LESS_OR_EQUALS:
+      case GREATER:
+      case GREATER_OR_EQUALS:
+        {
+          checkSortable(name, type, comparison.getOperator());
+          if (posting == null) {
+            return Collections.emptySet();
+          }
+          Comparable<Object> value = toQueryValue(name, type, values.get(0));
+          VisibilityQuery.Operator operator = comparison.getOperator();
+          NavigableMap<Comparable<Object>, Set<ExecutionId>> range =
+              operator == VisibilityQuery.Operator.LESS
+                      || operator == VisibilityQuery.Operator.LESS_OR_EQUALS
+                  ? posting.values.headMap(
+                      value, operator == VisibilityQuery.Operator.LESS_OR_EQUALS)
+                  : posting.values.tailMap(
+                      value, operator == VisibilityQuery.Operator.GREATER_OR_EQUALS);
+          return union(range.values());
+        }
+      case BETWEEN:
+      case NOT_BETWEEN:
+        {
+          checkSortable(name, type, comparison.getOperator());
+          if (posting == null) {
+            return Collections.emptySet();
+          }
+          Comparable<Object> from = toQueryValue(name, type, values.get(0));
+          Comparable<Object> to = toQueryValue(name, type, values.get(1));
+          Set<ExecutionId> between =
+              from.compareTo(to) > 0
+                  ? Collections.emptySet()
+                  : union(posting.values.subMap(from, true, to, true).values());
+          return comparison.getOperator() == VisibilityQuery.Operator.BETWEEN
+              ? between
+              : difference(present, between);
+        }
+      case STARTS_WITH:
+      case NOT_STARTS_WITH:
+        {
+          if (type != IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD
+              && type != IndexedValueType.INDEXED_VALUE_TYPE_KEYWORD_LIST) {
+            throw Status.INVALID_ARGUMENT
+                .withDescription(
+                    comparison.getOperator() + " is supported only by keyword fields: " + name)
+                .asRuntimeException();
+          }
+          if (posting == null) {
+            return Collections.emptySet();
+          }
+          String prefix = values.get(0);
+          @SuppressWarnings("unchecked")
+          NavigableMap<Comparable<Object>, Set<ExecutionId>> range =
+              posting.values.subMap(
+                  (Comparable<Object>) (Comparable<?>) prefix,
+                  true,
+                  (Comparable<Object>) (Comparable<?>) (prefix + Character.MAX_VALUE),
+                  true);
+          Set<ExecutionId> startingWith = union(range.values());
+          return comparison.getOperator() == VisibilityQuery.Operator.STARTS_WITH
+              ? startingWith
+              : difference(present, startingWith);
+        }
+      case IS_NULL:
+        return difference(index.records.keySet(), present);
+      case IS_NOT_NULL:
+        return present;
+      default:
+        throw new IllegalStateException("unknown operator " + comparison.getOperator());
+    }
+  }
+
+  private Set<ExecutionId> lookup(
+      @Nullable Posting posting, IndexedValueType type, List<String> values) {
+    if (posting == null) {
+      return Collections.emptySet();
+    }
+    Set<ExecutionId> result = new HashSet<>();
+    for (String value : values) {
+      if (type == IndexedValueType.INDEXED_VALUE_TYPE_TEXT) {
+        // full text match: the field should contain all the words of the value
+        Set<ExecutionId> matching = null;
+        for (String token : tokenize(value)) {
+          Set<ExecutionId> withToken =
+              posting.values.getOrDefault(asComparable(token), Collections.emptySet());
+          matching = matching == null ? new HashSet<>(withToken) : intersect(matching, withToken);
+        }
+        if (matching != null) {
+          result.addAll(matching);
+        }
+      } else {
+        result.addAll(
+            posting.values.getOrDefault(
+                toQueryValue(posting.name, type, value), Collections.emptySet()));
+      }
+    }
+    return result;
+  }
+
+  private static void checkSortable(
+      String name, IndexedValueType type, VisibilityQuery.Operator operator) {
+    if (type == IndexedValueType.INDEXED_VALUE_TYPE_TEXT) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription(operator + " is not supported by text field: " + name)
+          .asRuntimeException();
+    }
+  }
+
+  /** Converts the literal of the query to the value of the index for the field type. */
+  private static Comparable<Object> toQueryValue(
+      String name, IndexedValueType type, String literal) {
+    try {
+      switch (type) {
+        case INDEXED_VALUE_TYPE_INT:
+          return asComparable(Long.parseLong(literal));
+        case INDEXED_VALUE_TYPE_DOUBLE:
+          return asComparable(Double.parseDouble(literal));
+        case INDEXED_VALUE_TYPE_BOOL:
+          if (!literal.equalsIgnoreCase("true") && !literal.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException(literal);
+          }
+          return asComparable(Boolean.parseBoolean(literal));
+        case INDEXED_VALUE_TYPE_DATETIME:
+          return asComparable(OffsetDateTime.parse(literal).toInstant());
+        default:
+          return asComparable(literal);
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw Status.INVALID_ARGUMENT
+          .withDescription("invalid value for field " + name + " of type " + type + ": " + literal)
+          .asRuntimeException();
+    }
+  }
+
+  private static List<Comparable<?>> toIndexedValues(IndexedValueType type, List<?> values) {
+    List<Comparable<?>> result = new ArrayList<>(values.size());
+    for (Object value : values) {
+      if (type == IndexedValueType.INDEXED_VALUE_TYPE_TEXT) {
+        result.addAll(tokenize((String) value));
+      } else if (value instanceof OffsetDateTime) {
+        result.add(((OffsetDateTime) value).toInstant());
+      } else if (value instanceof Comparable) {
+        result.add((Comparable<?>) value);
+      }
+    }
+    return result;
+  }
+
+  private static List<String> tokenize(String text) {
+    List<String> result = new ArrayList<>();
+    for (String token : TEXT_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if (!token.isEmpty()) {
+        result.add(token);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparable<Object> asComparable(Object value) {
+    return (Comparable<Object>) value;
+  }
+
+  private static Instant toInstant(Timestamp timestamp) {
+    return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+  }
+
+  private static Set<ExecutionId> union(Collection<Set<ExecutionId>> sets) {
+    Set<ExecutionId> result = new HashSet<>();
+    for (Set<ExecutionId> set : sets) {
+      result.addAll(set);
+    }
+    return result;
+  }
+
+  private static Set<ExecutionId> intersect(Set<ExecutionId> a, Set<ExecutionId> b) {
+    Set<ExecutionId> smaller = a.size() <= b.size() ? a : b;
+    Set<ExecutionId> larger = smaller == a ? b : a;
+    Set<ExecutionId> result = new HashSet<>();
+    for (ExecutionId executionId : smaller) {
+      if (larger.contains(executionId)) {
+        result.add(executionId);
+      }
+    }
+    return result;
+  }
+
+  private static Set<ExecutionId> difference(Set<ExecutionId> a, Set<ExecutionId> b) {
+    Set<ExecutionId> result = new HashSet<>(a);
+    result.removeAll(b);
+    return result;
+  }
+
+  /** Executions of a namespace and the postings of their fields. */
+  private final class NamespaceIndex {
+    private final Map<ExecutionId, Record> records = new HashMap<>();
+    private final Map<String, Posting> postings = new HashMap<>();
+
+    private Record getOrCreateRecord(ExecutionId executionId) {
+      return records.computeIfAbsent(executionId, Record::new);
+    }
+
+    /**
+     * Evaluates the filter against the postings. The executions that haven't recorded their
+     * started event yet are not visible.
+     */
+    private Set<ExecutionId> evaluate(@Nullable VisibilityQuery.Expression filter) {
+      Set<ExecutionId> started = postingOf(WORKFLOW_TYPE);
+      if (filter == null) {
+        return started;
+      }
+      return intersect(started, evaluateExpression(filter));
+    }
+
+    private Set<ExecutionId> evaluateExpression(VisibilityQuery.Expression expression) {
+      if (expression instanceof VisibilityQuery.And) {
+        Set<ExecutionId> result = null;
+        for (VisibilityQuery.Expression operand :
+            ((VisibilityQuery.And) expression).getOperands()) {
+          Set<ExecutionId> operandResult = evaluateExpression(operand);
+          result = result == null ? operandResult : intersect(result, operandResult);
+        }
+        return result;
+      } else if (expression instanceof VisibilityQuery.Or) {
+        Set<ExecutionId> result = new HashSet<>();
+        for (VisibilityQuery.Expression operand :
+            ((VisibilityQuery.Or) expression).getOperands()) {
+          result.addAll(evaluateExpression(operand));
+        }
+        return result;
+      }
+      return evaluateComparison(this, (VisibilityQuery.Comparison) expression);
+    }
+
+    /** Builds the posting of the history lengths, which change too often to be kept indexed. */
+    private Posting scanHistoryLengths() {
+      Posting posting = new Posting(HISTORY_LENGTH, BUILT_IN_FIELDS.get(HISTORY_LENGTH));
+      for (Record record : records.values()) {
+        posting
+            .values
+            .computeIfAbsent(asComparable(record.historyLength.get()), v -> new HashSet<>())
+            .add(record.executionId);
+        posting.all.add(record.executionId);
+      }
+      return posting;
+    }
+
+    private Set<ExecutionId> postingOf(String name) {
+      Posting posting = postings.get(name);
+      return posting == null ? Collections.emptySet() : posting.all;
+    }
+
+    private void reindexBuiltInFields(Record record) {
+      Map<String, List<Comparable<?>>> values = new HashMap<>();
+      WorkflowExecution execution = record.executionId.getExecution();
+      values.put(WORKFLOW_ID, Collections.singletonList(execution.getWorkflowId()));
+      values.put(RUN_ID, Collections.singletonList(execution.getRunId()));
+      if (record.type != null) {
+        values.put(WORKFLOW_TYPE, Collections.singletonList(record.type.getName()));
+        values.put(EXECUTION_STATUS, Collections.singletonList(record.getStatusName()));
+        values.put(TASK_QUEUE, Collections.singletonList(record.taskQueue));
+        values.put(START_TIME, Collections.singletonList(toInstant(record.startTime)));
+        values.put(EXECUTION_TIME, Collections.singletonList(toInstant(record.executionTime)));
+      }
+      if (record.closeTime != null) {
+        values.put(CLOSE_TIME, Collections.singletonList(toInstant(record.closeTime)));
+      }
+      for (Map.Entry<String, List<Comparable<?>>> entry : values.entrySet()) {
+        reindex(record, entry.getKey(), BUILT_IN_FIELDS.get(entry.getKey()), entry.getValue());
+      }
+    }
+
+    private void reindexSearchAttributes(
+        Record record, Map<String, List<Comparable<?>>> attributes) {
+      for (String name : new ArrayList<>(record.values.keySet())) {
+        if (!BUILT_IN_FIELDS.containsKey(name) && !attributes.containsKey(name)) {
+          reindex(record, name, null, Collections.emptyList());
+        }
+      }
+      for (Map.Entry<String, List<Comparable<?>>> entry : attributes.entrySet()) {
+        reindex(record, entry.getKey(), searchAttributes.get(entry.getKey()), entry.getValue());
+      }
+    }
+
+    /** Replaces the values of the field of the record in the postings. */
+    private void reindex(
+        Record record,
+        String name,
+        @Nullable IndexedValueType type,
+        List<Comparable<?>> newValues) {
+      List<Comparable<?>> oldValues = record.values.get(name);
+      if (oldValues != null && oldValues.equals(newValues)) {
+        return;
+      }
+      Posting posting = postings.get(name);
+      if (oldValues != null && posting != null) {
+        for (Comparable<?> value : oldValues) {
+          Set<ExecutionId> executions = posting.values.get(asComparable(value));
+          if (executions != null) {
+            executions.remove(record.executionId);
+            if (executions.isEmpty()) {
+              posting.values.remove(asComparable(value));
+            }
+          }
+        }
+        posting.all.remove(record.executionId);
+      }
+      if (newValues.isEmpty() || type == null) {
+        record.values.remove(name);
+        return;
+      }
+      if (posting == null || posting.type != type) {
+        posting = new Posting(name, type);
+        postings.put(name, posting);
+      }
+      for (Comparable<?> value : newValues) {
+        posting
+            .values
+            .computeIfAbsent(asComparable(value), v -> new HashSet<>())
+            .add(record.executionId);
+      }
+      posting.all.add(record.executionId);
+      record.values.put(name, newValues);
+    }
+  }
+
+  /**
+   * Order of the listed executions by a key of the values of the sorted fields ending with the run
+   * id. The key of the last listed execution is the next page token, so the next page continues
+   * from the same position even if that execution moved since.
+   */
+  private static final class SortOrder implements Comparator<Record> {
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte DOUBLE_VALUE = 3;
+    private static final byte BOOLEAN_VALUE = 4;
+    private static final byte INSTANT_VALUE = 5;
+
+    private final List<Function<Record, Comparable<Object>>> fields = new ArrayList<>();
+    private final List<Comparator<Comparable<Object>>> orders = new ArrayList<>();
+
+    private void add(
+        Function<Record, Comparable<Object>> field, Comparator<Comparable<Object>> order) {
+      fields.add(field);
+      orders.add(order);
+    }
+
+    private List<Comparable<Object>> keyOf(Record record) {
+      List<Comparable<Object>> key = new ArrayList<>(fields.size());
+      for (Function<Record, Comparable<Object>> field : fields) {
+        key.add(field.apply(record));
+      }
+      return key;
+    }
+
+    @Override
+    public int compare(Record a, Record b) {
+      return compareKeys(keyOf(a), keyOf(b));
+    }
+
+    private int compareKeys(List<Comparable<Object>> a, List<Comparable<Object>> b) {
+      for (int i = 0; i < orders.size(); i++) {
+        int result = orders.get(i).compare(a.get(i), b.get(i));
+        if (result != 0) {
+          return result;
+        }
+      }
+      return 0;
+    }
+
+    private ByteString encodeKey(List<Comparable<Object>> key) {
+      ByteString.Output bytes = ByteString.newOutput();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        for (Object value : key) {
+          if (value == null) {
+            out.writeByte(NULL_VALUE);
+          } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF((String) value);
+          } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+          } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble((Double) value);
+          } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+          } else if (value instanceof Instant) {
+            out.writeByte(INSTANT_VALUE);
+            out.writeLong(((Instant) value).getEpochSecond());
+            out.writeInt(((Instant) value).getNano());
+          } else {
+            throw new IllegalStateException("unexpected sort value: " + value);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return bytes.toByteString();
+    }
+
+    private List<Comparable<Object>> decodeKey(ByteString token) {
+      List<Comparable<Object>> key = new ArrayList<>(fields.size());
+      try (DataInputStream in = new DataInputStream(token.newInput())) {
+        for (int i = 0; i < fields.size(); i++) {
+          byte tag = in.readByte();
+          switch (tag) {
+            case NULL_VALUE:
+              key.add(null);
+              break;
+            case STRING_VALUE:
+              key.add(asComparable(in.readUTF()));
+              break;
+            case LONG_VALUE:
+              key.add(asComparable(in.readLong()));
+              break;
+            case DOUBLE_VALUE:
+              key.add(asComparable(in.readDouble()));
+              break;
+            case BOOLEAN_VALUE:
+              key.add(asComparable(in.readBoolean()));
+              break;
+            case INSTANT_VALUE:
+              key.add(asComparable(Instant.ofEpochSecond(in.readLong(), in.readInt())));
+              break;
+            default:
+              throw new IOException("unknown value tag " + tag);
+          }
+        }
+        if (in.available() > 0) {
+          throw new IOException("trailing bytes");
+        }
+      } catch (IOException | DateTimeException e) {
+        // a token of a different query or a corrupted one
+        throw Status.INVALID_ARGUMENT
+            .withDescription("invalid next page token")
+            .asRuntimeException();
+      }
+      return key;
+    }
+  }
+
+  /** Sorted values of a field, each pointing to the executions that have it. */
+  private static final class Posting {
+    private final String name;
+    private final IndexedValueType type;
+    private final NavigableMap<Comparable<Object>, Set<ExecutionId>> values = new TreeMap<>();
+    private final Set<ExecutionId> all = new HashSet<>();
+
+    private Posting(String name, IndexedValueType type) {
+      this.name = name;
+      this.type = type;
+    }
+  }
+
+  /** Visibility record of an execution. */
+  private static final class Record {
+    private final ExecutionId executionId;
+    private final Map<String, List<Comparable<?>>> values = new HashMap<>();
+    private @Nullable WorkflowType type;
+    private String taskQueue;
+    private Memo memo;
+    private Timestamp startTime;
+    private Timestamp executionTime;
+    private @Nullable Timestamp closeTime;
+    private WorkflowExecutionStatus status;
+    /** Not a part of the postings, the conditions on it are evaluated by a scan */
+    private final AtomicLong historyLength = new AtomicLong();
+    private @Nullable String parentNamespaceId;
+    private @Nullable WorkflowExecution parentExecution;
+    private @Nullable SearchAttributes searchAttributes;
+
+    private Record(ExecutionId executionId) {
+      this.executionId = executionId;
+    }
+
+    private String getRunId() {
+      return executionId.getExecution().getRunId();
+    }
+
+    private String getStatusName() {
+      return ProtoEnumNameUtils.uniqueToSimplifiedName(status.name(), EXECUTION_STATUS_PREFIX);
+    }
+
+    @Nullable
+    private Comparable<Object> getSortValue(String name) {
+      if (name.equals(HISTORY_LENGTH)) {
+        return asComparable(historyLength.get());
+      }
+      List<Comparable<?>> fieldValues = values.get(name);
+      return fieldValues == null || fieldValues.isEmpty() ? null : asComparable(fieldValues.get(0));
+    }
+
+    private WorkflowExecutionInfo toExecutionInfo() {
+      WorkflowExecutionInfo.Builder info =
+          WorkflowExecutionInfo.newBuilder()
+              .setExecution(executionId.getExecution())
+              .setType(type)
+              .setTaskQueue(taskQueue)
+              .setMemo(memo)
+              .setStartTime(startTime)
+              .setExecutionTime(executionTime)
+              .setStatus(status)
+              .setHistoryLength(historyLength.get());
+      if (closeTime != null) {
+        info.setCloseTime(closeTime);
+        info.setExecutionDuration(Timestamps.between(executionTime, closeTime));
+      }
+      if (parentExecution != null) {
+        info.setParentNamespaceId(parentNamespaceId).setParentExecution(parentExecution);
+      }
+      if (searchAttributes != null) {
+        info.setSearchAttributes(searchAttributes);
+      }
+      return info.build();
+    }
+  }
+}
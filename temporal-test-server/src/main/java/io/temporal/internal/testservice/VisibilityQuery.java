@@ -0,0 +1,491 @@
+package io.temporal.internal.testservice;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * Parsed visibility query of the List/Count/Scan WorkflowExecutions calls. Supports the SQL-like
+ * grammar of the Temporal visibility:
+ *
+ * <pre>
+ * query      := [expression] [ORDER BY name [ASC|DESC] {, name [ASC|DESC]}] [GROUP BY name]
+ * expression := and {OR and}
+ * and        := primary {AND primary}
+ * primary    := ( expression ) | comparison
+ * comparison := name (= | != | &lt;&gt; | &lt; | &lt;= | &gt; | &gt;=) literal
+ *             | name [NOT] IN ( literal {, literal} )
+ *             | name [NOT] BETWEEN literal AND literal
+ *             | name [NOT] STARTS_WITH literal
+ *             | name IS [NOT] NULL
+ * </pre>
+ *
+ * Names can be quoted with backticks, string literals with single or double quotes. The keywords
+ * are case-insensitive.
+ */
+final class VisibilityQuery {
+
+  enum Operator {
+    EQUALS,
+    NOT_EQUALS,
+    LESS,
+    LESS_OR_EQUALS,
+    GREATER,
+    GREATER_OR_EQUALS,
+    IN,
+    NOT_IN,
+    BETWEEN,
+    NOT_BETWEEN,
+    STARTS_WITH,
+    NOT_STARTS_WITH,
+    IS_NULL,
+    IS_NOT_NULL
+  }
+
+  interface Expression {}
+
+  static final class And implements Expression {
+    private final List<Expression> operands;
+
+    private And(List<Expression> operands) {
+      this.operands = operands;
+    }
+
+    List<Expression> getOperands() {
+      return operands;
+    }
+  }
+
+  static final class Or implements Expression {
+    private final List<Expression> operands;
+
+    private Or(List<Expression> operands) {
+      this.operands = operands;
+    }
+
+    List<Expression> getOperands() {
+      return operands;
+    }
+  }
+
+  static final class Comparison implements Expression {
+    private final String name;
+    private final Operator operator;
+    private final List<String> values;
+
+    private Comparison(String name, Operator operator, List<String> values) {
+      this.name = name;
+      this.operator = operator;
+      this.values = values;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Operator getOperator() {
+      return operator;
+    }
+
+    /** Literal values as written in the query without quotes, empty for IS [NOT] NULL */
+    List<String> getValues() {
+      return values;
+    }
+  }
+
+  static final class OrderBy {
+    private final String name;
+    private final boolean descending;
+
+    private OrderBy(String name, boolean descending) {
+      this.name = name;
+      this.descending = descending;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    boolean isDescending() {
+      return descending;
+    }
+  }
+
+  private final @Nullable Expression filter;
+  private final List<OrderBy> orderBy;
+  private final @Nullable String groupBy;
+
+  private VisibilityQuery(
+      @Nullable Expression filter, List<OrderBy> orderBy, @Nullable String groupBy) {
+    this.filter = filter;
+    this.orderBy = orderBy;
+    this.groupBy = groupBy;
+  }
+
+  /** Filter of the query, null if all the executions match */
+  @Nullable
+  Expression getFilter() {
+    return filter;
+  }
+
+  /** ORDER BY clause of the query, empty if the default order should be used */
+  List<OrderBy> getOrderBy() {
+    return orderBy;
+  }
+
+  @Nullable
+  String getGroupBy() {
+    return groupBy;
+  }
+
+  /**
+   * @throws StatusRuntimeException with INVALID_ARGUMENT status if the query is malformed
+   */
+  static VisibilityQuery parse(@Nullable String query) {
+    if (query == null || query.trim().isEmpty()) {
+      return new VisibilityQuery(null, Collections.emptyList(), null);
+    }
+    return new Parser(query).parseQuery();
+  }
+
+  private enum TokenType {
+    NAME,
+    QUOTED_NAME,
+    STRING,
+    NUMBER,
+    OPERATOR,
+    LEFT_PAREN,
+    RIGHT_PAREN,
+    COMMA,
+    END
+  }
+
+  private static final class Token {
+    private final TokenType type;
+    private final String text;
+    private final int position;
+
+    private Token(TokenType type, String text, int position) {
+      this.type = type;
+      this.text = text;
+      this.position = position;
+    }
+
+    private boolean isKeyword(String keyword) {
+      return type == TokenType.NAME && text.equalsIgnoreCase(keyword);
+    }
+  }
+
+  private static final class Parser {
+    private final String query;
+    private final List<Token> tokens;
+    private int index;
+
+    private Parser(String query) {
+      this.query = query;
+      this.tokens = tokenize(query);
+    }
+
+    private VisibilityQuery parseQuery() {
+      Expression filter = null;
+      if (!peek().isKeyword("ORDER") && !peek().isKeyword("GROUP") && !atEnd()) {
+        filter = parseOr();
+      }
+      List<OrderBy> orderBy = Collections.emptyList();
+      if (peek().isKeyword("ORDER")) {
+        next();
+        expectKeyword("BY");
+        orderBy = new ArrayList<>();
+        do {
+          String name = parseName();
+          boolean descending = false;
+          if (peek().isKeyword("DESC")) {
+            next();
+            descending = true;
+          } else if (peek().isKeyword("ASC")) {
+            next();
+          }
+          orderBy.add(new OrderBy(name, descending));
+        } while (accept(TokenType.COMMA));
+      }
+      String groupBy = null;
+      if (peek().isKeyword("GROUP")) {
+        if (!orderBy.isEmpty()) {
+          throw invalid("ORDER BY and GROUP BY can't be used together");
+        }
+        next();
+        expectKeyword("BY");
+        groupBy = parseName();
+        if (peek().type == TokenType.COMMA) {
+          throw invalid("GROUP BY supports only a single field");
+        }
+      }
+      if (!atEnd()) {
+        throw unexpected(peek());
+      }
+      return new VisibilityQuery(filter, ImmutableList.copyOf(orderBy), groupBy);
+    }
+
+    private Expression parseOr() {
+      List<Expression> operands = new ArrayList<>();
+      operands.add(parseAnd());
+      while (peek().isKeyword("OR")) {
+        next();
+        operands.add(parseAnd());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Or(operands);
+    }
+
+    private Expression parseAnd() {
+      List<Expression> operands = new ArrayList<>();
+      operands.add(parsePrimary());
+      while (peek().isKeyword("AND")) {
+        next();
+        operands.add(parsePrimary());
+      }
+      return operands.size() == 1 ? operands.get(0) : new And(operands);
+    }
+
+    private Expression parsePrimary() {
+      if (accept(TokenType.LEFT_PAREN)) {
+        Expression result = parseOr();
+        expect(TokenType.RIGHT_PAREN);
+        return result;
+      }
+      String name = parseName();
+      Token token = next();
+      if (token.type == TokenType.OPERATOR) {
+        return new Comparison(
+            name, toOperator(token.text), Collections.singletonList(parseLiteral()));
+      }
+      if (token.isKeyword("IS")) {
+        boolean not = acceptKeyword("NOT");
+        expectKeyword("NULL");
+        return new Comparison(
+            name, not ? Operator.IS_NOT_NULL : Operator.IS_NULL, Collections.emptyList());
+      }
+      boolean not = false;
+      if (token.isKeyword("NOT")) {
+        not = true;
+        token = next();
+      }
+      if (token.isKeyword("IN")) {
+        expect(TokenType.LEFT_PAREN);
+        List<String> values = new ArrayList<>();
+        do {
+          values.add(parseLiteral());
+        } while (accept(TokenType.COMMA));
+        expect(TokenType.RIGHT_PAREN);
+        return new Comparison(name, not ? Operator.NOT_IN : Operator.IN, values);
+      }
+      if (token.isKeyword("BETWEEN")) {
+        String from = parseLiteral();
+        expectKeyword("AND");
+        String to = parseLiteral();
+        return new Comparison(
+            name, not ? Operator.NOT_BETWEEN : Operator.BETWEEN, ImmutableList.of(from, to));
+      }
+      if (token.isKeyword("STARTS_WITH")) {
+        return new Comparison(
+            name,
+            not ? Operator.NOT_STARTS_WITH : Operator.STARTS_WITH,
+            Collections.singletonList(parseLiteral()));
+      }
+      throw unexpected(token);
+    }
+
+    private String parseName() {
+      Token token = next();
+      if (token.type == TokenType.NAME || token.type == TokenType.QUOTED_NAME) {
+        return token.text;
+      }
+      throw unexpected(token);
+    }
+
+    private String parseLiteral() {
+      Token token = next();
+      switch (token.type) {
+        case STRING:
+        case NUMBER:
+          return token.text;
+        case NAME:
+          if (token.text.equalsIgnoreCase("true") || token.text.equalsIgnoreCase("false")) {
+            return token.text.toLowerCase(Locale.ROOT);
+          }
+          // fall through
+        default:
+          throw unexpected(token);
+      }
+    }
+
+    private Operator toOperator(String operator) {
+      switch (operator) {
+        case "=":
+          return Operator.EQUALS;
+        case "!=":
+        case "<>":
+          return Operator.NOT_EQUALS;
+        case "<":
+          return Operator.LESS;
+        case "<=":
+          return Operator.LESS_OR_EQUALS;
+        case ">":
+          return Operator.GREATER;
+        case ">=":
+          return Operator.GREATER_OR_EQUALS;
+        default:
+          throw invalid("unknown operator " + operator);
+      }
+    }
+
+    private Token peek() {
+      return tokens.get(index);
+    }
+
+    private Token next() {
+      Token token = tokens.get(index);
+      if (token.type != TokenType.END) {
+        index++;
+      }
+      return token;
+    }
+
+    private boolean atEnd() {
+      return peek().type == TokenType.END;
+    }
+
+    private boolean accept(TokenType type) {
+      if (peek().type == type) {
+        next();
+        return true;
+      }
+      return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+      if (peek().isKeyword(keyword)) {
+        next();
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(TokenType type) {
+      Token token = next();
+      if (token.type != type) {
+        throw unexpected(token);
+      }
+    }
+
+    private void expectKeyword(String keyword) {
+      Token token = next();
+      if (!token.isKeyword(keyword)) {
+        throw unexpected(token);
+      }
+    }
+
+    private StatusRuntimeException unexpected(Token token) {
+      if (token.type == TokenType.END) {
+        return invalid("unexpected end of query");
+      }
+      return invalid("unexpected '" + token.text + "' at position " + token.position);
+    }
+
+    private StatusRuntimeException invalid(String message) {
+      return Status.INVALID_ARGUMENT
+          .withDescription("invalid query: " + message + ": " + query)
+          .asRuntimeException();
+    }
+
+    private List<Token> tokenize(String query) {
+      List<Token> result = new ArrayList<>();
+      int i = 0;
+      while (i < query.length()) {
+        char c = query.charAt(i);
+        int start = i;
+        if (Character.isWhitespace(c)) {
+          i++;
+        } else if (c == '(') {
+          result.add(new Token(TokenType.LEFT_PAREN, "(", start));
+          i++;
+        } else if (c == ')') {
+          result.add(new Token(TokenType.RIGHT_PAREN, ")", start));
+          i++;
+        } else if (c == ',') {
+          result.add(new Token(TokenType.COMMA, ",", start));
+          i++;
+        } else if (c == '\'' || c == '"' || c == '`') {
+          StringBuilder text = new StringBuilder();
+          i++;
+          while (true) {
+            if (i >= query.length()) {
+              throw invalid("unterminated quote at position " + start);
+            }
+            char ch = query.charAt(i);
+            if (ch == '\\' && i + 1 < query.length()) {
+              text.append(query.charAt(i + 1));
+              i += 2;
+            } else if (ch == c) {
+              if (i + 1 < query.length() && query.charAt(i + 1) == c) {
+                // doubled quote
+                text.append(c);
+                i += 2;
+              } else {
+                i++;
+                break;
+              }
+            } else {
+              text.append(ch);
+              i++;
+            }
+          }
+          TokenType type = c == '`' ? TokenType.QUOTED_NAME : TokenType.STRING;
+          result.add(new Token(type, text.toString(), start));
+        } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+          i++;
+          if (i < query.length()
+              && (query.charAt(i) == '=' || (c == '<' && query.charAt(i) == '>'))) {
+            i++;
+          }
+          String operator = query.substring(start, i);
+          if (operator.equals("!")) {
+            throw invalid("unexpected '!' at position " + start);
+          }
+          result.add(new Token(TokenType.OPERATOR, operator, start));
+        } else if (Character.isDigit(c) || c == '-' || c == '+' || c == '.') {
+          i++;
+          while (i < query.length() && isNumberPart(query.charAt(i), query.charAt(i - 1))) {
+            i++;
+          }
+          result.add(new Token(TokenType.NUMBER, query.substring(start, i), start));
+        } else if (Character.isLetter(c) || c == '_') {
+          while (i < query.length() && isNamePart(query.charAt(i))) {
+            i++;
+          }
+          result.add(new Token(TokenType.NAME, query.substring(start, i), start));
+        } else {
+          throw invalid("unexpected '" + c + "' at position " + start);
+        }
+      }
+      result.add(new Token(TokenType.END, "", query.length()));
+      return result;
+    }
+
+    private static boolean isNumberPart(char c, char previous) {
+      return Character.isDigit(c)
+          || c == '.'
+          || c == 'e'
+          || c == 'E'
+          || ((c == '-' || c == '+') && (previous == 'e' || previous == 'E'));
+    }
+
+    private static boolean isNamePart(char c) {
+      return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+    }
+  }
+}
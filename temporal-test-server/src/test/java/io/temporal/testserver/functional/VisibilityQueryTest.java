@@ -0,0 +1,241 @@
+package io.temporal.testserver.functional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsRequest;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionCount;
+import io.temporal.client.WorkflowExecutionMetadata;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.internal.SDKTestOptions;
+import io.temporal.testing.internal.SDKTestWorkflowRule;
+import io.temporal.testserver.functional.common.TestWorkflows;
+import io.temporal.workflow.Workflow;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class VisibilityQueryTest {
+  private static final int COMPLETED_COUNT = 6;
+  private static final int RUNNING_COUNT = 2;
+
+  @Rule
+  public SDKTestWorkflowRule testWorkflowRule =
+      SDKTestWorkflowRule.newBuilder()
+          .setWorkflowTypes(CompletingWorkflow.class, BlockingWorkflow.class)
+          .build();
+
+  private String queue;
+
+  @SuppressWarnings("deprecation")
+  @Before
+  public void setUp() {
+    assumeFalse(
+        "Real Server visibility is eventually consistent", SDKTestWorkflowRule.useExternalService);
+    queue = "TaskQueue = '" + testWorkflowRule.getTaskQueue() + "'";
+    WorkflowClient client = testWorkflowRule.getWorkflowClient();
+    for (int i = 0; i < COMPLETED_COUNT; i++) {
+      WorkflowOptions options =
+          SDKTestOptions.newWorkflowOptionsWithTimeouts(testWorkflowRule.getTaskQueue()).toBuilder()
+              .setWorkflowId("completed-" + i)
+              .setSearchAttributes(
+                  ImmutableMap.of(
+                      "CustomIntField", i, "CustomKeywordField", i % 2 == 0 ? "even" : "odd"))
+              .build();
+      client.newWorkflowStub(TestWorkflows.PrimitiveWorkflow.class, options).execute();
+    }
+    for (int i = 0; i < RUNNING_COUNT; i++) {
+      WorkflowOptions options =
+          SDKTestOptions.newWorkflowOptionsWithTimeouts(testWorkflowRule.getTaskQueue()).toBuilder()
+              .setWorkflowId("running-" + i)
+              .build();
+      WorkflowClient.start(
+          client.newWorkflowStub(TestWorkflows.WorkflowWithSignal.class, options)::execute);
+    }
+  }
+
+  @Test
+  public void testFilterAndOrder() {
+    assertEquals(
+        Arrays.asList("completed-4", "completed-2"),
+        listWorkflowIds(
+            queue
+                + " AND CustomKeywordField = 'even' AND CustomIntField >= 2"
+                + " ORDER BY CustomIntField DESC"));
+    assertEquals(
+        Arrays.asList("completed-1", "completed-2", "completed-5"),
+        listWorkflowIds(
+            queue
+                + " AND (CustomIntField IN (1, 5) OR CustomIntField BETWEEN 2 AND 2)"
+                + " ORDER BY CustomIntField"));
+    assertEquals(
+        Arrays.asList("running-0", "running-1"),
+        listWorkflowIds(
+            queue
+                + " AND ExecutionStatus = 'Running' AND WorkflowId STARTS_WITH 'running-'"
+                + " ORDER BY WorkflowId"));
+    assertEquals(
+        Arrays.asList("running-0", "running-1"),
+        listWorkflowIds(queue + " AND CustomIntField IS NULL ORDER BY WorkflowId ASC"));
+  }
+
+  @Test
+  public void testDefaultOrderListsRunningExecutionsFirst() {
+    List<String> workflowIds = listWorkflowIds(queue);
+    assertEquals(COMPLETED_COUNT + RUNNING_COUNT, workflowIds.size());
+    assertEquals(
+        new HashSet<>(Arrays.asList("running-0", "running-1")),
+        new HashSet<>(workflowIds.subList(0, RUNNING_COUNT)));
+  }
+
+  @Test
+  public void testPagination() {
+    List<String> workflowIds = new ArrayList<>();
+    ByteString nextPageToken = ByteString.EMPTY;
+    int pages = 0;
+    do {
+      ListWorkflowExecutionsResponse response =
+          listPage(queue + " ORDER BY CustomIntField", 4, nextPageToken);
+      for (WorkflowExecutionInfo info : response.getExecutionsList()) {
+        workflowIds.add(info.getExecution().getWorkflowId());
+      }
+      nextPageToken = response.getNextPageToken();
+      pages++;
+    } while (!nextPageToken.isEmpty());
+    assertEquals(2, pages);
+    assertEquals(
+        Arrays.asList(
+            "completed-0",
+            "completed-1",
+            "completed-2",
+            "completed-3",
+            "completed-4",
+            "completed-5"),
+        workflowIds.subList(0, COMPLETED_COUNT));
+    assertEquals(COMPLETED_COUNT + RUNNING_COUNT, workflowIds.size());
+  }
+
+  @Test
+  public void testPaginationWhenLastExecutionOfPageCloses() {
+    ListWorkflowExecutionsResponse first = listPage(queue, 1, ByteString.EMPTY);
+    assertEquals(1, first.getExecutionsCount());
+    String closedId = first.getExecutions(0).getExecution().getWorkflowId();
+    String otherRunningId = closedId.equals("running-0") ? "running-1" : "running-0";
+    // moves the last execution of the page from the running ones to the top of the closed ones
+    WorkflowClient client = testWorkflowRule.getWorkflowClient();
+    client.newWorkflowStub(TestWorkflows.WorkflowWithSignal.class, closedId).signal();
+    client.newUntypedWorkflowStub(closedId).getResult(Void.class);
+
+    List<String> workflowIds = new ArrayList<>();
+    ByteString nextPageToken = first.getNextPageToken();
+    while (!nextPageToken.isEmpty()) {
+      ListWorkflowExecutionsResponse response = listPage(queue, 1, nextPageToken);
+      for (WorkflowExecutionInfo info : response.getExecutionsList()) {
+        workflowIds.add(info.getExecution().getWorkflowId());
+      }
+      nextPageToken = response.getNextPageToken();
+    }
+    // the pages continue from the position of the closed execution in the order of the first page
+    assertEquals(otherRunningId, workflowIds.get(0));
+    for (int i = 0; i < COMPLETED_COUNT; i++) {
+      assertTrue(workflowIds.contains("completed-" + i));
+    }
+  }
+
+  @Test
+  public void testCountGroupByExecutionStatus() {
+    WorkflowClient client = testWorkflowRule.getWorkflowClient();
+    assertEquals(3, client.countWorkflows(queue + " AND CustomKeywordField = 'odd'").getCount());
+
+    WorkflowExecutionCount count = client.countWorkflows(queue + " GROUP BY ExecutionStatus");
+    assertEquals(COMPLETED_COUNT + RUNNING_COUNT, count.getCount());
+    assertEquals(2, count.getGroups().size());
+    assertEquals("Completed", count.getGroups().get(0).getGroupValues().get(0).get(0));
+    assertEquals(COMPLETED_COUNT, count.getGroups().get(0).getCount());
+    assertEquals("Running", count.getGroups().get(1).getGroupValues().get(0).get(0));
+    assertEquals(RUNNING_COUNT, count.getGroups().get(1).getCount());
+  }
+
+  @Test
+  public void testInvalidQuery() {
+    for (String query :
+        Arrays.asList(
+            "CustomIntField = ",
+            "CustomIntField = 'not a number'",
+            "UnknownField = 'value'",
+            "CustomIntField STARTS_WITH '1'",
+            "(WorkflowId = 'a'")) {
+      StatusRuntimeException e =
+          assertThrows(
+              query,
+              StatusRuntimeException.class,
+              () ->
+                  testWorkflowRule
+                      .getWorkflowServiceStubs()
+                      .blockingStub()
+                      .listWorkflowExecutions(
+                          ListWorkflowExecutionsRequest.newBuilder()
+                              .setNamespace(SDKTestWorkflowRule.NAMESPACE)
+                              .setQuery(query)
+                              .build()));
+      assertEquals(query, Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+  }
+
+  private ListWorkflowExecutionsResponse listPage(
+      String query, int pageSize, ByteString nextPageToken) {
+    return testWorkflowRule
+        .getWorkflowServiceStubs()
+        .blockingStub()
+        .listWorkflowExecutions(
+            ListWorkflowExecutionsRequest.newBuilder()
+                .setNamespace(SDKTestWorkflowRule.NAMESPACE)
+                .setQuery(query)
+                .setPageSize(pageSize)
+                .setNextPageToken(nextPageToken)
+                .build());
+  }
+
+  private List<String> listWorkflowIds(String query) {
+    return testWorkflowRule
+        .getWorkflowClient()
+        .listExecutions(query)
+        .map(WorkflowExecutionMetadata::getExecution)
+        .map(WorkflowExecution::getWorkflowId)
+        .collect(Collectors.toList());
+  }
+
+  public static class CompletingWorkflow implements TestWorkflows.PrimitiveWorkflow {
+    @Override
+    public void execute() {}
+  }
+
+  public static class BlockingWorkflow implements TestWorkflows.WorkflowWithSignal {
+    private boolean signaled;
+
+    @Override
+    public void execute() {
+      Workflow.await(() -> signaled);
+    }
+
+    @Override
+    public void signal() {
+      signaled = true;
+    }
+  }
+}
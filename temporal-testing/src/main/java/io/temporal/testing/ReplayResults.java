@@ -1,9 +1,17 @@
 package io.temporal.testing;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
+/**
+ * Results of {@link WorkflowReplayer#replayWorkflowExecutions} calls. Safe to be filled by several
+ * replay threads at the same time.
+ */
 public class ReplayResults {
 
   public class ReplayError {
@@ -16,10 +24,48 @@ public class ReplayResults {
     }
   }
 
+  /** Time it took to replay a single history. */
+  public static class ReplayTiming {
+    public final String workflowId;
+    public final String runId;
+    public final int eventCount;
+    public final Duration duration;
+    public final boolean failed;
+
+    public ReplayTiming(
+        String workflowId, String runId, int eventCount, Duration duration, boolean failed) {
+      this.workflowId = workflowId;
+      this.runId = runId;
+      this.eventCount = eventCount;
+      this.duration = duration;
+      this.failed = failed;
+    }
+
+    @Override
+    public String toString() {
+      return "ReplayTiming{"
+          + "workflowId='"
+          + workflowId
+          + '\''
+          + ", runId='"
+          + runId
+          + '\''
+          + ", eventCount="
+          + eventCount
+          + ", duration="
+          + duration
+          + ", failed="
+          + failed
+          + '}';
+    }
+  }
+
   private final List<ReplayError> replayErrors;
+  private final List<ReplayTiming> replayTimings;
 
   ReplayResults() {
-    replayErrors = new ArrayList<>();
+    replayErrors = Collections.synchronizedList(new ArrayList<>());
+    replayTimings = Collections.synchronizedList(new ArrayList<>());
   }
 
   public Collection<ReplayError> allErrors() {
@@ -30,7 +76,48 @@ public class ReplayResults {
     return !allErrors().isEmpty();
   }
 
+  /**
+   * @return timings of all the replayed histories in the order the replays completed. When
+   *     replaying in parallel the order is not the order of the input histories.
+   */
+  public Collection<ReplayTiming> allTimings() {
+    synchronized (replayTimings) {
+      return new ArrayList<>(replayTimings);
+    }
+  }
+
+  /**
+   * @param count maximum number of timings to return
+   * @return timings of up to {@code count} slowest replays, the slowest first
+   */
+  public List<ReplayTiming> slowestReplays(int count) {
+    synchronized (replayTimings) {
+      return replayTimings.stream()
+          .sorted(Comparator.comparing((ReplayTiming t) -> t.duration).reversed())
+          .limit(count)
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * @return sum of the replay times of all the histories. When replaying in parallel this is larger
+   *     than the wall clock time of the whole replay.
+   */
+  public Duration totalReplayTime() {
+    synchronized (replayTimings) {
+      Duration result = Duration.ZERO;
+      for (ReplayTiming timing : replayTimings) {
+        result = result.plus(timing.duration);
+      }
+      return result;
+    }
+  }
+
   void addError(String workflowId, Exception err) {
     replayErrors.add(new ReplayError(workflowId, err));
   }
+
+  void addTiming(ReplayTiming timing) {
+    replayTimings.add(timing);
+  }
 }
@@ -0,0 +1,387 @@
+package io.temporal.testing;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.CodedInputStream;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.Experimental;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+/**
+ * Read only archive of workflow execution histories of many executions in a single file. Unlike
+ * json histories, the events are stored as length-delimited binary protobuf {@link HistoryEvent}s,
+ * optionally compressed in blocks, so histories can be loaded without a json parsing and an enum
+ * names rewriting pass. The archive is memory-mapped and has an index by workflowId and runId, a
+ * single history can be read without reading the rest of the file.<br>
+ * Archives are written by {@link WorkflowHistoryArchiveWriter}. To be used with {@link
+ * WorkflowReplayer}.
+ *
+ * <p>Instances are safe to be used by several threads.
+ *
+ * <p>Experimental because the user facing interface to history replay functionality is actively
+ * evolving.
+ */
+@Experimental
+public final class WorkflowHistoryArchive implements Closeable {
+  static final int MAGIC = 0x54484131; // "THA1"
+  static final byte VERSION = 1;
+  static final byte COMPRESSION_NONE = 0;
+  static final byte COMPRESSION_DEFLATE = 1;
+  // magic, version, compression
+  static final int HEADER_SIZE = 4 + 1 + 1;
+  // index offset, magic
+  static final int FOOTER_SIZE = 8 + 4;
+
+  /** Location of the events of a single execution in the archive. */
+  static final class Entry {
+    final WorkflowExecution execution;
+    final long offset;
+    final long length;
+    final int eventCount;
+
+    Entry(WorkflowExecution execution, long offset, long length, int eventCount) {
+      this.execution = execution;
+      this.offset = offset;
+      this.length = length;
+      this.eventCount = eventCount;
+    }
+  }
+
+  private final File file;
+  private final FileChannel channel;
+  private final boolean compressed;
+
+  /** The whole file if it fits into a single mapping, otherwise each history is mapped on read. */
+  private final @Nullable MappedByteBuffer mapped;
+
+  private final Map<WorkflowExecution, Entry> entries;
+  private final Map<String, Entry> latestRuns;
+
+  /**
+   * Opens and memory-maps an archive written by {@link WorkflowHistoryArchiveWriter}.
+   *
+   * @param file archive file
+   * @throws IOException if the file can't be read or is not a workflow history archive
+   */
+  public static WorkflowHistoryArchive open(File file) throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      return new WorkflowHistoryArchive(file, channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates a writer of a new archive with compressed blocks.
+   *
+   * @param file archive file, overwritten if it exists
+   */
+  public static WorkflowHistoryArchiveWriter newWriter(File file) throws IOException {
+    return newWriter(file, true);
+  }
+
+  /**
+   * Creates a writer of a new archive.
+   *
+   * @param file archive file, overwritten if it exists
+   * @param compressed if true, the events are deflate-compressed in blocks of about {@link
+   *     WorkflowHistoryArchiveWriter#DEFAULT_BLOCK_SIZE} bytes
+   */
+  public static WorkflowHistoryArchiveWriter newWriter(File file, boolean compressed)
+      throws IOException {
+    return new WorkflowHistoryArchiveWriter(
+        file, compressed, WorkflowHistoryArchiveWriter.DEFAULT_BLOCK_SIZE);
+  }
+
+  private WorkflowHistoryArchive(File file, FileChannel channel) throws IOException {
+    this.file = file;
+    this.channel = channel;
+    long size = channel.size();
+    if (size < HEADER_SIZE + FOOTER_SIZE) {
+      throw new IOException("Not a workflow history archive: " + file);
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(header, 0);
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a workflow history archive: " + file);
+    }
+    byte version = header.get();
+    if (version != VERSION) {
+      throw new IOException(
+          "Unsupported workflow history archive version " + version + ": " + file);
+    }
+    byte compression = header.get();
+    if (compression != COMPRESSION_NONE && compression != COMPRESSION_DEFLATE) {
+      throw new IOException("Unsupported workflow history archive compression: " + compression);
+    }
+    this.compressed = compression == COMPRESSION_DEFLATE;
+
+    ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+    readFully(footer, size - FOOTER_SIZE);
+    long indexOffset = footer.getLong();
+    if (footer.getInt() != MAGIC || indexOffset < HEADER_SIZE || indexOffset > size - FOOTER_SIZE) {
+      throw new IOException("Workflow history archive is truncated or corrupted: " + file);
+    }
+
+    channel.position(indexOffset);
+    DataInputStream index =
+        new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+    int count = index.readInt();
+    this.entries = new LinkedHashMap<>();
+    this.latestRuns = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      WorkflowExecution execution =
+          WorkflowExecution.newBuilder()
+              .setWorkflowId(index.readUTF())
+              .setRunId(index.readUTF())
+              .build();
+      Entry entry = new Entry(execution, index.readLong(), index.readLong(), index.readInt());
+      if (entry.offset < HEADER_SIZE || entry.offset + entry.length > indexOffset) {
+        throw new IOException("Workflow history archive is truncated or corrupted: " + file);
+      }
+      entries.put(execution, entry);
+      latestRuns.put(execution.getWorkflowId(), entry);
+    }
+    this.mapped =
+        size <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+  }
+
+  /** Number of executions in the archive. */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Executions in the archive in the order they were written. */
+  public List<WorkflowExecution> getExecutions() {
+    return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+  }
+
+  /**
+   * @param workflowId workflow id of the execution
+   * @param runId run id of the execution. If null, the run that was written last for the {@code
+   *     workflowId}.
+   * @return true if the archive contains the execution
+   */
+  public boolean contains(String workflowId, @Nullable String runId) {
+    return findEntry(workflowId, runId) != null;
+  }
+
+  /**
+   * Reads a history of a single execution.
+   *
+   * @param workflowId workflow id of the execution
+   * @param runId run id of the execution. If null, the run that was written last for the {@code
+   *     workflowId}.
+   * @throws IllegalArgumentException if the archive doesn't contain the execution
+   */
+  public WorkflowExecutionHistory getHistory(String workflowId, @Nullable String runId) {
+    return readHistory(getEntry(workflowId, runId));
+  }
+
+  /**
+   * Streams the events of a single execution, decoding them lazily.
+   *
+   * @param workflowId workflow id of the execution
+   * @param runId run id of the execution. If null, the run that was written last for the {@code
+   *     workflowId}.
+   * @throws IllegalArgumentException if the archive doesn't contain the execution
+   */
+  public Stream<HistoryEvent> streamEvents(String workflowId, @Nullable String runId) {
+    Entry entry = getEntry(workflowId, runId);
+    return StreamSupport.stream(
+        Spliterators.spliterator(
+            new EventIterator(entry),
+            entry.eventCount,
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+        false);
+  }
+
+  /**
+   * Streams the histories of all the executions in the order they were written. A history is read
+   * only when the stream gets to it, so the stream can be used for archives of any size.
+   */
+  public Stream<WorkflowExecutionHistory> streamHistories() {
+    return entries.values().stream().map(this::readHistory);
+  }
+
+  /**
+   * Closes the file. The memory mapping is released by the garbage collector once no histories are
+   * being read.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  @Override
+  public String toString() {
+    return "WorkflowHistoryArchive{"
+        + "file="
+        + file
+        + ", executions="
+        + entries.size()
+        + ", compressed="
+        + compressed
+        + '}';
+  }
+
+  private @Nullable Entry findEntry(String workflowId, @Nullable String runId) {
+    if (runId == null) {
+      return latestRuns.get(workflowId);
+    }
+    return entries.get(
+        WorkflowExecution.newBuilder().setWorkflowId(workflowId).setRunId(runId).build());
+  }
+
+  private Entry getEntry(String workflowId, @Nullable String runId) {
+    Entry entry = findEntry(workflowId, runId);
+    Preconditions.checkArgument(
+        entry != null,
+        "Execution workflowId=%s, runId=%s can't be found in %s",
+        workflowId,
+        runId,
+        file);
+    return entry;
+  }
+
+  private WorkflowExecutionHistory readHistory(Entry entry) {
+    History.Builder history = History.newBuilder();
+    EventIterator events = new EventIterator(entry);
+    while (events.hasNext()) {
+      history.addEvents(events.next());
+    }
+    return new WorkflowExecutionHistory(history.build(), entry.execution.getWorkflowId());
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of workflow history archive: " + file);
+      }
+    }
+    buffer.flip();
+  }
+
+  private ByteBuffer region(Entry entry) throws IOException {
+    if (mapped != null) {
+      ByteBuffer result = mapped.duplicate();
+      result.limit((int) (entry.offset + entry.length));
+      result.position((int) entry.offset);
+      return result.slice();
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+  }
+
+  /**
+   * Decodes the events of an execution block by block. A block is {@code [int rawLength][int
+   * storedLength][storedLength bytes]}, the raw bytes are length-delimited events.
+   */
+  private final class EventIterator implements Iterator<HistoryEvent> {
+    private final ByteBuffer data;
+    private int remaining;
+    private @Nullable CodedInputStream block;
+
+    EventIterator(Entry entry) {
+      try {
+        this.data = region(entry);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      this.remaining = entry.eventCount;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public HistoryEvent next() {
+      if (remaining == 0) {
+        throw new NoSuchElementException();
+      }
+      try {
+        while (block == null || block.isAtEnd()) {
+          block = nextBlock();
+        }
+        int size = block.readRawVarint32();
+        int oldLimit = block.pushLimit(size);
+        HistoryEvent event = HistoryEvent.parseFrom(block);
+        block.popLimit(oldLimit);
+        remaining--;
+        return event;
+      } catch (IOException e) {
+        throw new UncheckedIOException(
+            "Workflow history archive is truncated or corrupted: " + file, e);
+      }
+    }
+
+    private CodedInputStream nextBlock() throws IOException {
+      if (data.remaining() < 8) {
+        throw new IOException("Unexpected end of history data");
+      }
+      int rawLength = data.getInt();
+      int storedLength = data.getInt();
+      if (rawLength < 0 || storedLength < 0 || storedLength > data.remaining()) {
+        throw new IOException("Unexpected end of history data");
+      }
+      if (!compressed) {
+        ByteBuffer raw = data.slice();
+        raw.limit(storedLength);
+        data.position(data.position() + storedLength);
+        return CodedInputStream.newInstance(raw);
+      }
+      byte[] stored = new byte[storedLength];
+      data.get(stored);
+      byte[] raw = new byte[rawLength];
+      Inflater inflater = new Inflater();
+      try {
+        inflater.setInput(stored);
+        int inflated = 0;
+        while (inflated < rawLength) {
+          int read = inflater.inflate(raw, inflated, rawLength - inflated);
+          if (read == 0
+              && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+            throw new IOException("Unexpected end of compressed history block");
+          }
+          inflated += read;
+        }
+      } catch (DataFormatException e) {
+        throw new IOException(e);
+      } finally {
+        inflater.end();
+      }
+      return CodedInputStream.newInstance(raw);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package io.temporal.testing;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.CountingOutputStream;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.common.Experimental;
+import io.temporal.common.WorkflowExecutionHistory;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+
+/**
+ * Writes a {@link WorkflowHistoryArchive}. Histories are appended one by one and the events of a
+ * history are written as they are consumed, so histories streamed from the server with {@link
+ * io.temporal.client.WorkflowClient#streamHistory(String, String)} are never fully held in memory.
+ * The index is written by {@link #close()}, an archive that wasn't closed can't be opened.
+ *
+ * <p>Not thread safe.
+ *
+ * <p>Experimental because the user facing interface to history replay functionality is actively
+ * evolving.
+ */
+@Experimental
+public final class WorkflowHistoryArchiveWriter implements Closeable {
+  /** Events are compressed in blocks of about this many bytes. */
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+  private final File file;
+  private final CountingOutputStream counter;
+  private final DataOutputStream out;
+  private final boolean compressed;
+  private final int blockSize;
+  private final ByteArrayOutputStream block;
+  private final @Nullable Deflater deflater;
+  private final Set<WorkflowExecution> executions = new HashSet<>();
+  private final List<WorkflowHistoryArchive.Entry> entries = new ArrayList<>();
+  private final @Nullable byte[] deflateBuffer;
+  private boolean closed;
+
+  WorkflowHistoryArchiveWriter(File file, boolean compressed, int blockSize) throws IOException {
+    Preconditions.checkArgument(blockSize > 0, "blockSize must be positive: %s", blockSize);
+    this.file = file;
+    this.compressed = compressed;
+    this.blockSize = blockSize;
+    this.block = new ByteArrayOutputStream(blockSize * 2);
+    this.deflater = compressed ? new Deflater() : null;
+    this.deflateBuffer = compressed ? new byte[blockSize] : null;
+    this.counter =
+        new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+    this.out = new DataOutputStream(counter);
+    out.writeInt(WorkflowHistoryArchive.MAGIC);
+    out.writeByte(WorkflowHistoryArchive.VERSION);
+    out.writeByte(
+        compressed
+            ? WorkflowHistoryArchive.COMPRESSION_DEFLATE
+            : WorkflowHistoryArchive.COMPRESSION_NONE);
+  }
+
+  /**
+   * Appends a history. The execution has to be passed explicitly as {@link
+   * WorkflowExecutionHistory} doesn't keep the run id.
+   *
+   * @param execution workflow id and run id to index the history by
+   * @param history history to append
+   * @throws IllegalArgumentException if the archive already contains the execution
+   */
+  public void add(WorkflowExecution execution, WorkflowExecutionHistory history)
+      throws IOException {
+    add(execution, history.getEvents().iterator());
+  }
+
+  /**
+   * Appends a history consuming the events from a stream. The stream is not closed by this method.
+   * If the stream fails, the history is not added and the archive can still be used.
+   *
+   * @param execution workflow id and run id to index the history by
+   * @param events events of the history, starting with WorkflowExecutionStarted
+   * @throws IllegalArgumentException if the archive already contains the execution or the stream
+   *     is empty
+   */
+  public void add(WorkflowExecution execution, Stream<HistoryEvent> events) throws IOException {
+    add(execution, events.iterator());
+  }
+
+  private void add(WorkflowExecution execution, Iterator<HistoryEvent> events) throws IOException {
+    Preconditions.checkState(!closed, "Archive %s is closed", file);
+    Preconditions.checkArgument(events.hasNext(), "Empty history of %s", execution);
+    Preconditions.checkArgument(
+        executions.add(execution), "Archive already contains execution %s", execution);
+    long offset = counter.getCount();
+    int eventCount = 0;
+    try {
+      while (events.hasNext()) {
+        events.next().writeDelimitedTo(block);
+        eventCount++;
+        if (block.size() >= blockSize) {
+          flushBlock();
+        }
+      }
+      flushBlock();
+    } catch (RuntimeException | IOException | Error e) {
+      // the blocks that were already flushed stay in the file unreferenced
+      block.reset();
+      executions.remove(execution);
+      throw e;
+    }
+    entries.add(
+        new WorkflowHistoryArchive.Entry(
+            execution, offset, counter.getCount() - offset, eventCount));
+  }
+
+  /** Number of histories written so far. */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Writes the index and closes the file. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      long indexOffset = counter.getCount();
+      out.writeInt(entries.size());
+      for (WorkflowHistoryArchive.Entry entry : entries) {
+        out.writeUTF(entry.execution.getWorkflowId());
+        out.writeUTF(entry.execution.getRunId());
+        out.writeLong(entry.offset);
+        out.writeLong(entry.length);
+        out.writeInt(entry.eventCount);
+      }
+      out.writeLong(indexOffset);
+      out.writeInt(WorkflowHistoryArchive.MAGIC);
+    } finally {
+      out.close();
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+
+  private void flushBlock() throws IOException {
+    if (block.size() == 0) {
+      return;
+    }
+    int rawLength = block.size();
+    out.writeInt(rawLength);
+    if (!compressed) {
+      out.writeInt(rawLength);
+      block.writeTo(out);
+    } else {
+      deflater.reset();
+      deflater.setInput(block.toByteArray());
+      deflater.finish();
+      ByteArrayOutputStream stored = new ByteArrayOutputStream(rawLength);
+      while (!deflater.finished()) {
+        int length = deflater.deflate(deflateBuffer);
+        stored.write(deflateBuffer, 0, length);
+      }
+      out.writeInt(stored.size());
+      stored.writeTo(out);
+    }
+    block.reset();
+  }
+}
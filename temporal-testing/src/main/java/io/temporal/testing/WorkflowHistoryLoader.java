@@ -12,9 +12,11 @@ import java.io.IOException;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.file.Files;
+import javax.annotation.Nullable;
 
 /**
- * Expose methods to read and deserialize workflow execution history from json.<br>
+ * Expose methods to read and deserialize workflow execution history from json or from a {@link
+ * WorkflowHistoryArchive}.<br>
  * To be used with {@link WorkflowReplayer}
  *
  * <p>2021-11-29 Experimental because the user facing interface to history replay functionality is
@@ -40,4 +42,26 @@ public final class WorkflowHistoryLoader {
       return WorkflowExecutionHistory.fromJson(jsonHistory);
     }
   }
+
+  /**
+   * Opens a binary archive of many histories written by {@link WorkflowHistoryArchiveWriter}. The
+   * archive is memory-mapped, histories are read from it on demand.
+   */
+  public static WorkflowHistoryArchive openHistoryArchive(File archiveFile) throws IOException {
+    return WorkflowHistoryArchive.open(archiveFile);
+  }
+
+  /**
+   * Reads a single history from a binary archive written by {@link WorkflowHistoryArchiveWriter}.
+   * Use {@link #openHistoryArchive(File)} to read several histories from the same archive.
+   *
+   * @param runId run id of the execution. If null, the run that was written last for the {@code
+   *     workflowId}.
+   */
+  public static WorkflowExecutionHistory readHistoryFromArchive(
+      File archiveFile, String workflowId, @Nullable String runId) throws IOException {
+    try (WorkflowHistoryArchive archive = WorkflowHistoryArchive.open(archiveFile)) {
+      return archive.getHistory(workflowId, runId);
+    }
+  }
 }
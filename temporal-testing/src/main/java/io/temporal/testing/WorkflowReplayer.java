@@ -1,14 +1,26 @@
 package io.temporal.testing;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ObjectArrays;
 import io.temporal.api.history.v1.WorkflowExecutionStartedEventAttributes;
 import io.temporal.api.taskqueue.v1.TaskQueue;
 import io.temporal.common.WorkflowExecutionHistory;
 import io.temporal.worker.Worker;
 import java.io.File;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 /** Replays a workflow given its history. Useful for backwards compatibility testing. */
 public final class WorkflowReplayer {
+  private static final String REPLAY_TASK_QUEUE = "replay-task-queue-name";
 
   /**
    * Replays workflow from a resource that contains a json serialized history.
@@ -175,7 +187,7 @@ public final class WorkflowReplayer {
       Class<?>... workflowClasses)
       throws Exception {
     try (TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance()) {
-      Worker worker = testEnv.newWorker("replay-task-queue-name");
+      Worker worker = testEnv.newWorker(REPLAY_TASK_QUEUE);
       worker.registerWorkflowImplementationTypes(workflowClasses);
       return replayWorkflowExecutions(histories, failFast, worker);
     }
@@ -202,7 +214,7 @@ public final class WorkflowReplayer {
     ReplayResults results = new ReplayResults();
     for (io.temporal.internal.common.WorkflowExecutionHistory history : histories) {
       try {
-        replayWorkflowExecution(history, worker);
+        replayAndRecordTiming(history, worker, results);
       } catch (Exception e) {
         if (!failFast) {
           results.addError(history.getWorkflowExecution().getWorkflowId(), e);
@@ -214,6 +226,198 @@ public final class WorkflowReplayer {
     return results;
   }
 
+  /**
+   * Replays workflows provided by an iterable on {@code parallelism} threads, each of them
+   * replaying on its own worker. Histories are pulled from the iterable lazily, only as many as the
+   * threads are ready to replay, so the iterable can fetch them on demand from the server. For
+   * example, one built from {@link io.temporal.client.WorkflowClient#listExecutions(String)} and
+   * {@link io.temporal.client.WorkflowClient#fetchHistory(String, String)} can cover any number of
+   * executions without holding all the histories in memory.
+   *
+   * <p>The order in which the histories are replayed and reported in the {@link ReplayResults} is
+   * not defined.
+   *
+   * @param histories The histories to be replayed
+   * @param failFast If true, stops pulling new histories and throws upon the first error
+   *     encountered (if any) during replay. If false, all histories will be replayed and the
+   *     returned object contains information about any failures.
+   * @param parallelism Number of histories replayed at the same time
+   * @return If `failFast` is false, contains any replay failures encountered. Contains the replay
+   *     time of each history.
+   * @throws Exception If replay failed and `failFast` is true.
+   */
+  @SuppressWarnings("deprecation")
+  public static ReplayResults replayWorkflowExecutions(
+      Iterable<? extends io.temporal.internal.common.WorkflowExecutionHistory> histories,
+      boolean failFast,
+      int parallelism,
+      Class<?>... workflowClasses)
+      throws Exception {
+    return replayWorkflowExecutions(histories.iterator(), failFast, parallelism, workflowClasses);
+  }
+
+  /**
+   * Replays workflows provided by a stream on {@code parallelism} threads, each of them replaying
+   * on its own worker. The stream is consumed lazily, see {@link
+   * #replayWorkflowExecutions(Iterable, boolean, int, Class[])}. The stream is not closed by this
+   * method.
+   *
+   * @param histories The histories to be replayed
+   * @param failFast If true, stops consuming the stream and throws upon the first error encountered
+   *     (if any) during replay. If false, all histories will be replayed and the returned object
+   *     contains information about any failures.
+   * @param parallelism Number of histories replayed at the same time
+   * @return If `failFast` is false, contains any replay failures encountered. Contains the replay
+   *     time of each history.
+   * @throws Exception If replay failed and `failFast` is true.
+   */
+  @SuppressWarnings("deprecation")
+  public static ReplayResults replayWorkflowExecutions(
+      Stream<? extends io.temporal.internal.common.WorkflowExecutionHistory> histories,
+      boolean failFast,
+      int parallelism,
+      Class<?>... workflowClasses)
+      throws Exception {
+    return replayWorkflowExecutions(histories.iterator(), failFast, parallelism, workflowClasses);
+  }
+
+  /**
+   * Replays all the workflows of a binary archive written by {@link WorkflowHistoryArchiveWriter}
+   * on {@code parallelism} threads. The archive is memory-mapped and the histories are read from it
+   * only as the threads are ready to replay them.
+   *
+   * @param archiveFile The archive of the histories to be replayed
+   * @param failFast If true, stops reading new histories and throws upon the first error
+   *     encountered (if any) during replay. If false, all histories will be replayed and the
+   *     returned object contains information about any failures.
+   * @param parallelism Number of histories replayed at the same time
+   * @return If `failFast` is false, contains any replay failures encountered. Contains the replay
+   *     time of each history.
+   * @throws Exception If replay failed and `failFast` is true.
+   */
+  public static ReplayResults replayWorkflowExecutionsFromArchive(
+      File archiveFile, boolean failFast, int parallelism, Class<?>... workflowClasses)
+      throws Exception {
+    try (WorkflowHistoryArchive archive = WorkflowHistoryArchive.open(archiveFile);
+        Stream<WorkflowExecutionHistory> histories = archive.streamHistories()) {
+      return replayWorkflowExecutions(histories, failFast, parallelism, workflowClasses);
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private static ReplayResults replayWorkflowExecutions(
+      Iterator<? extends io.temporal.internal.common.WorkflowExecutionHistory> histories,
+      boolean failFast,
+      int parallelism,
+      Class<?>... workflowClasses)
+      throws Exception {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s", parallelism);
+    try (TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance()) {
+      BlockingQueue<Worker> workers = new ArrayBlockingQueue<>(parallelism);
+      for (int i = 0; i < parallelism; i++) {
+        Worker worker = testEnv.newWorker(REPLAY_TASK_QUEUE + "-" + i);
+        worker.registerWorkflowImplementationTypes(workflowClasses);
+        workers.add(worker);
+      }
+      return replayInParallel(histories, failFast, workers);
+    }
+  }
+
+  /**
+   * Replays each history on a worker taken from {@code workers}. At most two histories per worker
+   * are pulled ahead of the replays, so the memory use doesn't depend on the number of histories.
+   */
+  @SuppressWarnings("deprecation")
+  private static ReplayResults replayInParallel(
+      Iterator<? extends io.temporal.internal.common.WorkflowExecutionHistory> histories,
+      boolean failFast,
+      BlockingQueue<Worker> workers)
+      throws Exception {
+    int parallelism = workers.size();
+    int maxInFlight = parallelism * 2;
+    ReplayResults results = new ReplayResults();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    AtomicInteger threadIndex = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            r -> {
+              Thread thread = new Thread(r, "workflow-replayer: " + threadIndex.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      while (true) {
+        inFlight.acquire();
+        if (failure.get() != null || !histories.hasNext()) {
+          inFlight.release();
+          break;
+        }
+        io.temporal.internal.common.WorkflowExecutionHistory history = histories.next();
+        executor.execute(
+            () -> {
+              try {
+                if (failure.get() != null) {
+                  return;
+                }
+                Worker worker = workers.take();
+                try {
+                  replayAndRecordTiming(history, worker, results);
+                } finally {
+                  workers.add(worker);
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } catch (Throwable e) {
+                Exception exception =
+                    e instanceof Exception ? (Exception) e : new RuntimeException(e);
+                if (failFast) {
+                  failure.compareAndSet(null, exception);
+                } else {
+                  results.addError(history.getWorkflowExecution().getWorkflowId(), exception);
+                }
+              } finally {
+                inFlight.release();
+              }
+            });
+      }
+      if (failure.get() == null) {
+        // Wait for the replays in flight.
+        inFlight.acquire(maxInFlight);
+      }
+      Exception e = failure.get();
+      if (e != null) {
+        throw e;
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private static void replayAndRecordTiming(
+      io.temporal.internal.common.WorkflowExecutionHistory history,
+      Worker worker,
+      ReplayResults results)
+      throws Exception {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      replayWorkflowExecution(history, worker);
+      failed = false;
+    } finally {
+      results.addTiming(
+          new ReplayResults.ReplayTiming(
+              history.getWorkflowExecution().getWorkflowId(),
+              history.getWorkflowExecution().getRunId(),
+              history.getEvents().size(),
+              Duration.ofNanos(System.nanoTime() - start),
+              failed));
+    }
+  }
+
   @SuppressWarnings("deprecation")
   private static String getQueueName(io.temporal.internal.common.WorkflowExecutionHistory history) {
     WorkflowExecutionStartedEventAttributes attr =